@@ -4,11 +4,13 @@
 package it.unicam.cs.asdl2324.es10;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.ConcurrentModificationException;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.TreeSet;
 
 /**
  * Realizza un insieme tramite una tabella hash con indirizzamento primario (la
@@ -24,6 +26,31 @@ import java.util.Set;
  * eccede quello di default la tabella viene raddoppiata e viene fatto un
  * riposizionamento di tutti gli elementi.
  * 
+ * Se la tabella è creata in modalità di resize incrementale il riposizionamento
+ * non avviene tutto in una volta: al raddoppio la tabella precedente viene
+ * mantenuta e ogni operazione di add, remove e contains sposta nella nuova
+ * tabella un numero limitato di bucket della precedente, finché questa non si
+ * svuota. Durante la migrazione un elemento può trovarsi in una qualsiasi delle
+ * due tabelle, mentre i nuovi elementi vengono inseriti sempre nella nuova. In
+ * questo modo il costo del raddoppio viene distribuito sulle operazioni
+ * successive e nessuna singola operazione deve riposizionare l'intera tabella.
+ * 
+ * Per resistere a chiavi con hashCode() poco vari o scelte apposta per
+ * collidere, quando una lista di collisione supera TREEIFY_THRESHOLD elementi
+ * e tutti i suoi elementi sono della stessa classe e implementano Comparable,
+ * il bucket viene trasformato in un albero binario di ricerca bilanciato
+ * (TreeSet), in cui ricerche, inserimenti e rimozioni costano O(log n) invece
+ * di O(n). Quando, per effetto delle rimozioni, l'albero scende a
+ * UNTREEIFY_THRESHOLD elementi il bucket torna a essere una lista. Per questi
+ * elementi si assume che compareTo() sia coerente con equals().
+ * 
+ * Su richiesta la tabella raccoglie delle statistiche sul proprio
+ * funzionamento (numero medio di elementi confrontati da contains, numero e
+ * durata delle resize) che, insieme all'occupazione dei bucket, possono essere
+ * lette in ogni momento con getStatistics(). Quando la raccolta è disattivata,
+ * come avviene per default, il costo aggiuntivo è un solo controllo per
+ * operazione.
+ * 
  * @author Template: Luca Tesei, Implementazione: collettiva
  *
  */
@@ -41,6 +68,28 @@ public class CollisionListResizableHashTable<E> implements Set<E> {
      */
     private static final double LOAD_FACTOR = 0.75;
 
+    /*
+     * Numero di bucket della tabella precedente che vengono spostati nella
+     * nuova a ogni operazione durante una resize incrementale. Tra due raddoppi
+     * successivi vengono fatti almeno capacity * LOAD_FACTOR / 2 inserimenti,
+     * quindi con questo valore una migrazione termina sempre prima che sia
+     * necessario il raddoppio successivo.
+     */
+    private static final int MIGRATION_STEP = 4;
+
+    /*
+     * Lunghezza oltre la quale una lista di collisione di elementi Comparable
+     * viene trasformata in albero.
+     */
+    private static final int TREEIFY_THRESHOLD = 8;
+
+    /*
+     * Numero di elementi al quale un albero torna a essere una lista. E'
+     * minore di TREEIFY_THRESHOLD per evitare trasformazioni continue quando
+     * si inserisce e si rimuove attorno alla soglia.
+     */
+    private static final int UNTREEIFY_THRESHOLD = 6;
+
     /*
      * Numero di elementi effettivamente presenti nella hash table in questo
      * momento. ATTENZIONE: questo valore è diverso dalla capacity, che è la
@@ -84,12 +133,53 @@ public class CollisionListResizableHashTable<E> implements Set<E> {
      */
     private final PrimaryHashFunction phf;
 
+    /*
+     * Indica se la tabella esegue la resize in modo incrementale.
+     */
+    private final boolean incrementalResize;
+
+    /*
+     * Tabella precedente all'ultimo raddoppio, ancora da svuotare durante una
+     * resize incrementale. Vale null se non c'è nessuna migrazione in corso.
+     */
+    private Object[] oldTable;
+
+    /*
+     * Indice del prossimo bucket di oldTable da spostare nella tabella
+     * corrente. Tutti i bucket di oldTable con indice minore sono già vuoti.
+     */
+    private int migrationIndex;
+
     /*
      * Contatore del numero di modifiche. Serve per rendere l'iterator
      * fail-fast.
      */
     private int modCount;
 
+    /*
+     * Indica se la raccolta delle statistiche è attiva.
+     */
+    private boolean statisticsEnabled;
+
+    /*
+     * Contatori delle statistiche, aggiornati solo se statisticsEnabled:
+     * chiamate a contains, elementi confrontati da quelle chiamate, resize
+     * iniziate e tempo complessivo speso a riposizionare elementi.
+     */
+    private long containsCalls;
+
+    private long containsProbes;
+
+    private int resizeCount;
+
+    private long resizeTimeNanos;
+
+    /*
+     * Elementi confrontati dall'ultima ricerca, usato per aggiornare
+     * containsProbes.
+     */
+    private int lastProbes;
+
     // I due metodi seguenti sono di comodo per gestire la capacity e la soglia
     // oltre la quale bisogna fare il resize.
 
@@ -106,13 +196,45 @@ public class CollisionListResizableHashTable<E> implements Set<E> {
         return (int) (getCurrentCapacity() * LOAD_FACTOR);
     }
 
+    /*
+     * Bucket dell'elemento con hashCode h in una tabella di capacità m. Se m è
+     * una potenza di due, come sempre accade in questa tabella, usa la
+     * variante della funzione di hash che può evitare la divisione.
+     */
+    private int bucketOf(int h, int m) {
+        if ((m & (m - 1)) == 0)
+            return this.phf.hashPowerOfTwo(h, m);
+        return this.phf.hash(h, m);
+    }
+
     /**
      * Costruisce una Hash Table con capacità iniziale di default e fattore di
      * caricamento di default.
      */
     public CollisionListResizableHashTable(PrimaryHashFunction phf) {
+        this(phf, false);
+    }
+
+    /**
+     * Costruisce una Hash Table con capacità iniziale di default e fattore di
+     * caricamento di default, specificando se la resize deve essere
+     * incrementale.
+     * 
+     * @param phf
+     *                              la funzione di hash primaria
+     * @param incrementalResize
+     *                              se true, al raddoppio gli elementi vengono
+     *                              spostati nella nuova tabella un po' alla
+     *                              volta dalle operazioni successive, invece
+     *                              che tutti insieme
+     */
+    public CollisionListResizableHashTable(PrimaryHashFunction phf,
+            boolean incrementalResize) {
         this.phf = phf;
+        this.incrementalResize = incrementalResize;
         this.table = new Object[INITIAL_CAPACITY];
+        this.oldTable = null;
+        this.migrationIndex = 0;
         this.size = 0;
         this.modCount = 0;
     }
@@ -142,23 +264,60 @@ public class CollisionListResizableHashTable<E> implements Set<E> {
          */
     	if(o==null)	//Controlla se l'elemento è nullo e lancio un eccezione
     		throw new NullPointerException("L'elemento è nullo!");
-        //Calcola il bucket in cui cercare l'oggetto dato
-        int bucket=this.phf.hash(o.hashCode(),this.getCurrentCapacity());
         
-        if(table[bucket]==null)	//Controlla se c'è una lista di collisioni
-        	return false;
+        this.migrateBuckets();	//Se c'è una resize in corso la porta avanti
         
-		Node<E> list=(Node<E>) this.table[bucket];	//Ottiene il nodo del bucket ottenuto
+        if(!this.statisticsEnabled)
+            return this.lookup(o);
         
+        this.lastProbes = 0;
+        boolean found = this.lookup(o);
+        this.containsCalls++;
+        this.containsProbes += this.lastProbes;
+        return found;
+    }
+
+    /*
+     * Cerca l'elemento o nella tabella corrente e, se c'è una resize
+     * incrementale in corso, nella tabella precedente.
+     */
+    private boolean lookup(Object o) {
+        int h = o.hashCode();
+        //Calcola il bucket in cui cercare l'oggetto dato
+        if (this.findInBucket(this.table, this.bucketOf(h, this.table.length), o))
+            return true;
+        
+        return this.oldTable != null && this.findInBucket(this.oldTable,
+                this.bucketOf(h, this.oldTable.length), o);
+    }
+
+    /*
+     * Cerca l'elemento o nella lista di collisioni, o nell'albero, del bucket
+     * dato.
+     */
+    private boolean findInBucket(Object[] table, int bucket, Object o) {
+        if(table[bucket] instanceof TreeBucket) {
+            TreeBucket<E> tree = (TreeBucket<E>) table[bucket];
+            //Confronti di una ricerca in un albero bilanciato, circa log2 n
+            this.lastProbes += 32 - Integer.numberOfLeadingZeros(tree.elements.size());
+            return tree.contains(o);
+        }
+        
+		Node<E> list=(Node<E>) table[bucket];	//Ottiene il nodo del bucket ottenuto
         
-        do{	//Se il nodo contiene null, ritorna false
+        int probes = 0;
+        while(list!=null) {	//Se il nodo contiene null, ritorna false
             
-            if(o.equals(list.item))	//Controlla l'elemento corrente
+            probes++;
+            if(o.equals(list.item)) {	//Controlla l'elemento corrente
+                this.lastProbes += probes;
             	return true;	//Se lo trova ritorno true
+            }
             
             list = list.next; //altrimenti vado avanti nella lista di collisioni
-        }while(list!=null);
+        }
         
+        this.lastProbes += probes;
         return false;	//Non ha trovato l'elemento, ritorna false
     }
 
@@ -197,23 +356,16 @@ public class CollisionListResizableHashTable<E> implements Set<E> {
     		throw new NullPointerException("Elemento nullo!");
     	
         
-        if(this.contains(e))	//Controlla se la tabella contiene già l'elemento
-        	return false;
-        
-        int bucket=this.phf.hash(e.hashCode(), this.getCurrentCapacity()); //Ottiene il bucket dell'elemento dato
+        this.migrateBuckets();	//Se c'è una resize in corso la porta avanti
         
-        Node<E> newNode=new Node<E>(e, null);	//Crea nuovo nodo con l'elemento dato
+        if(this.lookup(e))	//Controlla se la tabella contiene già l'elemento
+        	return false;
         
-		Node<E> n = (Node<E>) this.table[bucket];	//Ottiene il nodo del bucket ottenuto
+        int bucket=this.bucketOf(e.hashCode(), this.getCurrentCapacity()); //Ottiene il bucket dell'elemento dato
         
-        if(n==null)	//Se il nodo è null, ci inserisce il nuovo nodo creando la lista
-            this.table[bucket] = newNode;
-        else { //Altrimenti scorre la lista a cui punta il bucket
-            while(n!=null) 
-                n=n.next;
-            
-            n = newNode;	//Imposta ultimo nodo al nuovo nodo
-        }
+        //Inserisce il nuovo nodo in testa alla lista di collisioni del bucket
+        //(se il bucket è vuoto la lista viene creata)
+        this.linkInBucket(this.table, bucket, new Node<E>(e, null));
         
         //Incrementa dimensione tabella e Contatore modifiche
         this.size++;
@@ -232,6 +384,16 @@ public class CollisionListResizableHashTable<E> implements Set<E> {
      */
     private void resize() {
     	
+        if(this.statisticsEnabled)
+            this.resizeCount++;
+    	
+        if(this.incrementalResize) {
+            this.startIncrementalResize();
+            return;
+        }
+    	
+        long start = this.statisticsEnabled ? System.nanoTime() : 0;
+    	
         int newCapacity = this.getCurrentCapacity()*2; //Calcola la capacità per la nuova tabella
        
         Object[] newTable = new Object[newCapacity];  //Crea la nuova tabella
@@ -240,31 +402,125 @@ public class CollisionListResizableHashTable<E> implements Set<E> {
         while(it.hasNext()){
             E elem=it.next();	//Calcola il bucket dell'elemento con la nuova capacità
             
-            int bucket = this.phf.hash(elem.hashCode(), newCapacity);  //Inserisce l'elemento nella nuova tabella
+            int bucket = this.bucketOf(elem.hashCode(), newCapacity);  //Inserisce l'elemento nella nuova tabella
             this.insertElementInTable(newTable, bucket, elem);
         }
         
         this.table = newTable; //Sostituisce la tabella attuale con la nuova tabella
+        
+        if(this.statisticsEnabled)
+            this.resizeTimeNanos += System.nanoTime() - start;
+    }
+
+    /*
+     * Raddoppia la tabella corrente mantenendo la precedente, i cui elementi
+     * verranno spostati poco alla volta da migrateBuckets().
+     */
+    private void startIncrementalResize() {
+        //Se la migrazione precedente non è ancora terminata la completa
+        while(this.oldTable != null)
+            this.migrateBuckets();
+        
+        this.oldTable = this.table;
+        this.table = new Object[this.oldTable.length * 2];
+        this.migrationIndex = 0;
+    }
+
+    /*
+     * Se c'è una resize incrementale in corso sposta al più MIGRATION_STEP
+     * bucket della tabella precedente nella tabella corrente. I nodi vengono
+     * riutilizzati, quindi la migrazione non alloca memoria.
+     */
+    private void migrateBuckets() {
+        if(this.oldTable == null)
+            return;
+        
+        long start = this.statisticsEnabled ? System.nanoTime() : 0;
+        
+        int end = Math.min(this.migrationIndex + MIGRATION_STEP, this.oldTable.length);
+        for(; this.migrationIndex < end; this.migrationIndex++) {
+            Object cell = this.oldTable[this.migrationIndex];
+            if(cell instanceof TreeBucket) {	//Gli elementi di un albero vanno in nodi nuovi
+                for(E item: ((TreeBucket<E>) cell).elements)
+                    this.linkInBucket(this.table,
+                            this.bucketOf(item.hashCode(), this.table.length),
+                            new Node<E>(item, null));
+            } else {
+                Node<E> n = (Node<E>) cell;
+                while(n != null) {	//Sposta ogni nodo in testa al suo nuovo bucket
+                    Node<E> next = n.next;
+                    int bucket = this.bucketOf(n.item.hashCode(), this.table.length);
+                    this.linkInBucket(this.table, bucket, n);
+                    n = next;
+                }
+            }
+            this.oldTable[this.migrationIndex] = null;
+        }
+        
+        if(this.migrationIndex == this.oldTable.length)	//Migrazione terminata
+            this.oldTable = null;
+        
+        if(this.statisticsEnabled)
+            this.resizeTimeNanos += System.nanoTime() - start;
     }
     
     public boolean insertElementInTable(Object[] table, int bucket, E e) {
-        if(table[bucket]==null) {  //Se la posizione è vuota creo una nuova lista
-            table[bucket]=new Node<E>(e, null);
-            return true;
-        }else{
-            Node<E> list = (Node<E>) table[bucket];
-            do{
-                if(e.equals(list.item))	//Controlla l'elemento corrente
-                	return false;
-                
-                list = list.next; //Altrimenti va avanti nella lista di collisioni
-            }while(list!=null);
-            Node<E> head=(Node<E>) table[bucket];
-            table[bucket]=new Node<E>(e, head);
-        }
+        if(this.findInBucket(table, bucket, e))	//Controlla se l'elemento è già presente
+            return false;
+        
+        this.linkInBucket(table, bucket, new Node<E>(e, null));
         return true;
     }
 
+    /*
+     * Inserisce nel bucket dato il nodo n, il cui elemento si sa non essere
+     * presente: in testa alla lista di collisioni o, se il bucket è un albero,
+     * nell'albero. Se la lista supera TREEIFY_THRESHOLD elementi viene
+     * trasformata in albero.
+     */
+    private void linkInBucket(Object[] table, int bucket, Node<E> n) {
+        Object cell = table[bucket];
+        if(cell instanceof TreeBucket) {
+            TreeBucket<E> tree = (TreeBucket<E>) cell;
+            if(tree.accepts(n.item)) {
+                tree.elements.add(n.item);
+                return;
+            }
+            //Elemento non confrontabile con quelli dell'albero: il bucket
+            //torna a essere una lista
+            cell = tree.toList();
+        }
+        n.next = (Node<E>) cell;
+        table[bucket] = n;
+        
+        //Conta gli elementi della lista, fermandosi appena supera la soglia
+        int length = 0;
+        for(Node<E> m = n; m != null && length <= TREEIFY_THRESHOLD; m = m.next)
+            length++;
+        if(length > TREEIFY_THRESHOLD)
+            this.treeify(table, bucket);
+    }
+
+    /*
+     * Trasforma in albero la lista di collisioni del bucket dato, se tutti i
+     * suoi elementi sono della stessa classe e implementano Comparable.
+     */
+    private void treeify(Object[] table, int bucket) {
+        Node<E> head = (Node<E>) table[bucket];
+        if(!(head.item instanceof Comparable))
+            return;
+        
+        Class<?> elementClass = head.item.getClass();
+        for(Node<E> n = head; n != null; n = n.next)
+            if(n.item.getClass() != elementClass)
+                return;
+        
+        TreeBucket<E> tree = new TreeBucket<E>(elementClass);
+        for(Node<E> n = head; n != null; n = n.next)
+            tree.elements.add(n.item);
+        table[bucket] = tree;
+    }
+
     @Override
     public boolean remove(Object o) {
         /*
@@ -286,27 +542,130 @@ public class CollisionListResizableHashTable<E> implements Set<E> {
         if(o==null)	// Controlla se l'elemento dato è nullo
         	throw new NullPointerException("Elemento nullo!");
         
-        if(!this.contains(o))	//Controlla se la tabella non contiene l'elemento
-        	return false;
-        
-        int bucket = this.phf.hash(o.hashCode(), this.getCurrentCapacity()); //Ottiene il bucket dell'elemento dato
+        this.migrateBuckets();	//Se c'è una resize in corso la porta avanti
         
-        Node<E> n=(Node<E>) this.table[bucket]; // Ottiene il nodo dalla posizione della tabella
+        int h = o.hashCode();
+        //Cerca l'elemento nel suo bucket della tabella corrente e, se non c'è,
+        //in quello della tabella precedente
+        if(!this.removeFromBucket(this.table, this.bucketOf(h, this.table.length), o)
+                && (this.oldTable == null || !this.removeFromBucket(this.oldTable,
+                        this.bucketOf(h, this.oldTable.length), o)))
+            return false;	//La tabella non contiene l'elemento
         
-        if(n != null) { //Se il nodo è diverso da null, allora punta a una lista
-            while(n.next!=null) { //Scorre la lista cercando l'elemento dato
-                if(n.next.item.equals(o)) //Se l'elemento successivo è quello dato, lo elimina
-                    n.next = n.next.next;
-                else
-                    n = n.next; //Altrimenti, passa all'elemento successivo della lista
-            }
-        }
         //Decrementa dimensione tabella e Incrementa numero modifiche
         this.size--;
         this.modCount++;
         return true;
     }
 
+    /*
+     * Elimina l'elemento o dalla lista di collisioni del bucket dato, se
+     * presente.
+     */
+    private boolean removeFromBucket(Object[] table, int bucket, Object o) {
+        if(table[bucket] instanceof TreeBucket) {
+            TreeBucket<E> tree = (TreeBucket<E>) table[bucket];
+            if(!tree.remove(o))
+                return false;
+            
+            if(tree.elements.size() <= UNTREEIFY_THRESHOLD)	//Torna a essere una lista
+                table[bucket] = tree.toList();
+            return true;
+        }
+        
+        Node<E> n=(Node<E>) table[bucket]; // Ottiene il nodo dalla posizione della tabella
+        
+        if(n == null)	//Lista di collisioni vuota
+            return false;
+        
+        if(n.item.equals(o)) {	//L'elemento è in testa alla lista
+            table[bucket] = n.next;
+            return true;
+        }
+        
+        while(n.next!=null) { //Scorre la lista cercando l'elemento dato
+            if(n.next.item.equals(o)) { //Se l'elemento successivo è quello dato, lo elimina
+                n.next = n.next.next;
+                return true;
+            }
+            n = n.next; //Altrimenti, passa all'elemento successivo della lista
+        }
+        return false;
+    }
+
+    /**
+     * Attiva o disattiva la raccolta delle statistiche. I contatori raccolti
+     * fino a quel momento non vengono azzerati.
+     * 
+     * @param enabled
+     *                    true per attivare la raccolta, false per disattivarla
+     */
+    public void setStatisticsEnabled(boolean enabled) {
+        this.statisticsEnabled = enabled;
+    }
+
+    /**
+     * @return true se la raccolta delle statistiche è attiva
+     */
+    public boolean isStatisticsEnabled() {
+        return this.statisticsEnabled;
+    }
+
+    /**
+     * Azzera i contatori delle statistiche.
+     */
+    public void resetStatistics() {
+        this.containsCalls = 0;
+        this.containsProbes = 0;
+        this.resizeCount = 0;
+        this.resizeTimeNanos = 0;
+    }
+
+    /**
+     * Restituisce una fotografia dello stato attuale della tabella. I dati di
+     * occupazione dei bucket sono sempre disponibili e vengono calcolati
+     * scorrendo la tabella, con costo proporzionale a capacità più numero di
+     * elementi; i contatori delle ricerche e delle resize riguardano solo il
+     * periodo in cui la raccolta delle statistiche è stata attiva. Durante una
+     * resize incrementale la capacità è quella della tabella corrente e
+     * l'istogramma comprende, oltre ai suoi bucket, solo i bucket della
+     * tabella precedente non ancora spostati.
+     * 
+     * @return le statistiche della tabella
+     */
+    public HashTableStatistics getStatistics() {
+        int[] histogram = new int[1];
+        int capacity = this.table.length;
+        histogram = this.addChainLengths(this.table, 0, histogram);
+        if(this.oldTable != null)	//Bucket non ancora migrati
+            histogram = this.addChainLengths(this.oldTable, this.migrationIndex,
+                    histogram);
+        return new HashTableStatistics(capacity, this.size, histogram,
+                this.containsCalls, this.containsProbes, this.resizeCount,
+                this.resizeTimeNanos);
+    }
+
+    /*
+     * Aggiunge all'istogramma le lunghezze delle liste di collisione dei
+     * bucket della tabella data a partire da from, ingrandendolo se
+     * necessario.
+     */
+    private int[] addChainLengths(Object[] table, int from, int[] histogram) {
+        for(int i = from; i < table.length; i++) {
+            Object cell = table[i];
+            int length = 0;
+            if(cell instanceof TreeBucket)
+                length = ((TreeBucket<E>) cell).elements.size();
+            else
+                for(Node<E> n = (Node<E>) cell; n != null; n = n.next)
+                    length++;
+            if(length >= histogram.length)
+                histogram = Arrays.copyOf(histogram, length + 1);
+            histogram[length]++;
+        }
+        return histogram;
+    }
+
     @Override
     public boolean containsAll(Collection<?> c) {
         // utilizzare un iteratore della collection e chiamare il metodo
@@ -348,6 +707,8 @@ public class CollisionListResizableHashTable<E> implements Set<E> {
     public void clear() {
         // Ritorno alla situazione iniziale
         this.table = new Object[INITIAL_CAPACITY];
+        this.oldTable = null;
+        this.migrationIndex = 0;
         this.size = 0;
         this.modCount = 0;
     }
@@ -370,6 +731,65 @@ public class CollisionListResizableHashTable<E> implements Set<E> {
         }
     }
 
+    /*
+     * Bucket trasformato in albero. Contiene solo elementi della classe
+     * elementClass, che implementa Comparable, ordinati secondo il loro
+     * ordinamento naturale. Lo specificatore è protected solo per permettere
+     * i test JUnit.
+     */
+    protected static class TreeBucket<E> {
+        protected final Class<?> elementClass;
+
+        protected final TreeSet<E> elements;
+
+        TreeBucket(Class<?> elementClass) {
+            this.elementClass = elementClass;
+            this.elements = new TreeSet<E>();
+        }
+
+        /*
+         * Determina se l'oggetto o può essere confrontato con gli elementi
+         * dell'albero.
+         */
+        boolean accepts(Object o) {
+            return o.getClass() == this.elementClass;
+        }
+
+        boolean contains(Object o) {
+            if(this.accepts(o))
+                return this.elements.contains(o);
+            
+            //Oggetto di un'altra classe: non si può usare compareTo()
+            for(E item: this.elements)
+                if(o.equals(item))
+                    return true;
+            return false;
+        }
+
+        boolean remove(Object o) {
+            if(this.accepts(o))
+                return this.elements.remove(o);
+            
+            Iterator<E> it = this.elements.iterator();
+            while(it.hasNext())
+                if(o.equals(it.next())) {
+                    it.remove();
+                    return true;
+                }
+            return false;
+        }
+
+        /*
+         * Restituisce una lista concatenata con gli stessi elementi.
+         */
+        Node<E> toList() {
+            Node<E> head = null;
+            for(E item: this.elements)
+                head = new Node<E>(item, head);
+            return head;
+        }
+    }
+
     /*
      * Classe che realizza un iteratore per questa hash table. L'ordine in cui
      * vengono restituiti gli oggetti presenti non è rilevante, ma ogni oggetto
@@ -389,8 +809,18 @@ public class CollisionListResizableHashTable<E> implements Set<E> {
         	this.numeroModificheAtteso = modCount;
             ArrayList<E> flatten = new ArrayList<>();
 
+            this.flatten(table, flatten);
+            if(oldTable != null)	//Elementi non ancora migrati
+                this.flatten(oldTable, flatten);
+
+            this.flattenIterator = flatten.iterator();
+        }
+
+        private void flatten(Object[] table, ArrayList<E> flatten) {
             for(Object cell: table) {
-                if(cell != null) {
+                if(cell instanceof TreeBucket)
+                    flatten.addAll(((TreeBucket<E>) cell).elements);
+                else if(cell != null) {
                     Node<E> node = (Node<E>) cell;
                     do {
                         flatten.add(node.item);
@@ -398,8 +828,6 @@ public class CollisionListResizableHashTable<E> implements Set<E> {
                     } while(node != null);
                 }
             }
-
-            this.flattenIterator = flatten.iterator();
         }
 
         @Override
@@ -434,4 +862,11 @@ public class CollisionListResizableHashTable<E> implements Set<E> {
         return this.phf;
     }
 
+    /*
+     * Only for JUnit testing purposes.
+     */
+    protected boolean isResizing() {
+        return this.oldTable != null;
+    }
+
 }
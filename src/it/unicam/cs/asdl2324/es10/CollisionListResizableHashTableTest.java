@@ -505,4 +505,205 @@ class CollisionListResizableHashTableTest {
         assertFalse(hasThrown);
     }
 
+    @Test
+    void divisionHash_testCollisionsAddRemove() {
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
+                divisionHash);
+        // Tutti nello stesso bucket con capacità 16
+        Integer vals[] = { 3, 19, 35 };
+        table.addAll(Arrays.asList(vals));
+        for (Integer v : vals)
+            assertTrue(table.contains(v));
+        assertTrue(table.remove(35));
+        assertFalse(table.contains(35));
+        assertTrue(table.remove(3));
+        assertFalse(table.contains(3));
+        assertTrue(table.contains(19));
+        assertEquals(1, table.size());
+    }
+
+    @Test
+    void divisionHash_testIncrementalResize() {
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
+                divisionHash, true);
+        Integer vals[] = { 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12 };
+        table.addAll(Arrays.asList(vals));
+        int tableLengthBeforeAdd = table.getTable().length;
+        table.add(13);
+        assertEquals(tableLengthBeforeAdd * 2, table.getTable().length);
+        // Durante la migrazione gli elementi si trovano in entrambe le tabelle
+        assertTrue(table.isResizing());
+        assertTrue(table.remove(12));
+        assertFalse(table.contains(12));
+        for (int i = 1; i <= 11; i++)
+            assertTrue(table.contains(i));
+        assertTrue(table.contains(13));
+        assertFalse(table.isResizing());
+        assertEquals(12, table.size());
+    }
+
+    @Test
+    void multiplicationHash_testIncrementalResizeManyElements() {
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
+                multiplicationHash, true);
+        for (int i = 0; i < 5000; i++)
+            assertTrue(table.add(i));
+        for (int i = 0; i < 5000; i += 2)
+            assertTrue(table.remove(i));
+        assertEquals(2500, table.size());
+        for (int i = 0; i < 5000; i++)
+            assertEquals(i % 2 == 1, table.contains(i));
+        int count = 0;
+        Iterator<Integer> it = table.iterator();
+        while (it.hasNext()) {
+            assertEquals(1, it.next() % 2);
+            count++;
+        }
+        assertEquals(2500, count);
+    }
+
+    @Test
+    void divisionHash_testStatistics() {
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
+                divisionHash);
+        assertFalse(table.isStatisticsEnabled());
+        // Tre elementi nel bucket 3, uno nel bucket 5
+        Integer vals[] = { 3, 19, 35, 5 };
+        table.addAll(Arrays.asList(vals));
+        HashTableStatistics stats = table.getStatistics();
+        assertEquals(16, stats.getCapacity());
+        assertEquals(4, stats.getSize());
+        assertEquals(0.25, stats.getLoadFactor(), 1e-9);
+        assertEquals(3, stats.getLongestChain());
+        assertArrayEquals(new int[] { 14, 1, 0, 1 },
+                stats.getChainLengthHistogram());
+        // Nessun contatore aggiornato se la raccolta non è attiva
+        table.contains(3);
+        assertEquals(0, table.getStatistics().getContainsCalls());
+
+        table.setStatisticsEnabled(true);
+        table.contains(5); // 1 confronto
+        table.contains(51); // 3 confronti, non trovato
+        table.contains(4); // 0 confronti, bucket vuoto
+        stats = table.getStatistics();
+        assertEquals(3, stats.getContainsCalls());
+        assertEquals(4.0 / 3, stats.getAverageProbes(), 1e-9);
+        for (int i = 100; i < 120; i++)
+            table.add(i);
+        stats = table.getStatistics();
+        assertEquals(1, stats.getResizeCount());
+        assertEquals(32, stats.getCapacity());
+        assertTrue(stats.getResizeTimeNanos() > 0);
+        assertTrue(stats.toCsvLine().startsWith("32,24,0.7500,"));
+        assertEquals(HashTableStatistics.CSV_HEADER.split(",").length,
+                stats.toCsvLine().split(",").length);
+
+        table.resetStatistics();
+        stats = table.getStatistics();
+        assertEquals(0, stats.getContainsCalls());
+        assertEquals(0, stats.getResizeCount());
+        assertEquals(24, stats.getSize());
+    }
+
+    @Test
+    void divisionHash_testStatisticsDuringIncrementalResize() {
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
+                divisionHash, true);
+        for (int i = 1; i <= 13; i++)
+            table.add(i);
+        // La resize è appena iniziata: gli elementi sono tutti nei bucket da
+        // 1 a 13 della tabella precedente
+        assertTrue(table.isResizing());
+        HashTableStatistics stats = table.getStatistics();
+        assertEquals(32, stats.getCapacity());
+        assertEquals(13.0 / 32, stats.getLoadFactor(), 1e-9);
+        assertArrayEquals(new int[] { 32 + 3, 13 },
+                stats.getChainLengthHistogram());
+        // contains sposta i bucket da 0 a 3: della tabella precedente restano
+        // solo i bucket da 4 a 15
+        assertTrue(table.contains(1));
+        assertTrue(table.isResizing());
+        stats = table.getStatistics();
+        assertEquals(32, stats.getCapacity());
+        assertEquals(13.0 / 32, stats.getLoadFactor(), 1e-9);
+        assertEquals(32 - 3 + 2, stats.getEmptyBuckets());
+        assertArrayEquals(new int[] { 31, 13 }, stats.getChainLengthHistogram());
+        // A migrazione terminata restano solo i bucket della tabella corrente
+        while (table.isResizing())
+            table.contains(1);
+        assertArrayEquals(new int[] { 32 - 13, 13 },
+                table.getStatistics().getChainLengthHistogram());
+    }
+
+    /*
+     * Chiave con hashCode costante: tutte le istanze collidono.
+     */
+    private static class CollidingKey implements Comparable<CollidingKey> {
+        private final int id;
+
+        CollidingKey(int id) {
+            this.id = id;
+        }
+
+        @Override
+        public int hashCode() {
+            return 7;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof CollidingKey && ((CollidingKey) obj).id == this.id;
+        }
+
+        @Override
+        public int compareTo(CollidingKey o) {
+            return Integer.compare(this.id, o.id);
+        }
+    }
+
+    @Test
+    void divisionHash_testTreeifiedBucket() {
+        CollisionListResizableHashTable<CollidingKey> table = new CollisionListResizableHashTable<>(
+                divisionHash);
+        for (int i = 0; i < 8; i++)
+            table.add(new CollidingKey(i));
+        assertTrue(table.getTable()[7] instanceof CollisionListResizableHashTable.Node);
+        table.add(new CollidingKey(8));
+        assertTrue(table.getTable()[7] instanceof CollisionListResizableHashTable.TreeBucket);
+        for (int i = 9; i < 200; i++)
+            assertTrue(table.add(new CollidingKey(i)));
+        assertFalse(table.add(new CollidingKey(100)));
+        assertEquals(200, table.size());
+        // Dopo le resize il bucket è ancora un albero
+        int bucket = divisionHash.hash(7, table.getTable().length);
+        assertTrue(table.getTable()[bucket] instanceof CollisionListResizableHashTable.TreeBucket);
+        for (int i = 0; i < 200; i++)
+            assertTrue(table.contains(new CollidingKey(i)));
+        assertFalse(table.contains(new CollidingKey(-1)));
+        int count = 0;
+        for (Iterator<CollidingKey> it = table.iterator(); it.hasNext(); it.next())
+            count++;
+        assertEquals(200, count);
+        // Sotto la soglia il bucket torna a essere una lista
+        for (int i = 0; i < 194; i++)
+            assertTrue(table.remove(new CollidingKey(i)));
+        assertTrue(table.getTable()[bucket] instanceof CollisionListResizableHashTable.Node);
+        for (int i = 194; i < 200; i++)
+            assertTrue(table.contains(new CollidingKey(i)));
+        assertEquals(6, table.size());
+    }
+
+    @Test
+    void multiplicationHash_testTreeifiedBucketIncremental() {
+        CollisionListResizableHashTable<CollidingKey> table = new CollisionListResizableHashTable<>(
+                multiplicationHash, true);
+        for (int i = 0; i < 500; i++)
+            assertTrue(table.add(new CollidingKey(i)));
+        for (int i = 0; i < 500; i += 2)
+            assertTrue(table.remove(new CollidingKey(i)));
+        for (int i = 0; i < 500; i++)
+            assertEquals(i % 2 == 1, table.contains(new CollidingKey(i)));
+        assertEquals(250, table.getStatistics().getLongestChain());
+    }
+
 }
@@ -0,0 +1,555 @@
+/**
+ *
+ */
+package it.unicam.cs.asdl2324.es10;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Realizza un insieme condivisibile tra più thread tramite una tabella hash
+ * con indirizzamento primario (la funzione di hash primario deve essere
+ * passata come parametro nel costruttore e deve implementare l'interface
+ * PrimaryHashFunction) e liste di collisione, come
+ * CollisionListResizableHashTable.
+ *
+ * Le modifiche sono protette da lock striping: i bucket sono suddivisi in un
+ * numero fisso di gruppi (stripe), ciascuno con un proprio lock, e un thread
+ * che inserisce o rimuove un elemento blocca solo il gruppo del bucket
+ * interessato. Thread che lavorano su bucket di gruppi diversi procedono quindi
+ * in parallelo. Le ricerche non acquisiscono nessun lock: la tabella e i
+ * collegamenti tra i nodi sono letti con semantica volatile e una rimozione si
+ * limita a scavalcare il nodo eliminato, per cui un thread che sta scorrendo
+ * una lista di collisione vede sempre una lista ben formata.
+ *
+ * Il raddoppio della tabella è cooperativo. Il thread il cui inserimento fa
+ * superare la soglia alloca la nuova tabella, che resta privata finché la
+ * migrazione non è terminata, e i thread che la migrano si contendono
+ * intervalli di bucket della vecchia tabella tramite un indice di
+ * trasferimento. Ogni bucket viene copiato con il lock del proprio gruppo:
+ * i suoi elementi sono aggiunti in testa ai bucket della nuova tabella con
+ * compareAndSet, perché con una PrimaryHashFunction qualsiasi elementi di
+ * bucket vecchi diversi possono finire nello stesso bucket nuovo, e al suo
+ * posto viene lasciato un nodo di inoltro verso la nuova tabella. Le
+ * ricerche che incontrano un nodo di inoltro proseguono nella nuova tabella;
+ * le modifiche che lo incontrano aiutano la migrazione e ripetono
+ * l'operazione una volta pubblicata la nuova tabella. Il numero di elementi
+ * è mantenuto con un LongAdder, per cui gli inserimenti e le rimozioni
+ * concorrenti non si contendono un unico contatore.
+ *
+ * La tabella non accetta elementi duplicati (individuati tramite il metodo
+ * equals()) e non accetta elementi null. L'iteratore è debolmente consistente:
+ * non lancia mai ConcurrentModificationException e restituisce gli elementi
+ * presenti nella tabella al momento della sua creazione, riflettendo
+ * eventualmente alcune delle modifiche successive.
+ *
+ * @author Template: Luca Tesei, Implementazione: collettiva
+ *
+ */
+public class ConcurrentCollisionListHashTable<E> implements Set<E> {
+
+    /*
+     * La capacità iniziale. E' una potenza di due e quindi la capacità sarà
+     * sempre una potenza di due, in quanto ogni resize raddoppia la tabella.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /*
+     * Fattore di bilanciamento di default. Tipico valore.
+     */
+    private static final double LOAD_FACTOR = 0.75;
+
+    /*
+     * Numero di bucket della vecchia tabella che un thread si aggiudica a
+     * ogni passo della migrazione.
+     */
+    private static final int TRANSFER_STRIDE = 16;
+
+    /*
+     * Numero di elementi presenti nella tabella.
+     */
+    private final LongAdder size;
+
+    /*
+     * Tabella dei bucket. Ogni posizione contiene null, il primo nodo della
+     * lista di collisione o, durante un raddoppio, un nodo di inoltro. Il
+     * riferimento viene sostituito dal thread che completa la migrazione e da
+     * clear(), sempre con almeno un lock acquisito.
+     */
+    private volatile AtomicReferenceArray<Node<E>> table;
+
+    /*
+     * Raddoppio in corso, null se non ce n'è nessuno.
+     */
+    private final AtomicReference<Transfer<E>> transfer;
+
+    /*
+     * Lock dei gruppi di bucket. Il bucket b è protetto dal lock in posizione
+     * b & (locks.length - 1); il numero di lock è una potenza di due.
+     */
+    private final ReentrantLock[] locks;
+
+    /*
+     * Funzione di hash primaria usata da questa hash table.
+     */
+    private final PrimaryHashFunction phf;
+
+    /**
+     * Costruisce una Hash Table con capacità iniziale di default, fattore di
+     * caricamento di default e un numero di gruppi di lock proporzionale al
+     * numero di processori disponibili.
+     *
+     * @param phf
+     *                la funzione di hash primaria
+     * @throws NullPointerException
+     *                                  se la funzione di hash è nulla
+     */
+    public ConcurrentCollisionListHashTable(PrimaryHashFunction phf) {
+        this(phf, 4 * Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Costruisce una Hash Table con capacità iniziale di default, fattore di
+     * caricamento di default e il numero di gruppi di lock dato.
+     *
+     * @param phf
+     *                        la funzione di hash primaria
+     * @param concurrency
+     *                        numero minimo di gruppi di lock; viene
+     *                        arrotondato alla potenza di due successiva
+     * @throws NullPointerException
+     *                                      se la funzione di hash è nulla
+     * @throws IllegalArgumentException
+     *                                      se concurrency non è positivo
+     */
+    public ConcurrentCollisionListHashTable(PrimaryHashFunction phf,
+            int concurrency) {
+        if (phf == null)
+            throw new NullPointerException("Funzione di hash nulla!");
+        if (concurrency <= 0)
+            throw new IllegalArgumentException(
+                    "Il numero di gruppi di lock deve essere positivo");
+        int stripes = 1;
+        while (stripes < concurrency)
+            stripes = stripes * 2;
+        this.phf = phf;
+        this.locks = new ReentrantLock[stripes];
+        for (int i = 0; i < stripes; i++)
+            this.locks[i] = new ReentrantLock();
+        this.table = new AtomicReferenceArray<Node<E>>(INITIAL_CAPACITY);
+        this.size = new LongAdder();
+        this.transfer = new AtomicReference<Transfer<E>>(null);
+    }
+
+    /*
+     * Bucket dell'hash h in una tabella di capacità m, sempre potenza di due.
+     */
+    private int bucketOf(int h, int m) {
+        return this.phf.hashPowerOfTwo(h, m);
+    }
+
+    /*
+     * Lock che protegge il bucket dato.
+     */
+    private ReentrantLock lockFor(int bucket) {
+        return this.locks[bucket & (this.locks.length - 1)];
+    }
+
+    @Override
+    public int size() {
+        return this.size.intValue();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return this.size.sum() == 0;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        if (o == null)
+            throw new NullPointerException("L'elemento è nullo!");
+        int h = o.hashCode();
+        AtomicReferenceArray<Node<E>> t = this.table;
+        Node<E> n = t.get(this.bucketOf(h, t.length()));
+        // Il bucket è già stato copiato: si cerca nella nuova tabella
+        while (n instanceof ForwardingNode) {
+            t = ((ForwardingNode<E>) n).nextTable;
+            n = t.get(this.bucketOf(h, t.length()));
+        }
+        while (n != null) {
+            if (o.equals(n.item))
+                return true;
+            n = n.next;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean add(E e) {
+        if (e == null)
+            throw new NullPointerException("Elemento nullo!");
+        int h = e.hashCode();
+        int capacity;
+        while (true) {
+            AtomicReferenceArray<Node<E>> t = this.table;
+            int bucket = this.bucketOf(h, t.length());
+            ReentrantLock lock = this.lockFor(bucket);
+            lock.lock();
+            try {
+                // Se nel frattempo la tabella è stata sostituita si riprova
+                if (t != this.table)
+                    continue;
+                Node<E> head = t.get(bucket);
+                if (!(head instanceof ForwardingNode)) {
+                    for (Node<E> n = head; n != null; n = n.next)
+                        if (e.equals(n.item))
+                            return false;
+                    t.set(bucket, new Node<E>(e, head));
+                    capacity = t.length();
+                    break;
+                }
+            } finally {
+                lock.unlock();
+            }
+            this.helpTransfer(t);
+        }
+        this.size.increment();
+        if (this.size.sum() > (long) (capacity * LOAD_FACTOR))
+            this.resize(capacity);
+        return true;
+    }
+
+    /*
+     * Avvia il raddoppio della tabella, se la sua capacità è ancora quella
+     * osservata dal thread che lo ha richiesto, e partecipa alla migrazione.
+     * Se più thread superano la soglia contemporaneamente solo il primo crea
+     * la nuova tabella, gli altri lo aiutano.
+     */
+    private void resize(int observedCapacity) {
+        AtomicReferenceArray<Node<E>> t = this.table;
+        if (t.length() != observedCapacity)
+            return;
+        Transfer<E> tr = this.transfer.get();
+        if (tr == null) {
+            Transfer<E> created = new Transfer<E>(t);
+            if (this.transfer.compareAndSet(null, created)) {
+                // La tabella potrebbe essere stata sostituita tra la lettura e
+                // la creazione del raddoppio
+                if (this.table != t) {
+                    this.transfer.compareAndSet(created, null);
+                    return;
+                }
+                tr = created;
+            } else
+                tr = this.transfer.get();
+        }
+        if (tr != null && tr.oldTable == t)
+            this.transfer(tr);
+    }
+
+    /*
+     * Chiamato da una modifica che ha trovato un nodo di inoltro nella tabella
+     * t: aiuta la migrazione in corso e attende che la nuova tabella venga
+     * pubblicata dai thread che stanno ancora copiando i loro bucket.
+     */
+    private void helpTransfer(AtomicReferenceArray<Node<E>> t) {
+        Transfer<E> tr = this.transfer.get();
+        if (tr != null && tr.oldTable == t)
+            this.transfer(tr);
+        while (this.table == t)
+            Thread.yield();
+    }
+
+    /*
+     * Si aggiudica intervalli di bucket della vecchia tabella finché ce ne
+     * sono e li copia nella nuova.
+     */
+    private void transfer(Transfer<E> tr) {
+        int n = tr.oldTable.length();
+        while (true) {
+            int start = tr.transferIndex.getAndAdd(TRANSFER_STRIDE);
+            if (start >= n)
+                return;
+            int end = Math.min(n, start + TRANSFER_STRIDE);
+            for (int i = start; i < end; i++)
+                if (!this.transferBucket(tr, i))
+                    return;
+        }
+    }
+
+    /*
+     * Copia il bucket i della vecchia tabella nella nuova e lo sostituisce con
+     * un nodo di inoltro. Il thread che copia l'ultimo bucket pubblica la
+     * nuova tabella, ancora con il lock del bucket acquisito. Restituisce
+     * false se il raddoppio è stato superato da clear() o già pubblicato.
+     */
+    private boolean transferBucket(Transfer<E> tr, int i) {
+        ReentrantLock lock = this.lockFor(i);
+        lock.lock();
+        try {
+            if (this.table != tr.oldTable) {
+                this.transfer.compareAndSet(tr, null);
+                return false;
+            }
+            AtomicReferenceArray<Node<E>> newTable = tr.newTable;
+            Node<E> head = tr.oldTable.get(i);
+            for (Node<E> n = head; n != null; n = n.next) {
+                // Nodi nuovi: le liste della vecchia tabella restano intatte
+                // per le ricerche e gli iteratori in corso
+                int bucket = this.bucketOf(n.item.hashCode(),
+                        newTable.length());
+                Node<E> copy = new Node<E>(n.item, null);
+                Node<E> first;
+                do {
+                    first = newTable.get(bucket);
+                    copy.next = first;
+                } while (!newTable.compareAndSet(bucket, first, copy));
+            }
+            tr.oldTable.set(i, new ForwardingNode<E>(newTable, head));
+            if (tr.transferred.incrementAndGet() == tr.oldTable.length()) {
+                this.table = newTable;
+                this.transfer.set(null);
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /*
+     * Acquisisce tutti i lock, sempre in ordine crescente per evitare
+     * deadlock tra due thread che li richiedono insieme.
+     */
+    private void lockAll() {
+        for (ReentrantLock l : this.locks)
+            l.lock();
+    }
+
+    private void unlockAll() {
+        for (int i = this.locks.length - 1; i >= 0; i--)
+            this.locks[i].unlock();
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        if (o == null)
+            throw new NullPointerException("Elemento nullo!");
+        int h = o.hashCode();
+        while (true) {
+            AtomicReferenceArray<Node<E>> t = this.table;
+            int bucket = this.bucketOf(h, t.length());
+            ReentrantLock lock = this.lockFor(bucket);
+            lock.lock();
+            try {
+                if (t != this.table)
+                    continue;
+                Node<E> head = t.get(bucket);
+                if (!(head instanceof ForwardingNode)) {
+                    Node<E> prev = null;
+                    for (Node<E> n = head; n != null; n = n.next) {
+                        if (o.equals(n.item)) {
+                            // Il nodo rimosso continua a puntare al
+                            // successivo: chi lo sta attraversando prosegue
+                            // correttamente
+                            if (prev == null)
+                                t.set(bucket, n.next);
+                            else
+                                prev.next = n.next;
+                            this.size.decrement();
+                            return true;
+                        }
+                        prev = n;
+                    }
+                    return false;
+                }
+            } finally {
+                lock.unlock();
+            }
+            this.helpTransfer(t);
+        }
+    }
+
+    @Override
+    public boolean containsAll(Collection<?> c) {
+        for (Object o : c)
+            if (!this.contains(o))
+                return false;
+        return true;
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends E> c) {
+        boolean changed = false;
+        for (E e : c)
+            if (this.add(e))
+                changed = true;
+        return changed;
+    }
+
+    @Override
+    public boolean retainAll(Collection<?> c) {
+        throw new UnsupportedOperationException("Operazione non supportata");
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> c) {
+        boolean changed = false;
+        for (Object o : c)
+            if (this.remove(o))
+                changed = true;
+        return changed;
+    }
+
+    @Override
+    public void clear() {
+        this.lockAll();
+        try {
+            // Un raddoppio in corso viene abbandonato: i thread che lo stanno
+            // migrando trovano una tabella diversa dalla vecchia e si fermano
+            this.table = new AtomicReferenceArray<Node<E>>(INITIAL_CAPACITY);
+            this.transfer.set(null);
+            this.size.reset();
+        } finally {
+            this.unlockAll();
+        }
+    }
+
+    @Override
+    public Object[] toArray() {
+        throw new UnsupportedOperationException("Operazione non supportata");
+    }
+
+    @Override
+    public <T> T[] toArray(T[] a) {
+        throw new UnsupportedOperationException("Operazione non supportata");
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new Itr();
+    }
+
+    /*
+     * Classe per i nodi della lista concatenata. Il collegamento al successivo
+     * è volatile perché viene letto senza lock dalle ricerche.
+     */
+    protected static class Node<E> {
+        protected final E item;
+
+        protected volatile Node<E> next;
+
+        Node(E item, Node<E> next) {
+            this.item = item;
+            this.next = next;
+        }
+    }
+
+    /*
+     * Nodo che sostituisce in testa a un bucket della vecchia tabella la lista
+     * già copiata nella nuova. Continua a puntare alla vecchia lista, che gli
+     * iteratori creati prima del raddoppio possono così finire di scorrere.
+     */
+    private static final class ForwardingNode<E> extends Node<E> {
+        private final AtomicReferenceArray<Node<E>> nextTable;
+
+        ForwardingNode(AtomicReferenceArray<Node<E>> nextTable, Node<E> next) {
+            super(null, next);
+            this.nextTable = nextTable;
+        }
+    }
+
+    /*
+     * Stato di un raddoppio: la vecchia tabella, la nuova, il primo bucket
+     * non ancora aggiudicato e il numero di bucket già copiati.
+     */
+    private static final class Transfer<E> {
+        private final AtomicReferenceArray<Node<E>> oldTable;
+
+        private final AtomicReferenceArray<Node<E>> newTable;
+
+        private final AtomicInteger transferIndex;
+
+        private final AtomicInteger transferred;
+
+        Transfer(AtomicReferenceArray<Node<E>> oldTable) {
+            this.oldTable = oldTable;
+            this.newTable = new AtomicReferenceArray<Node<E>>(
+                    oldTable.length() * 2);
+            this.transferIndex = new AtomicInteger(0);
+            this.transferred = new AtomicInteger(0);
+        }
+    }
+
+    /*
+     * Iteratore debolmente consistente sulla tabella corrente al momento della
+     * creazione. Scorre i bucket uno alla volta senza copiare gli elementi.
+     */
+    private class Itr implements Iterator<E> {
+
+        private final AtomicReferenceArray<Node<E>> t;
+
+        // Prossimo bucket da esaminare
+        private int bucket;
+
+        // Prossimo nodo da restituire, null se terminato
+        private Node<E> nextNode;
+
+        private Itr() {
+            this.t = table;
+            this.bucket = 0;
+            this.nextNode = null;
+            this.advance();
+        }
+
+        /*
+         * Porta nextNode sul primo nodo del primo bucket non vuoto.
+         */
+        private void advance() {
+            while (this.nextNode == null && this.bucket < this.t.length()) {
+                this.nextNode = this.t.get(this.bucket++);
+                // Bucket già copiato: si scorre la sua vecchia lista
+                if (this.nextNode instanceof ForwardingNode)
+                    this.nextNode = this.nextNode.next;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.nextNode != null;
+        }
+
+        @Override
+        public E next() {
+            if (!this.hasNext())
+                throw new NoSuchElementException("Non c'è un elemento successivo");
+            E e = this.nextNode.item;
+            this.nextNode = this.nextNode.next;
+            this.advance();
+            return e;
+        }
+
+    }
+
+    /*
+     * Only for JUnit testing purposes.
+     */
+    protected int getCurrentCapacity() {
+        return this.table.length();
+    }
+
+    /*
+     * Only for JUnit testing purposes.
+     */
+    protected int getStripes() {
+        return this.locks.length;
+    }
+
+}
@@ -0,0 +1,219 @@
+package it.unicam.cs.asdl2324.es10;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Classe di test JUnit per la classe ConcurrentCollisionListHashTable
+ *
+ * @author Template: Luca Tesei, Implementazione: collettiva
+ *
+ */
+class ConcurrentCollisionListHashTableTest {
+
+    private PrimaryHashFunction divisionHash = new DivisionPrimaryHashFunction();
+
+    private PrimaryHashFunction multiplicationHash = new MultiplicationPrimaryHashFunction();
+
+    @Test
+    final void testConstructor() {
+        assertThrows(NullPointerException.class,
+                () -> new ConcurrentCollisionListHashTable<Integer>(null));
+        assertThrows(IllegalArgumentException.class,
+                () -> new ConcurrentCollisionListHashTable<Integer>(divisionHash, 0));
+        ConcurrentCollisionListHashTable<Integer> table = new ConcurrentCollisionListHashTable<>(
+                divisionHash, 5);
+        assertEquals(8, table.getStripes());
+        assertTrue(table.isEmpty());
+    }
+
+    @Test
+    final void testAddContainsRemove() {
+        ConcurrentCollisionListHashTable<Integer> table = new ConcurrentCollisionListHashTable<>(
+                divisionHash);
+        assertThrows(NullPointerException.class, () -> table.add(null));
+        assertThrows(NullPointerException.class, () -> table.contains(null));
+        assertThrows(NullPointerException.class, () -> table.remove(null));
+        Integer vals[] = { 3, 19, 35, 51 };
+        assertTrue(table.addAll(Arrays.asList(vals)));
+        assertFalse(table.add(19));
+        assertTrue(table.containsAll(Arrays.asList(vals)));
+        assertTrue(table.remove(51));
+        assertTrue(table.remove(3));
+        assertFalse(table.remove(3));
+        assertFalse(table.contains(3));
+        assertTrue(table.contains(19));
+        assertTrue(table.contains(35));
+        assertEquals(2, table.size());
+    }
+
+    @Test
+    final void testShouldResize() {
+        ConcurrentCollisionListHashTable<Integer> table = new ConcurrentCollisionListHashTable<>(
+                multiplicationHash);
+        Integer vals[] = { 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12 };
+        table.addAll(Arrays.asList(vals));
+        assertEquals(16, table.getCurrentCapacity());
+        table.add(13);
+        assertEquals(32, table.getCurrentCapacity());
+        for (int i = 1; i <= 13; i++)
+            assertTrue(table.contains(i));
+    }
+
+    @Test
+    final void testIterator() {
+        ConcurrentCollisionListHashTable<Integer> table = new ConcurrentCollisionListHashTable<>(
+                divisionHash);
+        Set<Integer> expected = new HashSet<Integer>();
+        for (int i = 0; i < 1000; i += 7) {
+            table.add(i);
+            expected.add(i);
+        }
+        Set<Integer> iterated = new HashSet<Integer>();
+        for (Integer v : table) {
+            assertTrue(iterated.add(v));
+            // Nessuna ConcurrentModificationException
+            if (v >= 0)
+                table.add(-v - 1);
+        }
+        // Gli elementi presenti alla creazione sono restituiti tutti, quelli
+        // aggiunti dopo possono esserci o no
+        assertTrue(iterated.containsAll(expected));
+        for (Integer v : iterated)
+            assertTrue(v < 0 || expected.contains(v));
+    }
+
+    @Test
+    final void testConcurrentDedupe() throws Exception {
+        ConcurrentCollisionListHashTable<Integer> table = new ConcurrentCollisionListHashTable<>(
+                multiplicationHash, 4);
+        int threads = 8;
+        int n = 20000;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Integer>> results = new ArrayList<Future<Integer>>();
+            for (int t = 0; t < threads; t++) {
+                final int offset = t;
+                results.add(pool.submit(new Callable<Integer>() {
+                    @Override
+                    public Integer call() {
+                        // Tutti i thread inseriscono gli stessi valori in
+                        // ordine diverso: ogni valore viene aggiunto una sola
+                        // volta
+                        int added = 0;
+                        for (int i = 0; i < n; i++)
+                            if (table.add((i * 31 + offset * 977) % n))
+                                added++;
+                        return added;
+                    }
+                }));
+            }
+            int totalAdded = 0;
+            for (Future<Integer> f : results)
+                totalAdded += f.get();
+            assertEquals(n, totalAdded);
+            assertEquals(n, table.size());
+            for (int i = 0; i < n; i++)
+                assertTrue(table.contains(i));
+
+            List<Future<Integer>> removals = new ArrayList<Future<Integer>>();
+            for (int t = 0; t < threads; t++) {
+                removals.add(pool.submit(new Callable<Integer>() {
+                    @Override
+                    public Integer call() {
+                        int removed = 0;
+                        for (int i = 0; i < n; i += 2)
+                            if (table.remove(i))
+                                removed++;
+                        return removed;
+                    }
+                }));
+            }
+            int totalRemoved = 0;
+            for (Future<Integer> f : removals)
+                totalRemoved += f.get();
+            assertEquals(n / 2, totalRemoved);
+            assertEquals(n / 2, table.size());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    final void testContainsDuringResize() throws Exception {
+        ConcurrentCollisionListHashTable<Integer> table = new ConcurrentCollisionListHashTable<>(
+                multiplicationHash, 2);
+        int threads = 4;
+        int n = 50000;
+        // Gli elementi presenti prima dei raddoppi devono essere sempre
+        // trovati, anche quando il loro bucket è già stato copiato
+        for (int i = 0; i < 10; i++)
+            table.add(-i - 1);
+        ExecutorService pool = Executors.newFixedThreadPool(threads + 1);
+        try {
+            List<Future<Integer>> writers = new ArrayList<Future<Integer>>();
+            for (int t = 0; t < threads; t++) {
+                final int offset = t;
+                writers.add(pool.submit(new Callable<Integer>() {
+                    @Override
+                    public Integer call() {
+                        int added = 0;
+                        for (int i = offset; i < n; i += threads)
+                            if (table.add(i))
+                                added++;
+                        return added;
+                    }
+                }));
+            }
+            Future<Boolean> reader = pool.submit(new Callable<Boolean>() {
+                @Override
+                public Boolean call() {
+                    while (table.getCurrentCapacity() < 65536)
+                        for (int i = 1; i <= 10; i++)
+                            if (!table.contains(-i))
+                                return false;
+                    return true;
+                }
+            });
+            int totalAdded = 0;
+            for (Future<Integer> f : writers)
+                totalAdded += f.get();
+            assertEquals(n, totalAdded);
+            assertTrue(reader.get());
+            assertEquals(n + 10, table.size());
+            assertEquals(131072, table.getCurrentCapacity());
+            int iterated = 0;
+            for (Integer v : table) {
+                assertTrue(table.contains(v));
+                iterated++;
+            }
+            assertEquals(n + 10, iterated);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    final void testClear() {
+        ConcurrentCollisionListHashTable<Integer> table = new ConcurrentCollisionListHashTable<>(
+                divisionHash);
+        for (int i = 0; i < 100; i++)
+            table.add(i);
+        table.clear();
+        assertTrue(table.isEmpty());
+        assertFalse(table.contains(1));
+        assertEquals(16, table.getCurrentCapacity());
+    }
+
+}
@@ -22,4 +22,14 @@ public class DivisionPrimaryHashFunction implements PrimaryHashFunction {
                         // negativo considera il valore assoluto
     }
 
+    /*
+     * Con m potenza di due il resto della divisione del valore assoluto si
+     * ottiene con una maschera sui bit meno significativi, con lo stesso
+     * risultato di hash(key, m) anche per le chiavi negative.
+     */
+    @Override
+    public int hashPowerOfTwo(int key, int m) {
+        return (key < 0 ? -key : key) & (m - 1);
+    }
+
 }
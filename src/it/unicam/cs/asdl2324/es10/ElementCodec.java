@@ -0,0 +1,88 @@
+package it.unicam.cs.asdl2324.es10;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Una classe che implementa questa interfaccia converte gli elementi di tipo E
+ * in sequenze di byte e viceversa, per poterli salvare in uno snapshot su file
+ * di MappedHashSet. La codifica deve essere deterministica: due elementi
+ * uguali secondo equals() devono avere la stessa codifica, perché la ricerca
+ * nello snapshot confronta direttamente i byte senza ricostruire gli
+ * elementi.
+ *
+ * @author Template: Luca Tesei, Implementazione: collettiva
+ *
+ */
+public interface ElementCodec<E> {
+
+    /**
+     * Codifica per gli Integer: 4 byte big-endian.
+     */
+    public static final ElementCodec<Integer> INTEGER = new ElementCodec<Integer>() {
+        @Override
+        public byte[] encode(Integer e) {
+            return ByteBuffer.allocate(Integer.BYTES).putInt(e).array();
+        }
+
+        @Override
+        public Integer decode(ByteBuffer data) {
+            return data.getInt(data.position());
+        }
+    };
+
+    /**
+     * Codifica per i Long: 8 byte big-endian.
+     */
+    public static final ElementCodec<Long> LONG = new ElementCodec<Long>() {
+        @Override
+        public byte[] encode(Long e) {
+            return ByteBuffer.allocate(Long.BYTES).putLong(e).array();
+        }
+
+        @Override
+        public Long decode(ByteBuffer data) {
+            return data.getLong(data.position());
+        }
+    };
+
+    /**
+     * Codifica per le String: i caratteri in UTF-8.
+     */
+    public static final ElementCodec<String> STRING = new ElementCodec<String>() {
+        @Override
+        public byte[] encode(String e) {
+            return e.getBytes(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public String decode(ByteBuffer data) {
+            byte[] bytes = new byte[data.remaining()];
+            data.duplicate().get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    };
+
+    /**
+     * Codifica un elemento.
+     *
+     * @param e
+     *              l'elemento da codificare, non nullo
+     * @return i byte che rappresentano l'elemento
+     * @throws ClassCastException
+     *                                se l'oggetto passato non è del tipo
+     *                                gestito da questa codifica
+     */
+    public byte[] encode(E e);
+
+    /**
+     * Ricostruisce un elemento a partire dalla sua codifica.
+     *
+     * @param data
+     *                 un buffer i cui byte tra position e limit sono
+     *                 esattamente quelli prodotti da encode; il metodo non
+     *                 deve modificarne position e limit
+     * @return l'elemento ricostruito
+     */
+    public E decode(ByteBuffer data);
+}
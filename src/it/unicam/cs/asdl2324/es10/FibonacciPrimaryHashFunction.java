@@ -0,0 +1,42 @@
+/**
+ * 
+ */
+package it.unicam.cs.asdl2324.es10;
+
+/**
+ * Implementa una funzione di hash primaria con il metodo della moltiplicazione
+ * usando solo aritmetica intera (Fibonacci hashing). La chiave viene
+ * moltiplicata, modulo 2^32, per la costante 2^32 * (sqrt(5) - 1) / 2 e la
+ * posizione è data dai bit più significativi del prodotto, che sono quelli che
+ * dipendono da tutti i bit della chiave.
+ * 
+ * E' l'equivalente intero di MultiplicationPrimaryHashFunction: non calcola
+ * radici né usa numeri in virgola mobile, ma non restituisce le stesse
+ * posizioni. Se la dimensione della tabella è una potenza di due 2^p la
+ * posizione è semplicemente formata dai p bit più alti del prodotto.
+ * 
+ * @author Template: Luca Tesei, Implementazione: collettiva
+ *
+ */
+public class FibonacciPrimaryHashFunction implements PrimaryHashFunction {
+
+    /*
+     * Parte intera di 2^32 * (sqrt(5) - 1) / 2.
+     */
+    private static final int GOLDEN_RATIO = 0x9E3779B9;
+
+    @Override
+    public int hash(int key, int m) {
+        // I 32 bit del prodotto, visti come frazione di 2^32, vengono scalati
+        // su [0, m) con una moltiplicazione e uno shift invece del modulo
+        return (int) (((key * GOLDEN_RATIO) & 0xFFFFFFFFL) * m >>> 32);
+    }
+
+    @Override
+    public int hashPowerOfTwo(int key, int m) {
+        if (m == 1)
+            return 0;
+        return (key * GOLDEN_RATIO) >>> Integer.numberOfLeadingZeros(m - 1);
+    }
+
+}
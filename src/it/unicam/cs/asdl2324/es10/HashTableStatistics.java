@@ -0,0 +1,199 @@
+/**
+ *
+ */
+package it.unicam.cs.asdl2324.es10;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Fotografia dello stato di una tabella hash con liste di collisione in un
+ * certo istante: occupazione dei bucket, lunghezza delle liste di collisione,
+ * costo medio delle ricerche e numero e durata delle resize. Gli oggetti di
+ * questa classe sono immutabili e possono essere esportati in formato CSV
+ * (Comma Separated Values) per confrontare il comportamento di diverse
+ * funzioni di hash primarie sullo stesso carico di lavoro.
+ *
+ * @author Template: Luca Tesei, Implementazione: collettiva
+ *
+ */
+public final class HashTableStatistics {
+
+    /**
+     * Intestazione delle colonne prodotte da {@link #toCsvLine()}.
+     */
+    public static final String CSV_HEADER = "Capacity,Size,LoadFactor,EmptyBuckets,"
+            + "LongestChain,ContainsCalls,AverageProbes,ResizeCount,ResizeTimeNs,"
+            + "ChainLengthHistogram";
+
+    private final int capacity;
+
+    private final int size;
+
+    private final int[] chainLengthHistogram;
+
+    private final long containsCalls;
+
+    private final long containsProbes;
+
+    private final int resizeCount;
+
+    private final long resizeTimeNanos;
+
+    /**
+     * Costruisce una fotografia a partire dai dati raccolti dalla tabella.
+     *
+     * @param capacity
+     *                                 numero di bucket della tabella
+     * @param size
+     *                                 numero di elementi della tabella
+     * @param chainLengthHistogram
+     *                                 in posizione i il numero di bucket la
+     *                                 cui lista di collisione contiene i
+     *                                 elementi; l'array viene copiato
+     * @param containsCalls
+     *                                 numero di chiamate a contains registrate
+     * @param containsProbes
+     *                                 numero totale di elementi confrontati da
+     *                                 quelle chiamate
+     * @param resizeCount
+     *                                 numero di resize registrate
+     * @param resizeTimeNanos
+     *                                 tempo complessivo speso nelle resize, in
+     *                                 nanosecondi
+     */
+    public HashTableStatistics(int capacity, int size,
+            int[] chainLengthHistogram, long containsCalls,
+            long containsProbes, int resizeCount, long resizeTimeNanos) {
+        this.capacity = capacity;
+        this.size = size;
+        this.chainLengthHistogram = Arrays.copyOf(chainLengthHistogram,
+                chainLengthHistogram.length);
+        this.containsCalls = containsCalls;
+        this.containsProbes = containsProbes;
+        this.resizeCount = resizeCount;
+        this.resizeTimeNanos = resizeTimeNanos;
+    }
+
+    /**
+     * @return il numero di bucket della tabella
+     */
+    public int getCapacity() {
+        return this.capacity;
+    }
+
+    /**
+     * @return il numero di elementi della tabella
+     */
+    public int getSize() {
+        return this.size;
+    }
+
+    /**
+     * @return il fattore di caricamento effettivo, size / capacity
+     */
+    public double getLoadFactor() {
+        return this.capacity == 0 ? 0 : (double) this.size / this.capacity;
+    }
+
+    /**
+     * @return una copia dell'istogramma delle lunghezze delle liste di
+     *         collisione: in posizione i il numero di bucket con esattamente
+     *         i elementi
+     */
+    public int[] getChainLengthHistogram() {
+        return Arrays.copyOf(this.chainLengthHistogram,
+                this.chainLengthHistogram.length);
+    }
+
+    /**
+     * @return il numero di bucket vuoti
+     */
+    public int getEmptyBuckets() {
+        return this.chainLengthHistogram.length == 0 ? 0
+                : this.chainLengthHistogram[0];
+    }
+
+    /**
+     * @return la lunghezza della lista di collisione più lunga
+     */
+    public int getLongestChain() {
+        for (int i = this.chainLengthHistogram.length - 1; i > 0; i--)
+            if (this.chainLengthHistogram[i] > 0)
+                return i;
+        return 0;
+    }
+
+    /**
+     * @return il numero di chiamate a contains registrate
+     */
+    public long getContainsCalls() {
+        return this.containsCalls;
+    }
+
+    /**
+     * @return il numero medio di elementi confrontati da una chiamata a
+     *         contains, 0 se non ci sono state chiamate
+     */
+    public double getAverageProbes() {
+        return this.containsCalls == 0 ? 0
+                : (double) this.containsProbes / this.containsCalls;
+    }
+
+    /**
+     * @return il numero di resize registrate
+     */
+    public int getResizeCount() {
+        return this.resizeCount;
+    }
+
+    /**
+     * @return il tempo complessivo speso nelle resize, in nanosecondi
+     */
+    public long getResizeTimeNanos() {
+        return this.resizeTimeNanos;
+    }
+
+    /**
+     * Restituisce i dati in una riga CSV con le colonne di {@link #CSV_HEADER}.
+     * L'istogramma occupa l'ultima colonna, con i valori separati da spazi. I
+     * numeri decimali usano sempre il punto, indipendentemente dalla lingua
+     * del sistema, per non confondersi con il separatore di colonna.
+     *
+     * @return la riga CSV, senza terminatore di linea
+     */
+    public String toCsvLine() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(this.capacity).append(',');
+        sb.append(this.size).append(',');
+        sb.append(String.format(Locale.ROOT, "%.4f", this.getLoadFactor()))
+                .append(',');
+        sb.append(this.getEmptyBuckets()).append(',');
+        sb.append(this.getLongestChain()).append(',');
+        sb.append(this.containsCalls).append(',');
+        sb.append(String.format(Locale.ROOT, "%.4f", this.getAverageProbes()))
+                .append(',');
+        sb.append(this.resizeCount).append(',');
+        sb.append(this.resizeTimeNanos).append(',');
+        for (int i = 0; i < this.chainLengthHistogram.length; i++) {
+            if (i > 0)
+                sb.append(' ');
+            sb.append(this.chainLengthHistogram[i]);
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public String toString() {
+        return "HashTableStatistics [capacity=" + this.capacity + ", size="
+                + this.size + ", loadFactor="
+                + String.format(Locale.ROOT, "%.4f", this.getLoadFactor())
+                + ", longestChain=" + this.getLongestChain()
+                + ", averageProbes="
+                + String.format(Locale.ROOT, "%.4f", this.getAverageProbes())
+                + ", resizeCount=" + this.resizeCount + ", resizeTimeNanos="
+                + this.resizeTimeNanos + ", chainLengthHistogram="
+                + Arrays.toString(this.chainLengthHistogram) + "]";
+    }
+
+}
@@ -0,0 +1,400 @@
+/**
+ *
+ */
+package it.unicam.cs.asdl2324.es10;
+
+import java.util.ConcurrentModificationException;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * Realizza un insieme di valori int tramite una tabella hash a indirizzamento
+ * aperto con ispezione lineare. La funzione di hash primario deve essere
+ * passata come parametro nel costruttore e deve implementare l'interface
+ * PrimaryHashFunction: essa viene applicata direttamente al valore int, che
+ * coincide con l'hashCode() del corrispondente Integer, per cui un valore
+ * finisce nella stessa posizione iniziale che avrebbe in una
+ * CollisionListResizableHashTable<Integer> della stessa capacità.
+ *
+ * A differenza delle tabelle che implementano Set<Integer> i valori non
+ * vengono mai convertiti in oggetti Integer: la tabella è un array di int
+ * affiancato da un array di byte che indica lo stato di ogni posizione
+ * (libera, occupata o liberata da una rimozione). Per questo la classe non
+ * implementa Set<Integer> ma offre gli analoghi metodi sui valori primitivi,
+ * compresi inserimenti e ricerche in blocco su array di int, e un iteratore
+ * PrimitiveIterator.OfInt.
+ *
+ * Le rimozioni e la resize seguono le stesse regole di
+ * OpenAddressingResizableHashTable: la tabella ha una dimensione iniziale di
+ * default (16), un fattore di caricamento di default (0.75) e viene
+ * raddoppiata quando gli elementi superano la soglia, oppure ricostruita con
+ * la stessa capacità quando sono le posizioni marcate come rimosse a farla
+ * superare. La capacità non supera 2^30 posizioni, per cui l'insieme può
+ * contenere al più MAXIMUM_SIZE valori.
+ *
+ * @author Template: Luca Tesei, Implementazione: collettiva
+ *
+ */
+public class IntHashSet {
+
+    /*
+     * La capacità iniziale. E' una potenza di due e quindi la capacità sarà
+     * sempre una potenza di due, in quanto ogni resize raddoppia la tabella.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /*
+     * Fattore di bilanciamento di default. Tipico valore.
+     */
+    private static final double LOAD_FACTOR = 0.75;
+
+    /*
+     * Capacità massima della tabella, la più grande potenza di due che può
+     * essere la lunghezza di un array.
+     */
+    private static final int MAXIMUM_CAPACITY = 1 << 30;
+
+    /**
+     * Numero massimo di valori che l'insieme può contenere, pari alla soglia
+     * della tabella di capacità massima.
+     */
+    public static final int MAXIMUM_SIZE = (int) (MAXIMUM_CAPACITY * LOAD_FACTOR);
+
+    /*
+     * Stati possibili di una posizione della tabella.
+     */
+    private static final byte FREE = 0;
+
+    private static final byte FULL = 1;
+
+    private static final byte REMOVED = 2;
+
+    /*
+     * Numero di elementi presenti nell'insieme.
+     */
+    private int size;
+
+    /*
+     * Numero di posizioni nello stato REMOVED.
+     */
+    private int removed;
+
+    /*
+     * Valori memorizzati; keys[i] è significativo solo se states[i] == FULL.
+     */
+    private int[] keys;
+
+    /*
+     * Stato di ciascuna posizione di keys.
+     */
+    private byte[] states;
+
+    /*
+     * Funzione di hash primaria usata da questa hash table.
+     */
+    private final PrimaryHashFunction phf;
+
+    /*
+     * Contatore del numero di modifiche. Serve per rendere l'iterator
+     * fail-fast.
+     */
+    private int modCount;
+
+    /**
+     * Costruisce un insieme vuoto con capacità iniziale di default e fattore
+     * di caricamento di default.
+     *
+     * @param phf
+     *                la funzione di hash primaria
+     * @throws NullPointerException
+     *                                  se la funzione di hash è nulla
+     */
+    public IntHashSet(PrimaryHashFunction phf) {
+        if (phf == null)
+            throw new NullPointerException("Funzione di hash nulla!");
+        this.phf = phf;
+        this.keys = new int[INITIAL_CAPACITY];
+        this.states = new byte[INITIAL_CAPACITY];
+        this.size = 0;
+        this.removed = 0;
+        this.modCount = 0;
+    }
+
+    /*
+     * Posizione iniziale di ispezione per l'hash h in una tabella di capacità
+     * m, sempre potenza di due.
+     */
+    private int slotOf(int h, int m) {
+        return this.phf.hashPowerOfTwo(h, m);
+    }
+
+    /* Numero di posizioni della tabella corrente */
+    private int getCurrentCapacity() {
+        return this.keys.length;
+    }
+
+    /*
+     * Valore corrente soglia oltre la quale si deve ricostruire la tabella,
+     * getCurrentCapacity * LOAD_FACTOR
+     */
+    private int getCurrentThreshold() {
+        return (int) (getCurrentCapacity() * LOAD_FACTOR);
+    }
+
+    /**
+     * @return il numero di elementi dell'insieme
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * @return true se l'insieme non contiene elementi
+     */
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /**
+     * Determina se un valore appartiene all'insieme.
+     *
+     * @param v
+     *              il valore da cercare
+     * @return true se v appartiene all'insieme
+     */
+    public boolean contains(int v) {
+        return this.indexOf(v) >= 0;
+    }
+
+    /*
+     * Restituisce la posizione del valore v oppure -1 se non è presente.
+     */
+    private int indexOf(int v) {
+        int mask = this.getCurrentCapacity() - 1;
+        int i = this.slotOf(v, this.getCurrentCapacity());
+        byte s;
+        while ((s = this.states[i]) != FREE) {
+            if (s == FULL && this.keys[i] == v)
+                return i;
+            i = (i + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Aggiunge un valore all'insieme.
+     *
+     * @param v
+     *              il valore da aggiungere
+     * @return true se il valore è stato aggiunto, false se era già presente
+     * @throws IllegalStateException
+     *                                   se il valore non è presente e
+     *                                   l'insieme contiene già MAXIMUM_SIZE
+     *                                   valori
+     */
+    public boolean add(int v) {
+        int mask = this.getCurrentCapacity() - 1;
+        int i = this.slotOf(v, this.getCurrentCapacity());
+        int firstFree = -1;
+        byte s;
+        while ((s = this.states[i]) != FREE) {
+            if (s == REMOVED) {
+                if (firstFree < 0)
+                    firstFree = i;
+            } else if (this.keys[i] == v)
+                return false;
+            i = (i + 1) & mask;
+        }
+        if (this.size == MAXIMUM_SIZE)
+            throw new IllegalStateException(
+                    "Capacità massima dell'insieme raggiunta");
+        if (firstFree >= 0) {
+            i = firstFree;
+            this.removed--;
+        }
+        this.keys[i] = v;
+        this.states[i] = FULL;
+        this.size++;
+        this.modCount++;
+        if (this.size + this.removed > this.getCurrentThreshold())
+            this.resize(this.size);
+        return true;
+    }
+
+    /**
+     * Rimuove un valore dall'insieme.
+     *
+     * @param v
+     *              il valore da rimuovere
+     * @return true se il valore è stato rimosso, false se non era presente
+     */
+    public boolean remove(int v) {
+        int i = this.indexOf(v);
+        if (i < 0)
+            return false;
+        if (this.states[(i + 1) & (this.getCurrentCapacity() - 1)] == FREE)
+            this.states[i] = FREE;
+        else {
+            this.states[i] = REMOVED;
+            this.removed++;
+        }
+        this.size--;
+        this.modCount++;
+        return true;
+    }
+
+    /**
+     * Aggiunge all'insieme tutti i valori di un array. Prima degli inserimenti
+     * la tabella viene ingrandita, se necessario, in modo da contenere tutti i
+     * valori senza resize intermedie.
+     *
+     * @param values
+     *                   i valori da aggiungere
+     * @return true se almeno un valore è stato aggiunto
+     * @throws NullPointerException
+     *                                   se l'array è nullo
+     * @throws IllegalStateException
+     *                                   se l'insieme raggiunge MAXIMUM_SIZE
+     *                                   valori prima di averli aggiunti tutti
+     */
+    public boolean addAll(int[] values) {
+        if (values == null)
+            throw new NullPointerException("Array nullo!");
+        // Calcolato in long perché la somma può superare Integer.MAX_VALUE;
+        // oltre MAXIMUM_SIZE saranno gli inserimenti a lanciare l'eccezione
+        long elements = Math.min((long) this.size + values.length,
+                MAXIMUM_SIZE);
+        if (elements > this.getCurrentThreshold())
+            this.resize((int) elements);
+        boolean changed = false;
+        for (int v : values)
+            if (this.add(v))
+                changed = true;
+        return changed;
+    }
+
+    /**
+     * Determina se tutti i valori di un array appartengono all'insieme.
+     *
+     * @param values
+     *                   i valori da cercare
+     * @return true se tutti i valori appartengono all'insieme
+     * @throws NullPointerException
+     *                                  se l'array è nullo
+     */
+    public boolean containsAll(int[] values) {
+        if (values == null)
+            throw new NullPointerException("Array nullo!");
+        for (int v : values)
+            if (this.indexOf(v) < 0)
+                return false;
+        return true;
+    }
+
+    /**
+     * Rimuove tutti gli elementi riportando l'insieme alla situazione
+     * iniziale.
+     */
+    public void clear() {
+        this.keys = new int[INITIAL_CAPACITY];
+        this.states = new byte[INITIAL_CAPACITY];
+        this.size = 0;
+        this.removed = 0;
+        this.modCount++;
+    }
+
+    /**
+     * @return un nuovo array contenente tutti gli elementi dell'insieme, in
+     *         ordine non specificato
+     */
+    public int[] toArray() {
+        int[] result = new int[this.size];
+        int j = 0;
+        for (int i = 0; i < this.keys.length; i++)
+            if (this.states[i] == FULL)
+                result[j++] = this.keys[i];
+        return result;
+    }
+
+    /**
+     * @return un iteratore fail-fast sugli elementi dell'insieme che non
+     *         converte i valori in Integer se usato tramite nextInt()
+     */
+    public PrimitiveIterator.OfInt iterator() {
+        return new Itr();
+    }
+
+    /*
+     * Ricostruisce la tabella con la più piccola capacità, non minore di
+     * quella attuale, la cui soglia è almeno pari a elements. Poiché elements
+     * non supera MAXIMUM_SIZE, la capacità non supera MAXIMUM_CAPACITY.
+     */
+    private void resize(int elements) {
+        int newCapacity = this.getCurrentCapacity();
+        while (elements > (int) (newCapacity * LOAD_FACTOR)
+                && newCapacity < MAXIMUM_CAPACITY)
+            newCapacity = newCapacity * 2;
+        int[] oldKeys = this.keys;
+        byte[] oldStates = this.states;
+        this.keys = new int[newCapacity];
+        this.states = new byte[newCapacity];
+        int mask = newCapacity - 1;
+        for (int j = 0; j < oldKeys.length; j++) {
+            if (oldStates[j] != FULL)
+                continue;
+            int i = this.slotOf(oldKeys[j], newCapacity);
+            while (this.states[i] != FREE)
+                i = (i + 1) & mask;
+            this.keys[i] = oldKeys[j];
+            this.states[i] = FULL;
+        }
+        this.removed = 0;
+    }
+
+    /*
+     * Iteratore fail-fast che scorre direttamente la tabella.
+     */
+    private class Itr implements PrimitiveIterator.OfInt {
+
+        private int nextIndex;
+
+        private final int numeroModificheAtteso;
+
+        private Itr() {
+            this.numeroModificheAtteso = modCount;
+            this.nextIndex = this.advance(0);
+        }
+
+        private int advance(int i) {
+            while (i < states.length && states[i] != FULL)
+                i++;
+            return i;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.nextIndex < states.length;
+        }
+
+        @Override
+        public int nextInt() {
+            if (this.numeroModificheAtteso != modCount)
+                throw new ConcurrentModificationException(
+                        "Insieme modificato durante l'iterazione");
+            if (!this.hasNext())
+                throw new NoSuchElementException("Non c'è un elemento successivo");
+            int v = keys[this.nextIndex];
+            this.nextIndex = this.advance(this.nextIndex + 1);
+            return v;
+        }
+
+    }
+
+    /*
+     * Only for JUnit testing purposes.
+     */
+    protected int getCurrentTableLength() {
+        return this.keys.length;
+    }
+
+}
@@ -0,0 +1,115 @@
+package it.unicam.cs.asdl2324.es10;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.PrimitiveIterator;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Classe di test JUnit per la classe IntHashSet
+ *
+ * @author Template: Luca Tesei, Implementazione: collettiva
+ *
+ */
+class IntHashSetTest {
+
+    private PrimaryHashFunction divisionHash = new DivisionPrimaryHashFunction();
+
+    private PrimaryHashFunction multiplicationHash = new MultiplicationPrimaryHashFunction();
+
+    @Test
+    final void testConstructor() {
+        assertThrows(NullPointerException.class, () -> new IntHashSet(null));
+        IntHashSet set = new IntHashSet(divisionHash);
+        assertTrue(set.isEmpty());
+        assertEquals(0, set.size());
+    }
+
+    @Test
+    final void testAddContainsRemove() {
+        IntHashSet set = new IntHashSet(divisionHash);
+        // Valori che collidono con capacità 16, compresi zero e negativi
+        assertTrue(set.add(0));
+        assertTrue(set.add(16));
+        assertTrue(set.add(-16));
+        assertTrue(set.add(32));
+        assertFalse(set.add(16));
+        assertTrue(set.contains(0));
+        assertTrue(set.contains(-16));
+        assertFalse(set.contains(48));
+        assertTrue(set.remove(16));
+        assertFalse(set.remove(16));
+        assertFalse(set.contains(16));
+        assertTrue(set.contains(32));
+        assertEquals(3, set.size());
+    }
+
+    @Test
+    final void testExtremeValues() {
+        IntHashSet set = new IntHashSet(multiplicationHash);
+        assertTrue(set.add(Integer.MIN_VALUE));
+        assertTrue(set.add(Integer.MAX_VALUE));
+        assertTrue(set.contains(Integer.MIN_VALUE));
+        assertTrue(set.contains(Integer.MAX_VALUE));
+        assertFalse(set.contains(0));
+    }
+
+    @Test
+    final void testBulkOperations() {
+        IntHashSet set = new IntHashSet(multiplicationHash);
+        assertThrows(NullPointerException.class, () -> set.addAll(null));
+        assertThrows(NullPointerException.class, () -> set.containsAll(null));
+        int[] values = new int[10000];
+        for (int i = 0; i < values.length; i++)
+            values[i] = i * 7 - 30000;
+        assertTrue(set.addAll(values));
+        assertFalse(set.addAll(values));
+        assertEquals(values.length, set.size());
+        assertTrue(set.containsAll(values));
+        assertFalse(set.containsAll(new int[] { -30000, 1 }));
+        int[] content = set.toArray();
+        Arrays.sort(content);
+        assertArrayEquals(values, content);
+    }
+
+    @Test
+    final void testManyRemovals() {
+        IntHashSet set = new IntHashSet(divisionHash);
+        for (int i = 0; i < 1000; i++) {
+            set.add(i);
+            set.remove(i - 1);
+        }
+        assertEquals(1, set.size());
+        assertTrue(set.contains(999));
+        assertTrue(set.getCurrentTableLength() <= 32);
+    }
+
+    @Test
+    final void testIterator() {
+        IntHashSet set = new IntHashSet(divisionHash);
+        set.addAll(new int[] { 5, 21, 37 });
+        PrimitiveIterator.OfInt it = set.iterator();
+        int sum = 0;
+        while (it.hasNext())
+            sum += it.nextInt();
+        assertEquals(63, sum);
+        PrimitiveIterator.OfInt it2 = set.iterator();
+        it2.nextInt();
+        set.add(42);
+        assertThrows(ConcurrentModificationException.class, () -> it2.nextInt());
+    }
+
+    @Test
+    final void testClear() {
+        IntHashSet set = new IntHashSet(divisionHash);
+        set.addAll(new int[] { 1, 2, 3 });
+        set.clear();
+        assertTrue(set.isEmpty());
+        assertFalse(set.contains(1));
+        assertFalse(set.iterator().hasNext());
+    }
+
+}
@@ -0,0 +1,63 @@
+package it.unicam.cs.asdl2324.es10;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.PrimitiveIterator;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Classe di test JUnit per la classe LongHashSet
+ *
+ * @author Template: Luca Tesei, Implementazione: collettiva
+ *
+ */
+class LongHashSetTest {
+
+    private PrimaryHashFunction divisionHash = new DivisionPrimaryHashFunction();
+
+    private PrimaryHashFunction multiplicationHash = new MultiplicationPrimaryHashFunction();
+
+    @Test
+    final void testAddContainsRemove() {
+        assertThrows(NullPointerException.class, () -> new LongHashSet(null));
+        LongHashSet set = new LongHashSet(divisionHash);
+        // Valori diversi con lo stesso hashCode
+        long a = 1L;
+        long b = (1L << 32) | 0L;
+        assertEquals(Long.hashCode(a), Long.hashCode(b));
+        assertTrue(set.add(a));
+        assertTrue(set.add(b));
+        assertFalse(set.add(a));
+        assertTrue(set.contains(a));
+        assertTrue(set.contains(b));
+        assertTrue(set.remove(a));
+        assertFalse(set.contains(a));
+        assertTrue(set.contains(b));
+        assertEquals(1, set.size());
+    }
+
+    @Test
+    final void testBulkOperations() {
+        LongHashSet set = new LongHashSet(multiplicationHash);
+        long[] values = new long[5000];
+        for (int i = 0; i < values.length; i++)
+            values[i] = (long) i * 1000000007L - 1000000000000L;
+        assertTrue(set.addAll(values));
+        assertEquals(values.length, set.size());
+        assertTrue(set.containsAll(values));
+        assertFalse(set.containsAll(new long[] { values[0], 3L }));
+        long[] content = set.toArray();
+        Arrays.sort(content);
+        assertArrayEquals(values, content);
+        PrimitiveIterator.OfLong it = set.iterator();
+        int count = 0;
+        while (it.hasNext()) {
+            it.nextLong();
+            count++;
+        }
+        assertEquals(values.length, count);
+    }
+
+}
@@ -0,0 +1,528 @@
+/**
+ *
+ */
+package it.unicam.cs.asdl2324.es10;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Realizza un insieme i cui elementi risiedono in uno snapshot su file, mappato
+ * in memoria con FileChannel.map. Lo snapshot viene prodotto una volta con
+ * write() a partire da un qualsiasi Set, ad esempio una
+ * CollisionListResizableHashTable, e riaperto con open() ad ogni avvio: il
+ * file non viene letto tutto subito, ma il sistema operativo carica le sue
+ * pagine man mano che le ricerche le toccano, per cui l'apertura costa
+ * pochissimo anche per insiemi molto grandi.
+ *
+ * Il file contiene una tabella hash a indirizzamento aperto con ispezione
+ * lineare, costruita usando la funzione di hash primaria passata a write();
+ * la stessa funzione deve essere passata a open(). Gli elementi sono salvati
+ * nella forma prodotta da un ElementCodec e una ricerca confronta prima
+ * l'hashCode memorizzato e poi i byte della codifica, senza ricostruire gli
+ * elementi. Per questo l'hashCode() degli elementi deve essere lo stesso in
+ * esecuzioni diverse della JVM, come avviene per Integer, Long e String.
+ *
+ * Lo snapshot non viene mai modificato. L'insieme però accetta anche
+ * inserimenti e rimozioni, che vengono registrati in due tabelle in memoria
+ * (elementi aggiunti ed elementi dello snapshot rimossi) e tenuti in conto da
+ * tutte le operazioni; per renderli persistenti basta scrivere un nuovo
+ * snapshot con write(), anche sullo stesso file da cui l'insieme è stato
+ * aperto: write() scrive in un file temporaneo nella stessa directory e lo
+ * sostituisce al file di destinazione solo alla fine, con uno spostamento
+ * atomico, per cui il file mappato non viene mai troncato mentre lo si legge.
+ * L'insieme non accetta elementi null.
+ *
+ * Formato del file (interi a 32 bit big-endian):
+ *
+ * - intestazione: MAGIC, VERSION, capacità della tabella (potenza di due),
+ * numero di elementi, lunghezza e byte UTF-8 del nome della classe della
+ * funzione di hash primaria;
+ *
+ * - dati: per ogni elemento la lunghezza della codifica seguita dai suoi byte;
+ *
+ * - tabella: per ogni posizione l'hashCode dell'elemento e la posizione nel
+ * file dei suoi dati, 0 se la posizione è vuota.
+ *
+ * La tabella si trova negli ultimi capacità * 8 byte del file. Poiché le
+ * posizioni sono memorizzate su 32 bit, e un MappedByteBuffer non può
+ * superare questa dimensione, lo snapshot non può superare 2 GB.
+ *
+ * @author Template: Luca Tesei, Implementazione: collettiva
+ *
+ */
+@SuppressWarnings("unchecked")
+public class MappedHashSet<E> implements Set<E> {
+
+    /*
+     * Identificativo del formato, i caratteri "ASDH".
+     */
+    private static final int MAGIC = 0x41534448;
+
+    private static final int VERSION = 1;
+
+    /*
+     * Fattore di caricamento della tabella nello snapshot. Basso, perché lo
+     * spazio costa poco e le ricerche di elementi assenti si fermano prima.
+     */
+    private static final double LOAD_FACTOR = 0.5;
+
+    /*
+     * Byte occupati da ogni posizione della tabella.
+     */
+    private static final int SLOT_BYTES = 8;
+
+    /*
+     * Contenuto del file mappato in memoria.
+     */
+    private final ByteBuffer buffer;
+
+    /*
+     * Capacità della tabella nello snapshot.
+     */
+    private final int capacity;
+
+    /*
+     * Numero di elementi nello snapshot.
+     */
+    private final int mappedSize;
+
+    /*
+     * Posizione nel file dei dati degli elementi e della tabella.
+     */
+    private final int dataStart;
+
+    private final int slotsStart;
+
+    private final ElementCodec<E> codec;
+
+    private final PrimaryHashFunction phf;
+
+    /*
+     * Elementi aggiunti dopo l'apertura che non sono nello snapshot.
+     */
+    private final CollisionListResizableHashTable<E> added;
+
+    /*
+     * Elementi dello snapshot rimossi dopo l'apertura.
+     */
+    private final CollisionListResizableHashTable<E> removed;
+
+    /*
+     * Contatore del numero di modifiche. Serve per rendere l'iterator
+     * fail-fast.
+     */
+    private int modCount;
+
+    private MappedHashSet(ByteBuffer buffer, ElementCodec<E> codec,
+            PrimaryHashFunction phf, int capacity, int mappedSize,
+            int dataStart) {
+        this.buffer = buffer;
+        this.codec = codec;
+        this.phf = phf;
+        this.capacity = capacity;
+        this.mappedSize = mappedSize;
+        this.dataStart = dataStart;
+        this.slotsStart = buffer.limit() - capacity * SLOT_BYTES;
+        this.added = new CollisionListResizableHashTable<E>(phf);
+        this.removed = new CollisionListResizableHashTable<E>(phf);
+        this.modCount = 0;
+    }
+
+    /**
+     * Scrive su file uno snapshot degli elementi di un insieme.
+     *
+     * @param elements
+     *                     l'insieme da salvare, senza elementi null
+     * @param codec
+     *                     la codifica degli elementi
+     * @param phf
+     *                     la funzione di hash primaria con cui costruire la
+     *                     tabella
+     * @param file
+     *                     il file da scrivere; se esiste viene sostituito,
+     *                     anche se è lo snapshot di un insieme aperto
+     * @throws NullPointerException
+     *                                      se uno dei parametri o degli
+     *                                      elementi è nullo
+     * @throws IllegalArgumentException
+     *                                      se lo snapshot supererebbe i 2 GB
+     * @throws IOException
+     *                                      in caso di errore di scrittura
+     */
+    public static <E> void write(Set<? extends E> elements,
+            ElementCodec<E> codec, PrimaryHashFunction phf, Path file)
+            throws IOException {
+        if (elements == null || codec == null || phf == null || file == null)
+            throw new NullPointerException("Parametro nullo!");
+        int capacity = 1;
+        while (elements.size() > (int) (capacity * LOAD_FACTOR))
+            capacity = capacity * 2;
+        int[] hashes = new int[capacity];
+        int[] offsets = new int[capacity];
+        byte[] phfName = phf.getClass().getName()
+                .getBytes(StandardCharsets.UTF_8);
+        int headerBytes = 5 * Integer.BYTES + phfName.length;
+        Path directory = file.toAbsolutePath().getParent();
+        Path temporary = Files.createTempFile(directory,
+                file.getFileName().toString(), ".tmp");
+        boolean moved = false;
+        try {
+            try (FileChannel channel = FileChannel.open(temporary,
+                    StandardOpenOption.WRITE)) {
+                DataOutputStream out = new DataOutputStream(
+                        new BufferedOutputStream(
+                                Channels.newOutputStream(channel), 1 << 16));
+                // Intestazione
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(capacity);
+                out.writeInt(elements.size());
+                out.writeInt(phfName.length);
+                out.write(phfName);
+                // Dati, collocando intanto ogni elemento nella tabella
+                long offset = headerBytes;
+                int mask = capacity - 1;
+                for (E e : elements) {
+                    if (e == null)
+                        throw new NullPointerException("Elemento nullo!");
+                    byte[] data = codec.encode(e);
+                    if (offset + Integer.BYTES + data.length
+                            + (long) capacity * SLOT_BYTES > Integer.MAX_VALUE)
+                        throw new IllegalArgumentException("Lo snapshot "
+                                + "supera la dimensione massima di 2 GB");
+                    int h = e.hashCode();
+                    int i = phf.hashPowerOfTwo(h, capacity);
+                    while (offsets[i] != 0)
+                        i = (i + 1) & mask;
+                    hashes[i] = h;
+                    offsets[i] = (int) offset;
+                    out.writeInt(data.length);
+                    out.write(data);
+                    offset += Integer.BYTES + data.length;
+                }
+                // Tabella
+                for (int i = 0; i < capacity; i++) {
+                    out.writeInt(hashes[i]);
+                    out.writeInt(offsets[i]);
+                }
+                out.flush();
+                channel.force(true);
+            }
+            // Il file temporaneo è chiuso e su disco: prende il posto dello
+            // snapshot precedente con un solo spostamento
+            Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE,
+                    StandardCopyOption.REPLACE_EXISTING);
+            moved = true;
+        } finally {
+            if (!moved)
+                Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * Apre uno snapshot scritto con write(), mappandolo in memoria in sola
+     * lettura.
+     *
+     * @param file
+     *                  il file dello snapshot
+     * @param codec
+     *                  la codifica usata per scriverlo
+     * @param phf
+     *                  la funzione di hash primaria usata per scriverlo
+     * @return l'insieme degli elementi dello snapshot
+     * @throws NullPointerException
+     *                                      se uno dei parametri è nullo
+     * @throws IllegalArgumentException
+     *                                      se il file non è uno snapshot
+     *                                      valido o è stato scritto con una
+     *                                      funzione di hash di un'altra classe
+     * @throws IOException
+     *                                      in caso di errore di lettura
+     */
+    public static <E> MappedHashSet<E> open(Path file, ElementCodec<E> codec,
+            PrimaryHashFunction phf) throws IOException {
+        if (file == null || codec == null || phf == null)
+            throw new NullPointerException("Parametro nullo!");
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE)
+                throw new IllegalArgumentException("Snapshot troppo grande");
+            // La mappatura resta valida anche dopo la chiusura del canale
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0,
+                    channel.size());
+        }
+        if (buffer.limit() < 5 * Integer.BYTES || buffer.getInt(0) != MAGIC)
+            throw new IllegalArgumentException(
+                    "Il file non è uno snapshot di MappedHashSet");
+        if (buffer.getInt(4) != VERSION)
+            throw new IllegalArgumentException(
+                    "Versione dello snapshot non supportata: "
+                            + buffer.getInt(4));
+        int capacity = buffer.getInt(8);
+        int size = buffer.getInt(12);
+        int nameLength = buffer.getInt(16);
+        if (capacity <= 0 || (capacity & (capacity - 1)) != 0 || size < 0
+                || size > capacity || nameLength < 0 || 20L + nameLength
+                        + (long) capacity * SLOT_BYTES > buffer.limit())
+            throw new IllegalArgumentException("Snapshot danneggiato");
+        byte[] name = new byte[nameLength];
+        ByteBuffer nameBuffer = buffer.duplicate();
+        nameBuffer.position(20);
+        nameBuffer.get(name);
+        String phfName = new String(name, StandardCharsets.UTF_8);
+        if (!phfName.equals(phf.getClass().getName()))
+            throw new IllegalArgumentException(
+                    "Lo snapshot è stato scritto con la funzione di hash "
+                            + phfName);
+        return new MappedHashSet<E>(buffer, codec, phf, capacity, size,
+                20 + nameLength);
+    }
+
+    /*
+     * Determina se l'oggetto o è nello snapshot, senza tenere conto delle
+     * modifiche successive all'apertura.
+     */
+    private boolean mappedContains(Object o) {
+        byte[] data;
+        try {
+            data = this.codec.encode((E) o);
+        } catch (ClassCastException e) {
+            return false; // Oggetto di un tipo che non può essere nell'insieme
+        }
+        int h = o.hashCode();
+        int mask = this.capacity - 1;
+        int i = this.phf.hashPowerOfTwo(h, this.capacity);
+        int offset;
+        // In uno snapshot valido c'è sempre una posizione vuota; il limite
+        // sul numero di ispezioni protegge da file danneggiati
+        for (int probes = 0; probes < this.capacity
+                && (offset = this.buffer.getInt(
+                        this.slotsStart + i * SLOT_BYTES + 4)) != 0; probes++) {
+            if (this.buffer.getInt(this.slotsStart + i * SLOT_BYTES) == h
+                    && this.sameBytes(offset, data))
+                return true;
+            i = (i + 1) & mask;
+        }
+        return false;
+    }
+
+    /*
+     * Restituisce la lunghezza della codifica salvata alla posizione offset,
+     * controllando che posizione e lunghezza letti dal file indichino dati
+     * compresi tra l'intestazione e la tabella.
+     *
+     * @throws IllegalArgumentException se lo snapshot è danneggiato
+     */
+    private int dataLength(int offset) {
+        if (offset < this.dataStart
+                || offset > this.slotsStart - Integer.BYTES)
+            throw new IllegalArgumentException("Snapshot danneggiato");
+        int length = this.buffer.getInt(offset);
+        if (length < 0
+                || length > this.slotsStart - offset - Integer.BYTES)
+            throw new IllegalArgumentException("Snapshot danneggiato");
+        return length;
+    }
+
+    /*
+     * Confronta la codifica salvata alla posizione offset con data.
+     */
+    private boolean sameBytes(int offset, byte[] data) {
+        if (this.dataLength(offset) != data.length)
+            return false;
+        int start = offset + Integer.BYTES;
+        for (int j = 0; j < data.length; j++)
+            if (this.buffer.get(start + j) != data[j])
+                return false;
+        return true;
+    }
+
+    /*
+     * Ricostruisce l'elemento i cui dati si trovano alla posizione offset.
+     */
+    private E decodeAt(int offset) {
+        ByteBuffer data = this.buffer.duplicate();
+        data.position(offset + Integer.BYTES);
+        data.limit(offset + Integer.BYTES + this.dataLength(offset));
+        return this.codec.decode(data.slice());
+    }
+
+    @Override
+    public int size() {
+        return this.mappedSize - this.removed.size() + this.added.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return this.size() == 0;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        if (o == null)
+            throw new NullPointerException("L'elemento è nullo!");
+        if (this.added.contains(o))
+            return true;
+        return this.mappedContains(o) && !this.removed.contains(o);
+    }
+
+    @Override
+    public boolean add(E e) {
+        if (e == null)
+            throw new NullPointerException("Elemento nullo!");
+        boolean changed;
+        if (this.mappedContains(e))
+            // Presente nello snapshot: si aggiunge solo se era stato rimosso
+            changed = this.removed.remove(e);
+        else
+            changed = this.added.add(e);
+        if (changed)
+            this.modCount++;
+        return changed;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        if (o == null)
+            throw new NullPointerException("Elemento nullo!");
+        boolean changed;
+        if (this.added.contains(o))
+            changed = this.added.remove(o);
+        else
+            changed = this.mappedContains(o) && this.removed.add((E) o);
+        if (changed)
+            this.modCount++;
+        return changed;
+    }
+
+    @Override
+    public boolean containsAll(Collection<?> c) {
+        for (Object o : c)
+            if (!this.contains(o))
+                return false;
+        return true;
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends E> c) {
+        boolean changed = false;
+        for (E e : c)
+            if (this.add(e))
+                changed = true;
+        return changed;
+    }
+
+    @Override
+    public boolean retainAll(Collection<?> c) {
+        throw new UnsupportedOperationException("Operazione non supportata");
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> c) {
+        boolean changed = false;
+        for (Object o : c)
+            if (this.remove(o))
+                changed = true;
+        return changed;
+    }
+
+    @Override
+    public void clear() {
+        throw new UnsupportedOperationException("Operazione non supportata");
+    }
+
+    @Override
+    public Object[] toArray() {
+        throw new UnsupportedOperationException("Operazione non supportata");
+    }
+
+    @Override
+    public <T> T[] toArray(T[] a) {
+        throw new UnsupportedOperationException("Operazione non supportata");
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new Itr();
+    }
+
+    /*
+     * Iteratore fail-fast: restituisce prima gli elementi dello snapshot non
+     * rimossi, decodificandoli uno alla volta, e poi quelli aggiunti.
+     */
+    private class Itr implements Iterator<E> {
+
+        // Prossima posizione della tabella da esaminare
+        private int slot;
+
+        private E nextElement;
+
+        private final Iterator<E> addedIterator;
+
+        private final int numeroModificheAtteso;
+
+        private Itr() {
+            this.numeroModificheAtteso = modCount;
+            this.slot = 0;
+            this.addedIterator = added.iterator();
+            this.advance();
+        }
+
+        /*
+         * Porta nextElement sul prossimo elemento da restituire, null se non
+         * ce ne sono altri.
+         */
+        private void advance() {
+            this.nextElement = null;
+            while (this.slot < capacity) {
+                int offset = buffer.getInt(slotsStart + this.slot * SLOT_BYTES + 4);
+                this.slot++;
+                if (offset != 0) {
+                    E e = decodeAt(offset);
+                    if (removed.isEmpty() || !removed.contains(e)) {
+                        this.nextElement = e;
+                        return;
+                    }
+                }
+            }
+            if (this.addedIterator.hasNext())
+                this.nextElement = this.addedIterator.next();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.nextElement != null;
+        }
+
+        @Override
+        public E next() {
+            if (this.numeroModificheAtteso != modCount)
+                throw new ConcurrentModificationException(
+                        "Insieme modificato durante l'iterazione");
+            if (!this.hasNext())
+                throw new NoSuchElementException("Non c'è un elemento successivo");
+            E e = this.nextElement;
+            this.advance();
+            return e;
+        }
+
+    }
+
+}
@@ -0,0 +1,202 @@
+package it.unicam.cs.asdl2324.es10;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Classe di test JUnit per la classe MappedHashSet
+ *
+ * @author Template: Luca Tesei, Implementazione: collettiva
+ *
+ */
+class MappedHashSetTest {
+
+    private PrimaryHashFunction phf = new FibonacciPrimaryHashFunction();
+
+    private Path file;
+
+    @BeforeEach
+    void createFile() throws IOException {
+        this.file = Files.createTempFile("mappedhashset", ".snap");
+    }
+
+    @AfterEach
+    void deleteFile() throws IOException {
+        Files.deleteIfExists(this.file);
+    }
+
+    @Test
+    final void testWriteAndOpen() throws IOException {
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
+                phf);
+        for (int i = -500; i < 1500; i += 3)
+            table.add(i);
+        MappedHashSet.write(table, ElementCodec.INTEGER, phf, file);
+        MappedHashSet<Integer> mapped = MappedHashSet.open(file,
+                ElementCodec.INTEGER, phf);
+        assertEquals(table.size(), mapped.size());
+        for (int i = -600; i < 1600; i++)
+            assertEquals(table.contains(i), mapped.contains(i));
+        assertFalse(mapped.contains("non un intero"));
+        assertThrows(NullPointerException.class, () -> mapped.contains(null));
+        Set<Integer> iterated = new HashSet<Integer>();
+        for (Integer v : mapped)
+            assertTrue(iterated.add(v));
+        assertEquals(table.size(), iterated.size());
+        assertTrue(mapped.containsAll(iterated));
+    }
+
+    @Test
+    final void testStrings() throws IOException {
+        Set<String> words = new HashSet<String>();
+        for (int i = 0; i < 1000; i++)
+            words.add("parola" + i + "àèì");
+        MappedHashSet.write(words, ElementCodec.STRING, phf, file);
+        MappedHashSet<String> mapped = MappedHashSet.open(file,
+                ElementCodec.STRING, phf);
+        assertEquals(1000, mapped.size());
+        assertTrue(mapped.contains("parola42àèì"));
+        assertFalse(mapped.contains("parola42"));
+        assertFalse(mapped.contains("parola1000àèì"));
+    }
+
+    @Test
+    final void testEmpty() throws IOException {
+        MappedHashSet.write(new HashSet<Long>(), ElementCodec.LONG, phf, file);
+        MappedHashSet<Long> mapped = MappedHashSet.open(file, ElementCodec.LONG,
+                phf);
+        assertTrue(mapped.isEmpty());
+        assertFalse(mapped.contains(0L));
+        assertFalse(mapped.iterator().hasNext());
+    }
+
+    @Test
+    final void testModificationsOverlay() throws IOException {
+        Set<Integer> initial = new HashSet<Integer>();
+        for (int i = 0; i < 100; i++)
+            initial.add(i);
+        MappedHashSet.write(initial, ElementCodec.INTEGER, phf, file);
+        MappedHashSet<Integer> mapped = MappedHashSet.open(file,
+                ElementCodec.INTEGER, phf);
+        assertFalse(mapped.add(5));
+        assertTrue(mapped.add(500));
+        assertFalse(mapped.add(500));
+        assertTrue(mapped.remove(5));
+        assertFalse(mapped.remove(5));
+        assertFalse(mapped.contains(5));
+        assertTrue(mapped.contains(500));
+        assertTrue(mapped.remove(500));
+        assertFalse(mapped.contains(500));
+        assertTrue(mapped.add(5));
+        assertTrue(mapped.contains(5));
+        assertTrue(mapped.remove(7));
+        assertTrue(mapped.add(-1));
+        assertEquals(100, mapped.size());
+        Set<Integer> iterated = new HashSet<Integer>();
+        for (Integer v : mapped)
+            iterated.add(v);
+        assertEquals(100, iterated.size());
+        assertFalse(iterated.contains(7));
+        assertTrue(iterated.contains(-1));
+
+        // Lo snapshot su file non cambia; un nuovo snapshot rende persistenti
+        // le modifiche
+        assertTrue(MappedHashSet.open(file, ElementCodec.INTEGER, phf)
+                .contains(7));
+        Path other = Files.createTempFile("mappedhashset", ".snap");
+        try {
+            MappedHashSet.write(mapped, ElementCodec.INTEGER, phf, other);
+            MappedHashSet<Integer> reopened = MappedHashSet.open(other,
+                    ElementCodec.INTEGER, phf);
+            assertFalse(reopened.contains(7));
+            assertTrue(reopened.contains(-1));
+            assertEquals(100, reopened.size());
+        } finally {
+            Files.deleteIfExists(other);
+        }
+    }
+
+    @Test
+    final void testWriteOnOwnSnapshot() throws IOException {
+        Set<Integer> s = new HashSet<Integer>();
+        for (int i = 0; i < 1000; i++)
+            s.add(i);
+        MappedHashSet.write(s, ElementCodec.INTEGER, phf, file);
+        MappedHashSet<Integer> mapped = MappedHashSet.open(file,
+                ElementCodec.INTEGER, phf);
+        mapped.remove(10);
+        mapped.add(5000);
+        // Il nuovo snapshot sostituisce il file da cui l'insieme è mappato
+        MappedHashSet.write(mapped, ElementCodec.INTEGER, phf, file);
+        assertEquals(1000, mapped.size());
+        assertTrue(mapped.contains(999));
+        MappedHashSet<Integer> reopened = MappedHashSet.open(file,
+                ElementCodec.INTEGER, phf);
+        assertEquals(1000, reopened.size());
+        assertFalse(reopened.contains(10));
+        assertTrue(reopened.contains(5000));
+        assertTrue(reopened.contains(0));
+        // Non restano file temporanei nella directory
+        try (Stream<Path> files = Files
+                .list(file.toAbsolutePath().getParent())) {
+            assertFalse(files.anyMatch(p -> p.getFileName().toString()
+                    .startsWith(file.getFileName().toString())
+                    && p.toString().endsWith(".tmp")));
+        }
+    }
+
+    @Test
+    final void testCorruptedOffsets() throws IOException {
+        Set<Integer> s = new HashSet<Integer>();
+        s.add(1);
+        MappedHashSet.write(s, ElementCodec.INTEGER, phf, file);
+        byte[] bytes = Files.readAllBytes(file);
+        // Porta fuori dal file la posizione dei dati di ogni elemento
+        for (int i = bytes.length - 4; i >= bytes.length - 2 * 8; i -= 8)
+            if (bytes[i] != 0 || bytes[i + 1] != 0 || bytes[i + 2] != 0
+                    || bytes[i + 3] != 0)
+                bytes[i] = 0x7f;
+        Files.write(file, bytes);
+        MappedHashSet<Integer> corrupted = MappedHashSet.open(file,
+                ElementCodec.INTEGER, phf);
+        assertThrows(IllegalArgumentException.class,
+                () -> corrupted.contains(1));
+        assertThrows(IllegalArgumentException.class,
+                () -> corrupted.iterator());
+        // Lunghezza dei dati oltre l'inizio della tabella
+        MappedHashSet.write(s, ElementCodec.INTEGER, phf, file);
+        bytes = Files.readAllBytes(file);
+        int dataStart = 20 + phf.getClass().getName().length();
+        bytes[dataStart] = 0x10;
+        Files.write(file, bytes);
+        MappedHashSet<Integer> longData = MappedHashSet.open(file,
+                ElementCodec.INTEGER, phf);
+        assertThrows(IllegalArgumentException.class,
+                () -> longData.contains(1));
+    }
+
+    @Test
+    final void testInvalidFiles() throws IOException {
+        Files.write(file, new byte[] { 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12,
+                13, 14, 15, 16, 17, 18, 19, 20 });
+        assertThrows(IllegalArgumentException.class,
+                () -> MappedHashSet.open(file, ElementCodec.INTEGER, phf));
+        Set<Integer> s = new HashSet<Integer>();
+        s.add(1);
+        MappedHashSet.write(s, ElementCodec.INTEGER, phf, file);
+        assertThrows(IllegalArgumentException.class,
+                () -> MappedHashSet.open(file, ElementCodec.INTEGER,
+                        new DivisionPrimaryHashFunction()));
+    }
+
+}
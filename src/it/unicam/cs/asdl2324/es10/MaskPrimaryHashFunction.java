@@ -0,0 +1,34 @@
+/**
+ * 
+ */
+package it.unicam.cs.asdl2324.es10;
+
+/**
+ * Implementa una funzione di hash primaria che, per tabelle la cui dimensione è
+ * una potenza di due, prende i bit meno significativi della chiave con una
+ * maschera. Per le altre dimensioni usa il resto della divisione, sempre non
+ * negativo.
+ * 
+ * E' la funzione più veloce possibile, ma distribuisce bene solo chiavi i cui
+ * bit bassi sono già ben distribuiti, ad esempio identificatori sequenziali:
+ * chiavi multiple di una potenza di due collidono tutte nelle stesse
+ * posizioni.
+ * 
+ * @author Template: Luca Tesei, Implementazione: collettiva
+ *
+ */
+public class MaskPrimaryHashFunction implements PrimaryHashFunction {
+
+    @Override
+    public int hash(int key, int m) {
+        if ((m & (m - 1)) == 0)
+            return key & (m - 1);
+        return Math.floorMod(key, m);
+    }
+
+    @Override
+    public int hashPowerOfTwo(int key, int m) {
+        return key & (m - 1);
+    }
+
+}
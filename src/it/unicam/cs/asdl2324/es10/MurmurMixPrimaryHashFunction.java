@@ -0,0 +1,50 @@
+/**
+ * 
+ */
+package it.unicam.cs.asdl2324.es10;
+
+/**
+ * Implementa una funzione di hash primaria che prima rimescola tutti i bit
+ * della chiave con il finalizzatore a 32 bit di MurmurHash3 (due
+ * moltiplicazioni e tre xor con shift) e poi riduce il risultato alla
+ * dimensione della tabella. Dopo il rimescolamento ogni bit del risultato
+ * dipende da tutti i bit della chiave, per cui anche i bit meno significativi
+ * sono ben distribuiti. La riduzione usa i bit più significativi del valore
+ * rimescolato, per cui con una tabella di dimensione potenza di due 2^p basta
+ * uno shift.
+ * 
+ * E' la scelta più robusta per chiavi con hashCode() poco vari o con regolarità
+ * nei bit bassi, al costo di qualche operazione in più rispetto a
+ * MaskPrimaryHashFunction e FibonacciPrimaryHashFunction.
+ * 
+ * @author Template: Luca Tesei, Implementazione: collettiva
+ *
+ */
+public class MurmurMixPrimaryHashFunction implements PrimaryHashFunction {
+
+    @Override
+    public int hash(int key, int m) {
+        // Riduzione su [0, m) con moltiplicazione e shift invece del modulo
+        return (int) ((mix(key) & 0xFFFFFFFFL) * m >>> 32);
+    }
+
+    @Override
+    public int hashPowerOfTwo(int key, int m) {
+        if (m == 1)
+            return 0;
+        return mix(key) >>> Integer.numberOfLeadingZeros(m - 1);
+    }
+
+    /*
+     * Finalizzatore fmix32 di MurmurHash3.
+     */
+    private static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+}
@@ -0,0 +1,385 @@
+/**
+ *
+ */
+package it.unicam.cs.asdl2324.es10;
+
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Realizza un insieme tramite una tabella hash a indirizzamento aperto con
+ * ispezione lineare. La funzione di hash primario deve essere passata come
+ * parametro nel costruttore e deve implementare l'interface
+ * PrimaryHashFunction: essa determina la prima posizione da ispezionare, le
+ * successive si ottengono scorrendo la tabella di una posizione alla volta.
+ *
+ * A differenza di CollisionListResizableHashTable non vengono creati nodi di
+ * liste di collisione: gli elementi sono memorizzati direttamente in un array
+ * di Object affiancato da un array parallelo di int che contiene l'hashCode di
+ * ciascun elemento. In questo modo una ricerca scorre posizioni contigue in
+ * memoria e confronta prima gli hashCode, chiamando equals() solo quando
+ * coincidono.
+ *
+ * La tabella, poiché implementa l'interfaccia Set<E> non accetta elementi
+ * duplicati (individuati tramite il metodo equals() che si assume sia
+ * opportunamente ridefinito nella classe E) e non accetta elementi null.
+ *
+ * Le rimozioni lasciano nella posizione liberata un marcatore (tombstone) in
+ * modo da non interrompere le sequenze di ispezione degli altri elementi. Le
+ * posizioni marcate vengono riutilizzate dagli inserimenti successivi. Quando
+ * le posizioni occupate (elementi più tombstone) eccedono la soglia data dal
+ * fattore di caricamento la tabella viene ricostruita: se sono gli elementi a
+ * superare la soglia la capacità viene raddoppiata, altrimenti la tabella viene
+ * ricostruita con la stessa capacità eliminando tutti i tombstone.
+ *
+ * La tabella ha una dimensione iniziale di default (16) e un fattore di
+ * caricamento di default (0.75).
+ *
+ * @author Template: Luca Tesei, Implementazione: collettiva
+ *
+ */
+@SuppressWarnings("unchecked")
+public class OpenAddressingResizableHashTable<E> implements Set<E> {
+
+    /*
+     * La capacità iniziale. E' una potenza di due e quindi la capacità sarà
+     * sempre una potenza di due, in quanto ogni resize raddoppia la tabella.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /*
+     * Fattore di bilanciamento di default. Tipico valore.
+     */
+    private static final double LOAD_FACTOR = 0.75;
+
+    /*
+     * Marcatore delle posizioni da cui è stato rimosso un elemento. Non è mai
+     * uguale (equals) a nessun elemento inseribile.
+     */
+    private static final Object TOMBSTONE = new Object();
+
+    /*
+     * Numero di elementi effettivamente presenti nella tabella.
+     */
+    private int size;
+
+    /*
+     * Numero di posizioni della tabella che contengono un tombstone.
+     */
+    private int tombstones;
+
+    /*
+     * Tabella degli elementi. Ogni posizione contiene null (posizione mai
+     * usata), TOMBSTONE (posizione liberata da una rimozione) oppure un
+     * elemento di tipo E.
+     */
+    private Object[] keys;
+
+    /*
+     * Array parallelo a keys: hashes[i] è l'hashCode dell'elemento in
+     * keys[i], calcolato una sola volta all'inserimento. Serve per scartare
+     * velocemente le posizioni che non possono contenere l'elemento cercato e
+     * per riposizionare gli elementi durante la resize senza richiamare
+     * hashCode().
+     */
+    private int[] hashes;
+
+    /*
+     * Funzione di hash primaria usata da questa hash table.
+     */
+    private final PrimaryHashFunction phf;
+
+    /*
+     * Contatore del numero di modifiche. Serve per rendere l'iterator
+     * fail-fast.
+     */
+    private int modCount;
+
+    /*
+     * Posizione iniziale di ispezione per l'hash h in una tabella di capacità
+     * m, sempre potenza di due.
+     */
+    private int slotOf(int h, int m) {
+        return this.phf.hashPowerOfTwo(h, m);
+    }
+
+    /* Numero di posizioni della tabella corrente */
+    private int getCurrentCapacity() {
+        return this.keys.length;
+    }
+
+    /*
+     * Valore corrente soglia oltre la quale si deve ricostruire la tabella,
+     * getCurrentCapacity * LOAD_FACTOR
+     */
+    private int getCurrentThreshold() {
+        return (int) (getCurrentCapacity() * LOAD_FACTOR);
+    }
+
+    /**
+     * Costruisce una Hash Table con capacità iniziale di default e fattore di
+     * caricamento di default.
+     *
+     * @param phf
+     *                la funzione di hash primaria da usare per determinare la
+     *                prima posizione da ispezionare
+     * @throws NullPointerException
+     *                                  se la funzione di hash è nulla
+     */
+    public OpenAddressingResizableHashTable(PrimaryHashFunction phf) {
+        if (phf == null)
+            throw new NullPointerException("Funzione di hash nulla!");
+        this.phf = phf;
+        this.keys = new Object[INITIAL_CAPACITY];
+        this.hashes = new int[INITIAL_CAPACITY];
+        this.size = 0;
+        this.tombstones = 0;
+        this.modCount = 0;
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        if (o == null)
+            throw new NullPointerException("L'elemento è nullo!");
+        return this.indexOf(o, o.hashCode()) >= 0;
+    }
+
+    /*
+     * Restituisce la posizione della tabella in cui si trova l'elemento o,
+     * avente hashCode h, oppure -1 se l'elemento non è presente. La ricerca si
+     * ferma alla prima posizione mai usata (null), mentre i tombstone vengono
+     * saltati.
+     */
+    private int indexOf(Object o, int h) {
+        int mask = this.getCurrentCapacity() - 1;
+        int i = this.slotOf(h, this.getCurrentCapacity());
+        Object k;
+        while ((k = this.keys[i]) != null) {
+            if (k != TOMBSTONE && this.hashes[i] == h && o.equals(k))
+                return i;
+            i = (i + 1) & mask;
+        }
+        return -1;
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new Itr();
+    }
+
+    @Override
+    public Object[] toArray() {
+        throw new UnsupportedOperationException("Operazione non supportata");
+    }
+
+    @Override
+    public <T> T[] toArray(T[] a) {
+        throw new UnsupportedOperationException("Operazione non supportata");
+    }
+
+    @Override
+    public boolean add(E e) {
+        if (e == null)
+            throw new NullPointerException("Elemento nullo!");
+        int h = e.hashCode();
+        int mask = this.getCurrentCapacity() - 1;
+        int i = this.slotOf(h, this.getCurrentCapacity());
+        // Prima posizione con tombstone incontrata, riutilizzabile se
+        // l'elemento non è presente
+        int firstFree = -1;
+        Object k;
+        while ((k = this.keys[i]) != null) {
+            if (k == TOMBSTONE) {
+                if (firstFree < 0)
+                    firstFree = i;
+            } else if (this.hashes[i] == h && e.equals(k))
+                return false; // Elemento già presente
+            i = (i + 1) & mask;
+        }
+        if (firstFree >= 0) {
+            // Riutilizza il tombstone
+            i = firstFree;
+            this.tombstones--;
+        }
+        this.keys[i] = e;
+        this.hashes[i] = h;
+        this.size++;
+        this.modCount++;
+        // Se le posizioni occupate superano la soglia ricostruisce la tabella
+        if (this.size + this.tombstones > this.getCurrentThreshold())
+            this.resize();
+        return true;
+    }
+
+    /*
+     * Ricostruisce la tabella. Se il numero di elementi supera la soglia la
+     * capacità viene raddoppiata, altrimenti la tabella ha troppi tombstone e
+     * viene ricostruita con la stessa capacità eliminandoli.
+     */
+    private void resize() {
+        int newCapacity = this.getCurrentCapacity();
+        if (this.size > this.getCurrentThreshold())
+            newCapacity = newCapacity * 2;
+        Object[] oldKeys = this.keys;
+        int[] oldHashes = this.hashes;
+        this.keys = new Object[newCapacity];
+        this.hashes = new int[newCapacity];
+        int mask = newCapacity - 1;
+        for (int j = 0; j < oldKeys.length; j++) {
+            Object k = oldKeys[j];
+            if (k == null || k == TOMBSTONE)
+                continue;
+            // Gli elementi sono tutti distinti: basta trovare la prima
+            // posizione libera senza confronti
+            int i = this.slotOf(oldHashes[j], newCapacity);
+            while (this.keys[i] != null)
+                i = (i + 1) & mask;
+            this.keys[i] = k;
+            this.hashes[i] = oldHashes[j];
+        }
+        this.tombstones = 0;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        // ATTENZIONE: la rimozione **non** comporta mai una resize "al
+        // ribasso", cioè un dimezzamento della tabella.
+        if (o == null)
+            throw new NullPointerException("Elemento nullo!");
+        int i = this.indexOf(o, o.hashCode());
+        if (i < 0)
+            return false;
+        // Se la posizione successiva non è mai stata usata nessuna sequenza di
+        // ispezione passa da qui e la posizione può tornare libera
+        if (this.keys[(i + 1) & (this.getCurrentCapacity() - 1)] == null)
+            this.keys[i] = null;
+        else {
+            this.keys[i] = TOMBSTONE;
+            this.tombstones++;
+        }
+        this.size--;
+        this.modCount++;
+        return true;
+    }
+
+    @Override
+    public boolean containsAll(Collection<?> c) {
+        for (Object o : c)
+            if (!this.contains(o))
+                return false;
+        return true;
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends E> c) {
+        boolean changed = false;
+        for (E e : c)
+            if (this.add(e))
+                changed = true;
+        return changed;
+    }
+
+    @Override
+    public boolean retainAll(Collection<?> c) {
+        throw new UnsupportedOperationException("Operazione non supportata");
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> c) {
+        boolean changed = false;
+        for (Object o : c)
+            if (this.remove(o))
+                changed = true;
+        return changed;
+    }
+
+    @Override
+    public void clear() {
+        // Ritorno alla situazione iniziale
+        this.keys = new Object[INITIAL_CAPACITY];
+        this.hashes = new int[INITIAL_CAPACITY];
+        this.size = 0;
+        this.tombstones = 0;
+        this.modCount++;
+    }
+
+    /*
+     * Iteratore fail-fast che scorre direttamente l'array degli elementi,
+     * saltando le posizioni vuote e i tombstone.
+     */
+    private class Itr implements Iterator<E> {
+
+        // Prossima posizione da restituire, keys.length se terminato
+        private int nextIndex;
+
+        private final int numeroModificheAtteso;
+
+        private Itr() {
+            this.numeroModificheAtteso = modCount;
+            this.nextIndex = this.advance(0);
+        }
+
+        /*
+         * Restituisce la prima posizione, a partire da i, che contiene un
+         * elemento.
+         */
+        private int advance(int i) {
+            while (i < keys.length && (keys[i] == null || keys[i] == TOMBSTONE))
+                i++;
+            return i;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.nextIndex < keys.length;
+        }
+
+        @Override
+        public E next() {
+            if (this.numeroModificheAtteso != modCount)
+                throw new ConcurrentModificationException(
+                        "Tabella modificata durante l'iterazione");
+            if (!this.hasNext())
+                throw new NoSuchElementException("Non c'è un elemento successivo");
+            E e = (E) keys[this.nextIndex];
+            this.nextIndex = this.advance(this.nextIndex + 1);
+            return e;
+        }
+
+    }
+
+    /*
+     * Only for JUnit testing purposes.
+     */
+    protected Object[] getTable() {
+        return this.keys;
+    }
+
+    /*
+     * Only for JUnit testing purposes.
+     */
+    protected int getTombstones() {
+        return this.tombstones;
+    }
+
+    /*
+     * Only for JUnit testing purposes.
+     */
+    protected PrimaryHashFunction getPhf() {
+        return this.phf;
+    }
+
+}
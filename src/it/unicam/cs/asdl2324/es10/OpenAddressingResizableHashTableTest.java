@@ -0,0 +1,164 @@
+package it.unicam.cs.asdl2324.es10;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Classe di test JUnit per la classe OpenAddressingResizableHashTable
+ *
+ * @author Template: Luca Tesei, Implementazione: collettiva
+ *
+ */
+class OpenAddressingResizableHashTableTest {
+
+    private PrimaryHashFunction divisionHash = new DivisionPrimaryHashFunction();
+
+    private PrimaryHashFunction multiplicationHash = new MultiplicationPrimaryHashFunction();
+
+    @Test
+    final void testConstructor() {
+        assertThrows(NullPointerException.class,
+                () -> new OpenAddressingResizableHashTable<Integer>(null));
+        OpenAddressingResizableHashTable<Integer> table = new OpenAddressingResizableHashTable<>(
+                divisionHash);
+        assertTrue(table.isEmpty());
+        assertEquals(16, table.getTable().length);
+    }
+
+    @Test
+    final void testAddContains() {
+        OpenAddressingResizableHashTable<Integer> table = new OpenAddressingResizableHashTable<>(
+                multiplicationHash);
+        assertThrows(NullPointerException.class, () -> table.add(null));
+        assertThrows(NullPointerException.class, () -> table.contains(null));
+        assertFalse(table.contains(42));
+        assertTrue(table.add(42));
+        assertFalse(table.add(42));
+        assertTrue(table.contains(42));
+        assertFalse(table.contains(10));
+        assertEquals(1, table.size());
+    }
+
+    @Test
+    final void testCollisions() {
+        // Con la divisione e capacità 16 questi valori finiscono tutti nella
+        // stessa posizione iniziale
+        OpenAddressingResizableHashTable<Integer> table = new OpenAddressingResizableHashTable<>(
+                divisionHash);
+        Integer vals[] = { 3, 19, 35, 51, 67 };
+        assertTrue(table.addAll(Arrays.asList(vals)));
+        for (Integer v : vals)
+            assertTrue(table.contains(v));
+        assertFalse(table.contains(83));
+        assertEquals(5, table.size());
+    }
+
+    @Test
+    final void testRemove() {
+        OpenAddressingResizableHashTable<Integer> table = new OpenAddressingResizableHashTable<>(
+                divisionHash);
+        assertThrows(NullPointerException.class, () -> table.remove(null));
+        Integer vals[] = { 3, 19, 35, 51 };
+        table.addAll(Arrays.asList(vals));
+        assertFalse(table.remove(4));
+        // Rimuove un elemento in mezzo alla sequenza di ispezione
+        assertTrue(table.remove(19));
+        assertFalse(table.contains(19));
+        assertTrue(table.contains(35));
+        assertTrue(table.contains(51));
+        assertEquals(1, table.getTombstones());
+        // Il tombstone viene riutilizzato
+        assertTrue(table.add(67));
+        assertEquals(0, table.getTombstones());
+        assertTrue(table.contains(67));
+        // Ultimo elemento della sequenza: la posizione torna libera
+        assertTrue(table.remove(51));
+        assertEquals(0, table.getTombstones());
+        assertEquals(3, table.size());
+    }
+
+    @Test
+    final void testShouldResize() {
+        OpenAddressingResizableHashTable<Integer> table = new OpenAddressingResizableHashTable<>(
+                divisionHash);
+        Integer vals[] = { 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12 };
+        table.addAll(Arrays.asList(vals));
+        int tableLengthBeforeAdd = table.getTable().length;
+        table.add(13);
+        assertEquals(tableLengthBeforeAdd * 2, table.getTable().length);
+        for (Integer v : vals)
+            assertTrue(table.contains(v));
+        assertTrue(table.contains(13));
+    }
+
+    @Test
+    final void testTombstonesPurgedWithoutGrowing() {
+        OpenAddressingResizableHashTable<Integer> table = new OpenAddressingResizableHashTable<>(
+                divisionHash);
+        // Inserimenti e rimozioni continue di valori che collidono: la
+        // tabella non deve crescere perché gli elementi restano pochi
+        for (int i = 0; i < 100; i++) {
+            table.add(i * 16);
+            table.add(i * 16 + 16);
+            table.remove(i * 16);
+        }
+        assertEquals(16, table.getTable().length);
+        assertEquals(1, table.size());
+        assertTrue(table.contains(1600));
+    }
+
+    @Test
+    final void testManyElements() {
+        OpenAddressingResizableHashTable<Integer> table = new OpenAddressingResizableHashTable<>(
+                multiplicationHash);
+        Set<Integer> expected = new HashSet<Integer>();
+        for (int i = -5000; i < 5000; i += 3) {
+            assertTrue(table.add(i));
+            expected.add(i);
+        }
+        for (int i = -5000; i < 5000; i += 6) {
+            assertTrue(table.remove(i));
+            expected.remove(i);
+        }
+        assertEquals(expected.size(), table.size());
+        for (int i = -5000; i < 5000; i++)
+            assertEquals(expected.contains(i), table.contains(i));
+        Set<Integer> iterated = new HashSet<Integer>();
+        for (Integer v : table)
+            assertTrue(iterated.add(v));
+        assertEquals(expected, iterated);
+    }
+
+    @Test
+    final void testIteratorShouldFailFast() {
+        OpenAddressingResizableHashTable<Integer> table = new OpenAddressingResizableHashTable<>(
+                divisionHash);
+        Integer vals[] = { 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11 };
+        table.addAll(Arrays.asList(vals));
+        Iterator<Integer> it = table.iterator();
+        it.next();
+        table.add(42);
+        assertThrows(ConcurrentModificationException.class, () -> it.next());
+    }
+
+    @Test
+    final void testClear() {
+        OpenAddressingResizableHashTable<Integer> table = new OpenAddressingResizableHashTable<>(
+                divisionHash);
+        for (int i = 0; i < 100; i++)
+            table.add(i);
+        table.clear();
+        assertTrue(table.isEmpty());
+        assertFalse(table.contains(5));
+        assertEquals(16, table.getTable().length);
+        assertFalse(table.iterator().hasNext());
+    }
+
+}
@@ -20,4 +20,23 @@ public interface PrimaryHashFunction {
      *         alla posizione della chiave passata nella tabella
      */
     public int hash(int key, int m);
+
+    /**
+     * Calcola l'hash primario di una chiave per il collocamento in una tabella
+     * hash la cui dimensione è una potenza di due. Le implementazioni possono
+     * ridefinire questo metodo per sostituire la riduzione modulo m con
+     * operazioni sui bit, ma il risultato deve essere sempre lo stesso di
+     * {@code hash(key, m)}. L'implementazione di default chiama
+     * {@code hash(key, m)}.
+     * 
+     * @param key
+     *                la chiave dell'elemento da collocare
+     * @param m
+     *                la dimensione della tabella hash, una potenza di due
+     * @return un valore compreso tra {@code 0} ed {@code m-1} che corrisponde
+     *         alla posizione della chiave passata nella tabella
+     */
+    public default int hashPowerOfTwo(int key, int m) {
+        return hash(key, m);
+    }
 }
@@ -0,0 +1,147 @@
+package it.unicam.cs.asdl2324.es10;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Confronta diverse funzioni di hash primarie sulle stesse sequenze di chiavi
+ * e sulla stessa dimensione di tabella (una potenza di due, come nelle tabelle
+ * di questo package). Per ogni funzione e ogni tipo di sequenza vengono
+ * misurati:
+ * 
+ * - la qualità della distribuzione, come numero massimo di chiavi in una
+ * stessa posizione e come rapporto tra il numero di confronti che servirebbero
+ * per cercare tutte le chiavi in una tabella con liste di collisione e il
+ * numero atteso con una funzione di hash uniforme (1.0 è il valore ideale,
+ * valori più alti indicano più collisioni);
+ * 
+ * - il tempo medio in nanosecondi per una chiamata di hashPowerOfTwo.
+ * 
+ * I dati sono scritti sul file hasheval.csv (Comma Separated Values) e sullo
+ * standard output. Il main può essere chiamato con il nome della directory di
+ * destinazione del file come parametro di linea di comando. Se non è presente
+ * nessun parametro allora si assume la directory corrente.
+ * 
+ * @author Template: Luca Tesei, Implementazione: collettiva
+ *
+ */
+public class PrimaryHashFunctionEvaluationFramework {
+
+    /*
+     * Dimensione della tabella usata per misurare la distribuzione.
+     */
+    private static final int CAPACITY = 1 << 16;
+
+    /*
+     * Numero di chiavi per sequenza: la tabella è riempita fino al fattore di
+     * caricamento 0.75.
+     */
+    private static final int KEYS = (int) (CAPACITY * 0.75);
+
+    /*
+     * Numero di passate sulle chiavi per la misura del tempo. Le prime
+     * WARMUP_ROUNDS non vengono conteggiate.
+     */
+    private static final int TIMED_ROUNDS = 50;
+
+    private static final int WARMUP_ROUNDS = 20;
+
+    public static void main(String[] args) {
+        String dirName = null;
+        if (args.length > 0)
+            dirName = args[0];
+        else
+            dirName = ".";
+        PrintStream o = null;
+        try {
+            o = new PrintStream(new File(dirName + "/" + "hasheval.csv"));
+        } catch (FileNotFoundException e) {
+            System.out.println("Errore creazione file di ouput" + dirName + "/"
+                    + "hasheval.csv");
+            System.exit(1);
+        }
+        List<PrimaryHashFunction> functions = new ArrayList<PrimaryHashFunction>();
+        functions.add(new DivisionPrimaryHashFunction());
+        functions.add(new MultiplicationPrimaryHashFunction());
+        functions.add(new MaskPrimaryHashFunction());
+        functions.add(new FibonacciPrimaryHashFunction());
+        functions.add(new MurmurMixPrimaryHashFunction());
+
+        // Sequenze di chiavi: identificatori consecutivi, chiavi con i bit
+        // bassi tutti uguali e chiavi casuali
+        List<String> sequenceNames = new ArrayList<String>();
+        List<int[]> sequences = new ArrayList<int[]>();
+        Random randomGenerator = new Random(42);
+        int[] sequential = new int[KEYS];
+        int[] strided = new int[KEYS];
+        int[] random = new int[KEYS];
+        for (int i = 0; i < KEYS; i++) {
+            sequential[i] = i;
+            strided[i] = i * 64;
+            random[i] = randomGenerator.nextInt();
+        }
+        sequenceNames.add("sequential");
+        sequences.add(sequential);
+        sequenceNames.add("strided64");
+        sequences.add(strided);
+        sequenceNames.add("random");
+        sequences.add(random);
+
+        String header = "Function,Sequence,MaxLoad,ProbeRatio,NsPerOp";
+        o.println(header);
+        System.out.println(header);
+        // Accumula i risultati per impedire al compilatore JIT di eliminare
+        // le chiamate misurate
+        long sink = 0;
+        for (PrimaryHashFunction f : functions) {
+            for (int s = 0; s < sequences.size(); s++) {
+                int[] keys = sequences.get(s);
+                // Distribuzione
+                int[] counts = new int[CAPACITY];
+                for (int k : keys) {
+                    int h = f.hashPowerOfTwo(k, CAPACITY);
+                    if (h < 0 || h >= CAPACITY || h != f.hash(k, CAPACITY))
+                        throw new IllegalStateException("La funzione "
+                                + f.getClass().getSimpleName()
+                                + " restituisce una posizione non valida per la chiave "
+                                + k);
+                    counts[h]++;
+                }
+                int maxLoad = 0;
+                double probes = 0;
+                for (int c : counts) {
+                    maxLoad = Math.max(maxLoad, c);
+                    probes += c * (c + 1) / 2.0;
+                }
+                double expected = (KEYS / (2.0 * CAPACITY))
+                        * (KEYS + 2.0 * CAPACITY - 1);
+                // Tempo
+                long elapsedTimeNano = 0;
+                for (int r = 0; r < WARMUP_ROUNDS + TIMED_ROUNDS; r++) {
+                    long startTimeNano = System.nanoTime();
+                    for (int k : keys)
+                        sink += f.hashPowerOfTwo(k, CAPACITY);
+                    if (r >= WARMUP_ROUNDS)
+                        elapsedTimeNano += System.nanoTime() - startTimeNano;
+                }
+                double nsPerOp = (double) elapsedTimeNano
+                        / ((long) TIMED_ROUNDS * keys.length);
+                String line = f.getClass().getSimpleName() + ","
+                        + sequenceNames.get(s) + "," + maxLoad + ","
+                        + String.format(Locale.ROOT, "%.3f", probes / expected) + ","
+                        + String.format(Locale.ROOT, "%.3f", nsPerOp);
+                o.println(line);
+                System.out.println(line);
+            }
+        }
+        o.close();
+        if (sink == 42)
+            System.out.println();
+    } // end main
+
+}
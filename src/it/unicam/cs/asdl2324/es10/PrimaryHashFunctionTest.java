@@ -0,0 +1,88 @@
+package it.unicam.cs.asdl2324.es10;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Classe di test JUnit per le implementazioni di PrimaryHashFunction
+ *
+ * @author Template: Luca Tesei, Implementazione: collettiva
+ *
+ */
+class PrimaryHashFunctionTest {
+
+    private PrimaryHashFunction[] functions = {
+            new DivisionPrimaryHashFunction(),
+            new MultiplicationPrimaryHashFunction(),
+            new MaskPrimaryHashFunction(), new FibonacciPrimaryHashFunction(),
+            new MurmurMixPrimaryHashFunction() };
+
+    private int[] keys() {
+        Random r = new Random(7);
+        int[] keys = new int[1000];
+        for (int i = 0; i < 990; i++)
+            keys[i] = r.nextInt();
+        keys[990] = 0;
+        keys[991] = 1;
+        keys[992] = -1;
+        keys[993] = Integer.MIN_VALUE;
+        keys[994] = Integer.MAX_VALUE;
+        keys[995] = -16;
+        keys[996] = 16;
+        keys[997] = -17;
+        keys[998] = 1024;
+        keys[999] = -1025;
+        return keys;
+    }
+
+    @Test
+    final void testRange() {
+        int[] sizes = { 1, 7, 10, 100, 1000003 };
+        for (PrimaryHashFunction f : functions)
+            for (int m : sizes)
+                for (int k : keys()) {
+                    int h = f.hash(k, m);
+                    assertTrue(h >= 0 && h < m, f.getClass().getSimpleName()
+                            + " hash(" + k + ", " + m + ") = " + h);
+                }
+    }
+
+    @Test
+    final void testPowerOfTwoConsistentWithHash() {
+        for (PrimaryHashFunction f : functions)
+            for (int p = 0; p <= 30; p++) {
+                int m = 1 << p;
+                for (int k : keys()) {
+                    int h = f.hashPowerOfTwo(k, m);
+                    assertTrue(h >= 0 && h < m);
+                    assertEquals(f.hash(k, m), h, f.getClass().getSimpleName()
+                            + " key " + k + " m " + m);
+                }
+            }
+    }
+
+    @Test
+    final void testMixersSpreadStridedKeys() {
+        // Chiavi multiple di 64: con la maschera finiscono tutte in 1/64 delle
+        // posizioni, con le funzioni che rimescolano i bit no
+        int m = 1024;
+        PrimaryHashFunction[] mixers = { new FibonacciPrimaryHashFunction(),
+                new MurmurMixPrimaryHashFunction() };
+        for (PrimaryHashFunction f : mixers) {
+            boolean[] used = new boolean[m];
+            int distinct = 0;
+            for (int i = 0; i < m; i++) {
+                int h = f.hashPowerOfTwo(i * 64, m);
+                if (!used[h]) {
+                    used[h] = true;
+                    distinct++;
+                }
+            }
+            assertTrue(distinct > m / 2, f.getClass().getSimpleName());
+        }
+    }
+
+}
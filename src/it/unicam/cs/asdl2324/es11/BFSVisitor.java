@@ -1,10 +1,5 @@
 package it.unicam.cs.asdl2324.es11;
 
-import java.util.HashSet;
-import java.util.LinkedList;
-import java.util.Queue;
-import java.util.Set;
-
 /**
  * Classe singoletto che fornisce lo schema generico di visita Breadth-First di
  * un grafo rappresentato da un oggetto di tipo Graph<L>.
@@ -15,7 +10,7 @@ import java.util.Set;
  */
 public class BFSVisitor<L> {
 
-	/**
+    /**
      * Esegue la visita in ampiezza di un certo grafo a partire da un nodo
      * sorgente. Setta i valori seguenti valori associati ai nodi: distanza
      * intera, predecessore. La distanza indica il numero minimo di archi che si
@@ -25,6 +20,10 @@ public class BFSVisitor<L> {
      * visitNode sul nodo. In questa classe il metodo non fa niente, basta
      * creare una sottoclasse e ridefinire il metodo per eseguire azioni
      * particolari.
+     *
+     * La visita viene eseguita su un contesto creato per l'occasione, i cui
+     * dati sono poi copiati nei nodi: per visitare lo stesso grafo da più
+     * thread contemporaneamente si usa il metodo che riceve un contesto.
      * 
      * @param g
      *                   il grafo da visitare.
@@ -37,61 +36,95 @@ public class BFSVisitor<L> {
      *                                      al grafo dato
      */
     public void BFSVisit(Graph<L> g, GraphNode<L> source) {
-        // NOTA: chiamare il metodo visitNode quando un nodo passa da grigio a nero
         if (g == null || source == null) {
             throw new NullPointerException("Grafo o nodo sorgente nulli");
         }
+        TraversalContext<L> context = new TraversalContext<L>(g);
+        this.BFSVisit(g, source, context);
+        context.copyTo();
+    }
+
+    /**
+     * Esegue la visita in ampiezza di un certo grafo a partire da un nodo
+     * sorgente, registrando distanza intera, predecessore e colore dei nodi
+     * nel contesto dato invece che nei nodi, che non vengono modificati. Il
+     * contesto viene prima riportato allo stato iniziale. Ogni volta che un
+     * nodo viene visitato viene eseguito il metodo visitNode sul nodo.
+     *
+     * @param g
+     *                    il grafo da visitare.
+     * @param source
+     *                    il nodo sorgente.
+     * @param context
+     *                    il contesto della visita, creato per il grafo g
+     * @throws NullPointerException
+     *                                      se almeno un valore passato è null
+     * @throws IllegalArgumentException
+     *                                      se il nodo sorgente non appartiene
+     *                                      al grafo dato o il contesto non ha
+     *                                      il numero di nodi del grafo
+     */
+    public void BFSVisit(Graph<L> g, GraphNode<L> source,
+            TraversalContext<L> context) {
+        // NOTA: chiamare il metodo visitNode quando un nodo passa da grigio a nero
+        if (g == null || source == null || context == null) {
+            throw new NullPointerException(
+                    "Grafo, nodo sorgente o contesto nulli");
+        }
         // Controlla se il grafo contiene il nodo sorgente dato
-        if (!g.getNodes().contains(source)) {
+        if (!g.containsNode(source)) {
             throw new IllegalArgumentException("Nodo sorgente non appartenente al grafo dato");
         }
+        if (context.nodeCount() != g.nodeCount()) {
+            throw new IllegalArgumentException(
+                    "Il contesto non ha lo stesso numero di nodi del grafo");
+        }
 
-        // Crea un insieme di nodi non ancora visitati (bianchi)
-        Set<GraphNode<L>> nodesToVisit = new HashSet<>(g.getNodes());
-        // Crea una lista di nodi visitati i cui vicini non sono stati visitati (grigi)
-        Queue<GraphNode<L>> nodesWithUnvisitedNeighbors = new LinkedList<>();
+        // Riporta i nodi ai valori di default che rappresentano un nodo non
+        // visitato, così l'algoritmo BFS può calcolare correttamente questi
+        // valori per ciascun nodo
+        context.reset();
 
-        // Imposta i nodi del grafo ai valori di default che rappresentano un nodo non visitato
-        // Così l'algoritmo BFS può calcolare correttamente questi valori per ciascun nodo
-        for (GraphNode<L> node : g.getNodes()) {
-            node.setColor(GraphNode.COLOR_WHITE);
-            node.setIntegerDistance(-1);
-            node.setPrevious(null);
-        }
+        // Coda degli indici dei nodi visitati i cui vicini non sono stati
+        // visitati (grigi): ogni nodo vi entra al più una volta
+        int[] queue = new int[context.nodeCount()];
+        int head = 0;
+        int tail = 0;
 
         // Imposta il nodo sorgente come visitato
-        source.setColor(GraphNode.COLOR_GREY);
-        source.setIntegerDistance(0);
-        nodesWithUnvisitedNeighbors.add(source);
+        int s = context.indexOf(source);
+        context.color[s] = GraphNode.COLOR_GREY;
+        context.integerDistance[s] = 0;
+        queue[tail++] = s;
 
         // Finché non c'è più nessun nodo i cui vicini non sono stati visitati
-        while (!nodesWithUnvisitedNeighbors.isEmpty()) {
+        while (head < tail) {
             // Estrae il nodo i cui vicini sono da visitare
-            GraphNode<L> current = nodesWithUnvisitedNeighbors.poll();
-            // Rimuove il nodo dai nodi ancora da visitare
-            nodesToVisit.remove(current);
+            int u = queue[head++];
+            GraphNode<L> current = context.getNode(u);
 
             // Itera sugli archi di questo nodo
             for (GraphEdge<L> e : g.getEdgesOf(current)) {
-                // Per ogni arco ottiene il nodo destinazione
-                GraphNode<L> neighbor = e.getNode2();
+                // Per ogni arco ottiene il nodo destinazione, che nel caso non
+                // orientato può essere uno qualsiasi dei due estremi
+                GraphNode<L> neighbor = current.equals(e.getNode1()) ? e.getNode2() : e.getNode1();
+                int v = context.indexOf(neighbor);
                 // Se il colore del nodo destinazione è bianco, vuol dire che è ancora da visitare
-                if (neighbor.getColor() == GraphNode.COLOR_WHITE) {
+                if (context.color[v] == GraphNode.COLOR_WHITE) {
                     // Imposta i suoi valori correttamente
-                    neighbor.setColor(GraphNode.COLOR_GREY);
-                    neighbor.setIntegerDistance(current.getIntegerDistance() + 1);
-                    neighbor.setPrevious(current);
-                    // Aggiunge il nodo destinazione alla lista dei nodi i cui vicini sono da visitare
-                    nodesWithUnvisitedNeighbors.add(neighbor);
+                    context.color[v] = GraphNode.COLOR_GREY;
+                    context.integerDistance[v] = context.integerDistance[u] + 1;
+                    context.previous[v] = u;
+                    // Aggiunge il nodo destinazione alla coda dei nodi i cui vicini sono da visitare
+                    queue[tail++] = v;
                 }
             }
 
             // Il nodo viene visitato e il suo colore impostato a nero
-            current.setColor(GraphNode.COLOR_BLACK);
+            context.color[u] = GraphNode.COLOR_BLACK;
             visitNode(current);
         }
     }
-    
 
     /**
      * Questo metodo, che di default non fa niente, viene chiamato su tutti i
@@ -9,8 +9,9 @@ package it.unicam.cs.asdl2324.es11;
  */
 public class DFSVisitor<L> {
 
-    // Variabile "globale" per far andare avanti il tempo durante la DFS e
-    // assegnare i relativi tempi di scoperta e di uscita dei nodi
+    // Tempo dell'ultima visita eseguita con DFSVisit(Graph): le visite con un
+    // contesto fanno avanzare il tempo nel contesto, per cui lo stesso
+    // visitatore può essere usato da più thread
     // E' protected per permettere il test JUnit
     protected int time;
 
@@ -21,6 +22,10 @@ public class DFSVisitor<L> {
      * metodo visitNode sul nodo. In questa classe il metodo non fa niente,
      * basta creare una sottoclasse e ridefinire il metodo per eseguire azioni
      * particolari.
+     *
+     * La visita viene eseguita su un contesto creato per l'occasione, i cui
+     * dati sono poi copiati nei nodi: per visitare lo stesso grafo da più
+     * thread contemporaneamente si usa il metodo che riceve un contesto.
      * 
      * @param g
      *              il grafo da visitare.
@@ -28,20 +33,43 @@ public class DFSVisitor<L> {
      *                                  se il grafo passato è null
      */
     public void DFSVisit(Graph<L> g) {
-        // TODO implementare
-        // NOTA: inizializza il grafo e chiama la recDFS sui nodi in un ordine
-        // qualsiasi per calcolare la "foresta" DFS
-        for (GraphNode<L> node : g.getNodes()) {
-            node.setColor(GraphNode.COLOR_WHITE);
-            node.setIntegerDistance(-1);
-            node.setPrevious(null);
-        }
-        // Inizializza il tempo
-        this.time = 0;
+        TraversalContext<L> context = new TraversalContext<L>(g);
+        this.DFSVisit(g, context);
+        context.copyTo();
+        this.time = context.time;
+    }
+
+    /**
+     * Esegue la visita in profondità di un certo grafo, registrando tempo di
+     * scoperta, tempo di fine visita, predecessore e colore dei nodi nel
+     * contesto dato invece che nei nodi, che non vengono modificati. Il
+     * contesto viene prima riportato allo stato iniziale. Ogni volta che un
+     * nodo viene visitato viene eseguito il metodo visitNode sul nodo.
+     *
+     * @param g
+     *                    il grafo da visitare.
+     * @param context
+     *                    il contesto della visita, creato per il grafo g
+     * @throws NullPointerException
+     *                                      se il grafo o il contesto sono null
+     * @throws IllegalArgumentException
+     *                                      se il contesto non ha il numero di
+     *                                      nodi del grafo
+     */
+    public void DFSVisit(Graph<L> g, TraversalContext<L> context) {
+        // NOTA: inizializza il contesto e chiama la recDFS sui nodi in un
+        // ordine qualsiasi per calcolare la "foresta" DFS
+        if (g == null || context == null)
+            throw new NullPointerException("Grafo o contesto nulli");
+        if (context.nodeCount() != g.nodeCount())
+            throw new IllegalArgumentException(
+                    "Il contesto non ha lo stesso numero di nodi del grafo");
+        // Riporta tutti i nodi a bianco e inizializza il tempo
+        context.reset();
         // Esegue la DFS su ogni nodo
-        for (GraphNode<L> node : g.getNodes()) {
-            if (node.getColor() == GraphNode.COLOR_WHITE) {
-                recDFS(g, node);
+        for (int i = 0; i < context.nodeCount(); i++) {
+            if (context.color[i] == GraphNode.COLOR_WHITE) {
+                recDFS(g, i, context);
             }
         }
 
@@ -52,31 +80,37 @@ public class DFSVisitor<L> {
      * 
      * @param g il grafo
      * 
-     * @param u il nodo su cui parte la DFS
+     * @param u l'indice nel contesto del nodo su cui parte la DFS
+     * 
+     * @param context il contesto della visita
      */
-    protected void recDFS(Graph<L> g, GraphNode<L> u) {
-        // TODO implementare ricorsivamente
+    protected void recDFS(Graph<L> g, int u, TraversalContext<L> context) {
         // NOTA: chiamare il metodo visitNode alla "scoperta" di un nuovo nodo
     	// Imposta il colore del nodo corrente su grigio
-        u.setColor(GraphNode.COLOR_GREY);
+        context.color[u] = GraphNode.COLOR_GREY;
         // Incrementa il tempo
-        time++;
-        // Imposta il tempo di ingresso e di uscita per il nodo corrente
-        u.setEnteringTime(time);
-        u.setExitingTime(time);
+        context.time++;
+        // Imposta il tempo di ingresso per il nodo corrente
+        context.enteringTime[u] = context.time;
+        GraphNode<L> current = context.getNode(u);
         // Itera sugli archi in uscita del nodo corrente
-        for (GraphEdge<L> e : g.getEdgesOf(u)) {
-            // Per ogni arco ottiene il nodo destinazione
-            GraphNode<L> neighbor = e.getNode2();
+        for (GraphEdge<L> e : g.getEdgesOf(current)) {
+            // Per ogni arco ottiene l'altro estremo
+            GraphNode<L> neighbor = current.equals(e.getNode1()) ? e.getNode2() : e.getNode1();
+            int v = context.indexOf(neighbor);
             // Se il colore del nodo destinazione è bianco, vuol dire che è ancora da visitare
-            if (neighbor.getColor() == GraphNode.COLOR_WHITE) {
-                neighbor.setPrevious(u);
+            if (context.color[v] == GraphNode.COLOR_WHITE) {
+                context.previous[v] = u;
                 // Richiama ricorsivamente la DFS sul nodo di destinazione
-                recDFS(g, neighbor);
+                recDFS(g, v, context);
             }
         }
-        // Imposta il colore del nodo a nero perchè è stato visitato
-        u.setColor(GraphNode.COLOR_BLACK);
+        // Imposta il colore del nodo a nero perchè è stato visitato e assegna
+        // il tempo di fine visita
+        context.color[u] = GraphNode.COLOR_BLACK;
+        context.time++;
+        context.exitingTime[u] = context.time;
+        visitNode(current);
     }
 
     /**
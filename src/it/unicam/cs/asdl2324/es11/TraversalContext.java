@@ -0,0 +1,256 @@
+package it.unicam.cs.asdl2324.es11;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Stato di una singola visita o di un singolo calcolo su un grafo, tenuto
+ * fuori dagli oggetti GraphNode. Il contesto assegna a ogni nodo del grafo un
+ * indice, nell'ordine restituito da getNodes(), e memorizza in array di tipo
+ * primitivo indicizzati in questo modo gli stessi dati che altrimenti
+ * verrebbero scritti nei campi dei nodi: colore, distanza intera, distanza in
+ * virgola mobile, tempi di scoperta e di fine visita e predecessore.
+ *
+ * La corrispondenza tra nodi e indici viene costruita una sola volta per
+ * grafo e può essere condivisa, in sola lettura, da più contesti tramite il
+ * costruttore che riceve un altro contesto. Gli algoritmi che accettano un
+ * contesto non modificano i nodi del grafo: usando un contesto diverso per
+ * ogni interrogazione, lo stesso grafo può essere visitato da più thread
+ * contemporaneamente, purché nessuno lo modifichi. Un contesto non può invece
+ * essere usato da due interrogazioni contemporanee. Il metodo copyTo riporta
+ * i dati del contesto nei nodi del grafo per il codice che li legge da lì.
+ *
+ * @author Template: Luca Tesei, Implementazione: collettiva
+ *
+ * @param <L>
+ *                le etichette dei nodi del grafo
+ */
+public class TraversalContext<L> {
+
+    /*
+     * Nodi del grafo in ordine di indice e indice di ogni nodo, condivisi tra
+     * tutti i contesti dello stesso grafo.
+     */
+    private final List<GraphNode<L>> nodes;
+
+    private final Map<GraphNode<L>, Integer> indexes;
+
+    /*
+     * Dati dei nodi, in posizione i quelli del nodo di indice i. Il
+     * predecessore è memorizzato come indice, -1 se il nodo non ne ha.
+     */
+    final int[] color;
+
+    final int[] integerDistance;
+
+    final double[] floatingPointDistance;
+
+    final int[] enteringTime;
+
+    final int[] exitingTime;
+
+    final int[] previous;
+
+    /*
+     * Tempo corrente della visita in profondità.
+     */
+    int time;
+
+    /**
+     * Crea un contesto per un grafo, con tutti i nodi nello stato iniziale
+     * descritto in reset. Il contesto resta valido finché il grafo non viene
+     * modificato.
+     *
+     * @param g
+     *              il grafo
+     * @throws NullPointerException
+     *                                  se il grafo è nullo
+     */
+    public TraversalContext(Graph<L> g) {
+        if (g == null)
+            throw new NullPointerException("Grafo nullo!");
+        List<GraphNode<L>> nodes = new ArrayList<GraphNode<L>>(g.getNodes());
+        Map<GraphNode<L>, Integer> indexes = new HashMap<GraphNode<L>, Integer>(
+                2 * nodes.size());
+        for (int i = 0; i < nodes.size(); i++)
+            indexes.put(nodes.get(i), i);
+        this.nodes = Collections.unmodifiableList(nodes);
+        this.indexes = Collections.unmodifiableMap(indexes);
+        int n = nodes.size();
+        this.color = new int[n];
+        this.integerDistance = new int[n];
+        this.floatingPointDistance = new double[n];
+        this.enteringTime = new int[n];
+        this.exitingTime = new int[n];
+        this.previous = new int[n];
+        this.reset();
+    }
+
+    /**
+     * Crea un nuovo contesto per lo stesso grafo di un altro contesto,
+     * condividendone la corrispondenza tra nodi e indici, con tutti i nodi
+     * nello stato iniziale descritto in reset.
+     *
+     * @param other
+     *                  un contesto per il grafo
+     * @throws NullPointerException
+     *                                  se il contesto è nullo
+     */
+    public TraversalContext(TraversalContext<L> other) {
+        if (other == null)
+            throw new NullPointerException("Contesto nullo!");
+        this.nodes = other.nodes;
+        this.indexes = other.indexes;
+        int n = this.nodes.size();
+        this.color = new int[n];
+        this.integerDistance = new int[n];
+        this.floatingPointDistance = new double[n];
+        this.enteringTime = new int[n];
+        this.exitingTime = new int[n];
+        this.previous = new int[n];
+        this.reset();
+    }
+
+    /**
+     * Riporta tutti i nodi allo stato iniziale: colore bianco, distanza intera
+     * -1, distanza in virgola mobile infinita, tempi 0 e nessun predecessore.
+     */
+    public void reset() {
+        Arrays.fill(this.color, GraphNode.COLOR_WHITE);
+        Arrays.fill(this.integerDistance, -1);
+        Arrays.fill(this.floatingPointDistance, Double.POSITIVE_INFINITY);
+        Arrays.fill(this.enteringTime, 0);
+        Arrays.fill(this.exitingTime, 0);
+        Arrays.fill(this.previous, -1);
+        this.time = 0;
+    }
+
+    /**
+     * Restituisce il numero di nodi del grafo a cui si riferisce il contesto.
+     *
+     * @return il numero di nodi
+     */
+    public int nodeCount() {
+        return this.nodes.size();
+    }
+
+    /*
+     * Indice di un nodo del grafo.
+     */
+    int indexOf(GraphNode<L> node) {
+        if (node == null)
+            throw new NullPointerException("Nodo nullo!");
+        Integer i = this.indexes.get(node);
+        if (i == null)
+            throw new IllegalArgumentException(
+                    "Nodo non appartenente al grafo del contesto");
+        return i;
+    }
+
+    /*
+     * Nodo di indice dato.
+     */
+    GraphNode<L> getNode(int i) {
+        return this.nodes.get(i);
+    }
+
+    /**
+     * @param node
+     *                 un nodo del grafo
+     * @return il colore del nodo
+     * @throws NullPointerException
+     *                                      se il nodo è nullo
+     * @throws IllegalArgumentException
+     *                                      se il nodo non appartiene al grafo
+     */
+    public int getColor(GraphNode<L> node) {
+        return this.color[this.indexOf(node)];
+    }
+
+    /**
+     * @param node
+     *                 un nodo del grafo
+     * @return la distanza intera del nodo, -1 se non calcolata
+     * @throws NullPointerException
+     *                                      se il nodo è nullo
+     * @throws IllegalArgumentException
+     *                                      se il nodo non appartiene al grafo
+     */
+    public int getIntegerDistance(GraphNode<L> node) {
+        return this.integerDistance[this.indexOf(node)];
+    }
+
+    /**
+     * @param node
+     *                 un nodo del grafo
+     * @return la distanza in virgola mobile del nodo
+     * @throws NullPointerException
+     *                                      se il nodo è nullo
+     * @throws IllegalArgumentException
+     *                                      se il nodo non appartiene al grafo
+     */
+    public double getFloatingPointDistance(GraphNode<L> node) {
+        return this.floatingPointDistance[this.indexOf(node)];
+    }
+
+    /**
+     * @param node
+     *                 un nodo del grafo
+     * @return il tempo di scoperta del nodo
+     * @throws NullPointerException
+     *                                      se il nodo è nullo
+     * @throws IllegalArgumentException
+     *                                      se il nodo non appartiene al grafo
+     */
+    public int getEnteringTime(GraphNode<L> node) {
+        return this.enteringTime[this.indexOf(node)];
+    }
+
+    /**
+     * @param node
+     *                 un nodo del grafo
+     * @return il tempo di fine visita del nodo
+     * @throws NullPointerException
+     *                                      se il nodo è nullo
+     * @throws IllegalArgumentException
+     *                                      se il nodo non appartiene al grafo
+     */
+    public int getExitingTime(GraphNode<L> node) {
+        return this.exitingTime[this.indexOf(node)];
+    }
+
+    /**
+     * @param node
+     *                 un nodo del grafo
+     * @return il predecessore del nodo, null se non ha predecessore
+     * @throws NullPointerException
+     *                                      se il nodo è nullo
+     * @throws IllegalArgumentException
+     *                                      se il nodo non appartiene al grafo
+     */
+    public GraphNode<L> getPrevious(GraphNode<L> node) {
+        int p = this.previous[this.indexOf(node)];
+        return p == -1 ? null : this.nodes.get(p);
+    }
+
+    /**
+     * Copia i dati del contesto nei campi dei nodi del grafo.
+     */
+    public void copyTo() {
+        for (int i = 0; i < this.nodes.size(); i++) {
+            GraphNode<L> node = this.nodes.get(i);
+            node.setColor(this.color[i]);
+            node.setIntegerDistance(this.integerDistance[i]);
+            node.setFloatingPointDistance(this.floatingPointDistance[i]);
+            node.setEnteringTime(this.enteringTime[i]);
+            node.setExitingTime(this.exitingTime[i]);
+            int p = this.previous[i];
+            node.setPrevious(p == -1 ? null : this.nodes.get(p));
+        }
+    }
+
+}
@@ -0,0 +1,141 @@
+package it.unicam.cs.asdl2324.es11;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Classe di test per le visite BFSVisitor e DFSVisitor eseguite su un
+ * TraversalContext.
+ *
+ * @author Template: Luca Tesei, Implementazione: collettiva
+ */
+class TraversalContextTest {
+
+    /*
+     * Cammino 0 - 1 - ... - (n - 1) più il nodo isolato n.
+     */
+    private List<GraphNode<Integer>> path(Graph<Integer> g, int n) {
+        List<GraphNode<Integer>> nodes = new ArrayList<GraphNode<Integer>>();
+        for (int i = 0; i <= n; i++) {
+            nodes.add(new GraphNode<Integer>(i));
+            g.addNode(nodes.get(i));
+        }
+        for (int i = 0; i + 1 < n; i++)
+            g.addEdge(new GraphEdge<Integer>(nodes.get(i), nodes.get(i + 1),
+                    false));
+        return nodes;
+    }
+
+    @Test
+    final void testBFSVisitDoesNotTouchNodes() {
+        Graph<Integer> g = new MapAdjacentListUndirectedGraph<Integer>();
+        List<GraphNode<Integer>> nodes = this.path(g, 5);
+        TraversalContext<Integer> context = new TraversalContext<Integer>(g);
+        new BFSVisitor<Integer>().BFSVisit(g, nodes.get(2), context);
+        assertEquals(0, context.getIntegerDistance(nodes.get(2)));
+        assertEquals(2, context.getIntegerDistance(nodes.get(0)));
+        assertEquals(2, context.getIntegerDistance(nodes.get(4)));
+        assertSame(nodes.get(1), context.getPrevious(nodes.get(0)));
+        assertNull(context.getPrevious(nodes.get(2)));
+        assertEquals(-1, context.getIntegerDistance(nodes.get(5)));
+        assertEquals(GraphNode.COLOR_WHITE, context.getColor(nodes.get(5)));
+        assertEquals(GraphNode.COLOR_BLACK, context.getColor(nodes.get(4)));
+        // I nodi del grafo non sono stati modificati
+        for (GraphNode<Integer> node : nodes) {
+            assertNull(node.getPrevious());
+            assertEquals(GraphNode.COLOR_WHITE, node.getColor());
+        }
+        // La visita senza contesto scrive i risultati nei nodi
+        new BFSVisitor<Integer>().BFSVisit(g, nodes.get(2));
+        assertEquals(2, nodes.get(0).getIntegerDistance());
+        assertSame(nodes.get(1), nodes.get(0).getPrevious());
+    }
+
+    @Test
+    final void testDFSVisit() {
+        Graph<Integer> g = new MapAdjacentListUndirectedGraph<Integer>();
+        List<GraphNode<Integer>> nodes = this.path(g, 4);
+        TraversalContext<Integer> context = new TraversalContext<Integer>(g);
+        new DFSVisitor<Integer>().DFSVisit(g, context);
+        for (GraphNode<Integer> node : nodes) {
+            assertEquals(GraphNode.COLOR_BLACK, context.getColor(node));
+            assertTrue(context.getEnteringTime(node) < context
+                    .getExitingTime(node));
+            GraphNode<Integer> p = context.getPrevious(node);
+            // Il padre viene scoperto prima e finisce dopo
+            if (p != null) {
+                assertTrue(context.getEnteringTime(p) < context
+                        .getEnteringTime(node));
+                assertTrue(context.getExitingTime(node) < context
+                        .getExitingTime(p));
+            }
+            assertEquals(0, node.getEnteringTime());
+        }
+        DFSVisitor<Integer> visitor = new DFSVisitor<Integer>();
+        visitor.DFSVisit(g);
+        assertEquals(2 * nodes.size(), visitor.time);
+        for (GraphNode<Integer> node : nodes)
+            assertTrue(node.getExitingTime() > 0);
+    }
+
+    @Test
+    final void testContextExceptions() {
+        Graph<Integer> g = new MapAdjacentListUndirectedGraph<Integer>();
+        List<GraphNode<Integer>> nodes = this.path(g, 3);
+        assertThrows(NullPointerException.class,
+                () -> new TraversalContext<Integer>((Graph<Integer>) null));
+        TraversalContext<Integer> context = new TraversalContext<Integer>(g);
+        assertThrows(IllegalArgumentException.class,
+                () -> context.getColor(new GraphNode<Integer>(42)));
+        g.addNode(new GraphNode<Integer>(42));
+        assertThrows(IllegalArgumentException.class,
+                () -> new BFSVisitor<Integer>().BFSVisit(g, nodes.get(0),
+                        context));
+        assertThrows(IllegalArgumentException.class,
+                () -> new DFSVisitor<Integer>().DFSVisit(g, context));
+    }
+
+    @Test
+    final void testConcurrentBFSVisits() throws Exception {
+        Graph<Integer> g = new MapAdjacentListUndirectedGraph<Integer>();
+        int n = 200;
+        List<GraphNode<Integer>> nodes = this.path(g, n);
+        TraversalContext<Integer> shared = new TraversalContext<Integer>(g);
+        BFSVisitor<Integer> visitor = new BFSVisitor<Integer>();
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            // Visite contemporanee dello stesso grafo da sorgenti diverse,
+            // ognuna con il proprio contesto
+            List<Future<Boolean>> results = new ArrayList<Future<Boolean>>();
+            for (int s = 0; s < n; s += 10) {
+                final int source = s;
+                results.add(pool.submit(new Callable<Boolean>() {
+                    @Override
+                    public Boolean call() {
+                        TraversalContext<Integer> context = new TraversalContext<Integer>(
+                                shared);
+                        visitor.BFSVisit(g, nodes.get(source), context);
+                        for (int i = 0; i < n; i++)
+                            if (context.getIntegerDistance(
+                                    nodes.get(i)) != Math.abs(i - source))
+                                return false;
+                        return true;
+                    }
+                }));
+            }
+            for (Future<Boolean> f : results)
+                assertTrue(f.get());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+}
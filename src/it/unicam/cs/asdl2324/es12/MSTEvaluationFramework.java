@@ -0,0 +1,147 @@
+package it.unicam.cs.asdl2324.es12;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.util.Locale;
+import java.util.Random;
+import java.util.Set;
+
+import it.unicam.cs.asdl2324.mp2.AdjacencyMatrixUndirectedGraph;
+import it.unicam.cs.asdl2324.mp2.KruskalMST;
+
+/**
+ * Confronta l'algoritmo di Prim di questo package con l'algoritmo di Kruskal
+ * del package mp2 sugli stessi grafi. Per ogni numero di nodi vengono generati
+ * un grafo sparso (circa quattro archi per nodo) e un grafo denso (metà delle
+ * coppie di nodi collegate), entrambi connessi e con pesi casuali. Ogni grafo
+ * viene costruito in entrambe le rappresentazioni, MapAdjacentListUndirectedGraph
+ * per Prim e AdjacencyMatrixUndirectedGraph per Kruskal, con gli stessi archi
+ * e gli stessi pesi.
+ *
+ * Per ogni grafo sono scritti sul file msteval.csv (Comma Separated Values) il
+ * numero di nodi e di archi, il tempo di esecuzione in nanosecondi dei due
+ * algoritmi e il peso dei due alberi trovati, che deve coincidere. Il tempo di
+ * costruzione dei grafi non viene conteggiato.
+ *
+ * Il main può essere chiamato con il nome della directory di destinazione del
+ * file come parametro di linea di comando. Se non è presente nessun parametro
+ * allora si assume la directory corrente.
+ *
+ * @author Template: Luca Tesei, Implementazione: collettiva
+ *
+ */
+public class MSTEvaluationFramework {
+
+    /*
+     * Numeri di nodi dei grafi generati.
+     */
+    private static final int[] NODES = { 100, 200, 400, 800 };
+
+    /*
+     * Numero di grafi generati per ogni numero di nodi e densità.
+     */
+    private static final int SAMPLES = 3;
+
+    public static void main(String[] args) {
+        String dirName = null;
+        if (args.length > 0)
+            dirName = args[0];
+        else
+            dirName = ".";
+        PrintStream o = null;
+        try {
+            o = new PrintStream(new File(dirName + "/" + "msteval.csv"));
+        } catch (FileNotFoundException e) {
+            System.out.println("Errore creazione file di ouput" + dirName + "/"
+                    + "msteval.csv");
+            System.exit(1);
+        }
+        o.println("GraphId,Nodes,Edges,PrimTns,KruskalTns,PrimWeight,"
+                + "KruskalWeight");
+        Random randomGenerator = new Random(42);
+        for (int n : NODES) {
+            for (int dense = 0; dense <= 1; dense++) {
+                int m = dense == 1 ? n * (n - 1) / 4 : 4 * n;
+                for (int sample = 0; sample < SAMPLES; sample++) {
+                    String id = "g_" + n + (dense == 1 ? "_dense_" : "_sparse_")
+                            + sample;
+                    Graph<Integer> listGraph = new MapAdjacentListUndirectedGraph<Integer>();
+                    AdjacencyMatrixUndirectedGraph<Integer> matrixGraph = new AdjacencyMatrixUndirectedGraph<Integer>();
+                    generate(randomGenerator, n, m, listGraph, matrixGraph);
+
+                    long start = System.nanoTime();
+                    PrimMST<Integer> prim = new PrimMST<Integer>();
+                    GraphNode<Integer> source = null;
+                    for (GraphNode<Integer> node : listGraph.getNodes()) {
+                        source = node;
+                        break;
+                    }
+                    prim.computeMSP(listGraph, source);
+                    long primTime = System.nanoTime() - start;
+                    double primWeight = 0;
+                    for (GraphNode<Integer> node : listGraph.getNodes())
+                        if (node.getPrevious() != null)
+                            primWeight += node.getFloatingPointDistance();
+
+                    start = System.nanoTime();
+                    KruskalMST<Integer> kruskal = new KruskalMST<Integer>();
+                    Set<it.unicam.cs.asdl2324.mp2.GraphEdge<Integer>> tree = kruskal
+                            .computeMSP(matrixGraph);
+                    long kruskalTime = System.nanoTime() - start;
+                    double kruskalWeight = 0;
+                    for (it.unicam.cs.asdl2324.mp2.GraphEdge<Integer> edge : tree)
+                        kruskalWeight += edge.getWeight();
+
+                    o.println(id + "," + n + "," + listGraph.edgeCount() + ","
+                            + primTime + "," + kruskalTime + ","
+                            + String.format(Locale.ROOT, "%.6f", primWeight)
+                            + "," + String.format(Locale.ROOT, "%.6f",
+                                    kruskalWeight));
+                    System.out.println("Grafo " + id + ": Prim " + primTime
+                            + " ns, Kruskal " + kruskalTime + " ns");
+                    if (Math.abs(primWeight - kruskalWeight) > 1e-6)
+                        System.out.println("ATTENZIONE: i due alberi del grafo "
+                                + id + " hanno pesi diversi");
+                }
+            }
+        }
+        o.close();
+    }
+
+    /*
+     * Genera un grafo connesso con n nodi e circa m archi (gli archi ripetuti
+     * vengono scartati) e lo inserisce in entrambe le rappresentazioni. Un
+     * cammino casuale tra tutti i nodi garantisce la connessione.
+     */
+    private static void generate(Random random, int n, int m,
+            Graph<Integer> listGraph,
+            AdjacencyMatrixUndirectedGraph<Integer> matrixGraph) {
+        @SuppressWarnings("unchecked")
+        GraphNode<Integer>[] nodes = (GraphNode<Integer>[]) new GraphNode<?>[n];
+        for (int i = 0; i < n; i++) {
+            nodes[i] = new GraphNode<Integer>(i);
+            listGraph.addNode(nodes[i]);
+            matrixGraph.addNode(i);
+        }
+        for (int i = 1; i < n; i++)
+            addEdge(listGraph, matrixGraph, nodes, random.nextInt(i), i,
+                    random.nextDouble());
+        for (int k = n - 1; k < m; k++) {
+            int i = random.nextInt(n);
+            int j = random.nextInt(n);
+            if (i != j)
+                addEdge(listGraph, matrixGraph, nodes, i, j,
+                        random.nextDouble());
+        }
+    }
+
+    private static void addEdge(Graph<Integer> listGraph,
+            AdjacencyMatrixUndirectedGraph<Integer> matrixGraph,
+            GraphNode<Integer>[] nodes, int i, int j, double weight) {
+        if (listGraph.addEdge(
+                new GraphEdge<Integer>(nodes[i], nodes[j], false, weight)))
+            matrixGraph.addWeightedEdge(i, j, weight);
+    }
+
+}
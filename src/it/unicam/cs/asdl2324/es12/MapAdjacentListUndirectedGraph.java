@@ -26,10 +26,13 @@ import java.util.Set;
  * associata una lista concatenata dei nodi collegati, ma un set di oggetti
  * della classe GraphEdge<L> che rappresentano gli archi connessi al nodo: in
  * questo modo la rappresentazione riesce a contenere anche l'eventuale peso
- * dell'arco (memorizzato nell'oggetto della classe GraphEdge<L>). Per
- * controllare se un arco è presente basta richiamare il metodo contains in
- * questo set. I test di presenza si basano sui metodi equals ridefiniti per
- * nodi e archi nelle classi GraphNode<L> e GraphEdge<L>.
+ * dell'arco (memorizzato nell'oggetto della classe GraphEdge<L>). Ogni arco
+ * compare nel set di entrambi i suoi nodi (una sola volta se è un cappio),
+ * per cui i nodi adiacenti e gli archi di un nodo si ottengono scorrendo solo
+ * il suo set, in tempo proporzionale al grado del nodo. Per controllare se un
+ * arco è presente basta richiamare il metodo contains nel set di uno dei due
+ * nodi. I test di presenza si basano sui metodi equals ridefiniti per nodi e
+ * archi nelle classi GraphNode<L> e GraphEdge<L>.
  * 
  * Questa classe non supporta le operazioni di rimozione di nodi e archi e le
  * operazioni indicizzate di ricerca di nodi e archi.
@@ -43,17 +46,25 @@ public class MapAdjacentListUndirectedGraph<L> extends Graph<L> {
 
     /*
      * Le liste di adiacenza sono rappresentate con una mappa. Ogni nodo viene
-     * associato con l'insieme degli archi uscenti. Nel caso in cui un nodo non
-     * abbia archi uscenti è associato con un insieme vuoto.
+     * associato con l'insieme degli archi connessi al nodo, lo stesso oggetto
+     * arco è presente nell'insieme di entrambi i nodi. Nel caso in cui un nodo
+     * non abbia archi è associato con un insieme vuoto.
      */
     private final Map<GraphNode<L>, Set<GraphEdge<L>>> adjacentLists;
 
+    /*
+     * Numero di archi del grafo, aggiornato ad ogni inserimento di un arco in
+     * modo che edgeCount() non debba scorrere tutte le liste di adiacenza.
+     */
+    private int edgeCount;
+
     /**
      * Crea un grafo vuoto.
      */
     public MapAdjacentListUndirectedGraph() {
         // Inizializza la mappa con la mappa vuota
         this.adjacentLists = new HashMap<GraphNode<L>, Set<GraphEdge<L>>>();
+        this.edgeCount = 0;
     }
 
     @Override
@@ -63,17 +74,13 @@ public class MapAdjacentListUndirectedGraph<L> extends Graph<L> {
 
     @Override
     public int edgeCount() {
-    	int count = 0;
-        for (GraphNode<L> node : adjacentLists.keySet()) {
-            count += adjacentLists.get(node).size();
-        }
-        return count;
-
+        return this.edgeCount;
     }
 
     @Override
     public void clear() {
         this.adjacentLists.clear();
+        this.edgeCount = 0;
     }
 
     @Override
@@ -153,13 +160,12 @@ public class MapAdjacentListUndirectedGraph<L> extends Graph<L> {
             throw new IllegalArgumentException("Passed parameter should be part of the graph");
         }
         Set<GraphNode<L>> out = new HashSet<>();
-        for (GraphNode<L> node1 : adjacentLists.keySet()) {
-            for (GraphEdge<L> edge : adjacentLists.get(node1)) {
-                if (node.equals(edge.getNode2())) {
-                    out.add(edge.getNode1());
-                } else if (node.equals(edge.getNode1())) {
-                    out.add(edge.getNode2());
-                }
+        for (GraphEdge<L> edge : adjacentLists.get(node)) {
+            // L'altro nodo dell'arco, il nodo stesso nel caso di un cappio
+            if (node.equals(edge.getNode1())) {
+                out.add(edge.getNode2());
+            } else {
+                out.add(edge.getNode1());
             }
         }
         return out;
@@ -191,12 +197,12 @@ public class MapAdjacentListUndirectedGraph<L> extends Graph<L> {
         if (edge.isDirected() != isDirected()) {
             throw new IllegalArgumentException("Invalid edge passed");
         }
-        for (GraphEdge<L> edge1 : getEdges()) {
-            if (edge.equals(edge1)) {
-                return false;
-            }
+        // Se l'arco è già presente è nel set di entrambi i nodi
+        if (!adjacentLists.get(edge.getNode1()).add(edge)) {
+            return false;
         }
-        adjacentLists.get(edge.getNode1()).add(edge);
+        adjacentLists.get(edge.getNode2()).add(edge);
+        edgeCount++;
         return true;
     }
 
@@ -214,17 +220,9 @@ public class MapAdjacentListUndirectedGraph<L> extends Graph<L> {
         if (!adjacentLists.containsKey(edge.getNode1()) || !adjacentLists.containsKey(edge.getNode2())) {
             throw new IllegalArgumentException("All nodes of the edge have to be part of the graph");
         }
-        for (GraphEdge<L> edge1 : adjacentLists.get(edge.getNode1())) {
-            if (edge.getNode2().equals(edge1.getNode2())) {
-                return true;
-            }
-        }
-        for (GraphEdge<L> edge1 : adjacentLists.get(edge.getNode2())) {
-            if (edge.getNode1().equals(edge1.getNode2())) {
-                return true;
-            }
-        }
-        return false;
+        // Conta solo la coppia di nodi, come arco non orientato
+        return adjacentLists.get(edge.getNode1()).contains(new GraphEdge<L>(
+                edge.getNode1(), edge.getNode2(), false));
     }
 
     @Override
@@ -235,19 +233,7 @@ public class MapAdjacentListUndirectedGraph<L> extends Graph<L> {
         if (!adjacentLists.containsKey(node)) {
             throw new IllegalArgumentException("Passed parameter should be part of graph");
         }
-        Set<GraphEdge<L>> out = new HashSet<>();
-        for (GraphNode<L> node1 : adjacentLists.keySet()) {
-            if (node.equals(node1)) {
-                out.addAll(adjacentLists.get(node1));
-            } else {
-                for (GraphEdge<L> edge : adjacentLists.get(node1)) {
-                    if (node.equals(edge.getNode2())) {
-                        out.add(edge);
-                    }
-                }
-            }
-        }
-        return out;
+        return new HashSet<>(adjacentLists.get(node));
     }
 
     @Override
@@ -256,4 +242,21 @@ public class MapAdjacentListUndirectedGraph<L> extends Graph<L> {
                 "Archi entranti non significativi in un grafo non orientato");
     }
 
+    /*
+     * Il grado è la dimensione del set degli archi del nodo, senza copiarlo.
+     * Un cappio conta una sola volta, come nell'insieme restituito da
+     * getEdgesOf.
+     */
+    @Override
+    public int getDegreeOf(GraphNode<L> node) {
+        if (node == null) {
+            throw new NullPointerException("Passed parameter cannot be null");
+        }
+        Set<GraphEdge<L>> edges = adjacentLists.get(node);
+        if (edges == null) {
+            throw new IllegalArgumentException("Passed parameter should be part of graph");
+        }
+        return edges.size();
+    }
+
 }
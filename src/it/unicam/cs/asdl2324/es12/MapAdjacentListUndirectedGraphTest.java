@@ -373,4 +373,22 @@ class MapAdjacentListUndirectedGraphTest {
         assertTrue(g.getDegreeOf(nw)==1);
     }
 
+    @Test
+    final void testEdgeCountAndDegreeWithSelfLoop() {
+        Graph<String> g = new MapAdjacentListUndirectedGraph<String>();
+        GraphNode<String> ns = new GraphNode<String>("s");
+        GraphNode<String> nu = new GraphNode<String>("u");
+        g.addNode(ns);
+        g.addNode(nu);
+        g.addEdge(new GraphEdge<String>(ns, ns, false));
+        g.addEdge(new GraphEdge<String>(ns, nu, false));
+        g.addEdge(new GraphEdge<String>(nu, ns, false));
+        assertEquals(2, g.edgeCount());
+        assertEquals(2, g.getDegreeOf(ns));
+        assertEquals(g.getEdgesOf(ns).size(), g.getDegreeOf(ns));
+        assertEquals(1, g.getDegreeOf(nu));
+        g.clear();
+        assertEquals(0, g.edgeCount());
+    }
+
 }
@@ -0,0 +1,249 @@
+package it.unicam.cs.asdl2324.es12;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Coda di min priorità di nodi di un grafo realizzata con uno heap binario
+ * indicizzato. La priorità di ogni nodo è il suo campo floatingPointDistance:
+ * il nodo con la distanza minore è il primo ad essere estratto.
+ *
+ * Oltre allo heap la coda mantiene una mappa che associa ad ogni nodo la sua
+ * posizione corrente nello heap. Grazie a questa mappa l'operazione di
+ * decremento della priorità di un nodo non deve cercarlo: ne aggiorna la
+ * distanza e lo fa risalire verso la radice, in tempo O(log n) come
+ * l'inserimento e l'estrazione del minimo.
+ *
+ * Una coda creata con un contesto di visita legge e scrive le distanze nel
+ * contesto invece che nei nodi, che non vengono modificati: più code su
+ * contesti diversi possono così contenere contemporaneamente gli stessi nodi.
+ *
+ * La distanza di un nodo presente nella coda deve essere modificata solo
+ * tramite il metodo decreasePriority, altrimenti la proprietà di heap non è
+ * più garantita.
+ *
+ * @author Template: Luca Tesei, Implementazione: collettiva
+ *
+ * @param <L>
+ *                tipo delle etichette dei nodi del grafo
+ */
+public class NodeMinPriorityQueue<L> {
+
+    /*
+     * Lo heap: la posizione 0 contiene il nodo con distanza minima, i figli
+     * del nodo in posizione i sono in posizione 2i + 1 e 2i + 2.
+     */
+    private final ArrayList<GraphNode<L>> heap;
+
+    /*
+     * Posizione nello heap di ogni nodo presente nella coda.
+     */
+    private final Map<GraphNode<L>, Integer> positions;
+
+    /*
+     * Contesto da cui leggere le distanze, null se si usano quelle dei nodi.
+     */
+    private final TraversalContext<L> context;
+
+    /**
+     * Crea una coda vuota che usa come priorità le distanze dei nodi.
+     */
+    public NodeMinPriorityQueue() {
+        this.heap = new ArrayList<GraphNode<L>>();
+        this.positions = new HashMap<GraphNode<L>, Integer>();
+        this.context = null;
+    }
+
+    /**
+     * Crea una coda vuota che usa come priorità le distanze dei nodi
+     * registrate in un contesto di visita.
+     *
+     * @param context
+     *                    il contesto da cui leggere le distanze
+     * @throws NullPointerException
+     *                                  se il contesto è nullo
+     */
+    public NodeMinPriorityQueue(TraversalContext<L> context) {
+        if (context == null)
+            throw new NullPointerException("Contesto nullo!");
+        this.heap = new ArrayList<GraphNode<L>>();
+        this.positions = new HashMap<GraphNode<L>, Integer>();
+        this.context = context;
+    }
+
+    /*
+     * Distanza corrente di un nodo, nel contesto o nel nodo.
+     */
+    private double distanceOf(GraphNode<L> node) {
+        if (this.context == null)
+            return node.getFloatingPointDistance();
+        return this.context.floatingPointDistance[this.context.indexOf(node)];
+    }
+
+    /**
+     * Restituisce il numero di nodi nella coda.
+     *
+     * @return il numero di nodi nella coda
+     */
+    public int size() {
+        return this.heap.size();
+    }
+
+    /**
+     * Determina se la coda è vuota.
+     *
+     * @return true se la coda è vuota
+     */
+    public boolean isEmpty() {
+        return this.heap.isEmpty();
+    }
+
+    /**
+     * Determina se un nodo è presente nella coda.
+     *
+     * @param node
+     *                 il nodo da cercare
+     * @return true se il nodo è presente nella coda
+     * @throws NullPointerException
+     *                                  se il nodo è nullo
+     */
+    public boolean contains(GraphNode<L> node) {
+        if (node == null)
+            throw new NullPointerException("Nodo nullo!");
+        return this.positions.containsKey(node);
+    }
+
+    /**
+     * Inserisce un nodo nella coda con priorità pari alla sua distanza
+     * corrente.
+     *
+     * @param node
+     *                 il nodo da inserire
+     * @throws NullPointerException
+     *                                      se il nodo è nullo
+     * @throws IllegalArgumentException
+     *                                      se il nodo è già presente nella
+     *                                      coda
+     */
+    public void insert(GraphNode<L> node) {
+        if (node == null)
+            throw new NullPointerException("Nodo nullo!");
+        if (this.positions.containsKey(node))
+            throw new IllegalArgumentException("Nodo già presente nella coda");
+        this.heap.add(node);
+        this.positions.put(node, this.heap.size() - 1);
+        this.siftUp(this.heap.size() - 1);
+    }
+
+    /**
+     * Restituisce il nodo con distanza minima senza toglierlo dalla coda.
+     *
+     * @return il nodo con distanza minima, null se la coda è vuota
+     */
+    public GraphNode<L> getMin() {
+        return this.heap.isEmpty() ? null : this.heap.get(0);
+    }
+
+    /**
+     * Estrae dalla coda il nodo con distanza minima.
+     *
+     * @return il nodo con distanza minima
+     * @throws NoSuchElementException
+     *                                    se la coda è vuota
+     */
+    public GraphNode<L> extractMin() {
+        if (this.heap.isEmpty())
+            throw new NoSuchElementException("Coda vuota");
+        GraphNode<L> min = this.heap.get(0);
+        GraphNode<L> last = this.heap.remove(this.heap.size() - 1);
+        this.positions.remove(min);
+        if (!this.heap.isEmpty()) {
+            // L'ultimo nodo va nella radice e scende al suo posto
+            this.heap.set(0, last);
+            this.positions.put(last, 0);
+            this.siftDown(0);
+        }
+        return min;
+    }
+
+    /**
+     * Assegna a un nodo della coda una distanza minore o uguale a quella
+     * attuale e ne aggiorna la posizione nello heap.
+     *
+     * @param node
+     *                     il nodo di cui decrementare la priorità
+     * @param distance
+     *                     la nuova distanza del nodo
+     * @throws NullPointerException
+     *                                      se il nodo è nullo
+     * @throws IllegalArgumentException
+     *                                      se il nodo non è nella coda o se la
+     *                                      nuova distanza è maggiore di quella
+     *                                      attuale
+     */
+    public void decreasePriority(GraphNode<L> node, double distance) {
+        if (node == null)
+            throw new NullPointerException("Nodo nullo!");
+        Integer i = this.positions.get(node);
+        if (i == null)
+            throw new IllegalArgumentException("Nodo non presente nella coda");
+        if (distance > this.distanceOf(node))
+            throw new IllegalArgumentException(
+                    "La nuova distanza è maggiore di quella attuale");
+        if (this.context == null)
+            node.setFloatingPointDistance(distance);
+        else
+            this.context.floatingPointDistance[this.context
+                    .indexOf(node)] = distance;
+        this.siftUp(i);
+    }
+
+    /*
+     * Fa risalire il nodo in posizione i finché il genitore ha distanza
+     * maggiore. Il nodo viene scritto una sola volta nella posizione finale.
+     */
+    private void siftUp(int i) {
+        GraphNode<L> node = this.heap.get(i);
+        double d = this.distanceOf(node);
+        while (i > 0) {
+            int parent = (i - 1) / 2;
+            GraphNode<L> p = this.heap.get(parent);
+            if (this.distanceOf(p) <= d)
+                break;
+            this.heap.set(i, p);
+            this.positions.put(p, i);
+            i = parent;
+        }
+        this.heap.set(i, node);
+        this.positions.put(node, i);
+    }
+
+    /*
+     * Fa scendere il nodo in posizione i finché uno dei figli ha distanza
+     * minore.
+     */
+    private void siftDown(int i) {
+        GraphNode<L> node = this.heap.get(i);
+        double d = this.distanceOf(node);
+        int n = this.heap.size();
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= n)
+                break;
+            if (child + 1 < n && this.distanceOf(this.heap
+                    .get(child + 1)) < this.distanceOf(this.heap.get(child)))
+                child++;
+            GraphNode<L> c = this.heap.get(child);
+            if (this.distanceOf(c) >= d)
+                break;
+            this.heap.set(i, c);
+            this.positions.put(c, i);
+            i = child;
+        }
+        this.heap.set(i, node);
+        this.positions.put(node, i);
+    }
+
+}
@@ -0,0 +1,98 @@
+package it.unicam.cs.asdl2324.es12;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Classe di test per la classe NodeMinPriorityQueue.
+ *
+ * @author Template: Luca Tesei, Implementazione: collettiva
+ */
+class NodeMinPriorityQueueTest {
+
+    private GraphNode<String> node(String label, double distance) {
+        GraphNode<String> n = new GraphNode<String>(label);
+        n.setFloatingPointDistance(distance);
+        return n;
+    }
+
+    @Test
+    final void testInsertAndExtractMin() {
+        NodeMinPriorityQueue<String> q = new NodeMinPriorityQueue<String>();
+        assertTrue(q.isEmpty());
+        assertNull(q.getMin());
+        q.insert(this.node("a", 5));
+        q.insert(this.node("b", 1));
+        q.insert(this.node("c", 3));
+        q.insert(this.node("d", Double.POSITIVE_INFINITY));
+        assertEquals(4, q.size());
+        assertEquals("b", q.getMin().getLabel());
+        assertEquals("b", q.extractMin().getLabel());
+        assertEquals("c", q.extractMin().getLabel());
+        assertEquals("a", q.extractMin().getLabel());
+        assertEquals("d", q.extractMin().getLabel());
+        assertTrue(q.isEmpty());
+        assertThrows(NoSuchElementException.class, () -> q.extractMin());
+    }
+
+    @Test
+    final void testInsertExceptions() {
+        NodeMinPriorityQueue<String> q = new NodeMinPriorityQueue<String>();
+        assertThrows(NullPointerException.class, () -> q.insert(null));
+        q.insert(this.node("a", 5));
+        assertThrows(IllegalArgumentException.class,
+                () -> q.insert(this.node("a", 2)));
+    }
+
+    @Test
+    final void testDecreasePriority() {
+        NodeMinPriorityQueue<String> q = new NodeMinPriorityQueue<String>();
+        GraphNode<String> a = this.node("a", 5);
+        GraphNode<String> b = this.node("b", 1);
+        GraphNode<String> c = this.node("c", 3);
+        q.insert(a);
+        q.insert(b);
+        q.insert(c);
+        q.decreasePriority(a, 0.5);
+        assertEquals(0.5, a.getFloatingPointDistance());
+        assertSame(a, q.extractMin());
+        assertFalse(q.contains(a));
+        assertTrue(q.contains(c));
+        assertThrows(IllegalArgumentException.class,
+                () -> q.decreasePriority(a, 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> q.decreasePriority(c, 4));
+        assertSame(b, q.extractMin());
+        assertSame(c, q.extractMin());
+    }
+
+    @Test
+    final void testRandomOperations() {
+        NodeMinPriorityQueue<Integer> q = new NodeMinPriorityQueue<Integer>();
+        Random random = new Random(7);
+        @SuppressWarnings("unchecked")
+        GraphNode<Integer>[] nodes = (GraphNode<Integer>[]) new GraphNode<?>[
+                200];
+        for (int i = 0; i < nodes.length; i++) {
+            nodes[i] = new GraphNode<Integer>(i);
+            nodes[i].setFloatingPointDistance(random.nextDouble() * 100);
+            q.insert(nodes[i]);
+        }
+        for (int k = 0; k < 300; k++) {
+            GraphNode<Integer> n = nodes[random.nextInt(nodes.length)];
+            q.decreasePriority(n,
+                    n.getFloatingPointDistance() * random.nextDouble());
+        }
+        double previous = Double.NEGATIVE_INFINITY;
+        while (!q.isEmpty()) {
+            double d = q.extractMin().getFloatingPointDistance();
+            assertTrue(d >= previous);
+            previous = d;
+        }
+    }
+
+}
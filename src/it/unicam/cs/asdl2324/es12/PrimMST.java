@@ -1,41 +1,34 @@
 package it.unicam.cs.asdl2324.es12;
 
-//TODO completare gli import necessari
-
 /**
  * Classe singoletto che implementa l'algoritmo di Prim per trovare un Minimum
  * Spanning Tree di un grafo non orientato, pesato e con pesi non negativi.
- * 
- * L'algoritmo richiede l'uso di una coda di min priorità tra i nodi che può
- * essere realizzata con una semplice ArrayList (non c'è bisogno di ottimizzare
- * le operazioni di inserimento, di estrazione del minimo, o di decremento della
- * priorità).
- * 
- * Si possono usare i colori dei nodi per registrare la scoperta e la visita
- * effettuata dei nodi.
- * 
+ *
+ * L'algoritmo usa una coda di min priorità tra i nodi realizzata con uno heap
+ * binario indicizzato (NodeMinPriorityQueue): l'estrazione del minimo e il
+ * decremento della priorità di un nodo costano O(log n), per cui il calcolo
+ * richiede in tutto O(m log n) operazioni, dove n è il numero di nodi e m il
+ * numero di archi.
+ *
+ * Si usano i colori dei nodi per registrare la visita effettuata dei nodi:
+ * bianco per i nodi ancora nella coda, nero per quelli già estratti. Colori,
+ * distanze e predecessori sono registrati in un contesto di visita
+ * (TraversalContext) e non nei nodi, per cui lo stesso grafo può essere
+ * usato contemporaneamente da più calcoli con contesti diversi.
+ *
  * @author @author Template: Luca Tesei, Implementazione: collettiva
- * 
+ *
  * @param <L>
  *                tipo delle etichette dei nodi del grafo
  *
  */
 public class PrimMST<L> {
 
-    // TODO inserire le variabili istanza che si ritengono necessarie
-
-    /*
-     * In particolare: si deve usare una coda con priorità che può semplicemente
-     * essere realizzata con una List<GraphNode<L>> e si deve mantenere un
-     * insieme dei nodi già visitati
-     */
-
     /**
-     * Crea un nuovo algoritmo e inizializza la coda di priorità con una coda
-     * vuota.
+     * Crea un nuovo algoritmo. L'algoritmo non ha stato: la coda di priorità
+     * viene creata a ogni calcolo.
      */
     public PrimMST() {
-        // TODO implementare
     }
 
     /**
@@ -44,21 +37,103 @@ public class PrimMST<L> {
      * negativi. Dopo l'esecuzione del metodo nei nodi del grafo il campo
      * previous deve contenere un puntatore a un nodo in accordo all'albero di
      * copertura minimo calcolato, la cui radice è il nodo sorgente passato.
-     * 
+     *
+     * Il calcolo viene eseguito su un contesto creato per l'occasione, i cui
+     * dati sono poi copiati nei nodi: per usare lo stesso grafo da più thread
+     * contemporaneamente si usa il metodo che riceve un contesto.
+     *
      * @param g
      *              un grafo non orientato, pesato, con pesi non negativi
      * @param s
      *              il nodo del grafo g sorgente, cioè da cui parte il calcolo
      *              dell'albero di copertura minimo. Tale nodo sarà la radice
      *              dell'albero di copertura trovato
-     * 
+     *
      * @throw NullPointerException se il grafo g o il nodo sorgente s sono nulli
      * @throw IllegalArgumentException se il nodo sorgente s non esiste in g
      * @throw IllegalArgumentException se il grafo g è orientato, non pesato o
      *        con pesi negativi
      */
     public void computeMSP(Graph<L> g, GraphNode<L> s) {
-        // TODO implementare
+        if (g == null || s == null)
+            throw new NullPointerException(
+                    "Grafo o nodo sorgente nullo");
+        TraversalContext<L> context = new TraversalContext<L>(g);
+        this.computeMSP(g, s, context);
+        context.copyTo();
+    }
+
+    /**
+     * Utilizza l'algoritmo goloso di Prim per trovare un albero di copertura
+     * minimo in un grafo non orientato e pesato, con pesi degli archi non
+     * negativi, senza modificare i nodi del grafo. Dopo l'esecuzione del
+     * metodo il predecessore di ogni nodo nel contesto è il suo padre
+     * nell'albero di copertura minimo calcolato, la cui radice è il nodo
+     * sorgente passato, e la sua distanza è il peso dell'arco che lo collega
+     * al padre. Il contesto viene prima riportato allo stato iniziale.
+     *
+     * @param g
+     *                    un grafo non orientato, pesato, con pesi non negativi
+     * @param s
+     *                    il nodo del grafo g sorgente, radice dell'albero di
+     *                    copertura trovato
+     * @param context
+     *                    il contesto del calcolo, creato per il grafo g
+     *
+     * @throw NullPointerException se il grafo g, il nodo sorgente s o il
+     *        contesto sono nulli
+     * @throw IllegalArgumentException se il nodo sorgente s non esiste in g o
+     *        il contesto non ha il numero di nodi di g
+     * @throw IllegalArgumentException se il grafo g è orientato, non pesato o
+     *        con pesi negativi
+     */
+    public void computeMSP(Graph<L> g, GraphNode<L> s,
+            TraversalContext<L> context) {
+        if (g == null || s == null || context == null)
+            throw new NullPointerException(
+                    "Grafo, nodo sorgente o contesto nullo");
+        if (!g.containsNode(s))
+            throw new IllegalArgumentException(
+                    "Il nodo sorgente non appartiene al grafo");
+        if (context.nodeCount() != g.nodeCount())
+            throw new IllegalArgumentException(
+                    "Il contesto non ha lo stesso numero di nodi del grafo");
+        if (g.isDirected())
+            throw new IllegalArgumentException("Il grafo è orientato");
+        for (GraphEdge<L> edge : g.getEdges())
+            if (!edge.hasWeight() || edge.getWeight() < 0)
+                throw new IllegalArgumentException(
+                        "Il grafo non è pesato o ha pesi negativi");
+
+        // Tutti i nodi partono bianchi, senza predecessore e a distanza
+        // infinita, tranne la sorgente
+        context.reset();
+        context.floatingPointDistance[context.indexOf(s)] = 0;
+        NodeMinPriorityQueue<L> queue = new NodeMinPriorityQueue<L>(context);
+        for (int i = 0; i < context.nodeCount(); i++)
+            queue.insert(context.getNode(i));
+
+        while (!queue.isEmpty()) {
+            GraphNode<L> node = queue.extractMin();
+            int u = context.indexOf(node);
+            context.color[u] = GraphNode.COLOR_BLACK;
+            // Un nodo a distanza infinita non è raggiungibile dalla sorgente:
+            // i suoi archi non devono collegare all'albero altri nodi
+            if (context.floatingPointDistance[u] == Double.POSITIVE_INFINITY)
+                continue;
+            for (GraphEdge<L> edge : g.getEdgesOf(node)) {
+                GraphNode<L> other = node.equals(edge.getNode1())
+                        ? edge.getNode2()
+                        : edge.getNode1();
+                int v = context.indexOf(other);
+                // I cappi e i nodi già nell'albero non cambiano niente
+                if (context.color[v] == GraphNode.COLOR_WHITE && edge
+                        .getWeight() < context.floatingPointDistance[v]) {
+                    context.previous[v] = u;
+                    queue.decreasePriority(other, edge.getWeight());
+                }
+            }
+        }
     }
 
 }
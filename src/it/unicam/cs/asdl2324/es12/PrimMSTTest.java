@@ -302,4 +302,43 @@ class PrimMSTTest {
         assertTrue(c.getFloatingPointDistance() == Double.POSITIVE_INFINITY);
         assertTrue(c.getColor() == GraphNode.COLOR_BLACK);
     }
+
+    @Test
+    final void testFindMSPWithContext() {
+        Graph<String> gr = new MapAdjacentListUndirectedGraph<String>();
+        GraphNode<String> a = new GraphNode<String>("a");
+        gr.addNode(a);
+        GraphNode<String> b = new GraphNode<String>("b");
+        gr.addNode(b);
+        GraphNode<String> c = new GraphNode<String>("c");
+        gr.addNode(c);
+        GraphNode<String> d = new GraphNode<String>("d");
+        gr.addNode(d);
+        gr.addEdge(new GraphEdge<String>(a, b, false, 1));
+        gr.addEdge(new GraphEdge<String>(a, c, false, 5));
+        gr.addEdge(new GraphEdge<String>(b, d, false, 2));
+        gr.addEdge(new GraphEdge<String>(b, c, false, 3));
+        gr.addEdge(new GraphEdge<String>(c, d, false, 4));
+        PrimMST<String> alg = new PrimMST<String>();
+        // Due calcoli da sorgenti diverse su contesti diversi non si
+        // disturbano e non modificano i nodi
+        TraversalContext<String> fromC = new TraversalContext<String>(gr);
+        TraversalContext<String> fromD = new TraversalContext<String>(fromC);
+        alg.computeMSP(gr, c, fromC);
+        alg.computeMSP(gr, d, fromD);
+        assertTrue(fromC.getPrevious(a) == b);
+        assertTrue(fromC.getPrevious(b) == c);
+        assertTrue(fromC.getPrevious(c) == null);
+        assertTrue(fromC.getPrevious(d) == b);
+        assertTrue(fromC.getFloatingPointDistance(b) == 3);
+        assertTrue(fromD.getPrevious(b) == d);
+        assertTrue(fromD.getPrevious(c) == b);
+        assertTrue(fromD.getPrevious(d) == null);
+        for (GraphNode<String> n : gr.getNodes()) {
+            assertTrue(n.getPrevious() == null);
+            assertTrue(n.getColor() == GraphNode.COLOR_WHITE);
+        }
+        assertThrows(NullPointerException.class,
+                () -> alg.computeMSP(gr, a, null));
+    }
 }
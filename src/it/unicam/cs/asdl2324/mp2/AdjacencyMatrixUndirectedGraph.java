@@ -40,6 +40,16 @@ import java.util.HashSet;
  * supporta tutti i metodi che usano indici, utilizzando l'indice assegnato a
  * ogni nodo in fase di inserimento.
  * 
+ * La cancellazione di un nodo può seguire due strategie, scelte nel
+ * costruttore. Con quella di default gli indici dei nodi successivi a quello
+ * cancellato vengono decrementati di uno, per cui l'ordine di inserimento è
+ * preservato, ma ogni cancellazione deve far scorrere una colonna in tutte le
+ * righe della matrice e costa O(n^2). Con la cancellazione per scambio l'ultimo
+ * nodo (quello di indice nodeCount() - 1) prende il posto del nodo cancellato,
+ * insieme alla sua riga e alla sua colonna, e tutti gli altri nodi mantengono
+ * il proprio indice: la cancellazione costa O(n), ma l'indice dell'ultimo nodo
+ * cambia e non corrisponde più all'ordine di inserimento.
+ * 
  * @author Luca Tesei (template) 
  * 		   Yacine Boussoufa yacine.boussoufa@studenti.unicam.it (implementazione)
  *
@@ -65,12 +75,73 @@ public class AdjacencyMatrixUndirectedGraph<L> extends Graph<L> {
      */
     protected ArrayList<ArrayList<GraphEdge<L>>> matrix;
 
+    /*
+     * Associazione inversa di nodesIndex: in posizione i il nodo di indice i.
+     * Permette di passare da un indice al nodo in tempo costante.
+     */
+    protected ArrayList<GraphNode<L>> nodesByIndex;
+
+    /*
+     * Associazione di ogni etichetta con l'oggetto nodo memorizzato nel grafo,
+     * per restituire in tempo costante il nodo uguale a quello cercato.
+     */
+    protected Map<L, GraphNode<L>> nodesByLabel;
+
+    /*
+     * Strategia di cancellazione dei nodi: true se l'ultimo nodo prende il
+     * posto del nodo cancellato, false se i nodi successivi scalano di un
+     * indice.
+     */
+    private final boolean swapRemoval;
+
+    /*
+     * Numero di archi del grafo, aggiornato ad ogni inserimento e
+     * cancellazione in modo che edgeCount() non debba scorrere la matrice.
+     */
+    private int edges;
+
+    /*
+     * In posizione i il grado del nodo di indice i, aggiornato insieme alla
+     * matrice. Un cappio conta una sola volta, come nell'insieme restituito da
+     * getEdgesOf.
+     */
+    protected ArrayList<Integer> degrees;
+
     /**
      * Crea un grafo vuoto.
      */
     public AdjacencyMatrixUndirectedGraph() {
+        this(false);
+    }
+
+    /**
+     * Crea un grafo vuoto scegliendo la strategia di cancellazione dei nodi.
+     * 
+     * @param swapRemoval
+     *                        se true, alla cancellazione di un nodo l'ultimo
+     *                        nodo ne prende l'indice e gli altri nodi lo
+     *                        mantengono; se false gli indici dei nodi
+     *                        successivi a quello cancellato vengono
+     *                        decrementati di uno
+     */
+    public AdjacencyMatrixUndirectedGraph(boolean swapRemoval) {
         this.matrix = new ArrayList<ArrayList<GraphEdge<L>>>();
         this.nodesIndex = new HashMap<GraphNode<L>, Integer>();
+        this.nodesByIndex = new ArrayList<GraphNode<L>>();
+        this.nodesByLabel = new HashMap<L, GraphNode<L>>();
+        this.swapRemoval = swapRemoval;
+        this.edges = 0;
+        this.degrees = new ArrayList<Integer>();
+    }
+
+    /**
+     * Determina la strategia di cancellazione dei nodi di questo grafo.
+     * 
+     * @return true se alla cancellazione di un nodo l'ultimo nodo ne prende
+     *         l'indice, false se i nodi successivi scalano di un indice
+     */
+    public boolean isSwapRemoval() {
+        return this.swapRemoval;
     }
 
     @Override
@@ -80,21 +151,37 @@ public class AdjacencyMatrixUndirectedGraph<L> extends Graph<L> {
 
     @Override
     public int edgeCount() {
-    	int count=0;	//Dichiarazione ed inizializzazione del contatore
-
-        for(int i=0;i<matrix.size();i++) {	//Ciclo nella matrice
-            ArrayList<GraphEdge<L>> row=this.matrix.get(i);
-
-            /* Ciclo da j=i in quanto essendo un arco non orientato,
-             * contare dirrettamente "duplica" il risultato in quanto
-             * viene contato sia l'arco da i a j che da j a i.
-             */
-            for(int j=i;j<row.size();j++)	//Ciclo negli archi
-                if(row.get(j)!=null)	//Se l'elemento non è nullo 
-                    count++; //incremento il contatore
-        }
-        
-        return count;	//Ritorno il contatore
+        return this.edges;	//Il contatore è sempre aggiornato
+    }
+
+    /*
+     * Memorizza l'arco nelle posizioni i,j e j,i della matrice. Se i due nodi
+     * non erano collegati aggiorna il numero di archi e i gradi.
+     */
+    private void putEdge(int i, int j, GraphEdge<L> edge) {
+    	if(this.matrix.get(i).get(j)==null) {	//Nuovo arco
+    		this.edges++;
+    		this.degrees.set(i,this.degrees.get(i)+1);
+    		if(i!=j)	//Il cappio conta una volta sola
+    			this.degrees.set(j,this.degrees.get(j)+1);
+    	}
+    	this.matrix.get(i).set(j,edge);
+    	this.matrix.get(j).set(i,edge);
+    }
+
+    /*
+     * Toglie l'arco tra i nodi di indice i e j, se presente, aggiornando il
+     * numero di archi e i gradi.
+     */
+    private void clearEdge(int i, int j) {
+    	if(this.matrix.get(i).get(j)!=null) {	//L'arco c'era
+    		this.edges--;
+    		this.degrees.set(i,this.degrees.get(i)-1);
+    		if(i!=j)
+    			this.degrees.set(j,this.degrees.get(j)-1);
+    	}
+    	this.matrix.get(i).set(j,null);
+    	this.matrix.get(j).set(i,null);
     }
 
     @Override
@@ -102,6 +189,10 @@ public class AdjacencyMatrixUndirectedGraph<L> extends Graph<L> {
     	//Cancello i precedenti valori richiamando i costruttori
     	this.matrix=new ArrayList<ArrayList<GraphEdge<L>>>();
         this.nodesIndex=new HashMap<GraphNode<L>, Integer>();
+        this.nodesByIndex=new ArrayList<GraphNode<L>>();
+        this.nodesByLabel=new HashMap<L, GraphNode<L>>();
+        this.edges=0;
+        this.degrees=new ArrayList<Integer>();
     }
 
     @Override
@@ -122,6 +213,9 @@ public class AdjacencyMatrixUndirectedGraph<L> extends Graph<L> {
                 return false;	//Ritorno falso
         
         this.nodesIndex.put(node,nodeCount());	//Aggiungo il nodo alla mappa
+        this.nodesByIndex.add(node);	//Il nuovo nodo ha l'ultimo indice
+        this.degrees.add(0);	//Ancora senza archi
+        this.nodesByLabel.put(node.getLabel(),node);
  
         ArrayList<GraphEdge<L>> tmp=new ArrayList<>();
         for(int i=0;i<nodeCount()-1;i++) //Aggiungo una nuova riga alla matrice
@@ -151,7 +245,7 @@ public class AdjacencyMatrixUndirectedGraph<L> extends Graph<L> {
     /*
      * Gli indici dei nodi il cui valore sia maggiore dell'indice del nodo da
      * cancellare devono essere decrementati di uno dopo la cancellazione del
-     * nodo
+     * nodo, a meno che il grafo non usi la cancellazione per scambio
      */
     @Override
     public void removeNode(GraphNode<L> node) {
@@ -160,9 +254,19 @@ public class AdjacencyMatrixUndirectedGraph<L> extends Graph<L> {
     	else if(!this.nodesIndex.containsKey(node))
             throw new IllegalArgumentException("Node non presente!");
         
-        Set<GraphNode<L>> tmp=nodesIndex.keySet(); //Set d'appoggio
-
-        int removeValue=nodesIndex.get(node);  //Memorizzio value dopo la rimozione del nodo dal nodesIndex
+        int removeValue=nodesIndex.get(node);  //Memorizzio l'indice del nodo da rimuovere
+
+        //Gli archi del nodo spariscono: aggiorno contatore e gradi dei vicini
+        this.edges-=this.degrees.get(removeValue);
+        ArrayList<GraphEdge<L>> removedRow=this.matrix.get(removeValue);
+        for(int j=0;j<removedRow.size();j++)
+        	if(j!=removeValue && removedRow.get(j)!=null)
+        		this.degrees.set(j,this.degrees.get(j)-1);
+
+        if(this.swapRemoval) {	//L'ultimo nodo prende il posto di quello rimosso
+        	this.removeNodeBySwap(node,removeValue);
+        	return;
+        }
 
         for(int i=0;i<nodeCount();i++)	//Ciclo nel grafo
             this.matrix.get(i).remove(removeValue);	//Rimuovo il nodo
@@ -170,19 +274,53 @@ public class AdjacencyMatrixUndirectedGraph<L> extends Graph<L> {
         this.matrix.remove(removeValue);	//rimuobo il nodo
 
         this.nodesIndex.remove(node);	//Rimuovo il noto
+        this.nodesByLabel.remove(node.getLabel());
+        this.nodesByIndex.remove(removeValue);
+        this.degrees.remove(removeValue);
 
-        for(GraphNode<L> element:tmp)	//Ciclo i grafi
-            if(this.nodesIndex.get(element)>removeValue) {	//Scorro all'indietro i valori
-                nodesIndex.put(element,removeValue);
-                removeValue++;
-            }
-            	
+        //I nodi successivi sono scalati di una posizione in nodesByIndex,
+        //aggiorno il loro indice
+        for(int i=removeValue;i<this.nodesByIndex.size();i++)
+            this.nodesIndex.put(this.nodesByIndex.get(i),i);
+    }
+
+    /*
+     * Cancella il nodo di indice i spostando al suo posto l'ultimo nodo: la
+     * colonna dell'ultimo nodo viene copiata nella colonna i di ogni riga, la
+     * riga dell'ultimo nodo sostituisce la riga i e infine si tolgono l'ultima
+     * riga e l'ultima colonna, operazioni che non fanno scorrere nessun
+     * elemento degli ArrayList.
+     */
+    private void removeNodeBySwap(GraphNode<L> node, int i) {
+    	int last=nodeCount()-1;	//Indice dell'ultimo nodo
+    	
+    	if(i!=last) {
+    		for(int r=0;r<=last;r++)	//Copio la colonna dell'ultimo nodo nella colonna i
+    			this.matrix.get(r).set(i,this.matrix.get(r).get(last));
+    		//La riga dell'ultimo nodo, che ora ha anche il suo eventuale cappio
+    		//in colonna i, diventa la riga i
+    		this.matrix.set(i,this.matrix.get(last));
+    		
+    		GraphNode<L> moved=this.nodesByIndex.get(last);	//Aggiorno l'indice del nodo spostato
+    		this.nodesByIndex.set(i,moved);
+    		this.nodesIndex.put(moved,i);
+    		this.degrees.set(i,this.degrees.get(last));
+    	}
+    	
+    	this.matrix.remove(last);	//Tolgo l'ultima riga
+    	for(ArrayList<GraphEdge<L>> row:this.matrix)	//Tolgo l'ultima colonna
+    		row.remove(last);
+    	
+    	this.nodesByIndex.remove(last);
+    	this.degrees.remove(last);
+    	this.nodesIndex.remove(node);
+    	this.nodesByLabel.remove(node.getLabel());
     }
 
     /*
      * Gli indici dei nodi il cui valore sia maggiore dell'indice del nodo da
      * cancellare devono essere decrementati di uno dopo la cancellazione del
-     * nodo
+     * nodo, a meno che il grafo non usi la cancellazione per scambio
      */
     @Override
     public void removeNode(L label) {
@@ -195,7 +333,7 @@ public class AdjacencyMatrixUndirectedGraph<L> extends Graph<L> {
     /*
      * Gli indici dei nodi il cui valore sia maggiore dell'indice del nodo da
      * cancellare devono essere decrementati di uno dopo la cancellazione del
-     * nodo
+     * nodo, a meno che il grafo non usi la cancellazione per scambio
      */
     @Override
     public void removeNode(int i) {
@@ -210,11 +348,7 @@ public class AdjacencyMatrixUndirectedGraph<L> extends Graph<L> {
     	if(node==null)	//Se il nodo è nullo lancio un eccezione
             throw new NullPointerException("Nodo Nullo!");
     	
-    	for(GraphNode<L> tmp:this.nodesIndex.keySet())	//Ciclo gli elementi
-            if(tmp.equals(node))	//Se un nomo corrisponde
-                return tmp;	//Ritorno il valore
-    	
-    	return null;	//Altrimenti ritorno null
+    	return this.nodesByLabel.get(node.getLabel());	//Ritorno il nodo con la stessa etichetta, null se non c'è
     }
 
     @Override
@@ -222,7 +356,7 @@ public class AdjacencyMatrixUndirectedGraph<L> extends Graph<L> {
     	if(label==null)	//Se il nodo è nullo lancio un eccezione
             throw new NullPointerException("Nodo Nullo!");
     	
-        return this.getNode(new GraphNode<L>(label));	//Effettuo l'operazione del metodo precendete con il label
+        return this.nodesByLabel.get(label);	//Ritorno il nodo con il label, null se non c'è
     }
 
     @Override
@@ -230,11 +364,7 @@ public class AdjacencyMatrixUndirectedGraph<L> extends Graph<L> {
     	if((i<0)||(i>this.matrix.size()-1))	//Se inseirsco un valore non valido lancio un eccezione
             throw new IndexOutOfBoundsException("Indice non valido!");
     	
-    	for(GraphNode<L> key:this.nodesIndex.keySet())	//Ciclo la lista dei nodi
-            if(this.nodesIndex.get(key)==i)	//Se l'indice del nodo equivale ad i
-                return this.getNode(key);	//Ritorno il valore del nodo
-            
-    	return null;	//Se il nodo non esiste ritorno null    	
+    	return this.nodesByIndex.get(i);	//Ritorno il nodo di indice i
     }
 
     @Override
@@ -252,10 +382,12 @@ public class AdjacencyMatrixUndirectedGraph<L> extends Graph<L> {
     public int getNodeIndexOf(L label) {
     	if(label==null)	//Se il nodo è nullo lancio un eccezione
             throw new NullPointerException("Label Nullo!");
-    	else if(getNode(label)==null)
+    	
+    	GraphNode<L> node=this.nodesByLabel.get(label);	//Cerco il nodo una volta sola
+    	if(node==null)
             throw new IllegalArgumentException("Nodo non presente!");
     	
-    	return nodesIndex.get(getNode(label));
+    	return nodesIndex.get(node);
     }
 
     @Override
@@ -279,12 +411,8 @@ public class AdjacencyMatrixUndirectedGraph<L> extends Graph<L> {
             if((this.matrix.get(i1).get(i2).equals(edge))&&(this.matrix.get(i2).get(i1).equals(edge))) //E se corrispondono
                 return false;	//Ritorno false e non aggiungo
         
-        //Aggiungo l'arco alla matrice di adiacenza
-        this.matrix.get(i1).remove(i2);
-        this.matrix.get(i1).add(i2,edge);
-        //Aggiungo l'altro arco
-        this.matrix.get(i2).remove(i1);
-        this.matrix.get(i2).add(i1,edge);
+        //Aggiungo l'arco alla matrice di adiacenza, in entrambe le posizioni
+        this.putEdge(i1,i2,edge);
         
         return true;	//Ritorno true
     }
@@ -326,8 +454,7 @@ public class AdjacencyMatrixUndirectedGraph<L> extends Graph<L> {
     public boolean addEdge(int i, int j) {
     	if(((i<0)||(i>this.matrix.size()-1)||(j<0)||(j>this.matrix.size()-1)))	//Se l'indice non è valido lancio un eccezione
                throw new IndexOutOfBoundsException ("Indice non valido!");
-    	else if((!this.nodesIndex.containsValue(i))|| (!this.nodesIndex.containsValue(j)))	//Se i nodi non esistono lancio un eccezione
-    			throw new IndexOutOfBoundsException ("Nodi non presenti!");
+    	//Gli indici sono sempre compatti, ogni indice valido ha un nodo
     	
     	return addEdge(getNode(i), getNode(j));	//Richiamo i metodi precedenti
     }
@@ -336,8 +463,6 @@ public class AdjacencyMatrixUndirectedGraph<L> extends Graph<L> {
     public boolean addWeightedEdge(int i, int j, double weight) {
     	if (((i<0)||(i>this.matrix.size()-1)||(j<0)||(j>this.matrix.size()-1)||(weight<0)))	//Se l'indice non è valido lancio un eccezione
             throw new IndexOutOfBoundsException ("Indice non valido!");
-    	else if((!this.nodesIndex.containsValue(i))|| (!this.nodesIndex.containsValue(j)))	//Se i nodi non esistono lancio un eccezione
- 			throw new IndexOutOfBoundsException ("Nodi non presenti!");
     	
     	return addWeightedEdge(getNode(i),getNode(j),weight);	//Richiamo i metodi precedenti
     }
@@ -351,8 +476,7 @@ public class AdjacencyMatrixUndirectedGraph<L> extends Graph<L> {
     	
     	int edge1 = nodesIndex.get(edge.getNode1());	//Assegnazione dell'indice ad una variabile temporanea
         int edge2 = nodesIndex.get(edge.getNode2());	//Assegnazione dell'indice ad una variabile temporanea
-        matrix.get(edge1).set(edge2, null);		//Rimozione
-        matrix.get(edge2).set(edge1, null);		//Rimozione
+        this.clearEdge(edge1,edge2);		//Rimozione
     }
 
     @Override
@@ -380,8 +504,7 @@ public class AdjacencyMatrixUndirectedGraph<L> extends Graph<L> {
     	 if((i<0)||(i>this.matrix.size()-1)||(j<0)||(j>this.matrix.size()-1))	//Se l'edge ha un indice mancante
     		 throw new IndexOutOfBoundsException("Indice non valido!");	//Lancio un eccezzione
     	
-         this.matrix.get(i).set(j, null);	//Rimuobo l'edge
-    	 this.matrix.get(j).set(i, null);	//Rimuovo l'edge
+         this.clearEdge(i,j);	//Rimuovo l'edge
     }
 
     @Override
@@ -438,13 +561,7 @@ public class AdjacencyMatrixUndirectedGraph<L> extends Graph<L> {
         else if(getNode(node)==null)	//Se il nodo non è presente lancio un eccezione
             throw new IllegalArgumentException("Node non presente!");
         
-        Set<GraphNode<L>> tmp=new HashSet<>();	//Set temporaneo
-
-        for(GraphNode<L> mapNode:getNodes())	//Ciclo nei nodis
-            if(getEdge(node,mapNode)!=null)	//Aggiungo gli Edge adiacenti non nulli
-                tmp.add(mapNode);
-        
-        return tmp;	//Ritorno il set
+        return this.getAdjacentNodesOf(this.nodesIndex.get(node).intValue());	//Scorro direttamente la riga del nodo
     }
 
     @Override
@@ -460,7 +577,14 @@ public class AdjacencyMatrixUndirectedGraph<L> extends Graph<L> {
     	if((i<0)||(i>this.matrix.size()-1))	//Se l'indice non è valido lancio un eccezione
     		throw new IndexOutOfBoundsException("Indice non valido!");
     	
-    	return getAdjacentNodesOf(this.getNode(i));	//Richiamo metodo precedente
+    	Set<GraphNode<L>> tmp=new HashSet<>();	//Set temporaneo
+    	ArrayList<GraphEdge<L>> row=this.matrix.get(i);	//Riga del nodo
+
+        for(int j=0;j<row.size();j++)	//Ciclo nella riga
+            if(row.get(j)!=null)	//Aggiungo i nodi collegati da un arco
+                tmp.add(this.nodesByIndex.get(j));
+        
+        return tmp;	//Ritorno il set
     }
 
     @Override
@@ -509,13 +633,12 @@ public class AdjacencyMatrixUndirectedGraph<L> extends Graph<L> {
     public Set<GraphEdge<L>> getEdgesOf(int i) {
     	if(((i<0)||(i>this.matrix.size()-1)))	//Lancio un eccezione sel'indice non è valido
             throw new IndexOutOfBoundsException("Indice non valido!");
-        if(getNode(i)==null)	//Se il nodo è nullo lancio un eccezione
-            throw new IndexOutOfBoundsException("Nodo non preente!");
         
         Set<GraphEdge<L>> tmp=new HashSet<>();	//Set di appoggio
         
-        for(GraphNode<L> mapNode:getAdjacentNodesOf(i))	//Scorro i nodi aadiacenti
-            tmp.add(getEdge(getNode(i), mapNode));	//Aggiungo l'edge
+        for(GraphEdge<L> element:this.matrix.get(i))	//Scorro la riga del nodo
+            if(element!=null)	//Se l'elemento non è nullo
+                tmp.add(element);	//Aggiungo l'edge
         
         return tmp;	//Ritorno il set di appoggio
     }
@@ -549,4 +672,43 @@ public class AdjacencyMatrixUndirectedGraph<L> extends Graph<L> {
         
         return tmp;	//Ritorno il set di appoggio
     }
-}
\ No newline at end of file
+
+    /*
+     * Il grado viene letto dalla lista dei gradi, senza costruire l'insieme
+     * degli archi del nodo.
+     */
+    @Override
+    public int getDegreeOf(GraphNode<L> node) {
+    	if(node==null)	//Se il nodo è nullo lancio un eccezione
+            throw new NullPointerException(
+                    "Tentativo di calcolare il grado di un nodo null");
+    	Integer i=this.nodesIndex.get(node);
+    	if(i==null)	//Se il nodo non è presente lancio un eccezione
+            throw new IllegalArgumentException(
+                    "Tentativo di calcolare il grado di un nodo non "
+                            + "presente in questo grafo");
+    	return this.degrees.get(i);
+    }
+
+    @Override
+    public int getDegreeOf(L label) {
+    	if(label==null)	//Se il label è nullo lancio un eccezione
+            throw new NullPointerException(
+                    "Tentativo di calcolare il grado di un nodo null");
+    	GraphNode<L> node=this.nodesByLabel.get(label);
+    	if(node==null)	//Se il nodo non è presente lancio un eccezione
+            throw new IllegalArgumentException(
+                    "Tentativo di calcolare il grado di un nodo non "
+                            + "presente in questo grafo");
+    	return this.degrees.get(this.nodesIndex.get(node));
+    }
+
+    @Override
+    public int getDegreeOf(int i) {
+    	if((i<0)||(i>this.matrix.size()-1))	//Se l'indice non è valido lancio un eccezione
+            throw new IndexOutOfBoundsException(
+                    "Tentativo di calcolare il grado di un nodo con indice "
+                            + "non valido");
+    	return this.degrees.get(i);
+    }
+}
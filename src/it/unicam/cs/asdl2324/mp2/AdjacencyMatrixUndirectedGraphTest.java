@@ -656,4 +656,93 @@ class AdjacencyMatrixUndirectedGraphTest {
         assertTrue(g.getDegreeOf(nw) == 1);
     }
 
+    @Test
+    final void testIndexesConsistentAfterRemovals() {
+        AdjacencyMatrixUndirectedGraph<Integer> g = new AdjacencyMatrixUndirectedGraph<Integer>();
+        for (int i = 0; i < 20; i++)
+            g.addNode(i);
+        for (int i = 0; i + 1 < 20; i++)
+            g.addEdge(i, i + 1);
+        g.removeNode(Integer.valueOf(5));
+        g.removeNode(0);
+        g.removeNode(Integer.valueOf(19));
+        assertTrue(g.nodeCount() == 17);
+        // Indice e nodo si corrispondono in entrambe le direzioni
+        for (int i = 0; i < g.nodeCount(); i++)
+            assertTrue(g.getNodeIndexOf(g.getNode(i)) == i);
+        assertTrue(g.getNode(0).getLabel() == 1);
+        assertTrue(g.getNode(16).getLabel() == 18);
+        assertTrue(g.getNode(Integer.valueOf(6)) == g.getNode(4));
+        assertTrue(g.getAdjacentNodesOf(4).size() == 1);
+        assertTrue(g.getEdgesOf(g.getNodeIndexOf(Integer.valueOf(10)))
+                .size() == 2);
+    }
+
+    @Test
+    final void testSwapRemoval() {
+        AdjacencyMatrixUndirectedGraph<String> g = new AdjacencyMatrixUndirectedGraph<String>(
+                true);
+        assertTrue(g.isSwapRemoval());
+        g.addNode("a");
+        g.addNode("b");
+        g.addNode("c");
+        g.addNode("d");
+        g.addEdge("a", "b");
+        g.addEdge("b", "c");
+        g.addEdge("b", "d");
+        g.addEdge("c", "d");
+        g.addEdge("d", "d");
+        g.removeNode("b");
+        // L'ultimo nodo prende l'indice di quello cancellato, gli altri
+        // mantengono il proprio
+        assertTrue(g.getNodeIndexOf("a") == 0);
+        assertTrue(g.getNodeIndexOf("d") == 1);
+        assertTrue(g.getNodeIndexOf("c") == 2);
+        assertTrue(g.nodeCount() == 3);
+        assertTrue(g.matrix.size() == 3);
+        for (int i = 0; i < 3; i++)
+            assertTrue(g.matrix.get(i).size() == 3);
+        assertTrue(g.getEdge("c", "d") != null);
+        assertTrue(g.getEdge(1, 2) != null);
+        assertTrue(g.getEdge(2, 1) != null);
+        assertTrue(g.getEdge(1, 1) != null);
+        assertTrue(g.getEdge("d", "d") != null);
+        assertTrue(g.getEdge("a", "d") == null);
+        assertTrue(g.edgeCount() == 2);
+        // Cancellazione dell'ultimo nodo
+        g.removeNode(2);
+        assertTrue(g.nodeCount() == 2);
+        assertTrue(g.getNode("c") == null);
+        assertTrue(g.edgeCount() == 1);
+        assertTrue(g.getDegreeOf("d") == 1);
+    }
+
+    @Test
+    final void testEdgeCountAndDegreesAfterRemovals() {
+        AdjacencyMatrixUndirectedGraph<Integer> g = new AdjacencyMatrixUndirectedGraph<Integer>();
+        AdjacencyMatrixUndirectedGraph<Integer> gs = new AdjacencyMatrixUndirectedGraph<Integer>(
+                true);
+        for (AdjacencyMatrixUndirectedGraph<Integer> h : java.util.Arrays
+                .asList(g, gs)) {
+            for (int i = 0; i < 6; i++)
+                h.addNode(i);
+            for (int i = 0; i < 6; i++)
+                for (int j = i + 1; j < 6; j++)
+                    h.addEdge(i, j);
+            h.addEdge(2, 2);
+            assertTrue(h.edgeCount() == 16);
+            assertTrue(h.getDegreeOf(Integer.valueOf(2)) == 6);
+            h.removeEdge(Integer.valueOf(0), Integer.valueOf(1));
+            assertTrue(h.edgeCount() == 15);
+            assertTrue(h.getDegreeOf(Integer.valueOf(0)) == 4);
+            h.removeNode(Integer.valueOf(2));
+            assertTrue(h.edgeCount() == 9);
+            for (GraphNode<Integer> n : h.getNodes())
+                assertTrue(h.getDegreeOf(n) == h.getEdgesOf(n).size());
+            assertTrue(h.getEdges().size() == h.edgeCount());
+            h.clear();
+            assertTrue(h.edgeCount() == 0);
+        }
+    }
+
 }
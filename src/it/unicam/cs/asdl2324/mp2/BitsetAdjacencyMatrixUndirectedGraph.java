@@ -0,0 +1,603 @@
+/**
+ *
+ */
+package it.unicam.cs.asdl2324.mp2;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+// ATTENZIONE: è vietato includere import a pacchetti che non siano della Java SE
+
+/**
+ * Classe che implementa un grafo non orientato e non pesato tramite una
+ * matrice di adiacenza di bit, adatta a grafi densi. Non sono accettate
+ * etichette dei nodi null e non sono accettate etichette duplicate nei nodi
+ * (che in quel caso sono lo stesso nodo).
+ *
+ * I nodi sono indicizzati da 0 a nodeCount() - 1 seguendo l'ordine del loro
+ * inserimento, come in AdjacencyMatrixUndirectedGraph. Ogni riga della
+ * matrice è un array di long in cui il bit j della riga i vale 1 se e solo se
+ * i nodi di indice i e j sono collegati da un arco: un arco occupa quindi due
+ * bit invece di due riferimenti a un oggetto GraphEdge<L>. La matrice è
+ * simmetrica e un cappio sul nodo i corrisponde al solo bit i della riga i.
+ *
+ * Le operazioni sulle righe lavorano su 64 nodi alla volta: il grado di un
+ * nodo si ottiene sommando Long.bitCount sulle parole della sua riga e i nodi
+ * adiacenti si enumerano saltando direttamente da un bit a 1 al successivo
+ * con Long.numberOfTrailingZeros. Gli oggetti GraphEdge<L> non sono
+ * memorizzati: vengono creati solo quando un metodo deve restituirli, per cui
+ * due chiamate successive restituiscono archi uguali (secondo equals) ma non
+ * lo stesso oggetto.
+ *
+ * Gli archi di questo grafo non hanno peso: i metodi addWeightedEdge lanciano
+ * UnsupportedOperationException e addEdge rifiuta gli archi pesati.
+ *
+ * @author Template: Luca Tesei, Implementazione: collettiva
+ *
+ * @param <L>
+ *                tipo delle etichette dei nodi del grafo
+ */
+public class BitsetAdjacencyMatrixUndirectedGraph<L> extends Graph<L> {
+
+    /*
+     * Numero minimo di righe allocate. Un multiplo di 64, in modo che le righe
+     * siano sempre formate da parole intere.
+     */
+    private static final int INITIAL_CAPACITY = 64;
+
+    /*
+     * Nodi del grafo, in posizione i il nodo di indice i.
+     */
+    private final ArrayList<GraphNode<L>> nodes;
+
+    /*
+     * Associazione di ogni etichetta con l'indice del relativo nodo.
+     */
+    private final Map<L, Integer> labelsIndex;
+
+    /*
+     * Matrice di adiacenza. Le righe allocate sono almeno nodeCount() e ogni
+     * riga ha abbastanza parole per contenere un bit per ogni riga allocata.
+     * Le righe e i bit oltre nodeCount() - 1 sono sempre a zero.
+     */
+    private long[][] rows;
+
+    /*
+     * Numero di archi, aggiornato a ogni inserimento e cancellazione.
+     */
+    private int edges;
+
+    /**
+     * Crea un grafo vuoto.
+     */
+    public BitsetAdjacencyMatrixUndirectedGraph() {
+        this.nodes = new ArrayList<GraphNode<L>>();
+        this.labelsIndex = new HashMap<L, Integer>();
+        this.rows = new long[INITIAL_CAPACITY][INITIAL_CAPACITY >>> 6];
+        this.edges = 0;
+    }
+
+    /*
+     * Raddoppia il numero di righe allocate, e di conseguenza la lunghezza di
+     * ogni riga, copiando i bit presenti.
+     */
+    private void grow() {
+        int capacity = this.rows.length * 2;
+        long[][] newRows = new long[capacity][];
+        for (int i = 0; i < capacity; i++) {
+            newRows[i] = new long[capacity >>> 6];
+            if (i < this.nodes.size())
+                System.arraycopy(this.rows[i], 0, newRows[i], 0,
+                        this.rows[i].length);
+        }
+        this.rows = newRows;
+    }
+
+    private boolean getBit(int i, int j) {
+        return (this.rows[i][j >>> 6] & (1L << j)) != 0;
+    }
+
+    private void setBit(int i, int j) {
+        this.rows[i][j >>> 6] |= 1L << j;
+    }
+
+    private void clearBit(int i, int j) {
+        this.rows[i][j >>> 6] &= ~(1L << j);
+    }
+
+    /*
+     * Toglie dalla riga il bit in posizione j facendo scorrere di una
+     * posizione verso il basso tutti i bit successivi.
+     */
+    private static void removeColumn(long[] row, int j) {
+        int w = j >>> 6;
+        long lowMask = (1L << j) - 1;
+        long word = row[w];
+        row[w] = (word & lowMask) | ((word >>> 1) & ~lowMask);
+        for (int k = w + 1; k < row.length; k++) {
+            // il bit più basso della parola successiva diventa il più alto di
+            // questa
+            row[k - 1] |= row[k] << 63;
+            row[k] >>>= 1;
+        }
+    }
+
+    /*
+     * Indice del nodo con l'etichetta data, -1 se non esiste.
+     */
+    private int indexOf(L label) {
+        Integer i = this.labelsIndex.get(label);
+        return i == null ? -1 : i;
+    }
+
+    /*
+     * Indice del nodo con l'etichetta data.
+     *
+     * @throws IllegalArgumentException se il nodo non esiste
+     */
+    private int existingIndexOf(L label) {
+        int i = this.indexOf(label);
+        if (i < 0)
+            throw new IllegalArgumentException("Nodo non presente!");
+        return i;
+    }
+
+    private void checkIndex(int i) {
+        if (i < 0 || i >= this.nodes.size())
+            throw new IndexOutOfBoundsException("Indice non valido!");
+    }
+
+    /*
+     * Numero di bit a 1 nella riga i, cioè il grado del nodo di indice i.
+     */
+    private int degree(int i) {
+        int d = 0;
+        for (long word : this.rows[i])
+            d += Long.bitCount(word);
+        return d;
+    }
+
+    private GraphEdge<L> edgeOf(int i, int j) {
+        return new GraphEdge<L>(this.nodes.get(i), this.nodes.get(j), false);
+    }
+
+    /**
+     * Determina se i nodi con gli indici dati sono collegati da un arco, senza
+     * creare l'oggetto che rappresenta l'arco.
+     *
+     * @param i
+     *              l'indice del primo nodo
+     * @param j
+     *              l'indice del secondo nodo
+     * @return true se esiste un arco tra i due nodi
+     * @throws IndexOutOfBoundsException
+     *                                       se almeno uno degli indici non è
+     *                                       valido
+     */
+    public boolean isAdjacent(int i, int j) {
+        this.checkIndex(i);
+        this.checkIndex(j);
+        return this.getBit(i, j);
+    }
+
+    @Override
+    public int nodeCount() {
+        return this.nodes.size();
+    }
+
+    @Override
+    public int edgeCount() {
+        return this.edges;
+    }
+
+    @Override
+    public void clear() {
+        this.nodes.clear();
+        this.labelsIndex.clear();
+        this.rows = new long[INITIAL_CAPACITY][INITIAL_CAPACITY >>> 6];
+        this.edges = 0;
+    }
+
+    @Override
+    public boolean isDirected() {
+        return false;
+    }
+
+    /*
+     * Gli indici dei nodi vanno assegnati nell'ordine di inserimento a partire
+     * da zero
+     */
+    @Override
+    public boolean addNode(GraphNode<L> node) {
+        if (node == null)
+            throw new NullPointerException("Nodo nullo!");
+        if (this.labelsIndex.containsKey(node.getLabel()))
+            return false;
+        if (this.nodes.size() == this.rows.length)
+            this.grow();
+        // La riga e la colonna del nuovo nodo sono già a zero
+        this.labelsIndex.put(node.getLabel(), this.nodes.size());
+        this.nodes.add(node);
+        return true;
+    }
+
+    @Override
+    public boolean addNode(L label) {
+        if (label == null)
+            throw new NullPointerException("Label nullo!");
+        return this.addNode(new GraphNode<L>(label));
+    }
+
+    /*
+     * Gli indici dei nodi il cui valore sia maggiore dell'indice del nodo da
+     * cancellare devono essere decrementati di uno dopo la cancellazione del
+     * nodo
+     */
+    @Override
+    public void removeNode(GraphNode<L> node) {
+        if (node == null)
+            throw new NullPointerException("Nodo nullo!");
+        this.removeNode(this.existingIndexOf(node.getLabel()));
+    }
+
+    @Override
+    public void removeNode(L label) {
+        if (label == null)
+            throw new NullPointerException("Label nullo!");
+        this.removeNode(this.existingIndexOf(label));
+    }
+
+    @Override
+    public void removeNode(int i) {
+        this.checkIndex(i);
+        int n = this.nodes.size();
+        // Il cappio, se presente, è un solo bit e un solo arco
+        this.edges -= this.degree(i);
+        for (int r = 0; r < n; r++)
+            if (r != i)
+                removeColumn(this.rows[r], i);
+        // Le righe successive scorrono verso l'alto, la riga tolta viene
+        // azzerata e riutilizzata come ultima
+        long[] removed = this.rows[i];
+        System.arraycopy(this.rows, i + 1, this.rows, i, n - i - 1);
+        Arrays.fill(removed, 0L);
+        this.rows[n - 1] = removed;
+        this.labelsIndex.remove(this.nodes.remove(i).getLabel());
+        for (int k = i; k < n - 1; k++)
+            this.labelsIndex.put(this.nodes.get(k).getLabel(), k);
+    }
+
+    @Override
+    public GraphNode<L> getNode(GraphNode<L> node) {
+        if (node == null)
+            throw new NullPointerException("Nodo nullo!");
+        int i = this.indexOf(node.getLabel());
+        return i < 0 ? null : this.nodes.get(i);
+    }
+
+    @Override
+    public GraphNode<L> getNode(L label) {
+        if (label == null)
+            throw new NullPointerException("Label nullo!");
+        int i = this.indexOf(label);
+        return i < 0 ? null : this.nodes.get(i);
+    }
+
+    @Override
+    public GraphNode<L> getNode(int i) {
+        this.checkIndex(i);
+        return this.nodes.get(i);
+    }
+
+    @Override
+    public int getNodeIndexOf(GraphNode<L> node) {
+        if (node == null)
+            throw new NullPointerException("Nodo nullo!");
+        return this.existingIndexOf(node.getLabel());
+    }
+
+    @Override
+    public int getNodeIndexOf(L label) {
+        if (label == null)
+            throw new NullPointerException("Label nullo!");
+        return this.existingIndexOf(label);
+    }
+
+    @Override
+    public Set<GraphNode<L>> getNodes() {
+        return new HashSet<GraphNode<L>>(this.nodes);
+    }
+
+    @Override
+    public boolean addEdge(GraphEdge<L> edge) {
+        if (edge == null)
+            throw new NullPointerException("Edge nullo!");
+        int i = this.existingIndexOf(edge.getNode1().getLabel());
+        int j = this.existingIndexOf(edge.getNode2().getLabel());
+        if (edge.isDirected())
+            throw new IllegalArgumentException("Arco orientato non ammesso!");
+        if (edge.hasWeight())
+            throw new IllegalArgumentException("Arco pesato non ammesso!");
+        if (this.getBit(i, j))
+            return false;
+        this.setBit(i, j);
+        this.setBit(j, i);
+        this.edges++;
+        return true;
+    }
+
+    @Override
+    public boolean addEdge(GraphNode<L> node1, GraphNode<L> node2) {
+        if (node1 == null || node2 == null)
+            throw new NullPointerException("Uno dei due nodi è nullo!");
+        return this.addEdge(new GraphEdge<L>(node1, node2, false));
+    }
+
+    @Override
+    public boolean addWeightedEdge(GraphNode<L> node1, GraphNode<L> node2,
+            double weight) {
+        throw new UnsupportedOperationException(
+                "Operazione non supportata in un grafo non pesato");
+    }
+
+    @Override
+    public boolean addEdge(L label1, L label2) {
+        if (label1 == null || label2 == null)
+            throw new NullPointerException("Uno dei due label è nullo!");
+        return this.addEdge(new GraphEdge<L>(new GraphNode<L>(label1),
+                new GraphNode<L>(label2), false));
+    }
+
+    @Override
+    public boolean addWeightedEdge(L label1, L label2, double weight) {
+        throw new UnsupportedOperationException(
+                "Operazione non supportata in un grafo non pesato");
+    }
+
+    @Override
+    public boolean addEdge(int i, int j) {
+        this.checkIndex(i);
+        this.checkIndex(j);
+        return this.addEdge(this.edgeOf(i, j));
+    }
+
+    @Override
+    public boolean addWeightedEdge(int i, int j, double weight) {
+        throw new UnsupportedOperationException(
+                "Operazione non supportata in un grafo non pesato");
+    }
+
+    @Override
+    public void removeEdge(GraphEdge<L> edge) {
+        if (edge == null)
+            throw new NullPointerException("Edge nullo!");
+        int i = this.existingIndexOf(edge.getNode1().getLabel());
+        int j = this.existingIndexOf(edge.getNode2().getLabel());
+        if (edge.isDirected() || !this.getBit(i, j))
+            throw new IllegalArgumentException("Edge mancante!");
+        this.clearBit(i, j);
+        this.clearBit(j, i);
+        this.edges--;
+    }
+
+    @Override
+    public void removeEdge(GraphNode<L> node1, GraphNode<L> node2) {
+        if (node1 == null || node2 == null)
+            throw new NullPointerException("Uno dei due nodi è nullo!");
+        this.removeEdge(new GraphEdge<L>(node1, node2, false));
+    }
+
+    @Override
+    public void removeEdge(L label1, L label2) {
+        if (label1 == null || label2 == null)
+            throw new NullPointerException("Uno dei due label è nullo!");
+        this.removeEdge(new GraphEdge<L>(new GraphNode<L>(label1),
+                new GraphNode<L>(label2), false));
+    }
+
+    @Override
+    public void removeEdge(int i, int j) {
+        this.checkIndex(i);
+        this.checkIndex(j);
+        this.removeEdge(this.edgeOf(i, j));
+    }
+
+    @Override
+    public GraphEdge<L> getEdge(GraphEdge<L> edge) {
+        if (edge == null)
+            throw new NullPointerException("Edge nullo!");
+        int i = this.existingIndexOf(edge.getNode1().getLabel());
+        int j = this.existingIndexOf(edge.getNode2().getLabel());
+        if (edge.isDirected() || !this.getBit(i, j))
+            return null;
+        return this.edgeOf(i, j);
+    }
+
+    @Override
+    public GraphEdge<L> getEdge(GraphNode<L> node1, GraphNode<L> node2) {
+        if (node1 == null || node2 == null)
+            throw new NullPointerException("Uno dei due nodi è nullo!");
+        int i = this.existingIndexOf(node1.getLabel());
+        int j = this.existingIndexOf(node2.getLabel());
+        return this.getBit(i, j) ? this.edgeOf(i, j) : null;
+    }
+
+    @Override
+    public GraphEdge<L> getEdge(L label1, L label2) {
+        if (label1 == null || label2 == null)
+            throw new NullPointerException("Uno dei due label è nullo!");
+        int i = this.existingIndexOf(label1);
+        int j = this.existingIndexOf(label2);
+        return this.getBit(i, j) ? this.edgeOf(i, j) : null;
+    }
+
+    @Override
+    public GraphEdge<L> getEdge(int i, int j) {
+        this.checkIndex(i);
+        this.checkIndex(j);
+        return this.getBit(i, j) ? this.edgeOf(i, j) : null;
+    }
+
+    @Override
+    public Set<GraphNode<L>> getAdjacentNodesOf(GraphNode<L> node) {
+        if (node == null)
+            throw new NullPointerException("Nodo nullo!");
+        return this.getAdjacentNodesOf(this.existingIndexOf(node.getLabel()));
+    }
+
+    @Override
+    public Set<GraphNode<L>> getAdjacentNodesOf(L label) {
+        if (label == null)
+            throw new NullPointerException("Label nullo!");
+        return this.getAdjacentNodesOf(this.existingIndexOf(label));
+    }
+
+    @Override
+    public Set<GraphNode<L>> getAdjacentNodesOf(int i) {
+        this.checkIndex(i);
+        long[] row = this.rows[i];
+        Set<GraphNode<L>> result = new HashSet<GraphNode<L>>();
+        for (int w = 0; w < row.length; w++) {
+            long word = row[w];
+            // Si salta direttamente da un bit a 1 al successivo, le parole
+            // nulle costano un solo confronto
+            while (word != 0) {
+                result.add(this.nodes
+                        .get((w << 6) + Long.numberOfTrailingZeros(word)));
+                word &= word - 1;
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public Set<GraphNode<L>> getPredecessorNodesOf(GraphNode<L> node) {
+        throw new UnsupportedOperationException(
+                "Operazione non supportata in un grafo non orientato");
+    }
+
+    @Override
+    public Set<GraphNode<L>> getPredecessorNodesOf(L label) {
+        throw new UnsupportedOperationException(
+                "Operazione non supportata in un grafo non orientato");
+    }
+
+    @Override
+    public Set<GraphNode<L>> getPredecessorNodesOf(int i) {
+        throw new UnsupportedOperationException(
+                "Operazione non supportata in un grafo non orientato");
+    }
+
+    @Override
+    public Set<GraphEdge<L>> getEdgesOf(GraphNode<L> node) {
+        if (node == null)
+            throw new NullPointerException("Nodo nullo!");
+        return this.getEdgesOf(this.existingIndexOf(node.getLabel()));
+    }
+
+    @Override
+    public Set<GraphEdge<L>> getEdgesOf(L label) {
+        if (label == null)
+            throw new NullPointerException("Label nullo!");
+        return this.getEdgesOf(this.existingIndexOf(label));
+    }
+
+    @Override
+    public Set<GraphEdge<L>> getEdgesOf(int i) {
+        this.checkIndex(i);
+        long[] row = this.rows[i];
+        Set<GraphEdge<L>> result = new HashSet<GraphEdge<L>>();
+        for (int w = 0; w < row.length; w++) {
+            long word = row[w];
+            while (word != 0) {
+                result.add(this.edgeOf(i,
+                        (w << 6) + Long.numberOfTrailingZeros(word)));
+                word &= word - 1;
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public Set<GraphEdge<L>> getIngoingEdgesOf(GraphNode<L> node) {
+        throw new UnsupportedOperationException(
+                "Operazione non supportata in un grafo non orientato");
+    }
+
+    @Override
+    public Set<GraphEdge<L>> getIngoingEdgesOf(L label) {
+        throw new UnsupportedOperationException(
+                "Operazione non supportata in un grafo non orientato");
+    }
+
+    @Override
+    public Set<GraphEdge<L>> getIngoingEdgesOf(int i) {
+        throw new UnsupportedOperationException(
+                "Operazione non supportata in un grafo non orientato");
+    }
+
+    @Override
+    public Set<GraphEdge<L>> getEdges() {
+        Set<GraphEdge<L>> result = new HashSet<GraphEdge<L>>();
+        for (int i = 0; i < this.nodes.size(); i++) {
+            long[] row = this.rows[i];
+            // Solo la parte della riga con j >= i, per non creare due volte
+            // lo stesso arco
+            int w = i >>> 6;
+            long word = row[w] & (-1L << i);
+            while (true) {
+                while (word != 0) {
+                    result.add(this.edgeOf(i,
+                            (w << 6) + Long.numberOfTrailingZeros(word)));
+                    word &= word - 1;
+                }
+                if (++w == row.length)
+                    break;
+                word = row[w];
+            }
+        }
+        return result;
+    }
+
+    /*
+     * Il grado si ottiene contando i bit della riga, senza creare gli archi.
+     */
+    @Override
+    public int getDegreeOf(GraphNode<L> node) {
+        if (node == null)
+            throw new NullPointerException(
+                    "Tentativo di calcolare il grado di un nodo null");
+        int i = this.indexOf(node.getLabel());
+        if (i < 0)
+            throw new IllegalArgumentException(
+                    "Tentativo di calcolare il grado di un nodo non "
+                            + "presente in questo grafo");
+        return this.degree(i);
+    }
+
+    @Override
+    public int getDegreeOf(L label) {
+        if (label == null)
+            throw new NullPointerException(
+                    "Tentativo di calcolare il grado di un nodo null");
+        int i = this.indexOf(label);
+        if (i < 0)
+            throw new IllegalArgumentException(
+                    "Tentativo di calcolare il grado di un nodo non "
+                            + "presente in questo grafo");
+        return this.degree(i);
+    }
+
+    @Override
+    public int getDegreeOf(int i) {
+        if (i < 0 || i >= this.nodes.size())
+            throw new IndexOutOfBoundsException(
+                    "Tentativo di calcolare il grado di un nodo con indice "
+                            + "non valido");
+        return this.degree(i);
+    }
+}
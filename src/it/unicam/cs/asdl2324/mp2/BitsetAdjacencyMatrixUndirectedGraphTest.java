@@ -0,0 +1,156 @@
+package it.unicam.cs.asdl2324.mp2;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Classe di test per la classe BitsetAdjacencyMatrixUndirectedGraph.
+ *
+ * @author Template: Luca Tesei, Implementazione: collettiva
+ */
+class BitsetAdjacencyMatrixUndirectedGraphTest {
+
+    @Test
+    final void testBitsetAdjacencyMatrixUndirectedGraph() {
+        Graph<String> g = new BitsetAdjacencyMatrixUndirectedGraph<String>();
+        assertTrue(g.isEmpty());
+        assertFalse(g.isDirected());
+    }
+
+    @Test
+    final void testAddNodeAndIndexes() {
+        Graph<String> g = new BitsetAdjacencyMatrixUndirectedGraph<String>();
+        assertTrue(g.addNode("s"));
+        assertTrue(g.addNode(new GraphNode<String>("u")));
+        assertFalse(g.addNode("s"));
+        assertEquals(2, g.nodeCount());
+        assertEquals(0, g.getNodeIndexOf("s"));
+        assertEquals(1, g.getNodeIndexOf(new GraphNode<String>("u")));
+        assertEquals(new GraphNode<String>("u"), g.getNode(1));
+        assertNull(g.getNode("x"));
+        assertThrows(IndexOutOfBoundsException.class, () -> g.getNode(2));
+        assertThrows(IllegalArgumentException.class,
+                () -> g.getNodeIndexOf("x"));
+        assertThrows(NullPointerException.class,
+                () -> g.addNode((String) null));
+    }
+
+    @Test
+    final void testAddEdge() {
+        Graph<String> g = new BitsetAdjacencyMatrixUndirectedGraph<String>();
+        GraphNode<String> ns = new GraphNode<String>("s");
+        GraphNode<String> nu = new GraphNode<String>("u");
+        g.addNode(ns);
+        g.addNode(nu);
+        assertTrue(g.addEdge(ns, nu));
+        assertFalse(g.addEdge(nu, ns));
+        assertEquals(1, g.edgeCount());
+        assertEquals(new GraphEdge<String>(nu, ns, false), g.getEdge(0, 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> g.addEdge(new GraphEdge<String>(ns, nu, true)));
+        assertThrows(IllegalArgumentException.class,
+                () -> g.addEdge(new GraphEdge<String>(ns, nu, false, 1.5)));
+        assertThrows(IllegalArgumentException.class,
+                () -> g.addEdge("s", "x"));
+        assertThrows(UnsupportedOperationException.class,
+                () -> g.addWeightedEdge("s", "u", 1.5));
+    }
+
+    @Test
+    final void testRemoveEdge() {
+        Graph<String> g = new BitsetAdjacencyMatrixUndirectedGraph<String>();
+        g.addNode("s");
+        g.addNode("u");
+        g.addEdge("s", "u");
+        g.removeEdge("u", "s");
+        assertEquals(0, g.edgeCount());
+        assertNull(g.getEdge("s", "u"));
+        assertThrows(IllegalArgumentException.class,
+                () -> g.removeEdge("s", "u"));
+    }
+
+    @Test
+    final void testAdjacencyAndDegree() {
+        Graph<String> g = new BitsetAdjacencyMatrixUndirectedGraph<String>();
+        g.addNode("s");
+        g.addNode("u");
+        g.addNode("x");
+        g.addEdge("s", "u");
+        g.addEdge("s", "x");
+        g.addEdge("x", "x");
+        Set<GraphNode<String>> adj = new HashSet<GraphNode<String>>();
+        adj.add(new GraphNode<String>("u"));
+        adj.add(new GraphNode<String>("x"));
+        assertEquals(adj, g.getAdjacentNodesOf("s"));
+        assertEquals(2, g.getDegreeOf("s"));
+        assertEquals(2, g.getDegreeOf("x"));
+        assertEquals(1, g.getDegreeOf(1));
+        assertEquals(3, g.edgeCount());
+        assertEquals(2, g.getEdgesOf("x").size());
+        assertThrows(UnsupportedOperationException.class,
+                () -> g.getPredecessorNodesOf("s"));
+    }
+
+    /*
+     * Con più di 64 nodi le righe occupano più parole.
+     */
+    @Test
+    final void testManyNodes() {
+        BitsetAdjacencyMatrixUndirectedGraph<Integer> g = new BitsetAdjacencyMatrixUndirectedGraph<Integer>();
+        int n = 200;
+        for (int i = 0; i < n; i++)
+            g.addNode(i);
+        for (int i = 1; i < n; i++)
+            g.addEdge(0, i);
+        for (int i = 0; i + 64 < n; i++)
+            g.addEdge(i, i + 64);
+        assertEquals(n - 1, g.getDegreeOf(0));
+        assertEquals(n - 1, g.getAdjacentNodesOf(0).size());
+        assertEquals(3, g.getDegreeOf(100));
+        assertTrue(g.isAdjacent(164, 100));
+        assertEquals(n - 1 + n - 64 - 1, g.edgeCount());
+        assertEquals(g.edgeCount(), g.getEdges().size());
+    }
+
+    @Test
+    final void testRemoveNode() {
+        BitsetAdjacencyMatrixUndirectedGraph<Integer> g = new BitsetAdjacencyMatrixUndirectedGraph<Integer>();
+        int n = 130;
+        for (int i = 0; i < n; i++)
+            g.addNode(i);
+        for (int i = 0; i + 1 < n; i++)
+            g.addEdge(i, i + 1);
+        g.addEdge(70, 70);
+        // Gli indici successivi a quello del nodo tolto scalano di uno
+        g.removeNode(Integer.valueOf(63));
+        assertEquals(n - 1, g.nodeCount());
+        assertEquals(n - 3 + 1, g.edgeCount());
+        assertEquals(63, g.getNodeIndexOf(64));
+        assertEquals(Integer.valueOf(129), g.getNode(128).getLabel());
+        assertNull(g.getEdge(62, 63));
+        assertNotNull(g.getEdge(63, 64));
+        assertNotNull(g.getEdge(Integer.valueOf(70), Integer.valueOf(70)));
+        assertNotNull(g.getEdge(Integer.valueOf(128), Integer.valueOf(129)));
+        assertEquals(1, g.getDegreeOf(Integer.valueOf(64)));
+        assertEquals(g.edgeCount(), g.getEdges().size());
+        assertNull(g.getNode(Integer.valueOf(63)));
+    }
+
+    @Test
+    final void testClear() {
+        Graph<String> g = new BitsetAdjacencyMatrixUndirectedGraph<String>();
+        g.addNode("s");
+        g.addNode("u");
+        g.addEdge("s", "u");
+        g.clear();
+        assertTrue(g.isEmpty());
+        assertEquals(0, g.edgeCount());
+        g.addNode("u");
+        assertEquals(0, g.getDegreeOf("u"));
+    }
+
+}
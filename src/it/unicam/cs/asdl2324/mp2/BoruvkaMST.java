@@ -0,0 +1,302 @@
+package it.unicam.cs.asdl2324.mp2;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+//ATTENZIONE: è vietato includere import a pacchetti che non siano della Java SE
+
+/**
+ * Classe singoletto che implementa l'algoritmo di Borůvka per trovare un
+ * Minimum Spanning Tree di un grafo non orientato, pesato e con pesi non
+ * negativi. Il risultato ha lo stesso formato di quello di KruskalMST, per cui
+ * le due classi sono intercambiabili.
+ *
+ * L'algoritmo procede per fasi. In ogni fase si trova, per ogni componente
+ * della foresta corrente, l'arco più leggero che la collega a un'altra
+ * componente e si aggiungono alla foresta tutti gli archi trovati: il numero
+ * delle componenti almeno si dimezza ad ogni fase, per cui le fasi sono al più
+ * log n. Entrambi i passi di una fase sono eseguiti in parallelo con il
+ * framework fork/join, suddividendo l'insieme dei nodi (o delle componenti) in
+ * intervalli di indici. Le componenti sono gestite da una struttura di insiemi
+ * disgiunti concorrente sugli indici dei nodi, in cui la radice di ogni albero
+ * viene aggiornata con operazioni di compare-and-set.
+ *
+ * A parità di peso gli archi sono confrontati per posizione nella lista degli
+ * archi del grafo: in questo modo l'ordine tra gli archi è totale e gli archi
+ * scelti nella stessa fase non possono formare cicli.
+ *
+ * @author Template: Luca Tesei, Implementazione: collettiva
+ *
+ * @param <L>
+ *                tipo delle etichette dei nodi del grafo
+ *
+ */
+public class BoruvkaMST<L> {
+
+    /*
+     * Numero di nodi sotto il quale un intervallo viene elaborato da un solo
+     * thread.
+     */
+    private static final int THRESHOLD = 1024;
+
+    /*
+     * Pool di thread che esegue le fasi dell'algoritmo.
+     */
+    private final ForkJoinPool pool;
+
+    /*
+     * Rappresentazione del grafo corrente sugli indici: estremi e pesi degli
+     * archi e, per ogni nodo, gli indici degli archi incidenti nelle posizioni
+     * da offsets[u] a offsets[u + 1] - 1 di incident.
+     */
+    private int[] sources;
+
+    private int[] targets;
+
+    private double[] weights;
+
+    private int[] offsets;
+
+    private int[] incident;
+
+    /*
+     * Insiemi disgiunti concorrenti dei nodi.
+     */
+    private ConcurrentDisjointSets components;
+
+    /*
+     * Per ogni componente, identificata dall'indice della sua radice, l'arco
+     * più leggero uscente trovato nella fase corrente o -1.
+     */
+    private AtomicIntegerArray cheapest;
+
+    /*
+     * Archi aggiunti alla foresta.
+     */
+    private boolean[] inTree;
+
+    /**
+     * Costruisce un calcolatore di un albero di copertura minimo che usa
+     * l'algoritmo di Borůvka e il pool fork/join comune della JVM.
+     */
+    public BoruvkaMST() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Costruisce un calcolatore di un albero di copertura minimo che usa
+     * l'algoritmo di Borůvka e il pool fork/join passato.
+     *
+     * @param pool
+     *                 il pool di thread in cui eseguire le fasi
+     *                 dell'algoritmo
+     * @throws NullPointerException
+     *                                  se il pool è nullo
+     */
+    public BoruvkaMST(ForkJoinPool pool) {
+        if (pool == null)
+            throw new NullPointerException("Pool di thread nullo!");
+        this.pool = pool;
+    }
+
+    /**
+     * Utilizza l'algoritmo di Borůvka per trovare un albero di copertura minimo
+     * in un grafo non orientato e pesato, con pesi degli archi non negativi.
+     * L'albero restituito non è radicato, quindi è rappresentato semplicemente
+     * con un sottoinsieme degli archi del grafo. Se il grafo non è connesso
+     * viene restituita una foresta di copertura minima.
+     *
+     * @param g
+     *              un grafo non orientato, pesato, con pesi non negativi
+     * @return l'insieme degli archi del grafo g che costituiscono l'albero di
+     *         copertura minimo trovato
+     * @throw NullPointerException se il grafo g è null
+     * @throw IllegalArgumentException se il grafo g è orientato, non pesato o
+     *        con pesi negativi
+     */
+    public Set<GraphEdge<L>> computeMSP(Graph<L> g) {
+        if (g == null)
+            throw new NullPointerException("Grafo nullo!");
+        if (g.isDirected())
+            throw new IllegalArgumentException("Il grafo è orientato!");
+        Set<GraphEdge<L>> graphEdges = g.getEdges();
+        for (GraphEdge<L> edge : graphEdges)
+            if (!edge.hasWeight() || edge.getWeight() < 0)
+                throw new IllegalArgumentException(
+                        "Il grafo non è pesato o con pesi negativi");
+
+        int n = g.nodeCount();
+        Map<GraphNode<L>, Integer> indexes = new HashMap<GraphNode<L>, Integer>();
+        for (GraphNode<L> node : g.getNodes())
+            indexes.put(node, indexes.size());
+        @SuppressWarnings("unchecked")
+        GraphEdge<L>[] edges = (GraphEdge<L>[]) new GraphEdge<?>[graphEdges
+                .size()];
+        this.sources = new int[edges.length];
+        this.targets = new int[edges.length];
+        this.weights = new double[edges.length];
+        this.offsets = new int[n + 1];
+        int m = 0;
+        for (GraphEdge<L> edge : graphEdges) {
+            int u = indexes.get(edge.getNode1());
+            int v = indexes.get(edge.getNode2());
+            // I cappi non fanno mai parte dell'albero
+            if (u == v)
+                continue;
+            edges[m] = edge;
+            this.sources[m] = u;
+            this.targets[m] = v;
+            this.weights[m] = edge.getWeight();
+            this.offsets[u + 1]++;
+            this.offsets[v + 1]++;
+            m++;
+        }
+        for (int u = 0; u < n; u++)
+            this.offsets[u + 1] += this.offsets[u];
+        this.incident = new int[2 * m];
+        int[] next = new int[n];
+        for (int e = 0; e < m; e++) {
+            int u = this.sources[e];
+            int v = this.targets[e];
+            this.incident[this.offsets[u] + next[u]++] = e;
+            this.incident[this.offsets[v] + next[v]++] = e;
+        }
+
+        this.components = new ConcurrentDisjointSets(n);
+        this.cheapest = new AtomicIntegerArray(n);
+        this.inTree = new boolean[m];
+        int merged;
+        do {
+            for (int c = 0; c < n; c++)
+                this.cheapest.set(c, -1);
+            this.pool.invoke(new CheapestEdgeTask(0, n));
+            merged = this.pool.invoke(new MergeTask(0, n));
+        } while (merged > 0);
+
+        Set<GraphEdge<L>> result = new HashSet<GraphEdge<L>>();
+        for (int e = 0; e < m; e++)
+            if (this.inTree[e])
+                result.add(edges[e]);
+        // Libera la memoria usata durante il calcolo
+        this.sources = null;
+        this.targets = null;
+        this.weights = null;
+        this.offsets = null;
+        this.incident = null;
+        this.components = null;
+        this.cheapest = null;
+        this.inTree = null;
+        return result;
+    }
+
+    /*
+     * Determina se l'arco e precede l'arco f nell'ordine totale tra gli archi:
+     * per peso e, a parità di peso, per indice.
+     */
+    private boolean lighter(int e, int f) {
+        return this.weights[e] < this.weights[f]
+                || (this.weights[e] == this.weights[f] && e < f);
+    }
+
+    /*
+     * Propone l'arco e come arco più leggero uscente dalla componente c.
+     */
+    private void offer(int c, int e) {
+        int current = this.cheapest.get(c);
+        while (current == -1 || this.lighter(e, current)) {
+            if (this.cheapest.compareAndSet(c, current, e))
+                return;
+            current = this.cheapest.get(c);
+        }
+    }
+
+    /*
+     * Compito che, per i nodi di un intervallo di indici, trova l'arco
+     * incidente più leggero che esce dalla componente del nodo e lo propone
+     * per la componente.
+     */
+    private class CheapestEdgeTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+
+        private final int to;
+
+        CheapestEdgeTask(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.to - this.from > THRESHOLD) {
+                int middle = (this.from + this.to) >>> 1;
+                invokeAll(new CheapestEdgeTask(this.from, middle),
+                        new CheapestEdgeTask(middle, this.to));
+                return;
+            }
+            for (int u = this.from; u < this.to; u++) {
+                int cu = components.find(u);
+                int best = -1;
+                for (int k = offsets[u]; k < offsets[u + 1]; k++) {
+                    int e = incident[k];
+                    int v = sources[e] == u ? targets[e] : sources[e];
+                    if (components.find(v) != cu
+                            && (best == -1 || lighter(e, best)))
+                        best = e;
+                }
+                if (best != -1)
+                    offer(cu, best);
+            }
+        }
+    }
+
+    /*
+     * Compito che, per le componenti di un intervallo di indici, aggiunge alla
+     * foresta l'arco più leggero uscente trovato e unisce le due componenti.
+     * Restituisce il numero di unioni effettuate.
+     */
+    private class MergeTask extends RecursiveTask<Integer> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+
+        private final int to;
+
+        MergeTask(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Integer compute() {
+            if (this.to - this.from > THRESHOLD) {
+                int middle = (this.from + this.to) >>> 1;
+                MergeTask left = new MergeTask(this.from, middle);
+                left.fork();
+                int right = new MergeTask(middle, this.to).compute();
+                return left.join() + right;
+            }
+            int merged = 0;
+            for (int c = this.from; c < this.to; c++) {
+                int e = cheapest.get(c);
+                // Lo stesso arco può essere scelto da entrambe le componenti
+                // che collega: solo la prima unione ha effetto
+                if (e != -1 && components.union(sources[e], targets[e])) {
+                    inTree[e] = true;
+                    merged++;
+                }
+            }
+            return merged;
+        }
+    }
+
+}
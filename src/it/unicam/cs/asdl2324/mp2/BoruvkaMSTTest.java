@@ -0,0 +1,150 @@
+package it.unicam.cs.asdl2324.mp2;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Classe di test per i metodi della classe BoruvkaMST.
+ *
+ * @author Template: Luca Tesei, Implementazione: collettiva
+ *
+ */
+class BoruvkaMSTTest {
+
+    @Test
+    final void testComputeMSP1() {
+        Graph<String> gr = new AdjacencyMatrixUndirectedGraph<String>();
+        GraphNode<String> a = new GraphNode<String>("a");
+        gr.addNode(a);
+        GraphNode<String> b = new GraphNode<String>("b");
+        gr.addNode(b);
+        GraphNode<String> c = new GraphNode<String>("c");
+        gr.addNode(c);
+        GraphNode<String> d = new GraphNode<String>("d");
+        gr.addNode(d);
+        GraphNode<String> e = new GraphNode<String>("e");
+        gr.addNode(e);
+        GraphNode<String> f = new GraphNode<String>("f");
+        gr.addNode(f);
+        GraphNode<String> g = new GraphNode<String>("g");
+        gr.addNode(g);
+        GraphNode<String> h = new GraphNode<String>("h");
+        gr.addNode(h);
+        GraphNode<String> i = new GraphNode<String>("i");
+        gr.addNode(i);
+        gr.addEdge(new GraphEdge<String>(a, b, false, 4));
+        gr.addEdge(new GraphEdge<String>(a, h, false, 8.5));
+        gr.addEdge(new GraphEdge<String>(b, h, false, 11));
+        gr.addEdge(new GraphEdge<String>(b, c, false, 8));
+        gr.addEdge(new GraphEdge<String>(c, i, false, 2));
+        gr.addEdge(new GraphEdge<String>(c, d, false, 7));
+        gr.addEdge(new GraphEdge<String>(c, f, false, 4));
+        gr.addEdge(new GraphEdge<String>(d, f, false, 14));
+        gr.addEdge(new GraphEdge<String>(d, e, false, 9));
+        gr.addEdge(new GraphEdge<String>(e, f, false, 10));
+        gr.addEdge(new GraphEdge<String>(f, g, false, 2));
+        gr.addEdge(new GraphEdge<String>(g, i, false, 6));
+        gr.addEdge(new GraphEdge<String>(g, h, false, 1));
+        gr.addEdge(new GraphEdge<String>(h, i, false, 7));
+        BoruvkaMST<String> alg = new BoruvkaMST<String>();
+        Set<GraphEdge<String>> result = new HashSet<GraphEdge<String>>();
+        result.add(new GraphEdge<String>(a, b, false, 4));
+        result.add(new GraphEdge<String>(b, c, false, 8));
+        result.add(new GraphEdge<String>(c, i, false, 2));
+        result.add(new GraphEdge<String>(c, d, false, 7));
+        result.add(new GraphEdge<String>(c, f, false, 4));
+        result.add(new GraphEdge<String>(d, e, false, 9));
+        result.add(new GraphEdge<String>(f, g, false, 2));
+        result.add(new GraphEdge<String>(g, h, false, 1));
+        assertTrue(alg.computeMSP(gr).equals(result));
+    }
+
+    @Test
+    final void testComputeMSPDisconnected() {
+        Graph<String> gr = new AdjacencyMatrixUndirectedGraph<String>();
+        BoruvkaMST<String> alg = new BoruvkaMST<String>();
+        Set<GraphEdge<String>> result = new HashSet<GraphEdge<String>>();
+        assertTrue(alg.computeMSP(gr).equals(result));
+        GraphNode<String> a = new GraphNode<String>("a");
+        gr.addNode(a);
+        GraphNode<String> b = new GraphNode<String>("b");
+        gr.addNode(b);
+        GraphNode<String> c = new GraphNode<String>("c");
+        gr.addNode(c);
+        GraphNode<String> d = new GraphNode<String>("d");
+        gr.addNode(d);
+        GraphNode<String> e = new GraphNode<String>("e");
+        gr.addNode(e);
+        assertTrue(alg.computeMSP(gr).equals(result));
+        gr.addEdge(new GraphEdge<String>(a, b, false, 1));
+        gr.addEdge(new GraphEdge<String>(a, a, false, 0));
+        gr.addEdge(new GraphEdge<String>(c, d, false, 3));
+        gr.addEdge(new GraphEdge<String>(d, e, false, 3));
+        gr.addEdge(new GraphEdge<String>(c, e, false, 3));
+        Set<GraphEdge<String>> forest = alg.computeMSP(gr);
+        assertEquals(3, forest.size());
+        assertTrue(forest.contains(new GraphEdge<String>(a, b, false, 1)));
+        assertFalse(forest.contains(new GraphEdge<String>(a, a, false, 0)));
+    }
+
+    @Test
+    final void testSameWeightAsKruskal() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        Random random = new Random(11);
+        // Abbastanza nodi da suddividere il lavoro tra più thread, pesi
+        // interi per avere molti archi con lo stesso peso
+        int n = 2500;
+        Graph<Integer> gr = new AdjacencyMatrixUndirectedGraph<Integer>();
+        for (int i = 0; i < n; i++)
+            gr.addNode(i);
+        for (int k = 0; k < 6 * n; k++) {
+            int i = random.nextInt(n);
+            int j = random.nextInt(n);
+            if (i != j && gr.getEdge(i, j) == null)
+                gr.addWeightedEdge(i, j, random.nextInt(20));
+        }
+        Set<GraphEdge<Integer>> boruvka = new BoruvkaMST<Integer>(pool)
+                .computeMSP(gr);
+        Set<GraphEdge<Integer>> kruskal = new KruskalMST<Integer>()
+                .computeMSP(gr);
+        pool.shutdown();
+        assertEquals(kruskal.size(), boruvka.size());
+        double boruvkaWeight = 0;
+        for (GraphEdge<Integer> edge : boruvka)
+            boruvkaWeight += edge.getWeight();
+        double kruskalWeight = 0;
+        for (GraphEdge<Integer> edge : kruskal)
+            kruskalWeight += edge.getWeight();
+        assertEquals(kruskalWeight, boruvkaWeight);
+    }
+
+    @Test
+    final void exceptionsTest() {
+        BoruvkaMST<String> alg = new BoruvkaMST<String>();
+        assertThrows(NullPointerException.class, () -> {
+            alg.computeMSP(null);
+        });
+        assertThrows(NullPointerException.class, () -> {
+            new BoruvkaMST<String>(null);
+        });
+        Graph<String> x = new AdjacencyMatrixUndirectedGraph<>();
+        GraphNode<String> A = new GraphNode<>("A");
+        x.addNode(A);
+        GraphNode<String> B = new GraphNode<>("B");
+        x.addNode(B);
+        GraphNode<String> C = new GraphNode<>("C");
+        x.addNode(C);
+        x.addEdge(new GraphEdge<>(A, B, false, 0));
+        x.addEdge(new GraphEdge<>(B, C, false, -2));
+        // Archi non pesati o negativi
+        assertThrows(IllegalArgumentException.class, () -> {
+            alg.computeMSP(x);
+        });
+    }
+}
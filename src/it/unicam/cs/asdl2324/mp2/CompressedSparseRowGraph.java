@@ -0,0 +1,1255 @@
+/**
+ *
+ */
+package it.unicam.cs.asdl2324.mp2;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+// ATTENZIONE: è vietato includere import a pacchetti che non siano della Java SE
+
+/**
+ * Classe che implementa un grafo immutabile rappresentato in formato CSR
+ * (Compressed Sparse Row). Il grafo viene costruito una sola volta a partire
+ * da un qualsiasi altro grafo, orientato o non orientato, oppure direttamente
+ * da una lista di archi data come array di indici dei nodi, e da quel momento
+ * non può più essere modificato: tutti i metodi di inserimento e
+ * cancellazione lanciano UnsupportedOperationException.
+ *
+ * Gli archi uscenti dal nodo di indice i occupano le posizioni da
+ * {@code offsets[i]} (inclusa) a {@code offsets[i + 1]} (esclusa) di due
+ * array paralleli di tipo primitivo: {@code targets} contiene l'indice del
+ * nodo collegato e {@code weights} il peso dell'arco. Un terzo array
+ * parallelo contiene l'oggetto GraphEdge<L> dell'arco, creato una sola volta
+ * durante la costruzione e condiviso da tutte le righe in cui l'arco compare:
+ * getEdge, getEdgesOf, getIngoingEdgesOf e getEdges restituiscono sempre gli
+ * stessi oggetti e non allocano archi. In ogni riga gli archi sono ordinati per indice del nodo collegato, per cui la ricerca di un arco
+ * tra due nodi è una ricerca binaria nella riga. Nel caso non orientato ogni
+ * arco compare nella riga di entrambi i suoi nodi; nel caso orientato una
+ * seconda struttura CSR, con le stesse convenzioni, memorizza gli archi
+ * entranti.
+ *
+ * Gli insiemi restituiti da getAdjacentNodesOf, getEdgesOf, getNodes e
+ * getEdges sono viste non modificabili sugli array: non copiano nulla, si
+ * costruiscono in tempo costante e si scorrono in tempo proporzionale al grado
+ * del nodo. Anche getDegreeOf richiede tempo costante. Gli algoritmi che
+ * lavorano sugli indici possono inoltre scorrere le righe senza passare dagli
+ * oggetti GraphNode e GraphEdge tramite i metodi getRowStart, getRowEnd,
+ * getTargetAt e getWeightAt, e le righe degli archi entranti tramite
+ * getInRowStart, getInRowEnd, getSourceAt e getInWeightAt.
+ *
+ * I nodi del grafo sono oggetti GraphNode<L> nuovi, distinti da quelli del
+ * grafo di partenza, per cui i due grafi possono essere visitati
+ * indipendentemente. Se il grafo di partenza supporta gli indici, ogni nodo
+ * mantiene il proprio indice, altrimenti gli indici vengono assegnati
+ * nell'ordine in cui getNodes() restituisce i nodi.
+ *
+ * Un grafo creato con withIndexLabels, pensato per grafi molto grandi letti
+ * da file, ha come etichetta di ogni nodo il suo indice e non memorizza né la
+ * tabella delle etichette né gli oggetti GraphEdge: un arco occupa solo 12
+ * byte per riga in cui compare e gli archi restituiti dai metodi precedenti
+ * vengono creati al momento a partire dagli array, per cui chiamate diverse
+ * restituiscono oggetti diversi, uguali secondo equals, e modificare il peso
+ * di un arco restituito non modifica il grafo.
+ *
+ * @author Template: Luca Tesei, Implementazione: collettiva
+ *
+ * @param <L>
+ *                tipo delle etichette dei nodi del grafo
+ */
+public class CompressedSparseRowGraph<L> extends Graph<L> {
+
+    private final boolean directed;
+
+    /*
+     * Nodi del grafo, in posizione i il nodo di indice i.
+     */
+    private final GraphNode<L>[] nodes;
+
+    /*
+     * Associazione di ogni etichetta con l'indice del relativo nodo, null se
+     * l'etichetta di ogni nodo è il suo indice.
+     */
+    private final Map<L, Integer> labelsIndex;
+
+    /*
+     * Numero di archi distinti del grafo. Questo campo e i seguenti sono
+     * assegnati solo dal metodo build, chiamato dai costruttori.
+     */
+    private int edgeCount;
+
+    /*
+     * Struttura CSR degli archi uscenti (di tutti gli archi nel caso non
+     * orientato). offsets ha nodeCount() + 1 posizioni.
+     */
+    private int[] offsets;
+
+    private int[] targets;
+
+    private double[] weights;
+
+    /*
+     * Oggetti GraphEdge di tutti gli archi, nell'ordine della lista da cui il
+     * grafo è stato costruito, e in posizione k l'arco corrispondente a
+     * targets[k]. Sono null nei grafi creati da withIndexLabels.
+     */
+    private GraphEdge<L>[] edgeList;
+
+    private GraphEdge<L>[] edges;
+
+    /*
+     * Struttura CSR degli archi entranti, null nel caso non orientato.
+     */
+    private int[] inOffsets;
+
+    private int[] inSources;
+
+    private double[] inWeights;
+
+    private GraphEdge<L>[] inEdges;
+
+    /**
+     * Crea un grafo immutabile con gli stessi nodi e gli stessi archi, con gli
+     * stessi pesi, del grafo dato.
+     *
+     * @param graph
+     *                  il grafo da copiare
+     * @throws NullPointerException
+     *                                  se il grafo passato è nullo
+     */
+    @SuppressWarnings("unchecked")
+    public CompressedSparseRowGraph(Graph<L> graph) {
+        if (graph == null)
+            throw new NullPointerException("Grafo nullo!");
+        this.directed = graph.isDirected();
+        int n = graph.nodeCount();
+        this.nodes = (GraphNode<L>[]) new GraphNode<?>[n];
+        this.labelsIndex = new HashMap<L, Integer>();
+        this.assignIndexes(graph);
+
+        Set<GraphEdge<L>> sourceEdges = graph.getEdges();
+        int m = sourceEdges.size();
+        int[] from = new int[m];
+        int[] to = new int[m];
+        double[] w = new double[m];
+        int e = 0;
+        for (GraphEdge<L> edge : sourceEdges) {
+            from[e] = this.labelsIndex.get(edge.getNode1().getLabel());
+            to[e] = this.labelsIndex.get(edge.getNode2().getLabel());
+            w[e] = edge.getWeight();
+            e++;
+        }
+        this.build(from, to, w, true, false);
+    }
+
+    /**
+     * Crea un grafo immutabile a partire dalle etichette dei nodi e da una
+     * lista di archi data come array paralleli di indici: il k-esimo arco va
+     * dal nodo di indice sources[k] al nodo di indice targets[k] e ha peso
+     * weights[k]. Il nodo di indice i ha etichetta labels.get(i). Non serve
+     * nessun grafo di partenza, per cui è il modo più veloce per costruire
+     * grafi grandi, orientati o non orientati, letti ad esempio da un file.
+     * Gli array non vengono modificati né mantenuti.
+     *
+     * @param labels
+     *                     le etichette dei nodi, in posizione i quella del
+     *                     nodo di indice i
+     * @param sources
+     *                     gli indici dei primi nodi degli archi
+     * @param targets
+     *                     gli indici dei secondi nodi degli archi
+     * @param weights
+     *                     i pesi degli archi, oppure null per un grafo non
+     *                     pesato
+     * @param directed
+     *                     true se il grafo è orientato
+     * @throws NullPointerException
+     *                                       se labels, sources, targets o una
+     *                                       delle etichette sono nulli
+     * @throws IllegalArgumentException
+     *                                       se gli array degli archi hanno
+     *                                       lunghezze diverse, se due nodi
+     *                                       hanno la stessa etichetta o se un
+     *                                       arco compare più di una volta
+     * @throws IndexOutOfBoundsException
+     *                                       se un arco ha un indice di nodo non
+     *                                       valido
+     */
+    @SuppressWarnings("unchecked")
+    public CompressedSparseRowGraph(List<L> labels, int[] sources,
+            int[] targets, double[] weights, boolean directed) {
+        if (labels == null || sources == null || targets == null)
+            throw new NullPointerException("Etichette o archi nulli");
+        this.directed = directed;
+        int n = labels.size();
+        this.nodes = (GraphNode<L>[]) new GraphNode<?>[n];
+        this.labelsIndex = new HashMap<L, Integer>();
+        int i = 0;
+        for (L label : labels) {
+            if (label == null)
+                throw new NullPointerException("Etichetta nulla!");
+            if (this.labelsIndex.put(label, i) != null)
+                throw new IllegalArgumentException("Etichetta duplicata!");
+            this.nodes[i++] = new GraphNode<L>(label);
+        }
+        this.buildFromArrays(sources, targets, weights, true, false);
+    }
+
+    /*
+     * Crea un grafo con i nodi dati, già etichettati con il proprio indice,
+     * senza tabella delle etichette e senza oggetti GraphEdge.
+     */
+    private CompressedSparseRowGraph(GraphNode<L>[] nodes, int[] sources,
+            int[] targets, double[] weights, boolean directed,
+            boolean skipReverseDuplicates) {
+        this.directed = directed;
+        this.nodes = nodes;
+        this.labelsIndex = null;
+        this.buildFromArrays(sources, targets, weights, false,
+                skipReverseDuplicates);
+    }
+
+    /**
+     * Crea un grafo immutabile con n nodi, in cui l'etichetta di ogni nodo è
+     * il suo indice, a partire da una lista di archi data come array paralleli
+     * di indici, con le stesse convenzioni del costruttore che riceve le
+     * etichette. Il grafo non memorizza nessuna tabella delle etichette, per
+     * cui la ricerca di un nodo per etichetta è un controllo sull'intervallo
+     * degli indici, e non memorizza gli oggetti GraphEdge, che vengono creati
+     * a ogni richiesta a partire dagli array.
+     *
+     * @param n
+     *                     il numero di nodi
+     * @param sources
+     *                     gli indici dei primi nodi degli archi
+     * @param targets
+     *                     gli indici dei secondi nodi degli archi
+     * @param weights
+     *                     i pesi degli archi, oppure null per un grafo non
+     *                     pesato
+     * @param directed
+     *                     true se il grafo è orientato
+     * @return il grafo con nodi etichettati 0, 1, ..., n - 1
+     * @throws NullPointerException
+     *                                       se sources o targets sono nulli
+     * @throws IllegalArgumentException
+     *                                       se n è negativo, se gli array
+     *                                       degli archi hanno lunghezze
+     *                                       diverse o se un arco compare più
+     *                                       di una volta
+     * @throws IndexOutOfBoundsException
+     *                                       se un arco ha un indice di nodo non
+     *                                       valido
+     */
+    public static CompressedSparseRowGraph<Integer> withIndexLabels(int n,
+            int[] sources, int[] targets, double[] weights, boolean directed) {
+        return withIndexLabels(n, sources, targets, weights, directed, false);
+    }
+
+    /**
+     * Come withIndexLabels(n, sources, targets, weights, directed), ma in un
+     * grafo non orientato, se skipReverseDuplicates è true, un arco che
+     * compare una seconda volta con i nodi scambiati e lo stesso peso, come
+     * nei file che elencano ogni arco sia come u v che come v u, viene
+     * ignorato invece di essere considerato un duplicato. Gli archi ripetuti
+     * con i nodi nello stesso ordine, con pesi diversi o più di due volte, e i
+     * cappi ripetuti, restano duplicati. Nel caso orientato il parametro non
+     * ha effetto.
+     *
+     * @param n
+     *                                  il numero di nodi
+     * @param sources
+     *                                  gli indici dei primi nodi degli archi
+     * @param targets
+     *                                  gli indici dei secondi nodi degli
+     *                                  archi
+     * @param weights
+     *                                  i pesi degli archi, oppure null per
+     *                                  un grafo non pesato
+     * @param directed
+     *                                  true se il grafo è orientato
+     * @param skipReverseDuplicates
+     *                                  true per ignorare gli archi ripetuti
+     *                                  con i nodi scambiati in un grafo non
+     *                                  orientato
+     * @return il grafo con nodi etichettati 0, 1, ..., n - 1
+     * @throws NullPointerException
+     *                                       se sources o targets sono nulli
+     * @throws IllegalArgumentException
+     *                                       se n è negativo, se gli array
+     *                                       degli archi hanno lunghezze
+     *                                       diverse o se un arco compare più
+     *                                       di una volta
+     * @throws IndexOutOfBoundsException
+     *                                       se un arco ha un indice di nodo non
+     *                                       valido
+     */
+    @SuppressWarnings("unchecked")
+    public static CompressedSparseRowGraph<Integer> withIndexLabels(int n,
+            int[] sources, int[] targets, double[] weights, boolean directed,
+            boolean skipReverseDuplicates) {
+        if (sources == null || targets == null)
+            throw new NullPointerException("Archi nulli");
+        if (n < 0)
+            throw new IllegalArgumentException("Numero di nodi negativo");
+        GraphNode<Integer>[] nodes = (GraphNode<Integer>[]) new GraphNode<?>[n];
+        for (int i = 0; i < n; i++)
+            nodes[i] = new GraphNode<Integer>(i);
+        return new CompressedSparseRowGraph<Integer>(nodes, sources, targets,
+                weights, directed, skipReverseDuplicates);
+    }
+
+    /*
+     * Controlla la lista degli archi data come array paralleli e costruisce le
+     * strutture CSR. Gli archi senza peso hanno peso NaN.
+     */
+    private void buildFromArrays(int[] sources, int[] targets,
+            double[] weights, boolean storeEdges,
+            boolean skipReverseDuplicates) {
+        int m = sources.length;
+        if (targets.length != m || (weights != null && weights.length != m))
+            throw new IllegalArgumentException(
+                    "Gli array degli archi hanno lunghezze diverse");
+        for (int e = 0; e < m; e++) {
+            this.checkIndex(sources[e]);
+            this.checkIndex(targets[e]);
+        }
+        double[] w = weights;
+        if (w == null) {
+            w = new double[m];
+            Arrays.fill(w, Double.NaN);
+        }
+        this.build(sources, targets, w, storeEdges, skipReverseDuplicates);
+    }
+
+    /*
+     * Costruisce le strutture CSR a partire dalla lista degli archi: il
+     * k-esimo arco va dal nodo from[k] al nodo to[k] e ha peso w[k] (NaN se
+     * non pesato). Se storeEdges è true crea anche gli oggetti GraphEdge,
+     * uno per arco. skipReverseDuplicates, usato solo nei grafi senza oggetti
+     * GraphEdge, ha il significato descritto in withIndexLabels.
+     *
+     * @throws IllegalArgumentException se un arco compare più di una volta
+     */
+    @SuppressWarnings("unchecked")
+    private void build(int[] from, int[] to, double[] w, boolean storeEdges,
+            boolean skipReverseDuplicates) {
+        int n = this.nodes.length;
+        int m = from.length;
+        this.edgeCount = m;
+        if (storeEdges) {
+            this.edgeList = (GraphEdge<L>[]) new GraphEdge<?>[m];
+            for (int e = 0; e < m; e++)
+                this.edgeList[e] = new GraphEdge<L>(this.nodes[from[e]],
+                        this.nodes[to[e]], this.directed, w[e]);
+        }
+
+        if (this.directed) {
+            this.offsets = new int[n + 1];
+            int[] order = sortEntries(n, from, to, m, this.offsets);
+            this.targets = new int[m];
+            this.weights = new double[m];
+            for (int k = 0; k < m; k++) {
+                this.targets[k] = to[order[k]];
+                this.weights[k] = w[order[k]];
+            }
+            if (storeEdges) {
+                this.edges = (GraphEdge<L>[]) new GraphEdge<?>[m];
+                for (int k = 0; k < m; k++)
+                    this.edges[k] = this.edgeList[order[k]];
+            }
+            this.inOffsets = new int[n + 1];
+            order = sortEntries(n, to, from, m, this.inOffsets);
+            this.inSources = new int[m];
+            this.inWeights = new double[m];
+            for (int k = 0; k < m; k++) {
+                this.inSources[k] = from[order[k]];
+                this.inWeights[k] = w[order[k]];
+            }
+            if (storeEdges) {
+                this.inEdges = (GraphEdge<L>[]) new GraphEdge<?>[m];
+                for (int k = 0; k < m; k++)
+                    this.inEdges[k] = this.edgeList[order[k]];
+            }
+        } else {
+            // Ogni arco compare nella riga di entrambi i nodi, tranne i cappi
+            // che compaiono una volta sola
+            int loops = 0;
+            for (int e = 0; e < m; e++)
+                if (from[e] == to[e])
+                    loops++;
+            int c = 2 * m - loops;
+            int[] rowOf = new int[c];
+            int[] otherOf = new int[c];
+            int[] edgeOf = new int[c];
+            int k = 0;
+            for (int e = 0; e < m; e++) {
+                rowOf[k] = from[e];
+                otherOf[k] = to[e];
+                edgeOf[k++] = e;
+                if (from[e] != to[e]) {
+                    rowOf[k] = to[e];
+                    otherOf[k] = from[e];
+                    edgeOf[k++] = e;
+                }
+            }
+            this.offsets = new int[n + 1];
+            int[] order = sortEntries(n, rowOf, otherOf, c, this.offsets);
+            if (skipReverseDuplicates) {
+                int kept = this.removeReverseDuplicates(order, otherOf, edgeOf,
+                        from, to, w);
+                // Ogni arco ignorato occupava una posizione in due righe
+                this.edgeCount = m - (c - kept) / 2;
+                c = kept;
+            }
+            this.targets = new int[c];
+            this.weights = new double[c];
+            for (k = 0; k < c; k++) {
+                this.targets[k] = otherOf[order[k]];
+                this.weights[k] = w[edgeOf[order[k]]];
+            }
+            if (storeEdges) {
+                this.edges = (GraphEdge<L>[]) new GraphEdge<?>[c];
+                for (k = 0; k < c; k++)
+                    this.edges[k] = this.edgeList[edgeOf[order[k]]];
+            }
+            this.inOffsets = null;
+            this.inSources = null;
+            this.inWeights = null;
+        }
+
+        // Le righe sono ordinate, per cui un arco ripetuto occupa due
+        // posizioni consecutive della stessa riga
+        for (int i = 0; i < n; i++)
+            for (int k = this.offsets[i] + 1; k < this.offsets[i + 1]; k++)
+                if (this.targets[k] == this.targets[k - 1])
+                    throw new IllegalArgumentException("Arco duplicato!");
+    }
+
+    /*
+     * Elimina dalle voci ordinate di ogni riga, spostando le successive e
+     * aggiornando offsets, quelle di un arco che ripete la voce precedente
+     * della riga con i nodi scambiati e lo stesso peso. Ogni voce ne assorbe
+     * al più una, per cui i duplicati rimanenti vengono poi rifiutati. Le
+     * voci della stessa coppia di nodi sono nell'ordine degli archi in
+     * entrambe le righe, quindi in tutte e due viene mantenuto lo stesso arco.
+     * Restituisce il numero di voci rimaste.
+     */
+    private int removeReverseDuplicates(int[] order, int[] otherOf,
+            int[] edgeOf, int[] from, int[] to, double[] w) {
+        int n = this.nodes.length;
+        int kept = 0;
+        for (int i = 0; i < n; i++) {
+            int start = this.offsets[i];
+            int end = this.offsets[i + 1];
+            this.offsets[i] = kept;
+            boolean absorbed = false;
+            for (int k = start; k < end; k++) {
+                int entry = order[k];
+                if (kept > this.offsets[i] && !absorbed) {
+                    int last = order[kept - 1];
+                    int e1 = edgeOf[last];
+                    int e2 = edgeOf[entry];
+                    if (otherOf[last] == otherOf[entry] && from[e1] != to[e1]
+                            && from[e1] == to[e2] && to[e1] == from[e2]
+                            && Double.compare(w[e1], w[e2]) == 0) {
+                        absorbed = true;
+                        continue;
+                    }
+                }
+                order[kept++] = entry;
+                absorbed = false;
+            }
+        }
+        this.offsets[n] = kept;
+        return kept;
+    }
+
+    /*
+     * Crea i nodi e assegna loro gli indici. Se il grafo di partenza supporta
+     * gli indici e questi formano una permutazione di [0, n - 1] vengono
+     * mantenuti, altrimenti si usa l'ordine di getNodes().
+     */
+    private void assignIndexes(Graph<L> graph) {
+        boolean keepIndexes = true;
+        try {
+            for (GraphNode<L> node : graph.getNodes()) {
+                int i = graph.getNodeIndexOf(node);
+                if (i < 0 || i >= this.nodes.length || this.nodes[i] != null) {
+                    keepIndexes = false;
+                    break;
+                }
+                this.nodes[i] = new GraphNode<L>(node.getLabel());
+            }
+        } catch (UnsupportedOperationException e) {
+            keepIndexes = false;
+        }
+        if (!keepIndexes) {
+            Arrays.fill(this.nodes, null);
+            int i = 0;
+            for (GraphNode<L> node : graph.getNodes())
+                this.nodes[i++] = new GraphNode<L>(node.getLabel());
+        }
+        for (int i = 0; i < this.nodes.length; i++)
+            this.labelsIndex.put(this.nodes[i].getLabel(), i);
+    }
+
+    /*
+     * Ordina le prime c voci, identificate dalla coppia (row[k], col[k]), per
+     * riga e, a parità di riga, per colonna. Sono due passate di counting
+     * sort, la prima per colonna e la seconda, stabile, per riga: il costo è
+     * lineare nel numero di nodi e di voci. Riempie offsets con l'inizio di
+     * ogni riga e restituisce le posizioni originali delle voci nell'ordine
+     * ottenuto.
+     */
+    private static int[] sortEntries(int n, int[] row, int[] col, int c,
+            int[] offsets) {
+        int[] start = new int[n + 1];
+        for (int k = 0; k < c; k++)
+            start[col[k] + 1]++;
+        for (int i = 0; i < n; i++)
+            start[i + 1] += start[i];
+        int[] byCol = new int[c];
+        for (int k = 0; k < c; k++)
+            byCol[start[col[k]]++] = k;
+
+        for (int k = 0; k < c; k++)
+            offsets[row[k] + 1]++;
+        for (int i = 0; i < n; i++)
+            offsets[i + 1] += offsets[i];
+        int[] next = Arrays.copyOf(offsets, n);
+        int[] order = new int[c];
+        for (int k = 0; k < c; k++) {
+            int entry = byCol[k];
+            order[next[row[entry]]++] = entry;
+        }
+        return order;
+    }
+
+    /*
+     * Indice del nodo con l'etichetta data, -1 se non esiste.
+     */
+    private int indexOf(Object label) {
+        if (this.labelsIndex == null) {
+            // L'etichetta di ogni nodo è il suo indice
+            if (!(label instanceof Integer))
+                return -1;
+            int i = (Integer) label;
+            return i >= 0 && i < this.nodes.length ? i : -1;
+        }
+        Integer i = this.labelsIndex.get(label);
+        return i == null ? -1 : i;
+    }
+
+    /*
+     * Indice del nodo con l'etichetta data.
+     *
+     * @throws IllegalArgumentException se il nodo non esiste
+     */
+    private int existingIndexOf(L label) {
+        int i = this.indexOf(label);
+        if (i < 0)
+            throw new IllegalArgumentException("Nodo non presente!");
+        return i;
+    }
+
+    private void checkIndex(int i) {
+        if (i < 0 || i >= this.nodes.length)
+            throw new IndexOutOfBoundsException("Indice non valido!");
+    }
+
+    /*
+     * Arco dal nodo i al nodo j, null se non esiste. Ricerca binaria nella
+     * riga di i.
+     */
+    private GraphEdge<L> edgeBetween(int i, int j) {
+        int k = Arrays.binarySearch(this.targets, this.offsets[i],
+                this.offsets[i + 1], j);
+        return k < 0 ? null : this.edgeAt(i, k);
+    }
+
+    /*
+     * Arco in posizione k della riga del nodo i: l'oggetto memorizzato se c'è,
+     * altrimenti un oggetto nuovo.
+     */
+    private GraphEdge<L> edgeAt(int i, int k) {
+        if (this.edges != null)
+            return this.edges[k];
+        return new GraphEdge<L>(this.nodes[i], this.nodes[this.targets[k]],
+                this.directed, this.weights[k]);
+    }
+
+    /*
+     * Arco in posizione k della riga degli archi entranti nel nodo i:
+     * l'oggetto memorizzato se c'è, altrimenti un oggetto nuovo.
+     */
+    private GraphEdge<L> inEdgeAt(int i, int k) {
+        if (this.inEdges != null)
+            return this.inEdges[k];
+        return new GraphEdge<L>(this.nodes[this.inSources[k]], this.nodes[i],
+                this.directed, this.inWeights[k]);
+    }
+
+    private UnsupportedOperationException immutable() {
+        return new UnsupportedOperationException(
+                "Operazione non supportata in un grafo immutabile");
+    }
+
+    private UnsupportedOperationException undirected() {
+        return new UnsupportedOperationException(
+                "Operazione non supportata in un grafo non orientato");
+    }
+
+    /**
+     * Restituisce la prima posizione della riga del nodo di indice i nella
+     * struttura CSR: gli archi uscenti dal nodo (tutti gli archi del nodo nel
+     * caso non orientato) occupano le posizioni da getRowStart(i), inclusa, a
+     * getRowEnd(i), esclusa, ordinati per indice del nodo collegato.
+     *
+     * @param i
+     *              l'indice del nodo
+     * @return la prima posizione della riga del nodo
+     * @throws IndexOutOfBoundsException
+     *                                       se l'indice non è valido
+     */
+    public int getRowStart(int i) {
+        this.checkIndex(i);
+        return this.offsets[i];
+    }
+
+    /**
+     * Restituisce la posizione successiva all'ultima della riga del nodo di
+     * indice i nella struttura CSR.
+     *
+     * @param i
+     *              l'indice del nodo
+     * @return la posizione successiva all'ultima della riga del nodo
+     * @throws IndexOutOfBoundsException
+     *                                       se l'indice non è valido
+     */
+    public int getRowEnd(int i) {
+        this.checkIndex(i);
+        return this.offsets[i + 1];
+    }
+
+    /**
+     * Restituisce l'indice del nodo collegato dall'arco in posizione k della
+     * struttura CSR.
+     *
+     * @param k
+     *              una posizione compresa tra getRowStart(i) e getRowEnd(i)
+     *              per qualche nodo i
+     * @return l'indice del nodo collegato
+     * @throws IndexOutOfBoundsException
+     *                                       se la posizione non è valida
+     */
+    public int getTargetAt(int k) {
+        return this.targets[k];
+    }
+
+    /**
+     * Restituisce il peso dell'arco in posizione k della struttura CSR, così
+     * come era al momento della costruzione del grafo.
+     *
+     * @param k
+     *              una posizione compresa tra getRowStart(i) e getRowEnd(i)
+     *              per qualche nodo i
+     * @return il peso dell'arco, Double.NaN se l'arco non è pesato
+     * @throws IndexOutOfBoundsException
+     *                                       se la posizione non è valida
+     */
+    public double getWeightAt(int k) {
+        return this.weights[k];
+    }
+
+    /**
+     * Restituisce la prima posizione della riga degli archi entranti nel nodo
+     * di indice i: tali archi occupano le posizioni da getInRowStart(i),
+     * inclusa, a getInRowEnd(i), esclusa, ordinati per indice del nodo di
+     * partenza. Nel caso non orientato la riga degli archi entranti coincide
+     * con quella restituita da getRowStart e getRowEnd.
+     *
+     * @param i
+     *              l'indice del nodo
+     * @return la prima posizione della riga degli archi entranti nel nodo
+     * @throws IndexOutOfBoundsException
+     *                                       se l'indice non è valido
+     */
+    public int getInRowStart(int i) {
+        this.checkIndex(i);
+        return this.directed ? this.inOffsets[i] : this.offsets[i];
+    }
+
+    /**
+     * Restituisce la posizione successiva all'ultima della riga degli archi
+     * entranti nel nodo di indice i.
+     *
+     * @param i
+     *              l'indice del nodo
+     * @return la posizione successiva all'ultima della riga degli archi
+     *         entranti nel nodo
+     * @throws IndexOutOfBoundsException
+     *                                       se l'indice non è valido
+     */
+    public int getInRowEnd(int i) {
+        this.checkIndex(i);
+        return this.directed ? this.inOffsets[i + 1] : this.offsets[i + 1];
+    }
+
+    /**
+     * Restituisce l'indice del nodo di partenza dell'arco in posizione k della
+     * riga degli archi entranti.
+     *
+     * @param k
+     *              una posizione compresa tra getInRowStart(i) e
+     *              getInRowEnd(i) per qualche nodo i
+     * @return l'indice del nodo di partenza
+     * @throws IndexOutOfBoundsException
+     *                                       se la posizione non è valida
+     */
+    public int getSourceAt(int k) {
+        return this.directed ? this.inSources[k] : this.targets[k];
+    }
+
+    /**
+     * Restituisce il peso dell'arco in posizione k della riga degli archi
+     * entranti, così come era al momento della costruzione del grafo.
+     *
+     * @param k
+     *              una posizione compresa tra getInRowStart(i) e
+     *              getInRowEnd(i) per qualche nodo i
+     * @return il peso dell'arco, Double.NaN se l'arco non è pesato
+     * @throws IndexOutOfBoundsException
+     *                                       se la posizione non è valida
+     */
+    public double getInWeightAt(int k) {
+        return this.directed ? this.inWeights[k] : this.weights[k];
+    }
+
+    @Override
+    public int nodeCount() {
+        return this.nodes.length;
+    }
+
+    @Override
+    public int edgeCount() {
+        return this.edgeCount;
+    }
+
+    @Override
+    public void clear() {
+        throw this.immutable();
+    }
+
+    @Override
+    public boolean isDirected() {
+        return this.directed;
+    }
+
+    @Override
+    public boolean addNode(GraphNode<L> node) {
+        throw this.immutable();
+    }
+
+    @Override
+    public boolean addNode(L label) {
+        throw this.immutable();
+    }
+
+    @Override
+    public void removeNode(GraphNode<L> node) {
+        throw this.immutable();
+    }
+
+    @Override
+    public void removeNode(L label) {
+        throw this.immutable();
+    }
+
+    @Override
+    public void removeNode(int i) {
+        throw this.immutable();
+    }
+
+    @Override
+    public GraphNode<L> getNode(GraphNode<L> node) {
+        if (node == null)
+            throw new NullPointerException("Nodo nullo!");
+        int i = this.indexOf(node.getLabel());
+        return i < 0 ? null : this.nodes[i];
+    }
+
+    @Override
+    public GraphNode<L> getNode(L label) {
+        if (label == null)
+            throw new NullPointerException("Label nullo!");
+        int i = this.indexOf(label);
+        return i < 0 ? null : this.nodes[i];
+    }
+
+    @Override
+    public GraphNode<L> getNode(int i) {
+        this.checkIndex(i);
+        return this.nodes[i];
+    }
+
+    @Override
+    public int getNodeIndexOf(GraphNode<L> node) {
+        if (node == null)
+            throw new NullPointerException("Nodo nullo!");
+        return this.existingIndexOf(node.getLabel());
+    }
+
+    @Override
+    public int getNodeIndexOf(L label) {
+        if (label == null)
+            throw new NullPointerException("Label nullo!");
+        return this.existingIndexOf(label);
+    }
+
+    @Override
+    public Set<GraphNode<L>> getNodes() {
+        return new NodeSet();
+    }
+
+    @Override
+    public boolean addEdge(GraphEdge<L> edge) {
+        throw this.immutable();
+    }
+
+    @Override
+    public boolean addEdge(GraphNode<L> node1, GraphNode<L> node2) {
+        throw this.immutable();
+    }
+
+    @Override
+    public boolean addWeightedEdge(GraphNode<L> node1, GraphNode<L> node2,
+            double weight) {
+        throw this.immutable();
+    }
+
+    @Override
+    public boolean addEdge(L label1, L label2) {
+        throw this.immutable();
+    }
+
+    @Override
+    public boolean addWeightedEdge(L label1, L label2, double weight) {
+        throw this.immutable();
+    }
+
+    @Override
+    public boolean addEdge(int i, int j) {
+        throw this.immutable();
+    }
+
+    @Override
+    public boolean addWeightedEdge(int i, int j, double weight) {
+        throw this.immutable();
+    }
+
+    @Override
+    public void removeEdge(GraphEdge<L> edge) {
+        throw this.immutable();
+    }
+
+    @Override
+    public void removeEdge(GraphNode<L> node1, GraphNode<L> node2) {
+        throw this.immutable();
+    }
+
+    @Override
+    public void removeEdge(L label1, L label2) {
+        throw this.immutable();
+    }
+
+    @Override
+    public void removeEdge(int i, int j) {
+        throw this.immutable();
+    }
+
+    @Override
+    public GraphEdge<L> getEdge(GraphEdge<L> edge) {
+        if (edge == null)
+            throw new NullPointerException("Edge nullo!");
+        int i = this.existingIndexOf(edge.getNode1().getLabel());
+        int j = this.existingIndexOf(edge.getNode2().getLabel());
+        if (edge.isDirected() != this.directed)
+            return null;
+        return this.edgeBetween(i, j);
+    }
+
+    @Override
+    public GraphEdge<L> getEdge(GraphNode<L> node1, GraphNode<L> node2) {
+        if (node1 == null || node2 == null)
+            throw new NullPointerException("Uno dei due nodi è nullo!");
+        return this.edgeBetween(this.existingIndexOf(node1.getLabel()),
+                this.existingIndexOf(node2.getLabel()));
+    }
+
+    @Override
+    public GraphEdge<L> getEdge(L label1, L label2) {
+        if (label1 == null || label2 == null)
+            throw new NullPointerException("Uno dei due label è nullo!");
+        return this.edgeBetween(this.existingIndexOf(label1),
+                this.existingIndexOf(label2));
+    }
+
+    @Override
+    public GraphEdge<L> getEdge(int i, int j) {
+        this.checkIndex(i);
+        this.checkIndex(j);
+        return this.edgeBetween(i, j);
+    }
+
+    @Override
+    public Set<GraphNode<L>> getAdjacentNodesOf(GraphNode<L> node) {
+        if (node == null)
+            throw new NullPointerException("Nodo nullo!");
+        return this.getAdjacentNodesOf(this.existingIndexOf(node.getLabel()));
+    }
+
+    @Override
+    public Set<GraphNode<L>> getAdjacentNodesOf(L label) {
+        if (label == null)
+            throw new NullPointerException("Label nullo!");
+        return this.getAdjacentNodesOf(this.existingIndexOf(label));
+    }
+
+    @Override
+    public Set<GraphNode<L>> getAdjacentNodesOf(int i) {
+        this.checkIndex(i);
+        return new RowNodeSet(this.targets, this.offsets[i],
+                this.offsets[i + 1]);
+    }
+
+    @Override
+    public Set<GraphNode<L>> getPredecessorNodesOf(GraphNode<L> node) {
+        if (!this.directed)
+            throw this.undirected();
+        if (node == null)
+            throw new NullPointerException("Nodo nullo!");
+        return this.getPredecessorNodesOf(this.existingIndexOf(node.getLabel()));
+    }
+
+    @Override
+    public Set<GraphNode<L>> getPredecessorNodesOf(L label) {
+        if (!this.directed)
+            throw this.undirected();
+        if (label == null)
+            throw new NullPointerException("Label nullo!");
+        return this.getPredecessorNodesOf(this.existingIndexOf(label));
+    }
+
+    @Override
+    public Set<GraphNode<L>> getPredecessorNodesOf(int i) {
+        if (!this.directed)
+            throw this.undirected();
+        this.checkIndex(i);
+        return new RowNodeSet(this.inSources, this.inOffsets[i],
+                this.inOffsets[i + 1]);
+    }
+
+    @Override
+    public Set<GraphEdge<L>> getEdgesOf(GraphNode<L> node) {
+        if (node == null)
+            throw new NullPointerException("Nodo nullo!");
+        return this.getEdgesOf(this.existingIndexOf(node.getLabel()));
+    }
+
+    @Override
+    public Set<GraphEdge<L>> getEdgesOf(L label) {
+        if (label == null)
+            throw new NullPointerException("Label nullo!");
+        return this.getEdgesOf(this.existingIndexOf(label));
+    }
+
+    @Override
+    public Set<GraphEdge<L>> getEdgesOf(int i) {
+        this.checkIndex(i);
+        return new RowEdgeSet(i, false);
+    }
+
+    @Override
+    public Set<GraphEdge<L>> getIngoingEdgesOf(GraphNode<L> node) {
+        if (!this.directed)
+            throw this.undirected();
+        if (node == null)
+            throw new NullPointerException("Nodo nullo!");
+        return this.getIngoingEdgesOf(this.existingIndexOf(node.getLabel()));
+    }
+
+    @Override
+    public Set<GraphEdge<L>> getIngoingEdgesOf(L label) {
+        if (!this.directed)
+            throw this.undirected();
+        if (label == null)
+            throw new NullPointerException("Label nullo!");
+        return this.getIngoingEdgesOf(this.existingIndexOf(label));
+    }
+
+    @Override
+    public Set<GraphEdge<L>> getIngoingEdgesOf(int i) {
+        if (!this.directed)
+            throw this.undirected();
+        this.checkIndex(i);
+        return new RowEdgeSet(i, true);
+    }
+
+    @Override
+    public Set<GraphEdge<L>> getEdges() {
+        return new EdgeSet();
+    }
+
+    /*
+     * Il grado si ricava dalla differenza tra gli inizi di due righe
+     * consecutive, senza costruire gli insiemi degli archi.
+     */
+    @Override
+    public int getDegreeOf(GraphNode<L> node) {
+        if (node == null)
+            throw new NullPointerException(
+                    "Tentativo di calcolare il grado di un nodo null");
+        int i = this.indexOf(node.getLabel());
+        if (i < 0)
+            throw new IllegalArgumentException(
+                    "Tentativo di calcolare il grado di un nodo non "
+                            + "presente in questo grafo");
+        return this.degree(i);
+    }
+
+    @Override
+    public int getDegreeOf(L label) {
+        if (label == null)
+            throw new NullPointerException(
+                    "Tentativo di calcolare il grado di un nodo null");
+        int i = this.indexOf(label);
+        if (i < 0)
+            throw new IllegalArgumentException(
+                    "Tentativo di calcolare il grado di un nodo non "
+                            + "presente in questo grafo");
+        return this.degree(i);
+    }
+
+    @Override
+    public int getDegreeOf(int i) {
+        if (i < 0 || i >= this.nodes.length)
+            throw new IndexOutOfBoundsException(
+                    "Tentativo di calcolare il grado di un nodo con indice "
+                            + "non valido");
+        return this.degree(i);
+    }
+
+    private int degree(int i) {
+        int d = this.offsets[i + 1] - this.offsets[i];
+        if (this.directed)
+            d += this.inOffsets[i + 1] - this.inOffsets[i];
+        return d;
+    }
+
+    /*
+     * Vista non modificabile di tutti i nodi del grafo.
+     */
+    private class NodeSet extends AbstractSet<GraphNode<L>> {
+
+        @Override
+        public Iterator<GraphNode<L>> iterator() {
+            return new Iterator<GraphNode<L>>() {
+                private int k = 0;
+
+                @Override
+                public boolean hasNext() {
+                    return this.k < nodes.length;
+                }
+
+                @Override
+                public GraphNode<L> next() {
+                    if (!this.hasNext())
+                        throw new NoSuchElementException(
+                                "Non c'è un elemento successivo");
+                    return nodes[this.k++];
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return nodes.length;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof GraphNode))
+                return false;
+            return indexOf(((GraphNode<?>) o).getLabel()) >= 0;
+        }
+    }
+
+    /*
+     * Vista non modificabile dei nodi i cui indici sono nelle posizioni da
+     * from (inclusa) a to (esclusa) di una riga CSR. Gli indici della riga
+     * sono ordinati, per cui contains() è una ricerca binaria.
+     */
+    private class RowNodeSet extends AbstractSet<GraphNode<L>> {
+
+        private final int[] indexes;
+
+        private final int from;
+
+        private final int to;
+
+        private RowNodeSet(int[] indexes, int from, int to) {
+            this.indexes = indexes;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public Iterator<GraphNode<L>> iterator() {
+            return new Iterator<GraphNode<L>>() {
+                private int k = from;
+
+                @Override
+                public boolean hasNext() {
+                    return this.k < to;
+                }
+
+                @Override
+                public GraphNode<L> next() {
+                    if (!this.hasNext())
+                        throw new NoSuchElementException(
+                                "Non c'è un elemento successivo");
+                    return nodes[indexes[this.k++]];
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return this.to - this.from;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof GraphNode))
+                return false;
+            int i = indexOf(((GraphNode<?>) o).getLabel());
+            return i >= 0 && Arrays.binarySearch(this.indexes, this.from,
+                    this.to, i) >= 0;
+        }
+    }
+
+    /*
+     * Vista non modificabile degli archi uscenti dal nodo i (di tutti i suoi
+     * archi nel caso non orientato) o, se ingoing è true, di quelli entranti.
+     * Nei grafi senza oggetti GraphEdge gli archi vengono creati durante
+     * l'iterazione.
+     */
+    private class RowEdgeSet extends AbstractSet<GraphEdge<L>> {
+
+        private final int i;
+
+        private final boolean ingoing;
+
+        private final int from;
+
+        private final int to;
+
+        private RowEdgeSet(int i, boolean ingoing) {
+            this.i = i;
+            this.ingoing = ingoing;
+            this.from = ingoing ? inOffsets[i] : offsets[i];
+            this.to = ingoing ? inOffsets[i + 1] : offsets[i + 1];
+        }
+
+        @Override
+        public Iterator<GraphEdge<L>> iterator() {
+            return new Iterator<GraphEdge<L>>() {
+                private int k = from;
+
+                @Override
+                public boolean hasNext() {
+                    return this.k < to;
+                }
+
+                @Override
+                public GraphEdge<L> next() {
+                    if (!this.hasNext())
+                        throw new NoSuchElementException(
+                                "Non c'è un elemento successivo");
+                    int k = this.k++;
+                    return ingoing ? inEdgeAt(i, k) : edgeAt(i, k);
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return this.to - this.from;
+        }
+    }
+
+    /*
+     * Vista non modificabile di tutti gli archi del grafo. Nel caso non
+     * orientato ogni arco viene restituito una sola volta, dalla riga del suo
+     * nodo con indice minore. Se il grafo memorizza gli oggetti GraphEdge
+     * l'iterazione scorre direttamente la lista degli archi.
+     */
+    private class EdgeSet extends AbstractSet<GraphEdge<L>> {
+
+        @Override
+        public Iterator<GraphEdge<L>> iterator() {
+            if (edgeList != null)
+                return Arrays.asList(edgeList).iterator();
+            return new Iterator<GraphEdge<L>>() {
+                // Riga della posizione k
+                private int row = 0;
+
+                // Posizione del prossimo arco da restituire
+                private int k = this.skip(0);
+
+                /*
+                 * Prima posizione da p in poi di un arco da restituire,
+                 * portando row sulla sua riga.
+                 */
+                private int skip(int p) {
+                    while (p < targets.length) {
+                        while (offsets[this.row + 1] <= p)
+                            this.row++;
+                        if (directed || targets[p] >= this.row)
+                            return p;
+                        p++;
+                    }
+                    return p;
+                }
+
+                @Override
+                public boolean hasNext() {
+                    return this.k < targets.length;
+                }
+
+                @Override
+                public GraphEdge<L> next() {
+                    if (!this.hasNext())
+                        throw new NoSuchElementException(
+                                "Non c'è un elemento successivo");
+                    GraphEdge<L> edge = edgeAt(this.row, this.k);
+                    this.k = this.skip(this.k + 1);
+                    return edge;
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return edgeCount;
+        }
+    }
+
+}
@@ -0,0 +1,344 @@
+package it.unicam.cs.asdl2324.mp2;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Classe di test per la classe CompressedSparseRowGraph.
+ *
+ * @author Template: Luca Tesei, Implementazione: collettiva
+ */
+class CompressedSparseRowGraphTest {
+
+    /*
+     * Grafo non orientato pesato con nodi s, u, x, y, z e cinque archi.
+     */
+    private Graph<String> createSource() {
+        Graph<String> g = new AdjacencyMatrixUndirectedGraph<String>();
+        g.addNode("s");
+        g.addNode("u");
+        g.addNode("x");
+        g.addNode("y");
+        g.addNode("z");
+        g.addWeightedEdge("s", "u", 10.1);
+        g.addWeightedEdge("s", "x", 5.12);
+        g.addWeightedEdge("u", "x", 2.05);
+        g.addWeightedEdge("x", "y", 9.0);
+        g.addWeightedEdge("y", "s", 7.03);
+        return g;
+    }
+
+    @Test
+    final void testCompressedSparseRowGraph() {
+        assertThrows(NullPointerException.class,
+                () -> new CompressedSparseRowGraph<String>(null));
+        Graph<String> g = new CompressedSparseRowGraph<String>(
+                new AdjacencyMatrixUndirectedGraph<String>());
+        assertTrue(g.isEmpty());
+        assertEquals(0, g.edgeCount());
+        assertFalse(g.isDirected());
+    }
+
+    @Test
+    final void testCounts() {
+        Graph<String> g = new CompressedSparseRowGraph<String>(
+                this.createSource());
+        assertEquals(5, g.nodeCount());
+        assertEquals(5, g.edgeCount());
+        assertEquals(10, g.size());
+    }
+
+    @Test
+    final void testIndexesAreKept() {
+        Graph<String> source = this.createSource();
+        Graph<String> g = new CompressedSparseRowGraph<String>(source);
+        for (GraphNode<String> n : source.getNodes()) {
+            assertEquals(source.getNodeIndexOf(n), g.getNodeIndexOf(n));
+            assertEquals(n, g.getNode(source.getNodeIndexOf(n)));
+        }
+        assertThrows(IndexOutOfBoundsException.class, () -> g.getNode(5));
+        assertThrows(IndexOutOfBoundsException.class, () -> g.getNode(-1));
+        assertThrows(IllegalArgumentException.class,
+                () -> g.getNodeIndexOf("w"));
+        assertThrows(NullPointerException.class,
+                () -> g.getNodeIndexOf((String) null));
+    }
+
+    @Test
+    final void testNodesAreCopied() {
+        Graph<String> source = this.createSource();
+        Graph<String> g = new CompressedSparseRowGraph<String>(source);
+        assertNotSame(source.getNode("s"), g.getNode("s"));
+        g.getNode("s").setColor(GraphNode.COLOR_BLACK);
+        assertEquals(GraphNode.COLOR_WHITE, source.getNode("s").getColor());
+        assertNull(g.getNode("w"));
+        assertEquals(source.getNodes(), g.getNodes());
+        assertTrue(g.getNodes().contains(new GraphNode<String>("z")));
+        assertFalse(g.getNodes().contains(new GraphNode<String>("w")));
+    }
+
+    @Test
+    final void testGetAdjacentNodesOf() {
+        Graph<String> g = new CompressedSparseRowGraph<String>(
+                this.createSource());
+        Set<GraphNode<String>> adj = new HashSet<GraphNode<String>>();
+        adj.add(new GraphNode<String>("u"));
+        adj.add(new GraphNode<String>("x"));
+        adj.add(new GraphNode<String>("y"));
+        assertEquals(adj, g.getAdjacentNodesOf("s"));
+        assertEquals(adj, g.getAdjacentNodesOf(new GraphNode<String>("s")));
+        assertEquals(adj, g.getAdjacentNodesOf(g.getNodeIndexOf("s")));
+        assertTrue(g.getAdjacentNodesOf("s")
+                .contains(new GraphNode<String>("y")));
+        assertFalse(g.getAdjacentNodesOf("s")
+                .contains(new GraphNode<String>("z")));
+        assertTrue(g.getAdjacentNodesOf("z").isEmpty());
+        assertThrows(IllegalArgumentException.class,
+                () -> g.getAdjacentNodesOf("w"));
+        assertThrows(UnsupportedOperationException.class,
+                () -> g.getAdjacentNodesOf("s")
+                        .add(new GraphNode<String>("z")));
+    }
+
+    @Test
+    final void testGetEdgesOf() {
+        Graph<String> source = this.createSource();
+        Graph<String> g = new CompressedSparseRowGraph<String>(source);
+        for (GraphNode<String> n : source.getNodes()) {
+            assertEquals(source.getEdgesOf(n), g.getEdgesOf(n));
+            assertEquals(source.getEdgesOf(n),
+                    g.getEdgesOf(g.getNodeIndexOf(n)));
+        }
+        // Lo stesso oggetto arco compare nelle righe di entrambi i nodi
+        GraphEdge<String> esu = g.getEdge("s", "u");
+        assertSame(esu, g.getEdge("u", "s"));
+        assertEquals(10.1, esu.getWeight());
+        assertEquals(source.getEdges(), g.getEdges());
+    }
+
+    @Test
+    final void testGetEdge() {
+        Graph<String> g = new CompressedSparseRowGraph<String>(
+                this.createSource());
+        GraphNode<String> ns = new GraphNode<String>("s");
+        GraphNode<String> nx = new GraphNode<String>("x");
+        GraphNode<String> nz = new GraphNode<String>("z");
+        assertEquals(new GraphEdge<String>(ns, nx, false),
+                g.getEdge(new GraphEdge<String>(nx, ns, false)));
+        assertNull(g.getEdge(new GraphEdge<String>(ns, nx, true)));
+        assertNull(g.getEdge(ns, nz));
+        assertEquals(new GraphEdge<String>(ns, nx, false), g.getEdge(
+                g.getNodeIndexOf("x"), g.getNodeIndexOf("s")));
+        assertThrows(IllegalArgumentException.class,
+                () -> g.getEdge("s", "w"));
+        assertThrows(IndexOutOfBoundsException.class, () -> g.getEdge(0, 5));
+        assertThrows(NullPointerException.class,
+                () -> g.getEdge((GraphEdge<String>) null));
+    }
+
+    @Test
+    final void testGetDegreeOf() {
+        Graph<String> source = this.createSource();
+        Graph<String> g = new CompressedSparseRowGraph<String>(source);
+        for (GraphNode<String> n : source.getNodes()) {
+            assertEquals(source.getDegreeOf(n), g.getDegreeOf(n));
+            assertEquals(source.getDegreeOf(n), g.getDegreeOf(n.getLabel()));
+            assertEquals(source.getDegreeOf(n),
+                    g.getDegreeOf(g.getNodeIndexOf(n)));
+        }
+        assertThrows(IllegalArgumentException.class,
+                () -> g.getDegreeOf("w"));
+        assertThrows(IndexOutOfBoundsException.class,
+                () -> g.getDegreeOf(5));
+    }
+
+    @Test
+    final void testRows() {
+        Graph<String> source = this.createSource();
+        CompressedSparseRowGraph<String> g = new CompressedSparseRowGraph<String>(
+                source);
+        int s = g.getNodeIndexOf("s");
+        assertEquals(3, g.getRowEnd(s) - g.getRowStart(s));
+        double total = 0;
+        int previous = -1;
+        for (int k = g.getRowStart(s); k < g.getRowEnd(s); k++) {
+            // Gli indici di una riga sono ordinati
+            assertTrue(g.getTargetAt(k) > previous);
+            previous = g.getTargetAt(k);
+            total += g.getWeightAt(k);
+        }
+        assertEquals(10.1 + 5.12 + 7.03, total, 1e-9);
+        int z = g.getNodeIndexOf("z");
+        assertEquals(g.getRowStart(z), g.getRowEnd(z));
+        // Nel caso non orientato le righe degli archi entranti coincidono con
+        // quelle degli archi uscenti
+        assertEquals(g.getRowStart(s), g.getInRowStart(s));
+        assertEquals(g.getRowEnd(s), g.getInRowEnd(s));
+        for (int k = g.getInRowStart(s); k < g.getInRowEnd(s); k++)
+            assertEquals(g.getTargetAt(k), g.getSourceAt(k));
+    }
+
+    @Test
+    final void testSelfLoop() {
+        Graph<String> source = this.createSource();
+        source.addEdge("z", "z");
+        Graph<String> g = new CompressedSparseRowGraph<String>(source);
+        assertEquals(6, g.edgeCount());
+        assertEquals(1, g.getDegreeOf("z"));
+        assertNotNull(g.getEdge("z", "z"));
+    }
+
+    @Test
+    final void testFromEdgeArrays() {
+        // Grafo orientato a -> b, a -> c, c -> b, b -> b
+        CompressedSparseRowGraph<String> g = new CompressedSparseRowGraph<String>(
+                Arrays.asList("a", "b", "c"), new int[] { 0, 0, 2, 1 },
+                new int[] { 1, 2, 1, 1 }, new double[] { 1, 2, 3, 4 }, true);
+        assertTrue(g.isDirected());
+        assertEquals(3, g.nodeCount());
+        assertEquals(4, g.edgeCount());
+        assertEquals(1, g.getNodeIndexOf("b"));
+        assertEquals(3, g.getEdge("c", "b").getWeight());
+        assertTrue(g.getEdge("c", "b").isDirected());
+        assertNull(g.getEdge("b", "c"));
+        assertEquals(2, g.getRowEnd(0) - g.getRowStart(0));
+        assertEquals(0, g.getInRowEnd(0) - g.getInRowStart(0));
+        assertEquals(3, g.getInRowEnd(1) - g.getInRowStart(1));
+        Set<GraphNode<String>> predecessors = new HashSet<GraphNode<String>>();
+        predecessors.add(g.getNode("a"));
+        predecessors.add(g.getNode("b"));
+        predecessors.add(g.getNode("c"));
+        assertEquals(predecessors, g.getPredecessorNodesOf("b"));
+        // Le righe degli archi uscenti ed entranti e getEdges condividono gli
+        // stessi oggetti arco
+        GraphEdge<String> ecb = g.getEdge("c", "b");
+        assertSame(ecb, g.getEdgesOf("c").iterator().next());
+        assertTrue(g.getIngoingEdgesOf("b").stream().anyMatch(e -> e == ecb));
+        assertTrue(g.getEdges().stream().anyMatch(e -> e == ecb));
+        // Grafo non orientato non pesato: ogni arco è in entrambe le righe
+        CompressedSparseRowGraph<String> u = new CompressedSparseRowGraph<String>(
+                Arrays.asList("a", "b", "c"), new int[] { 0, 1 },
+                new int[] { 1, 2 }, null, false);
+        assertFalse(u.isDirected());
+        assertEquals(2, u.edgeCount());
+        assertEquals(2, u.getDegreeOf("b"));
+        assertFalse(u.getEdge("b", "a").hasWeight());
+    }
+
+    @Test
+    final void testFromEdgeArraysExceptions() {
+        assertThrows(NullPointerException.class,
+                () -> new CompressedSparseRowGraph<String>(null, new int[0],
+                        new int[0], null, true));
+        assertThrows(NullPointerException.class,
+                () -> new CompressedSparseRowGraph<String>(
+                        Arrays.asList("a", null), new int[0], new int[0], null,
+                        true));
+        assertThrows(IllegalArgumentException.class,
+                () -> new CompressedSparseRowGraph<String>(
+                        Arrays.asList("a", "a"), new int[0], new int[0], null,
+                        true));
+        assertThrows(IllegalArgumentException.class,
+                () -> new CompressedSparseRowGraph<String>(
+                        Arrays.asList("a", "b"), new int[] { 0 }, new int[0],
+                        null, true));
+        assertThrows(IndexOutOfBoundsException.class,
+                () -> new CompressedSparseRowGraph<String>(
+                        Arrays.asList("a", "b"), new int[] { 0 },
+                        new int[] { 2 }, null, true));
+        // Nel caso non orientato (a, b) e (b, a) sono lo stesso arco
+        assertThrows(IllegalArgumentException.class,
+                () -> new CompressedSparseRowGraph<String>(
+                        Arrays.asList("a", "b"), new int[] { 0, 1 },
+                        new int[] { 1, 0 }, null, false));
+        new CompressedSparseRowGraph<String>(Arrays.asList("a", "b"),
+                new int[] { 0, 1 }, new int[] { 1, 0 }, null, true);
+    }
+
+    @Test
+    final void testWithIndexLabels() {
+        // Arco orientato 0 -> 1, cappio su 2 e arco 2 -> 0
+        CompressedSparseRowGraph<Integer> g = CompressedSparseRowGraph
+                .withIndexLabels(4, new int[] { 0, 2, 2 },
+                        new int[] { 1, 2, 0 }, new double[] { 1, 2, 3 }, true);
+        assertEquals(4, g.nodeCount());
+        assertEquals(3, g.edgeCount());
+        for (int i = 0; i < 4; i++) {
+            assertEquals(Integer.valueOf(i), g.getNode(i).getLabel());
+            assertEquals(i, g.getNodeIndexOf(Integer.valueOf(i)));
+        }
+        assertNull(g.getNode(Integer.valueOf(4)));
+        assertNull(g.getNode(Integer.valueOf(-1)));
+        assertThrows(IllegalArgumentException.class,
+                () -> g.getNodeIndexOf(Integer.valueOf(4)));
+        assertTrue(g.getNodes().contains(new GraphNode<Integer>(3)));
+        assertFalse(g.getNodes().contains(new GraphNode<String>("3")));
+        assertEquals(3.0, g.getEdge(2, 0).getWeight());
+        assertNull(g.getEdge(0, 2));
+        Set<GraphEdge<Integer>> in = new HashSet<GraphEdge<Integer>>();
+        in.add(new GraphEdge<Integer>(g.getNode(2), g.getNode(0), true, 3));
+        assertEquals(in, g.getIngoingEdgesOf(0));
+        assertEquals(3, g.getEdges().size());
+        assertThrows(IndexOutOfBoundsException.class,
+                () -> CompressedSparseRowGraph.withIndexLabels(2,
+                        new int[] { 0 }, new int[] { 2 }, null, false));
+        assertThrows(IllegalArgumentException.class,
+                () -> CompressedSparseRowGraph.withIndexLabels(-1, new int[0],
+                        new int[0], null, false));
+    }
+
+    @Test
+    final void testIndexLabelsEdgesAreCreatedOnDemand() {
+        // Nel caso non orientato getEdges restituisce ogni arco una volta,
+        // anche i cappi
+        CompressedSparseRowGraph<Integer> g = CompressedSparseRowGraph
+                .withIndexLabels(4, new int[] { 1, 3, 2 },
+                        new int[] { 0, 3, 1 }, null, false);
+        Set<GraphEdge<Integer>> expected = new HashSet<GraphEdge<Integer>>();
+        expected.add(new GraphEdge<Integer>(g.getNode(0), g.getNode(1), false));
+        expected.add(new GraphEdge<Integer>(g.getNode(3), g.getNode(3), false));
+        expected.add(new GraphEdge<Integer>(g.getNode(1), g.getNode(2), false));
+        int count = 0;
+        Set<GraphEdge<Integer>> edges = new HashSet<GraphEdge<Integer>>();
+        for (GraphEdge<Integer> e : g.getEdges()) {
+            edges.add(e);
+            count++;
+        }
+        assertEquals(3, count);
+        assertEquals(expected, edges);
+        assertEquals(3, g.getEdges().size());
+        // Gli archi restituiti sono oggetti nuovi: modificarli non cambia il
+        // grafo
+        GraphEdge<Integer> e = g.getEdge(0, 1);
+        assertFalse(e.hasWeight());
+        e.setWeight(5);
+        assertFalse(g.getEdge(1, 0).hasWeight());
+        assertTrue(Double.isNaN(g.getWeightAt(g.getRowStart(0))));
+    }
+
+    @Test
+    final void testUnsupportedOperations() {
+        Graph<String> g = new CompressedSparseRowGraph<String>(
+                this.createSource());
+        assertThrows(UnsupportedOperationException.class, () -> g.clear());
+        assertThrows(UnsupportedOperationException.class,
+                () -> g.addNode("w"));
+        assertThrows(UnsupportedOperationException.class,
+                () -> g.addEdge("u", "y"));
+        assertThrows(UnsupportedOperationException.class,
+                () -> g.removeEdge("s", "u"));
+        assertThrows(UnsupportedOperationException.class,
+                () -> g.removeNode("s"));
+        assertThrows(UnsupportedOperationException.class,
+                () -> g.getPredecessorNodesOf("s"));
+        assertThrows(UnsupportedOperationException.class,
+                () -> g.getIngoingEdgesOf("s"));
+        assertEquals(5, g.nodeCount());
+    }
+
+}
@@ -0,0 +1,54 @@
+package it.unicam.cs.asdl2324.mp2;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+//ATTENZIONE: è vietato includere import a pacchetti che non siano della Java SE
+
+/**
+ * Insiemi disgiunti degli indici da 0 a n - 1 che possono essere usati da più
+ * thread contemporaneamente. Ogni radice punta a se stessa; l'unione collega
+ * la radice con indice maggiore a quella con indice minore, per cui i
+ * puntatori non formano mai cicli e non servono ranghi. La ricerca dimezza i
+ * cammini che percorre. Il rappresentante di ogni insieme è sempre il suo
+ * indice minore.
+ *
+ * @author Template: Luca Tesei, Implementazione: collettiva
+ *
+ */
+class ConcurrentDisjointSets {
+
+    private final AtomicIntegerArray parent;
+
+    ConcurrentDisjointSets(int n) {
+        this.parent = new AtomicIntegerArray(n);
+        for (int i = 0; i < n; i++)
+            this.parent.set(i, i);
+    }
+
+    int find(int x) {
+        while (true) {
+            int p = this.parent.get(x);
+            if (p == x)
+                return x;
+            int gp = this.parent.get(p);
+            if (gp != p)
+                this.parent.compareAndSet(x, p, gp);
+            x = gp;
+        }
+    }
+
+    boolean union(int x, int y) {
+        while (true) {
+            int rx = this.find(x);
+            int ry = this.find(y);
+            if (rx == ry)
+                return false;
+            int low = Math.min(rx, ry);
+            int high = Math.max(rx, ry);
+            // Fallisce se nel frattempo high non è più una radice
+            if (this.parent.compareAndSet(high, high, low))
+                return true;
+        }
+    }
+
+}
@@ -0,0 +1,480 @@
+package it.unicam.cs.asdl2324.mp2;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.IntToDoubleFunction;
+
+//ATTENZIONE: è vietato includere import a pacchetti che non siano della Java SE
+
+/**
+ * Classe che implementa l'algoritmo di Dijkstra per il calcolo dei cammini
+ * minimi in un grafo, orientato o non orientato, pesato con pesi non negativi,
+ * e le sue varianti per i cammini tra due nodi: con terminazione anticipata,
+ * A* con una funzione euristica e bidirezionale.
+ *
+ * L'algoritmo lavora su un grafo in formato CSR, scorrendone le righe sugli
+ * indici dei nodi, e usa una coda di min priorità degli indici realizzata con
+ * uno heap binario indicizzato, per cui l'estrazione del minimo e il
+ * decremento della priorità costano O(log n). Il costruttore che accetta un
+ * grafo qualsiasi ne crea una copia in formato CSR: i calcoli successivi si
+ * riferiscono al grafo così come era in quel momento.
+ *
+ * Distanze, predecessori e colori di ogni calcolo sono scritti in un
+ * TraversalContext (distanza in virgola mobile, indice del predecessore e
+ * colore nero per i nodi di cui è stata fissata la distanza) e i nodi del
+ * grafo non vengono modificati: con un contesto diverso per ogni
+ * interrogazione più thread possono usare lo stesso oggetto. Solo il metodo
+ * che parte da un GraphNode copia i risultati nei nodi del grafo CSR.
+ *
+ * @author Template: Luca Tesei, Implementazione: collettiva
+ *
+ * @param <L>
+ *                tipo delle etichette dei nodi del grafo
+ */
+public class DijkstraShortestPath<L> {
+
+    /*
+     * Il grafo su cui si calcolano i cammini.
+     */
+    private final CompressedSparseRowGraph<L> graph;
+
+    /**
+     * Crea un calcolatore di cammini minimi su un grafo in formato CSR.
+     *
+     * @param graph
+     *                  il grafo, pesato e con pesi non negativi
+     * @throws NullPointerException
+     *                                      se il grafo è nullo
+     * @throws IllegalArgumentException
+     *                                      se il grafo non è pesato o ha pesi
+     *                                      negativi
+     */
+    public DijkstraShortestPath(CompressedSparseRowGraph<L> graph) {
+        if (graph == null)
+            throw new NullPointerException("Grafo nullo!");
+        for (GraphEdge<L> edge : graph.getEdges())
+            if (!edge.hasWeight() || edge.getWeight() < 0)
+                throw new IllegalArgumentException(
+                        "Il grafo non è pesato o ha pesi negativi");
+        this.graph = graph;
+    }
+
+    /**
+     * Crea un calcolatore di cammini minimi su una copia in formato CSR del
+     * grafo dato.
+     *
+     * @param graph
+     *                  il grafo, pesato e con pesi non negativi
+     * @throws NullPointerException
+     *                                      se il grafo è nullo
+     * @throws IllegalArgumentException
+     *                                      se il grafo non è pesato o ha pesi
+     *                                      negativi
+     */
+    public DijkstraShortestPath(Graph<L> graph) {
+        this(graph instanceof CompressedSparseRowGraph
+                ? (CompressedSparseRowGraph<L>) graph
+                : new CompressedSparseRowGraph<L>(graph));
+    }
+
+    /**
+     * Restituisce il grafo in formato CSR su cui vengono calcolati i cammini,
+     * a cui si riferiscono gli indici dei nodi.
+     *
+     * @return il grafo in formato CSR
+     */
+    public CompressedSparseRowGraph<L> getGraph() {
+        return this.graph;
+    }
+
+    /**
+     * Calcola i cammini minimi da un nodo sorgente verso tutti gli altri nodi
+     * e ne copia i risultati nei nodi del grafo CSR: distanza in virgola
+     * mobile (infinita per i nodi non raggiungibili), predecessore e colore.
+     *
+     * @param source
+     *                   il nodo sorgente
+     * @throws NullPointerException
+     *                                      se il nodo sorgente è nullo
+     * @throws IllegalArgumentException
+     *                                      se il nodo sorgente non appartiene
+     *                                      al grafo
+     */
+    public void computeShortestPaths(GraphNode<L> source) {
+        if (source == null)
+            throw new NullPointerException("Nodo sorgente nullo");
+        TraversalContext context = new TraversalContext(this.graph);
+        this.computeShortestPaths(this.graph.getNodeIndexOf(source), context);
+        context.copyTo(this.graph);
+    }
+
+    /**
+     * Calcola i cammini minimi da un nodo sorgente verso tutti gli altri nodi.
+     *
+     * @param source
+     *                    l'indice del nodo sorgente
+     * @param context
+     *                    il contesto in cui scrivere distanze e predecessori
+     * @throws NullPointerException
+     *                                       se il contesto è nullo
+     * @throws IllegalArgumentException
+     *                                       se il contesto non ha lo stesso
+     *                                       numero di nodi del grafo
+     * @throws IndexOutOfBoundsException
+     *                                       se l'indice della sorgente non è
+     *                                       valido
+     */
+    public void computeShortestPaths(int source, TraversalContext context) {
+        this.search(source, -1, null, context);
+    }
+
+    /**
+     * Calcola un cammino minimo tra due nodi. Il calcolo si ferma non appena
+     * la distanza del nodo destinazione è fissata; il cammino si ottiene con
+     * getPath.
+     *
+     * @param source
+     *                    l'indice del nodo sorgente
+     * @param target
+     *                    l'indice del nodo destinazione
+     * @param context
+     *                    il contesto in cui scrivere distanze e predecessori
+     * @return la lunghezza del cammino minimo, Double.POSITIVE_INFINITY se la
+     *         destinazione non è raggiungibile
+     * @throws NullPointerException
+     *                                       se il contesto è nullo
+     * @throws IllegalArgumentException
+     *                                       se il contesto non ha lo stesso
+     *                                       numero di nodi del grafo
+     * @throws IndexOutOfBoundsException
+     *                                       se uno degli indici non è valido
+     */
+    public double shortestPath(int source, int target,
+            TraversalContext context) {
+        this.checkIndex(target);
+        return this.search(source, target, null, context);
+    }
+
+    /**
+     * Calcola un cammino minimo tra due nodi con l'algoritmo A*: i nodi sono
+     * estratti in ordine di distanza dalla sorgente più la stima della
+     * distanza dalla destinazione data dall'euristica. L'euristica deve essere
+     * consistente, cioè non superare mai il peso di un arco più la stima nel
+     * nodo di arrivo, e valere 0 nella destinazione; in questo caso il
+     * cammino trovato è minimo e i nodi esaminati sono al più quelli
+     * esaminati da shortestPath.
+     *
+     * @param source
+     *                      l'indice del nodo sorgente
+     * @param target
+     *                      l'indice del nodo destinazione
+     * @param heuristic
+     *                      la stima della distanza di ogni nodo, dato il suo
+     *                      indice, dalla destinazione
+     * @param context
+     *                      il contesto in cui scrivere distanze e predecessori
+     * @return la lunghezza del cammino minimo, Double.POSITIVE_INFINITY se la
+     *         destinazione non è raggiungibile
+     * @throws NullPointerException
+     *                                       se l'euristica o il contesto sono
+     *                                       nulli
+     * @throws IllegalArgumentException
+     *                                       se il contesto non ha lo stesso
+     *                                       numero di nodi del grafo
+     * @throws IndexOutOfBoundsException
+     *                                       se uno degli indici non è valido
+     */
+    public double shortestPath(int source, int target,
+            IntToDoubleFunction heuristic, TraversalContext context) {
+        if (heuristic == null)
+            throw new NullPointerException("Euristica nulla!");
+        this.checkIndex(target);
+        return this.search(source, target, heuristic, context);
+    }
+
+    /**
+     * Calcola un cammino minimo tra due nodi con l'algoritmo di Dijkstra
+     * bidirezionale: una ricerca parte dalla sorgente seguendo gli archi
+     * uscenti e una dalla destinazione seguendo quelli entranti, avanzando
+     * alternativamente, e il calcolo termina quando la somma delle distanze
+     * minime ancora nelle due code non è inferiore al cammino migliore
+     * trovato. Le due ricerche esplorano in genere molti meno nodi di una
+     * ricerca singola. Al termine il contesto contiene, per i nodi del
+     * cammino, i predecessori verso la sorgente, per cui il cammino si ottiene
+     * con getPath; le distanze dei nodi sono quelle della ricerca dalla
+     * sorgente.
+     *
+     * @param source
+     *                    l'indice del nodo sorgente
+     * @param target
+     *                    l'indice del nodo destinazione
+     * @param context
+     *                    il contesto in cui scrivere distanze e predecessori
+     * @return la lunghezza del cammino minimo, Double.POSITIVE_INFINITY se la
+     *         destinazione non è raggiungibile
+     * @throws NullPointerException
+     *                                       se il contesto è nullo
+     * @throws IllegalArgumentException
+     *                                       se il contesto non ha lo stesso
+     *                                       numero di nodi del grafo
+     * @throws IndexOutOfBoundsException
+     *                                       se uno degli indici non è valido
+     */
+    public double bidirectionalShortestPath(int source, int target,
+            TraversalContext context) {
+        this.checkContext(context);
+        this.checkIndex(source);
+        this.checkIndex(target);
+        context.reset();
+        int n = this.graph.nodeCount();
+        // La ricerca all'indietro usa un contesto proprio
+        TraversalContext backward = new TraversalContext(n);
+        IndexedHeap forwardQueue = new IndexedHeap(n);
+        IndexedHeap backwardQueue = new IndexedHeap(n);
+        double[] df = context.floatingPointDistance;
+        double[] db = backward.floatingPointDistance;
+        df[source] = 0;
+        db[target] = 0;
+        forwardQueue.insert(source, 0);
+        backwardQueue.insert(target, 0);
+        double best = Double.POSITIVE_INFINITY;
+        int meeting = source == target ? source : -1;
+        if (meeting != -1)
+            best = 0;
+        while (!forwardQueue.isEmpty() && !backwardQueue.isEmpty()
+                && forwardQueue.minKey() + backwardQueue.minKey() < best) {
+            boolean forward = forwardQueue.size() <= backwardQueue.size();
+            TraversalContext c = forward ? context : backward;
+            TraversalContext other = forward ? backward : context;
+            IndexedHeap queue = forward ? forwardQueue : backwardQueue;
+            int u = queue.extractMin();
+            c.color[u] = GraphNode.COLOR_BLACK;
+            double du = c.floatingPointDistance[u];
+            int start = forward ? this.graph.getRowStart(u)
+                    : this.graph.getInRowStart(u);
+            int end = forward ? this.graph.getRowEnd(u)
+                    : this.graph.getInRowEnd(u);
+            for (int k = start; k < end; k++) {
+                int v = forward ? this.graph.getTargetAt(k)
+                        : this.graph.getSourceAt(k);
+                double w = forward ? this.graph.getWeightAt(k)
+                        : this.graph.getInWeightAt(k);
+                double d = du + w;
+                if (d < c.floatingPointDistance[v]) {
+                    c.floatingPointDistance[v] = d;
+                    c.previous[v] = u;
+                    queue.insertOrDecrease(v, d);
+                }
+                // Ogni arco esaminato può chiudere un cammino migliore
+                double through = c.floatingPointDistance[v]
+                        + other.floatingPointDistance[v];
+                if (through < best) {
+                    best = through;
+                    meeting = v;
+                }
+            }
+        }
+        if (meeting == -1)
+            return Double.POSITIVE_INFINITY;
+        // I predecessori della ricerca all'indietro vanno dal punto di
+        // incontro verso la destinazione: si riportano nel contesto invertiti
+        int x = meeting;
+        while (x != target) {
+            int y = backward.previous[x];
+            context.previous[y] = x;
+            df[y] = df[x] + (db[x] - db[y]);
+            x = y;
+        }
+        df[target] = best;
+        return best;
+    }
+
+    /**
+     * Restituisce il cammino calcolato verso un nodo, seguendo i predecessori
+     * scritti nel contesto dall'ultimo calcolo.
+     *
+     * @param target
+     *                    l'indice del nodo destinazione
+     * @param context
+     *                    il contesto usato per il calcolo
+     * @return la lista dei nodi del grafo CSR dalla sorgente alla
+     *         destinazione, vuota se la destinazione non è stata raggiunta
+     * @throws NullPointerException
+     *                                       se il contesto è nullo
+     * @throws IllegalArgumentException
+     *                                       se il contesto non ha lo stesso
+     *                                       numero di nodi del grafo
+     * @throws IndexOutOfBoundsException
+     *                                       se l'indice non è valido
+     */
+    public List<GraphNode<L>> getPath(int target, TraversalContext context) {
+        this.checkContext(context);
+        this.checkIndex(target);
+        List<GraphNode<L>> path = new ArrayList<GraphNode<L>>();
+        if (context.floatingPointDistance[target] == Double.POSITIVE_INFINITY)
+            return path;
+        for (int x = target; x != -1; x = context.previous[x])
+            path.add(this.graph.getNode(x));
+        Collections.reverse(path);
+        return path;
+    }
+
+    /*
+     * Ricerca dalla sorgente: se target è -1 calcola tutte le distanze,
+     * altrimenti si ferma quando estrae target. Se heuristic non è null i
+     * nodi sono estratti per distanza più stima (A*).
+     */
+    private double search(int source, int target,
+            IntToDoubleFunction heuristic, TraversalContext context) {
+        this.checkContext(context);
+        this.checkIndex(source);
+        context.reset();
+        double[] distance = context.floatingPointDistance;
+        int[] previous = context.previous;
+        int[] color = context.color;
+        IndexedHeap queue = new IndexedHeap(this.graph.nodeCount());
+        distance[source] = 0;
+        queue.insert(source, heuristic == null ? 0
+                : heuristic.applyAsDouble(source));
+        while (!queue.isEmpty()) {
+            int u = queue.extractMin();
+            color[u] = GraphNode.COLOR_BLACK;
+            if (u == target)
+                return distance[u];
+            double du = distance[u];
+            int end = this.graph.getRowEnd(u);
+            for (int k = this.graph.getRowStart(u); k < end; k++) {
+                int v = this.graph.getTargetAt(k);
+                double d = du + this.graph.getWeightAt(k);
+                if (color[v] != GraphNode.COLOR_BLACK && d < distance[v]) {
+                    distance[v] = d;
+                    previous[v] = u;
+                    queue.insertOrDecrease(v, heuristic == null ? d
+                            : d + heuristic.applyAsDouble(v));
+                }
+            }
+        }
+        return target == -1 ? 0 : distance[target];
+    }
+
+    private void checkContext(TraversalContext context) {
+        if (context == null)
+            throw new NullPointerException("Contesto nullo!");
+        if (context.nodeCount() != this.graph.nodeCount())
+            throw new IllegalArgumentException(
+                    "Il contesto non ha lo stesso numero di nodi del grafo");
+    }
+
+    private void checkIndex(int i) {
+        if (i < 0 || i >= this.graph.nodeCount())
+            throw new IndexOutOfBoundsException("Indice non valido!");
+    }
+
+    /*
+     * Coda di min priorità degli indici da 0 a n - 1 realizzata con uno heap
+     * binario e con la posizione nello heap di ogni indice.
+     */
+    private static class IndexedHeap {
+
+        private final int[] heap;
+
+        private final int[] position;
+
+        private final double[] key;
+
+        private int size;
+
+        IndexedHeap(int n) {
+            this.heap = new int[n];
+            this.position = new int[n];
+            this.key = new double[n];
+            Arrays.fill(this.position, -1);
+            this.size = 0;
+        }
+
+        boolean isEmpty() {
+            return this.size == 0;
+        }
+
+        int size() {
+            return this.size;
+        }
+
+        double minKey() {
+            return this.key[this.heap[0]];
+        }
+
+        void insert(int i, double k) {
+            this.key[i] = k;
+            this.heap[this.size] = i;
+            this.position[i] = this.size;
+            this.size++;
+            this.siftUp(this.size - 1);
+        }
+
+        /*
+         * Inserisce l'indice o, se è già nella coda, ne decrementa la
+         * priorità.
+         */
+        void insertOrDecrease(int i, double k) {
+            if (this.position[i] == -1)
+                this.insert(i, k);
+            else if (k < this.key[i]) {
+                this.key[i] = k;
+                this.siftUp(this.position[i]);
+            }
+        }
+
+        int extractMin() {
+            int min = this.heap[0];
+            this.size--;
+            this.position[min] = -1;
+            if (this.size > 0) {
+                this.heap[0] = this.heap[this.size];
+                this.position[this.heap[0]] = 0;
+                this.siftDown(0);
+            }
+            return min;
+        }
+
+        private void siftUp(int p) {
+            int i = this.heap[p];
+            double k = this.key[i];
+            while (p > 0) {
+                int parent = (p - 1) >>> 1;
+                int j = this.heap[parent];
+                if (this.key[j] <= k)
+                    break;
+                this.heap[p] = j;
+                this.position[j] = p;
+                p = parent;
+            }
+            this.heap[p] = i;
+            this.position[i] = p;
+        }
+
+        private void siftDown(int p) {
+            int i = this.heap[p];
+            double k = this.key[i];
+            while (true) {
+                int child = 2 * p + 1;
+                if (child >= this.size)
+                    break;
+                if (child + 1 < this.size && this.key[this.heap[child
+                        + 1]] < this.key[this.heap[child]])
+                    child++;
+                int j = this.heap[child];
+                if (this.key[j] >= k)
+                    break;
+                this.heap[p] = j;
+                this.position[j] = p;
+                p = child;
+            }
+            this.heap[p] = i;
+            this.position[i] = p;
+        }
+    }
+
+}
@@ -0,0 +1,185 @@
+package it.unicam.cs.asdl2324.mp2;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Classe di test per la classe DijkstraShortestPath.
+ *
+ * @author Template: Luca Tesei, Implementazione: collettiva
+ */
+class DijkstraShortestPathTest {
+
+    /*
+     * Grafo non orientato pesato con nodi s, u, x, y, z e il nodo isolato w.
+     */
+    private Graph<String> createGraph() {
+        Graph<String> g = new AdjacencyMatrixUndirectedGraph<String>();
+        g.addNode("s");
+        g.addNode("u");
+        g.addNode("x");
+        g.addNode("y");
+        g.addNode("z");
+        g.addNode("w");
+        g.addWeightedEdge("s", "u", 10);
+        g.addWeightedEdge("s", "x", 5);
+        g.addWeightedEdge("u", "x", 2);
+        g.addWeightedEdge("u", "y", 1);
+        g.addWeightedEdge("x", "y", 9);
+        g.addWeightedEdge("y", "z", 4);
+        g.addWeightedEdge("s", "z", 20);
+        return g;
+    }
+
+    @Test
+    final void testComputeShortestPaths() {
+        DijkstraShortestPath<String> alg = new DijkstraShortestPath<String>(
+                this.createGraph());
+        CompressedSparseRowGraph<String> g = alg.getGraph();
+        alg.computeShortestPaths(new GraphNode<String>("s"));
+        assertEquals(0, g.getNode("s").getFloatingPointDistance());
+        assertEquals(7, g.getNode("u").getFloatingPointDistance());
+        assertEquals(5, g.getNode("x").getFloatingPointDistance());
+        assertEquals(8, g.getNode("y").getFloatingPointDistance());
+        assertEquals(12, g.getNode("z").getFloatingPointDistance());
+        assertEquals(Double.POSITIVE_INFINITY,
+                g.getNode("w").getFloatingPointDistance());
+        assertEquals(g.getNode("x"), g.getNode("u").getPrevious());
+        assertEquals(g.getNode("y"), g.getNode("z").getPrevious());
+        assertNull(g.getNode("s").getPrevious());
+        assertNull(g.getNode("w").getPrevious());
+    }
+
+    @Test
+    final void testShortestPath() {
+        DijkstraShortestPath<String> alg = new DijkstraShortestPath<String>(
+                this.createGraph());
+        CompressedSparseRowGraph<String> g = alg.getGraph();
+        TraversalContext c = new TraversalContext(g);
+        int s = g.getNodeIndexOf("s");
+        int z = g.getNodeIndexOf("z");
+        assertEquals(12, alg.shortestPath(s, z, c));
+        List<GraphNode<String>> path = alg.getPath(z, c);
+        assertEquals(5, path.size());
+        assertEquals("s", path.get(0).getLabel());
+        assertEquals("x", path.get(1).getLabel());
+        assertEquals("u", path.get(2).getLabel());
+        assertEquals("y", path.get(3).getLabel());
+        assertEquals("z", path.get(4).getLabel());
+        // La ricerca si ferma prima di fissare nodi più lontani della
+        // destinazione
+        int y = g.getNodeIndexOf("y");
+        assertEquals(8, alg.shortestPath(s, y, c));
+        assertNotEquals(GraphNode.COLOR_BLACK, c.getColor(z));
+        int w = g.getNodeIndexOf("w");
+        assertEquals(Double.POSITIVE_INFINITY, alg.shortestPath(s, w, c));
+        assertTrue(alg.getPath(w, c).isEmpty());
+        assertEquals(0, alg.shortestPath(s, s, c));
+        assertEquals(1, alg.getPath(s, c).size());
+        // I nodi del grafo non vengono modificati
+        assertNull(g.getNode("z").getPrevious());
+    }
+
+    @Test
+    final void testAStarAndBidirectional() {
+        DijkstraShortestPath<String> alg = new DijkstraShortestPath<String>(
+                this.createGraph());
+        CompressedSparseRowGraph<String> g = alg.getGraph();
+        TraversalContext c = new TraversalContext(g);
+        int s = g.getNodeIndexOf("s");
+        int z = g.getNodeIndexOf("z");
+        int w = g.getNodeIndexOf("w");
+        // Le distanze esatte dalla destinazione sono un'euristica consistente
+        TraversalContext fromZ = new TraversalContext(g);
+        alg.computeShortestPaths(z, fromZ);
+        assertEquals(12,
+                alg.shortestPath(s, z, i -> fromZ.getFloatingPointDistance(i),
+                        c));
+        assertEquals(5, alg.getPath(z, c).size());
+        assertEquals(12, alg.shortestPath(s, z, i -> 0, c));
+        assertEquals(12, alg.bidirectionalShortestPath(s, z, c));
+        List<GraphNode<String>> path = alg.getPath(z, c);
+        assertEquals(5, path.size());
+        assertEquals("s", path.get(0).getLabel());
+        assertEquals("z", path.get(4).getLabel());
+        assertEquals(Double.POSITIVE_INFINITY,
+                alg.bidirectionalShortestPath(s, w, c));
+        assertTrue(alg.getPath(w, c).isEmpty());
+        assertEquals(0, alg.bidirectionalShortestPath(z, z, c));
+        assertEquals(1, alg.getPath(z, c).size());
+    }
+
+    @Test
+    final void testRandomGraphs() {
+        Random random = new Random(23);
+        int n = 200;
+        Graph<Integer> source = new AdjacencyMatrixUndirectedGraph<Integer>();
+        for (int i = 0; i < n; i++)
+            source.addNode(i);
+        for (int k = 0; k < 3 * n; k++)
+            source.addWeightedEdge(random.nextInt(n), random.nextInt(n),
+                    random.nextInt(100));
+        DijkstraShortestPath<Integer> alg = new DijkstraShortestPath<Integer>(
+                source);
+        TraversalContext all = new TraversalContext(n);
+        TraversalContext c = new TraversalContext(n);
+        for (int s = 0; s < 10; s++) {
+            alg.computeShortestPaths(s, all);
+            for (int t = 0; t < n; t++) {
+                double d = all.getFloatingPointDistance(t);
+                assertEquals(d, alg.shortestPath(s, t, c));
+                assertEquals(d, alg.bidirectionalShortestPath(s, t, c));
+                // Il cammino ricostruito ha la lunghezza calcolata
+                List<GraphNode<Integer>> path = alg.getPath(t, c);
+                double length = 0;
+                for (int k = 1; k < path.size(); k++)
+                    length += alg.getGraph()
+                            .getEdge(path.get(k - 1), path.get(k)).getWeight();
+                if (d != Double.POSITIVE_INFINITY)
+                    assertEquals(d, length);
+            }
+        }
+    }
+
+    @Test
+    final void testExceptions() {
+        assertThrows(NullPointerException.class,
+                () -> new DijkstraShortestPath<String>((Graph<String>) null));
+        Graph<String> unweighted = new AdjacencyMatrixUndirectedGraph<String>();
+        unweighted.addNode("a");
+        unweighted.addNode("b");
+        unweighted.addEdge("a", "b");
+        assertThrows(IllegalArgumentException.class,
+                () -> new DijkstraShortestPath<String>(unweighted));
+        Graph<String> negative = new AdjacencyMatrixUndirectedGraph<String>();
+        GraphNode<String> a = new GraphNode<String>("a");
+        GraphNode<String> b = new GraphNode<String>("b");
+        negative.addNode(a);
+        negative.addNode(b);
+        negative.addEdge(new GraphEdge<String>(a, b, false, -1));
+        assertThrows(IllegalArgumentException.class,
+                () -> new DijkstraShortestPath<String>(negative));
+        DijkstraShortestPath<String> alg = new DijkstraShortestPath<String>(
+                this.createGraph());
+        TraversalContext c = new TraversalContext(6);
+        assertThrows(NullPointerException.class,
+                () -> alg.computeShortestPaths(null));
+        assertThrows(IllegalArgumentException.class,
+                () -> alg.computeShortestPaths(new GraphNode<String>("t")));
+        assertThrows(NullPointerException.class,
+                () -> alg.shortestPath(0, 1, null));
+        assertThrows(IllegalArgumentException.class,
+                () -> alg.shortestPath(0, 1, new TraversalContext(2)));
+        assertThrows(IndexOutOfBoundsException.class,
+                () -> alg.shortestPath(0, 6, c));
+        assertThrows(NullPointerException.class,
+                () -> alg.shortestPath(0, 1, null, c));
+        assertThrows(IndexOutOfBoundsException.class,
+                () -> alg.bidirectionalShortestPath(-1, 1, c));
+    }
+
+}
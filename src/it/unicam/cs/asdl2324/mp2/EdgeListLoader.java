@@ -0,0 +1,503 @@
+package it.unicam.cs.asdl2324.mp2;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+//ATTENZIONE: è vietato includere import a pacchetti che non siano della Java SE
+
+/**
+ * Classe che carica grafi di grandi dimensioni da file contenenti liste di
+ * archi, costruendo direttamente un grafo in formato CSR senza passare dai
+ * metodi addNode e addEdge. I nodi sono identificati da interi non negativi:
+ * un file i cui indici vanno da 0 a n - 1 produce un grafo con n nodi, il nodo
+ * di indice i ha etichetta i.
+ *
+ * Sono supportati due formati:
+ * <ul>
+ * <li>testo: un arco per riga, scritto come indice del primo nodo, indice del
+ * secondo nodo e, facoltativo, peso, separati da spazi, tabulazioni o virgole.
+ * Le righe vuote e quelle che iniziano con # o % sono ignorate. Tutte le righe
+ * devono avere lo stesso numero di campi;</li>
+ * <li>binario: un intero con il numero di nodi, un intero con il numero di
+ * archi e un byte che vale 1 se il grafo è pesato e 0 altrimenti, seguiti da
+ * un record per arco con i due indici interi e, se il grafo è pesato, il peso
+ * double. I valori sono big-endian, come quelli scritti da DataOutputStream.
+ * File di questo formato si ottengono con writeBinary.</li>
+ * </ul>
+ *
+ * Il file viene letto attraverso un FileChannel, mappandone in memoria una
+ * porzione alla volta, e analizzato byte per byte senza creare oggetti String
+ * per le righe o per i numeri. Gli archi sono accumulati in array di tipo
+ * primitivo: nel formato binario hanno esattamente la dimensione letta
+ * dall'intestazione, nel formato testo sono dimensionati in base alla
+ * lunghezza del file e allungati solo se necessario. Il grafo viene poi
+ * costruito in un'unica passata con CompressedSparseRowGraph.withIndexLabels:
+ * i nodi sono etichettati con il proprio indice, per cui il grafo non ha
+ * bisogno di una tabella delle etichette. Come in ogni grafo, un arco non può
+ * comparire più di una volta nel file; nei grafi non orientati, però, un arco
+ * elencato sia come u v che come v u, con lo stesso peso, viene caricato una
+ * sola volta, perché molti file di grafi non orientati riportano ogni arco in
+ * entrambe le direzioni.
+ *
+ * @author Template: Luca Tesei, Implementazione: collettiva
+ *
+ */
+public class EdgeListLoader {
+
+    /*
+     * Dimensione massima in byte della porzione di file mappata in memoria.
+     */
+    private static final int CHUNK_SIZE = 1 << 26;
+
+    /*
+     * Dimensione in byte dell'intestazione del formato binario.
+     */
+    private static final int HEADER_SIZE = 9;
+
+    /*
+     * Potenze di 10 rappresentate esattamente da un double.
+     */
+    private static final double[] POWERS_OF_TEN = new double[23];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++)
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+    }
+
+    private final boolean directed;
+
+    /*
+     * Dimensione della porzione di file mappata in memoria, modificabile solo
+     * nei test.
+     */
+    private final int chunkSize;
+
+    /**
+     * Crea un caricatore che costruisce grafi orientati o non orientati.
+     *
+     * @param directed
+     *                     true se gli archi dei file sono orientati
+     */
+    public EdgeListLoader(boolean directed) {
+        this(directed, CHUNK_SIZE);
+    }
+
+    /*
+     * Crea un caricatore che mappa porzioni di file della dimensione data,
+     * per permettere il test JUnit.
+     */
+    EdgeListLoader(boolean directed, int chunkSize) {
+        this.directed = directed;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * @return true se il caricatore costruisce grafi orientati
+     */
+    public boolean isDirected() {
+        return this.directed;
+    }
+
+    /**
+     * Carica un grafo da un file in formato testo.
+     *
+     * @param file
+     *                 il file da leggere
+     * @return il grafo descritto dal file
+     * @throws NullPointerException
+     *                                      se il file è nullo
+     * @throws IOException
+     *                                      se si verifica un errore di lettura
+     * @throws IllegalArgumentException
+     *                                      se una riga non è valida o un arco
+     *                                      compare più di una volta
+     */
+    public CompressedSparseRowGraph<Integer> loadText(Path file)
+            throws IOException {
+        if (file == null)
+            throw new NullPointerException("File nullo!");
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.READ)) {
+            long size = channel.size();
+            // Stima del numero di archi: le righe dei file reali occupano in
+            // genere almeno 12 byte
+            TextParser parser = new TextParser(
+                    (int) Math.min(size / 12 + 16, Integer.MAX_VALUE - 8));
+            for (long position = 0; position < size;) {
+                long length = Math.min(this.chunkSize, size - position);
+                MappedByteBuffer buffer = channel
+                        .map(FileChannel.MapMode.READ_ONLY, position, length);
+                while (buffer.hasRemaining())
+                    parser.accept(buffer.get());
+                position += length;
+            }
+            parser.finish();
+            int m = parser.edgeCount;
+            return this.build(parser.maxIndex + 1,
+                    Arrays.copyOf(parser.sources, m),
+                    Arrays.copyOf(parser.targets, m),
+                    parser.weights == null ? null
+                            : Arrays.copyOf(parser.weights, m));
+        }
+    }
+
+    /**
+     * Carica un grafo da un file in formato binario.
+     *
+     * @param file
+     *                 il file da leggere
+     * @return il grafo descritto dal file
+     * @throws NullPointerException
+     *                                      se il file è nullo
+     * @throws IOException
+     *                                      se si verifica un errore di lettura
+     * @throws IllegalArgumentException
+     *                                      se il file non è nel formato
+     *                                      binario o un arco compare più di
+     *                                      una volta
+     */
+    public CompressedSparseRowGraph<Integer> loadBinary(Path file)
+            throws IOException {
+        if (file == null)
+            throw new NullPointerException("File nullo!");
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE)
+                throw new IllegalArgumentException("File binario non valido");
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0,
+                    HEADER_SIZE);
+            int n = header.getInt();
+            int m = header.getInt();
+            byte weighted = header.get();
+            int recordSize = weighted == 1 ? 16 : 8;
+            if (n < 0 || m < 0 || (weighted != 0 && weighted != 1)
+                    || size != HEADER_SIZE + (long) m * recordSize)
+                throw new IllegalArgumentException("File binario non valido");
+            int[] sources = new int[m];
+            int[] targets = new int[m];
+            double[] weights = weighted == 1 ? new double[m] : null;
+            // Ogni porzione contiene un numero intero di record
+            int perChunk = Math.max(1, this.chunkSize / recordSize);
+            for (int e = 0; e < m; e += perChunk) {
+                int records = Math.min(perChunk, m - e);
+                MappedByteBuffer buffer = channel.map(
+                        FileChannel.MapMode.READ_ONLY,
+                        HEADER_SIZE + (long) e * recordSize,
+                        (long) records * recordSize);
+                for (int k = e; k < e + records; k++) {
+                    sources[k] = buffer.getInt();
+                    targets[k] = buffer.getInt();
+                    if (weights != null)
+                        weights[k] = buffer.getDouble();
+                }
+            }
+            return this.build(n, sources, targets, weights);
+        }
+    }
+
+    /**
+     * Scrive un grafo su un file in formato binario, che può poi essere
+     * caricato con loadBinary. Vengono scritti solo gli indici dei nodi, non
+     * le etichette. Ogni arco di un grafo non orientato viene scritto una sola
+     * volta. Il file risulta pesato se almeno un arco del grafo è pesato; gli
+     * archi senza peso sono scritti con peso NaN e ricaricati come archi non
+     * pesati.
+     *
+     * @param g
+     *                 il grafo da scrivere
+     * @param file
+     *                 il file da scrivere, sovrascritto se esiste già
+     * @throws NullPointerException
+     *                                      se il grafo o il file sono nulli
+     * @throws IllegalArgumentException
+     *                                      se il grafo non è orientato come i
+     *                                      grafi del caricatore
+     * @throws IOException
+     *                                      se si verifica un errore di
+     *                                      scrittura
+     */
+    public void writeBinary(CompressedSparseRowGraph<?> g, Path file)
+            throws IOException {
+        if (g == null || file == null)
+            throw new NullPointerException("Grafo o file nulli");
+        if (g.isDirected() != this.directed)
+            throw new IllegalArgumentException(
+                    "Il grafo non è orientato come i grafi del caricatore");
+        int n = g.nodeCount();
+        boolean weighted = false;
+        for (int u = 0; u < n && !weighted; u++)
+            for (int k = g.getRowStart(u); k < g.getRowEnd(u); k++)
+                if (!Double.isNaN(g.getWeightAt(k)))
+                    weighted = true;
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 16);
+            buffer.putInt(n);
+            buffer.putInt(g.edgeCount());
+            buffer.put((byte) (weighted ? 1 : 0));
+            for (int u = 0; u < n; u++) {
+                for (int k = g.getRowStart(u); k < g.getRowEnd(u); k++) {
+                    int v = g.getTargetAt(k);
+                    // Nel caso non orientato l'arco compare anche nella riga
+                    // di v
+                    if (!this.directed && v < u)
+                        continue;
+                    if (buffer.remaining() < 16)
+                        flush(channel, buffer);
+                    buffer.putInt(u);
+                    buffer.putInt(v);
+                    if (weighted)
+                        buffer.putDouble(g.getWeightAt(k));
+                }
+            }
+            flush(channel, buffer);
+        }
+    }
+
+    /*
+     * Scrive sul canale il contenuto del buffer e lo svuota.
+     */
+    private static void flush(FileChannel channel, ByteBuffer buffer)
+            throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining())
+            channel.write(buffer);
+        buffer.clear();
+    }
+
+    /*
+     * Costruisce il grafo con n nodi etichettati 0, 1, ..., n - 1, senza
+     * tabella delle etichette, ignorando gli archi non orientati ripetuti con
+     * i nodi scambiati.
+     */
+    private CompressedSparseRowGraph<Integer> build(int n, int[] sources,
+            int[] targets, double[] weights) {
+        try {
+            return CompressedSparseRowGraph.withIndexLabels(n, sources,
+                    targets, weights, this.directed, true);
+        } catch (IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException(
+                    "Il file contiene un indice di nodo non valido");
+        }
+    }
+
+    /*
+     * Analizzatore del formato testo. Riceve il file un byte alla volta e
+     * accumula il testo del campo corrente in un array di caratteri riusato
+     * per tutti i campi: le righe possono quindi iniziare in una porzione del
+     * file e finire nella successiva.
+     */
+    private static class TextParser {
+
+        /*
+         * Archi letti, nelle prime edgeCount posizioni. weights è null finché
+         * non si legge una riga con il peso.
+         */
+        int[] sources;
+
+        int[] targets;
+
+        double[] weights;
+
+        int edgeCount;
+
+        int maxIndex = -1;
+
+        /*
+         * Numero di campi per riga fissato dalla prima riga, 0 se non ancora
+         * letta.
+         */
+        private int fieldsPerLine;
+
+        /*
+         * Stato della riga corrente: numero della riga, numero di campi già
+         * letti, valori dei campi e indicazione di riga di commento.
+         */
+        private long line = 1;
+
+        private int fields;
+
+        private int source;
+
+        private int target;
+
+        private double weight;
+
+        private boolean comment;
+
+        /*
+         * Testo del campo corrente.
+         */
+        private char[] token = new char[32];
+
+        private int length;
+
+        TextParser(int capacity) {
+            this.sources = new int[capacity];
+            this.targets = new int[capacity];
+        }
+
+        void accept(byte b) {
+            char c = (char) (b & 0xFF);
+            if (c == '\n') {
+                this.endLine();
+                return;
+            }
+            if (this.comment)
+                return;
+            if (c == ' ' || c == '\t' || c == ',' || c == '\r') {
+                this.endToken();
+                return;
+            }
+            if ((c == '#' || c == '%') && this.fields == 0
+                    && this.length == 0) {
+                this.comment = true;
+                return;
+            }
+            if (this.length == this.token.length)
+                this.token = Arrays.copyOf(this.token, 2 * this.length);
+            this.token[this.length++] = c;
+        }
+
+        void finish() {
+            this.endLine();
+        }
+
+        private void endToken() {
+            if (this.length == 0)
+                return;
+            switch (this.fields) {
+            case 0:
+                this.source = this.parseIndex();
+                break;
+            case 1:
+                this.target = this.parseIndex();
+                break;
+            case 2:
+                this.weight = this.parseWeight();
+                break;
+            default:
+                throw this.invalidLine();
+            }
+            this.fields++;
+            this.length = 0;
+        }
+
+        private void endLine() {
+            if (!this.comment)
+                this.endToken();
+            if (this.fields > 0) {
+                if (this.fields == 1 || (this.fieldsPerLine != 0
+                        && this.fields != this.fieldsPerLine))
+                    throw this.invalidLine();
+                this.fieldsPerLine = this.fields;
+                this.addEdge();
+            }
+            this.fields = 0;
+            this.length = 0;
+            this.comment = false;
+            this.line++;
+        }
+
+        private void addEdge() {
+            if (this.edgeCount == this.sources.length) {
+                int capacity = this.edgeCount + (this.edgeCount >> 1) + 16;
+                this.sources = Arrays.copyOf(this.sources, capacity);
+                this.targets = Arrays.copyOf(this.targets, capacity);
+                if (this.weights != null)
+                    this.weights = Arrays.copyOf(this.weights, capacity);
+            }
+            if (this.fieldsPerLine == 3 && this.weights == null)
+                this.weights = new double[this.sources.length];
+            this.sources[this.edgeCount] = this.source;
+            this.targets[this.edgeCount] = this.target;
+            if (this.weights != null)
+                this.weights[this.edgeCount] = this.weight;
+            this.edgeCount++;
+            this.maxIndex = Math.max(this.maxIndex,
+                    Math.max(this.source, this.target));
+        }
+
+        /*
+         * Legge un indice di nodo, un intero non negativo.
+         */
+        private int parseIndex() {
+            int value = 0;
+            for (int k = 0; k < this.length; k++) {
+                int digit = this.token[k] - '0';
+                if (digit < 0 || digit > 9
+                        || value > (Integer.MAX_VALUE - digit) / 10)
+                    throw this.invalidLine();
+                value = value * 10 + digit;
+            }
+            return value;
+        }
+
+        /*
+         * Legge un peso. I numeri decimali con al più 18 cifre significative e
+         * un esponente piccolo, cioè quasi tutti quelli che si trovano nei
+         * file, sono calcolati con una sola moltiplicazione o divisione tra
+         * double esatti, per cui il risultato è quello di Double.parseDouble.
+         * Negli altri casi si usa Double.parseDouble.
+         */
+        private double parseWeight() {
+            int k = 0;
+            boolean negative = false;
+            if (this.token[0] == '-' || this.token[0] == '+') {
+                negative = this.token[0] == '-';
+                k++;
+            }
+            long mantissa = 0;
+            boolean anyDigit = false;
+            int digits = 0;
+            int scale = 0;
+            boolean point = false;
+            boolean exact = true;
+            for (; k < this.length; k++) {
+                char c = this.token[k];
+                if (c == '.' && !point) {
+                    point = true;
+                } else if (c >= '0' && c <= '9') {
+                    if (digits == 18) {
+                        exact = false;
+                        break;
+                    }
+                    anyDigit = true;
+                    mantissa = mantissa * 10 + (c - '0');
+                    if (mantissa > 0)
+                        digits++;
+                    if (point)
+                        scale--;
+                } else {
+                    // Esponente o testo da far controllare a parseDouble
+                    exact = false;
+                    break;
+                }
+            }
+            if (exact && anyDigit && mantissa < (1L << 53) && scale >= -22) {
+                double value = mantissa / POWERS_OF_TEN[-scale];
+                return negative ? -value : value;
+            }
+            try {
+                return Double
+                        .parseDouble(new String(this.token, 0, this.length));
+            } catch (NumberFormatException e) {
+                throw this.invalidLine();
+            }
+        }
+
+        private IllegalArgumentException invalidLine() {
+            return new IllegalArgumentException(
+                    "Riga " + this.line + " non valida");
+        }
+    }
+
+}
@@ -0,0 +1,251 @@
+package it.unicam.cs.asdl2324.mp2;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Classe di test per la classe EdgeListLoader.
+ *
+ * @author Template: Luca Tesei, Implementazione: collettiva
+ */
+class EdgeListLoaderTest {
+
+    @TempDir
+    Path directory;
+
+    private Path write(String name, String content) throws IOException {
+        Path file = this.directory.resolve(name);
+        Files.write(file, content.getBytes(StandardCharsets.US_ASCII));
+        return file;
+    }
+
+    /*
+     * Controlla che i due grafi abbiano gli stessi archi con gli stessi pesi.
+     */
+    private void assertSameGraph(CompressedSparseRowGraph<Integer> expected,
+            CompressedSparseRowGraph<Integer> actual) {
+        assertEquals(expected.isDirected(), actual.isDirected());
+        assertEquals(expected.nodeCount(), actual.nodeCount());
+        assertEquals(expected.edgeCount(), actual.edgeCount());
+        for (int u = 0; u < expected.nodeCount(); u++) {
+            assertEquals(expected.getRowStart(u), actual.getRowStart(u));
+            assertEquals(expected.getRowEnd(u), actual.getRowEnd(u));
+            for (int k = expected.getRowStart(u); k < expected
+                    .getRowEnd(u); k++) {
+                assertEquals(expected.getTargetAt(k), actual.getTargetAt(k));
+                assertEquals(expected.getWeightAt(k), actual.getWeightAt(k));
+            }
+        }
+    }
+
+    @Test
+    final void testLoadText() throws IOException {
+        Path file = this.write("directed.txt", "# Grafo di prova\n"
+                + "0 1\n" + "\n" + "0\t2\r\n" + "  % commento\n" + "3,1\n"
+                + "2 2");
+        CompressedSparseRowGraph<Integer> g = new EdgeListLoader(true)
+                .loadText(file);
+        assertTrue(g.isDirected());
+        assertEquals(4, g.nodeCount());
+        assertEquals(4, g.edgeCount());
+        assertEquals(3, g.getNodeIndexOf(3));
+        assertNotNull(g.getEdge(3, 1));
+        assertNull(g.getEdge(1, 3));
+        assertNotNull(g.getEdge(2, 2));
+        assertFalse(g.getEdge(0, 1).hasWeight());
+    }
+
+    @Test
+    final void testLoadTextWeighted() throws IOException {
+        String[] weights = { "1.5", "-2", "3e2", "1.0E-3", ".5", "0.1",
+                "123456789.123456789", "0.00000000000000000000000001",
+                "7.", "+4.25" };
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < weights.length; i++)
+            content.append(i).append(' ').append(i + 1).append(' ')
+                    .append(weights[i]).append('\n');
+        CompressedSparseRowGraph<Integer> g = new EdgeListLoader(false)
+                .loadText(this.write("weighted.txt", content.toString()));
+        assertFalse(g.isDirected());
+        assertEquals(weights.length + 1, g.nodeCount());
+        for (int i = 0; i < weights.length; i++)
+            assertEquals(Double.parseDouble(weights[i]),
+                    g.getEdge(i + 1, i).getWeight());
+    }
+
+    @Test
+    final void testChunkBoundaries() throws IOException {
+        Random random = new Random(43);
+        int n = 300;
+        StringBuilder content = new StringBuilder();
+        boolean[] used = new boolean[n * n];
+        for (int e = 0; e < 1000;) {
+            int u = random.nextInt(n);
+            int v = random.nextInt(n);
+            if (used[u * n + v])
+                continue;
+            used[u * n + v] = true;
+            content.append(u).append(' ').append(v).append(' ')
+                    .append(random.nextInt(1000) / 8.0).append('\n');
+            e++;
+        }
+        Path file = this.write("random.txt", content.toString());
+        CompressedSparseRowGraph<Integer> expected = new EdgeListLoader(true)
+                .loadText(file);
+        assertEquals(1000, expected.edgeCount());
+        // Porzioni piccole e non allineate alle righe
+        for (int chunkSize : new int[] { 1, 7, 64 })
+            this.assertSameGraph(expected,
+                    new EdgeListLoader(true, chunkSize).loadText(file));
+    }
+
+    @Test
+    final void testBinaryRoundTrip() throws IOException {
+        Random random = new Random(47);
+        int n = 200;
+        for (boolean directed : new boolean[] { true, false }) {
+            Graph<Integer> source = new AdjacencyMatrixUndirectedGraph<Integer>();
+            for (int i = 0; i < n; i++)
+                source.addNode(i);
+            for (int e = 0; e < 600; e++)
+                source.addWeightedEdge(random.nextInt(n), random.nextInt(n),
+                        random.nextDouble());
+            CompressedSparseRowGraph<Integer> g;
+            if (directed) {
+                // Stessi archi, orientati dal nodo con indice minore
+                int m = source.edgeCount();
+                int[] sources = new int[m];
+                int[] targets = new int[m];
+                double[] weights = new double[m];
+                int e = 0;
+                for (GraphEdge<Integer> edge : source.getEdges()) {
+                    int u = edge.getNode1().getLabel();
+                    int v = edge.getNode2().getLabel();
+                    sources[e] = Math.min(u, v);
+                    targets[e] = Math.max(u, v);
+                    weights[e++] = edge.getWeight();
+                }
+                List<Integer> labels = new ArrayList<Integer>();
+                for (int i = 0; i < n; i++)
+                    labels.add(i);
+                g = new CompressedSparseRowGraph<Integer>(labels, sources,
+                        targets, weights, true);
+            } else
+                g = new CompressedSparseRowGraph<Integer>(source);
+            EdgeListLoader loader = new EdgeListLoader(directed);
+            Path file = this.directory.resolve("graph" + directed + ".bin");
+            loader.writeBinary(g, file);
+            this.assertSameGraph(g, loader.loadBinary(file));
+            this.assertSameGraph(g,
+                    new EdgeListLoader(directed, 40).loadBinary(file));
+        }
+    }
+
+    @Test
+    final void testUnweightedBinary() throws IOException {
+        CompressedSparseRowGraph<Integer> g = new EdgeListLoader(false)
+                .loadText(this.write("small.txt", "0 1\n1 2\n5 5\n"));
+        assertEquals(6, g.nodeCount());
+        EdgeListLoader loader = new EdgeListLoader(false);
+        Path file = this.directory.resolve("small.bin");
+        loader.writeBinary(g, file);
+        assertEquals(9 + 3 * 8, Files.size(file));
+        CompressedSparseRowGraph<Integer> loaded = loader.loadBinary(file);
+        this.assertSameGraph(g, loaded);
+        assertFalse(loaded.getEdge(1, 2).hasWeight());
+    }
+
+    @Test
+    final void testUndirectedReverseDuplicates() throws IOException {
+        // Ogni arco è elencato in entrambe le direzioni, il cappio una volta
+        Path file = this.write("symmetric.txt", "0 1 2.5\n1 0 2.5\n"
+                + "1 2 1\n0 2 4\n2 1 1\n2 0 4\n3 3 7\n");
+        CompressedSparseRowGraph<Integer> g = new EdgeListLoader(false)
+                .loadText(file);
+        assertEquals(4, g.nodeCount());
+        assertEquals(4, g.edgeCount());
+        assertEquals(2, g.getDegreeOf(0));
+        assertEquals(2, g.getDegreeOf(1));
+        assertEquals(1, g.getDegreeOf(3));
+        assertEquals(4, g.getEdges().size());
+        int count = 0;
+        for (GraphEdge<Integer> e : g.getEdges()) {
+            assertNotNull(e);
+            count++;
+        }
+        assertEquals(4, count);
+        assertEquals(2.5, g.getEdge(1, 0).getWeight());
+        assertEquals(4.0, g.getEdge(0, 2).getWeight());
+        // Il grafo è uguale a quello con ogni arco elencato una volta
+        this.assertSameGraph(new EdgeListLoader(false).loadText(this.write(
+                "single.txt", "0 1 2.5\n1 2 1\n0 2 4\n3 3 7\n")), g);
+        // Anche nel formato binario
+        Path binary = this.directory.resolve("symmetric.bin");
+        new EdgeListLoader(false).writeBinary(g, binary);
+        this.assertSameGraph(g, new EdgeListLoader(false).loadBinary(binary));
+
+        // Restano duplicati gli archi ripetuti nello stesso verso, con pesi
+        // diversi, più di due volte o i cappi ripetuti
+        for (String content : new String[] { "0 1\n1 0\n0 1\n",
+                "0 1 1\n1 0 2\n", "0 1\n1 0\n1 0\n", "2 2\n2 2\n" }) {
+            Path bad = this.write("bad.txt", content);
+            assertThrows(IllegalArgumentException.class,
+                    () -> new EdgeListLoader(false).loadText(bad));
+        }
+        // Nel caso orientato u v e v u sono archi diversi
+        Path directed = this.write("directed.txt", "0 1\n1 0\n");
+        assertEquals(2, new EdgeListLoader(true).loadText(directed)
+                .edgeCount());
+    }
+
+    @Test
+    final void testExceptions() throws IOException {
+        EdgeListLoader loader = new EdgeListLoader(true);
+        assertThrows(NullPointerException.class, () -> loader.loadText(null));
+        assertThrows(NullPointerException.class,
+                () -> loader.loadBinary(null));
+        // Campi mancanti, in più, non numerici e righe con numeri di campi
+        // diversi
+        for (String content : new String[] { "0\n", "0 1 2 3\n", "0 x\n",
+                "-1 2\n", "0 1 abc\n", "0 1\n1 2 3.5\n", "0 1 .\n",
+                "99999999999 1\n" }) {
+            Path file = this.write("bad.txt", content);
+            assertThrows(IllegalArgumentException.class,
+                    () -> loader.loadText(file));
+        }
+        // Arco ripetuto
+        Path duplicate = this.write("duplicate.txt", "0 1\n0 1\n");
+        assertThrows(IllegalArgumentException.class,
+                () -> loader.loadText(duplicate));
+        // File binari troncati o con indici non validi
+        Path truncated = this.write("truncated.bin", "abc");
+        assertThrows(IllegalArgumentException.class,
+                () -> loader.loadBinary(truncated));
+        Path file = this.directory.resolve("graph.bin");
+        CompressedSparseRowGraph<Integer> g = loader
+                .loadText(this.write("graph.txt", "0 1\n"));
+        loader.writeBinary(g, file);
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[3] = 1;
+        Files.write(file, bytes);
+        assertThrows(IllegalArgumentException.class,
+                () -> loader.loadBinary(file));
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> loader.loadBinary(file));
+        assertThrows(IllegalArgumentException.class,
+                () -> new EdgeListLoader(false).writeBinary(g, file));
+    }
+
+}
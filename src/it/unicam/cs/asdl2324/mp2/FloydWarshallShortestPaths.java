@@ -0,0 +1,354 @@
+package it.unicam.cs.asdl2324.mp2;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+//ATTENZIONE: è vietato includere import a pacchetti che non siano della Java SE
+
+/**
+ * Classe singoletto che implementa l'algoritmo di Floyd-Warshall per il
+ * calcolo dei cammini minimi tra tutte le coppie di nodi di un grafo pesato,
+ * orientato o non orientato, senza cicli di peso negativo.
+ *
+ * I pesi vengono copiati in una matrice delle distanze memorizzata per righe
+ * in un unico array di double, accompagnata da una matrice dei successori: in
+ * posizione (i, j) l'indice del nodo che segue i nel cammino minimo da i a j.
+ * Tra i cammini di uguale lunghezza viene scelto quello con meno archi: il
+ * numero di archi è memorizzato in una terza matrice e serve anche a rendere
+ * coerenti i successori in presenza di archi di peso zero, che l'ordine di
+ * aggiornamento a blocchi potrebbe altrimenti chiudere in un ciclo.
+ * L'algoritmo è eseguito a blocchi: la matrice è divisa in blocchi quadrati
+ * abbastanza piccoli da restare nella cache e, per ogni blocco della
+ * diagonale, si aggiorna prima il blocco stesso, poi i blocchi della sua riga
+ * e della sua colonna e infine tutti gli altri. I blocchi della seconda e
+ * della terza fase sono indipendenti tra loro e vengono aggiornati in
+ * parallelo con il framework fork/join. Il numero di operazioni resta n^3,
+ * dove n è il numero di nodi.
+ *
+ * Gli indici dei nodi sono quelli del grafo: i risultati restano validi
+ * finché il grafo non viene modificato.
+ *
+ * @author Template: Luca Tesei, Implementazione: collettiva
+ *
+ * @param <L>
+ *                tipo delle etichette dei nodi del grafo
+ */
+public class FloydWarshallShortestPaths<L> {
+
+    /*
+     * Lato dei blocchi usato dal costruttore senza parametri: un blocco di
+     * double occupa 32 KB.
+     */
+    private static final int DEFAULT_BLOCK_SIZE = 64;
+
+    /*
+     * Lato dei blocchi in cui è divisa la matrice.
+     */
+    private final int blockSize;
+
+    /*
+     * Pool di thread che esegue le fasi dell'algoritmo.
+     */
+    private final ForkJoinPool pool;
+
+    /*
+     * Il grafo dell'ultimo calcolo e il suo numero di nodi.
+     */
+    private Graph<L> graph;
+
+    private int n;
+
+    /*
+     * Matrice delle distanze e matrice dei successori, per righe: la
+     * posizione i * n + j si riferisce alla coppia (i, j). Il successore è -1
+     * se j non è raggiungibile da i.
+     */
+    private double[] distances;
+
+    private int[] next;
+
+    /*
+     * Numero di archi dei cammini della matrice delle distanze, n se j non è
+     * raggiungibile da i.
+     */
+    private int[] hops;
+
+    /**
+     * Costruisce un calcolatore che usa blocchi di lato 64 e il pool fork/join
+     * comune della JVM.
+     */
+    public FloydWarshallShortestPaths() {
+        this(DEFAULT_BLOCK_SIZE, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Costruisce un calcolatore con un lato dei blocchi e un pool di thread
+     * dati.
+     *
+     * @param blockSize
+     *                      il lato dei blocchi in cui dividere la matrice
+     * @param pool
+     *                      il pool di thread in cui eseguire il calcolo
+     * @throws IllegalArgumentException
+     *                                      se il lato dei blocchi non è
+     *                                      positivo
+     * @throws NullPointerException
+     *                                      se il pool è nullo
+     */
+    public FloydWarshallShortestPaths(int blockSize, ForkJoinPool pool) {
+        if (blockSize <= 0)
+            throw new IllegalArgumentException(
+                    "Il lato dei blocchi deve essere positivo");
+        if (pool == null)
+            throw new NullPointerException("Pool di thread nullo!");
+        this.blockSize = blockSize;
+        this.pool = pool;
+        this.n = 0;
+        this.distances = new double[0];
+        this.next = new int[0];
+        this.hops = new int[0];
+    }
+
+    /**
+     * Calcola i cammini minimi tra tutte le coppie di nodi di un grafo. I
+     * risultati sono poi disponibili tramite getDistance, getNextHop e
+     * getPath. Se viene lanciata un'eccezione restano disponibili quelli del
+     * calcolo precedente.
+     *
+     * @param g
+     *              un grafo pesato senza cicli di peso negativo
+     * @throws NullPointerException
+     *                                      se il grafo è nullo
+     * @throws IllegalArgumentException
+     *                                      se il grafo non è pesato o ha un
+     *                                      ciclo di peso negativo
+     */
+    public void computeShortestPaths(Graph<L> g) {
+        if (g == null)
+            throw new NullPointerException("Grafo nullo!");
+        int n = g.nodeCount();
+        double[] d = new double[n * n];
+        int[] s = new int[n * n];
+        int[] h = new int[n * n];
+        Arrays.fill(d, Double.POSITIVE_INFINITY);
+        Arrays.fill(s, -1);
+        Arrays.fill(h, n);
+        for (int i = 0; i < n; i++) {
+            d[i * n + i] = 0;
+            s[i * n + i] = i;
+            h[i * n + i] = 0;
+        }
+        for (GraphEdge<L> edge : g.getEdges()) {
+            if (!edge.hasWeight())
+                throw new IllegalArgumentException("Il grafo non è pesato");
+            int i = g.getNodeIndexOf(edge.getNode1());
+            int j = g.getNodeIndexOf(edge.getNode2());
+            double w = edge.getWeight();
+            if (w < d[i * n + j]) {
+                d[i * n + j] = w;
+                s[i * n + j] = j;
+                h[i * n + j] = 1;
+            }
+            if (!g.isDirected() && w < d[j * n + i]) {
+                d[j * n + i] = w;
+                s[j * n + i] = i;
+                h[j * n + i] = 1;
+            }
+        }
+
+        // Il calcolo lavora su matrici locali: i risultati precedenti restano
+        // disponibili finché non si sa che il grafo non ha cicli negativi
+        int blocks = (n + this.blockSize - 1) / this.blockSize;
+        for (int kb = 0; kb < blocks; kb++) {
+            // Fase 1: il blocco della diagonale
+            this.updateBlock(d, s, h, n, kb, kb, kb);
+            // Fase 2: i blocchi della riga e della colonna di kb
+            this.pool.invoke(new PhaseTask(d, s, h, n, kb, 0, blocks, false));
+            // Fase 3: tutti gli altri blocchi
+            this.pool.invoke(new PhaseTask(d, s, h, n, kb, 0, blocks, true));
+        }
+        for (int i = 0; i < n; i++)
+            if (d[i * n + i] < 0)
+                throw new IllegalArgumentException(
+                        "Il grafo ha un ciclo di peso negativo");
+        this.graph = g;
+        this.n = n;
+        this.distances = d;
+        this.next = s;
+        this.hops = h;
+    }
+
+    /**
+     * Restituisce la lunghezza del cammino minimo tra due nodi calcolata
+     * dall'ultimo calcolo.
+     *
+     * @param i
+     *              l'indice del nodo di partenza
+     * @param j
+     *              l'indice del nodo di arrivo
+     * @return la lunghezza del cammino minimo, Double.POSITIVE_INFINITY se j
+     *         non è raggiungibile da i
+     * @throws IndexOutOfBoundsException
+     *                                       se uno degli indici non è valido
+     */
+    public double getDistance(int i, int j) {
+        this.checkIndexes(i, j);
+        return this.distances[i * this.n + j];
+    }
+
+    /**
+     * Restituisce il nodo che segue un nodo nel cammino minimo verso un altro
+     * nodo.
+     *
+     * @param i
+     *              l'indice del nodo di partenza
+     * @param j
+     *              l'indice del nodo di arrivo
+     * @return l'indice del nodo successivo a i nel cammino minimo da i a j
+     *         con meno archi, i
+     *         stesso se i e j coincidono, -1 se j non è raggiungibile da i
+     * @throws IndexOutOfBoundsException
+     *                                       se uno degli indici non è valido
+     */
+    public int getNextHop(int i, int j) {
+        this.checkIndexes(i, j);
+        return this.next[i * this.n + j];
+    }
+
+    /**
+     * Restituisce il cammino minimo con meno archi tra due nodi seguendo la
+     * matrice dei successori.
+     *
+     * @param i
+     *              l'indice del nodo di partenza
+     * @param j
+     *              l'indice del nodo di arrivo
+     * @return la lista dei nodi del grafo da i a j, vuota se j non è
+     *         raggiungibile da i
+     * @throws IndexOutOfBoundsException
+     *                                       se uno degli indici non è valido
+     */
+    public List<GraphNode<L>> getPath(int i, int j) {
+        this.checkIndexes(i, j);
+        List<GraphNode<L>> path = new ArrayList<GraphNode<L>>();
+        if (this.next[i * this.n + j] == -1)
+            return path;
+        path.add(this.graph.getNode(i));
+        for (int x = i; x != j;) {
+            x = this.next[x * this.n + j];
+            path.add(this.graph.getNode(x));
+        }
+        return path;
+    }
+
+    private void checkIndexes(int i, int j) {
+        if (i < 0 || i >= this.n || j < 0 || j >= this.n)
+            throw new IndexOutOfBoundsException("Indice non valido!");
+    }
+
+    /*
+     * Aggiorna il blocco (ib, jb) delle matrici delle distanze d, dei
+     * successori s e del numero di archi h, di lato n, passando per i nodi
+     * intermedi del blocco kb: per ogni k del blocco kb, d[i][j] =
+     * min(d[i][j], d[i][k] + d[k][j]). A parità di lunghezza vince il cammino
+     * con meno archi.
+     */
+    private void updateBlock(double[] d, int[] s, int[] h, int n, int ib,
+            int jb, int kb) {
+        int iEnd = Math.min(n, (ib + 1) * this.blockSize);
+        int jStart = jb * this.blockSize;
+        int jEnd = Math.min(n, jStart + this.blockSize);
+        int kEnd = Math.min(n, (kb + 1) * this.blockSize);
+        for (int k = kb * this.blockSize; k < kEnd; k++) {
+            int kRow = k * n;
+            for (int i = ib * this.blockSize; i < iEnd; i++) {
+                int iRow = i * n;
+                double dik = d[iRow + k];
+                if (dik == Double.POSITIVE_INFINITY)
+                    continue;
+                int sik = s[iRow + k];
+                int hik = h[iRow + k];
+                for (int j = jStart; j < jEnd; j++) {
+                    double candidate = dik + d[kRow + j];
+                    int candidateHops = hik + h[kRow + j];
+                    if (candidate < d[iRow + j] || (candidate == d[iRow + j]
+                            && candidateHops < h[iRow + j])) {
+                        d[iRow + j] = candidate;
+                        s[iRow + j] = sik;
+                        h[iRow + j] = candidateHops;
+                    }
+                }
+            }
+        }
+    }
+
+    /*
+     * Compito che aggiorna i blocchi di un intervallo di righe di blocchi
+     * (terza fase) o, per ogni indice t dell'intervallo, i blocchi (kb, t) e
+     * (t, kb) (seconda fase).
+     */
+    private class PhaseTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final double[] d;
+
+        private final int[] s;
+
+        private final int[] h;
+
+        private final int n;
+
+        private final int kb;
+
+        private final int from;
+
+        private final int to;
+
+        private final boolean others;
+
+        PhaseTask(double[] d, int[] s, int[] h, int n, int kb, int from,
+                int to, boolean others) {
+            this.d = d;
+            this.s = s;
+            this.h = h;
+            this.n = n;
+            this.kb = kb;
+            this.from = from;
+            this.to = to;
+            this.others = others;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.to - this.from > 1) {
+                int middle = (this.from + this.to) >>> 1;
+                invokeAll(
+                        new PhaseTask(this.d, this.s, this.h, this.n, this.kb,
+                                this.from, middle, this.others),
+                        new PhaseTask(this.d, this.s, this.h, this.n, this.kb,
+                                middle, this.to, this.others));
+                return;
+            }
+            int t = this.from;
+            if (t == this.kb)
+                return;
+            if (this.others) {
+                int blocks = (this.n + blockSize - 1) / blockSize;
+                for (int jb = 0; jb < blocks; jb++)
+                    if (jb != this.kb)
+                        updateBlock(this.d, this.s, this.h, this.n, t, jb,
+                                this.kb);
+            } else {
+                updateBlock(this.d, this.s, this.h, this.n, this.kb, t,
+                        this.kb);
+                updateBlock(this.d, this.s, this.h, this.n, t, this.kb,
+                        this.kb);
+            }
+        }
+    }
+
+}
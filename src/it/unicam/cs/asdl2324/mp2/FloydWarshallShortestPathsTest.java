@@ -0,0 +1,169 @@
+package it.unicam.cs.asdl2324.mp2;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Classe di test per la classe FloydWarshallShortestPaths.
+ *
+ * @author Template: Luca Tesei, Implementazione: collettiva
+ */
+class FloydWarshallShortestPathsTest {
+
+    /*
+     * Grafo non orientato pesato con nodi s, u, x, y, z e il nodo isolato w.
+     */
+    private Graph<String> createGraph() {
+        Graph<String> g = new AdjacencyMatrixUndirectedGraph<String>();
+        g.addNode("s");
+        g.addNode("u");
+        g.addNode("x");
+        g.addNode("y");
+        g.addNode("z");
+        g.addNode("w");
+        g.addWeightedEdge("s", "u", 10);
+        g.addWeightedEdge("s", "x", 5);
+        g.addWeightedEdge("u", "x", 2);
+        g.addWeightedEdge("u", "y", 1);
+        g.addWeightedEdge("x", "y", 9);
+        g.addWeightedEdge("y", "z", 4);
+        g.addWeightedEdge("s", "z", 20);
+        return g;
+    }
+
+    @Test
+    final void testComputeShortestPaths() {
+        Graph<String> g = this.createGraph();
+        // Blocchi di lato 2 per avere più blocchi anche su un grafo piccolo
+        FloydWarshallShortestPaths<String> alg = new FloydWarshallShortestPaths<String>(
+                2, ForkJoinPool.commonPool());
+        alg.computeShortestPaths(g);
+        int s = g.getNodeIndexOf("s");
+        int u = g.getNodeIndexOf("u");
+        int x = g.getNodeIndexOf("x");
+        int z = g.getNodeIndexOf("z");
+        int w = g.getNodeIndexOf("w");
+        assertEquals(0, alg.getDistance(s, s));
+        assertEquals(7, alg.getDistance(s, u));
+        assertEquals(7, alg.getDistance(u, s));
+        assertEquals(12, alg.getDistance(s, z));
+        assertEquals(3, alg.getDistance(x, g.getNodeIndexOf("y")));
+        assertEquals(Double.POSITIVE_INFINITY, alg.getDistance(s, w));
+        assertEquals(x, alg.getNextHop(s, z));
+        assertEquals(s, alg.getNextHop(s, s));
+        assertEquals(-1, alg.getNextHop(w, s));
+        List<GraphNode<String>> path = alg.getPath(s, z);
+        assertEquals(5, path.size());
+        assertEquals("s", path.get(0).getLabel());
+        assertEquals("x", path.get(1).getLabel());
+        assertEquals("u", path.get(2).getLabel());
+        assertEquals("y", path.get(3).getLabel());
+        assertEquals("z", path.get(4).getLabel());
+        assertEquals(1, alg.getPath(w, w).size());
+        assertTrue(alg.getPath(s, w).isEmpty());
+    }
+
+    @Test
+    final void testRandomGraphs() {
+        Random random = new Random(29);
+        int n = 150;
+        Graph<Integer> g = new AdjacencyMatrixUndirectedGraph<Integer>();
+        for (int i = 0; i < n; i++)
+            g.addNode(i);
+        for (int k = 0; k < 3 * n; k++)
+            g.addWeightedEdge(random.nextInt(n), random.nextInt(n),
+                    random.nextInt(100));
+        DijkstraShortestPath<Integer> dijkstra = new DijkstraShortestPath<Integer>(
+                g);
+        CompressedSparseRowGraph<Integer> csr = dijkstra.getGraph();
+        TraversalContext c = new TraversalContext(n);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            // Un solo blocco, blocchi che dividono n e un blocco finale
+            // incompleto
+            for (int blockSize : new int[] { 256, 50, 16 }) {
+                FloydWarshallShortestPaths<Integer> alg = new FloydWarshallShortestPaths<Integer>(
+                        blockSize, pool);
+                alg.computeShortestPaths(g);
+                for (int s = 0; s < n; s += 7) {
+                    dijkstra.computeShortestPaths(csr.getNodeIndexOf(s), c);
+                    for (int t = 0; t < n; t++) {
+                        int i = g.getNodeIndexOf(s);
+                        int j = g.getNodeIndexOf(t);
+                        double d = c.getFloatingPointDistance(
+                                csr.getNodeIndexOf(t));
+                        assertEquals(d, alg.getDistance(i, j));
+                        // Il cammino ricostruito ha la lunghezza calcolata
+                        List<GraphNode<Integer>> path = alg.getPath(i, j);
+                        double length = 0;
+                        for (int k = 1; k < path.size(); k++)
+                            length += g.getEdge(path.get(k - 1), path.get(k))
+                                    .getWeight();
+                        if (d != Double.POSITIVE_INFINITY)
+                            assertEquals(d, length);
+                        else
+                            assertTrue(path.isEmpty());
+                    }
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    final void testExceptions() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new FloydWarshallShortestPaths<String>(0,
+                        ForkJoinPool.commonPool()));
+        assertThrows(NullPointerException.class,
+                () -> new FloydWarshallShortestPaths<String>(64, null));
+        FloydWarshallShortestPaths<String> alg = new FloydWarshallShortestPaths<String>();
+        assertThrows(NullPointerException.class,
+                () -> alg.computeShortestPaths(null));
+        Graph<String> unweighted = new AdjacencyMatrixUndirectedGraph<String>();
+        unweighted.addNode("a");
+        unweighted.addNode("b");
+        unweighted.addEdge("a", "b");
+        assertThrows(IllegalArgumentException.class,
+                () -> alg.computeShortestPaths(unweighted));
+        // Un arco non orientato di peso negativo forma un ciclo negativo
+        Graph<String> negative = new AdjacencyMatrixUndirectedGraph<String>();
+        GraphNode<String> a = new GraphNode<String>("a");
+        GraphNode<String> b = new GraphNode<String>("b");
+        negative.addNode(a);
+        negative.addNode(b);
+        negative.addEdge(new GraphEdge<String>(a, b, false, -1));
+        assertThrows(IllegalArgumentException.class,
+                () -> alg.computeShortestPaths(negative));
+        alg.computeShortestPaths(this.createGraph());
+        // Ciclo orientato 0 -> 1 -> 2 -> 0 di peso -1: i risultati del
+        // calcolo precedente non vengono sostituiti
+        CompressedSparseRowGraph<Integer> cycle = new CompressedSparseRowGraph<Integer>(
+                Arrays.asList(0, 1, 2), new int[] { 0, 1, 2 },
+                new int[] { 1, 2, 0 }, new double[] { 1, -3, 1 }, true);
+        FloydWarshallShortestPaths<Integer> cycleAlg = new FloydWarshallShortestPaths<Integer>();
+        assertThrows(IllegalArgumentException.class,
+                () -> cycleAlg.computeShortestPaths(cycle));
+        assertThrows(IndexOutOfBoundsException.class,
+                () -> cycleAlg.getDistance(0, 1));
+        assertThrows(IndexOutOfBoundsException.class,
+                () -> cycleAlg.getPath(0, 2));
+        assertThrows(IllegalArgumentException.class,
+                () -> alg.computeShortestPaths(negative));
+        assertEquals(7, alg.getDistance(0, 1));
+        assertThrows(IndexOutOfBoundsException.class,
+                () -> alg.getDistance(0, 6));
+        assertThrows(IndexOutOfBoundsException.class,
+                () -> alg.getNextHop(-1, 0));
+        assertThrows(IndexOutOfBoundsException.class,
+                () -> alg.getPath(6, 0));
+    }
+
+}
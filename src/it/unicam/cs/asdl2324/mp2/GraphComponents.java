@@ -0,0 +1,263 @@
+package it.unicam.cs.asdl2324.mp2;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+//ATTENZIONE: è vietato includere import a pacchetti che non siano della Java SE
+
+/**
+ * Classe che calcola le componenti connesse, le componenti fortemente
+ * connesse e l'ordinamento topologico di un grafo in formato CSR.
+ *
+ * I risultati sono array di interi indicizzati come i nodi del grafo, invece
+ * di insiemi di oggetti GraphNode: le componenti sono numerate da 0 a k - 1,
+ * dove k è il numero di componenti, e in posizione i si trova il numero della
+ * componente del nodo di indice i. Nessun metodo modifica i nodi del grafo e
+ * ogni calcolo usa solo array propri, per cui più thread possono usare
+ * contemporaneamente lo stesso oggetto.
+ *
+ * Le componenti connesse sono calcolate in parallelo con il framework
+ * fork/join: gli intervalli di nodi vengono assegnati a thread diversi, che
+ * uniscono gli estremi di ogni arco in una struttura di insiemi disgiunti
+ * concorrente. Le componenti fortemente connesse sono calcolate con
+ * l'algoritmo di Tarjan e l'ordinamento topologico con una visita in
+ * profondità di IndexedDFSVisitor, entrambi iterativi: la dimensione del
+ * grafo non è limitata dallo stack della JVM.
+ *
+ * @author Template: Luca Tesei, Implementazione: collettiva
+ *
+ * @param <L>
+ *                le etichette dei nodi del grafo
+ */
+public class GraphComponents<L> {
+
+    /*
+     * Numero di nodi sotto il quale un intervallo viene elaborato da un solo
+     * thread.
+     */
+    private static final int THRESHOLD = 1024;
+
+    /*
+     * Il grafo di cui calcolare le componenti.
+     */
+    private final CompressedSparseRowGraph<L> graph;
+
+    /*
+     * Pool di thread che calcola le componenti connesse.
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * Crea un calcolatore per un grafo in formato CSR che usa il pool
+     * fork/join comune della JVM.
+     *
+     * @param graph
+     *                  il grafo di cui calcolare le componenti
+     * @throws NullPointerException
+     *                                  se il grafo è nullo
+     */
+    public GraphComponents(CompressedSparseRowGraph<L> graph) {
+        this(graph, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Crea un calcolatore per un grafo in formato CSR che usa il pool
+     * fork/join passato.
+     *
+     * @param graph
+     *                  il grafo di cui calcolare le componenti
+     * @param pool
+     *                  il pool di thread in cui calcolare le componenti
+     *                  connesse
+     * @throws NullPointerException
+     *                                  se il grafo o il pool sono nulli
+     */
+    public GraphComponents(CompressedSparseRowGraph<L> graph,
+            ForkJoinPool pool) {
+        if (graph == null || pool == null)
+            throw new NullPointerException("Grafo o pool di thread nulli");
+        this.graph = graph;
+        this.pool = pool;
+    }
+
+    /**
+     * Calcola le componenti connesse del grafo. Nel caso orientato la
+     * direzione degli archi viene ignorata, per cui si ottengono le
+     * componenti debolmente connesse. Le componenti sono numerate in ordine di
+     * indice del loro nodo con indice minore: il nodo 0 è sempre nella
+     * componente 0.
+     *
+     * @return un array che in posizione i contiene il numero della componente
+     *         del nodo di indice i
+     */
+    public int[] connectedComponents() {
+        int n = this.graph.nodeCount();
+        ConcurrentDisjointSets sets = new ConcurrentDisjointSets(n);
+        this.pool.invoke(new UnionTask(sets, 0, n));
+        // Il rappresentante di ogni insieme è il suo indice minore, per cui
+        // viene numerato prima di tutti gli altri nodi dell'insieme
+        int[] components = new int[n];
+        int count = 0;
+        for (int i = 0; i < n; i++) {
+            int root = sets.find(i);
+            components[i] = root == i ? count++ : components[root];
+        }
+        return components;
+    }
+
+    /**
+     * Calcola le componenti fortemente connesse del grafo con l'algoritmo di
+     * Tarjan. Le componenti sono numerate secondo un ordinamento topologico
+     * del grafo delle componenti: se c'è un arco dal nodo i al nodo j allora
+     * la componente di i ha un numero minore o uguale a quello della
+     * componente di j. Nel caso non orientato le componenti fortemente
+     * connesse coincidono con quelle connesse.
+     *
+     * @return un array che in posizione i contiene il numero della componente
+     *         fortemente connessa del nodo di indice i
+     */
+    public int[] stronglyConnectedComponents() {
+        int n = this.graph.nodeCount();
+        // Ordine di scoperta e minimo ordine di scoperta raggiungibile
+        int[] index = new int[n];
+        int[] low = new int[n];
+        // Componente di ogni nodo, -1 finché il nodo è sulla pila di Tarjan
+        int[] components = new int[n];
+        int[] tarjanStack = new int[n];
+        // Pila della visita: nodo e prossima posizione da esaminare nella riga
+        int[] stack = new int[n];
+        int[] cursor = new int[n];
+        Arrays.fill(index, -1);
+        Arrays.fill(components, -1);
+        int counter = 0;
+        int tarjanTop = 0;
+        int count = 0;
+        for (int s = 0; s < n; s++) {
+            if (index[s] != -1)
+                continue;
+            int top = 0;
+            stack[0] = s;
+            cursor[0] = this.graph.getRowStart(s);
+            index[s] = low[s] = counter++;
+            tarjanStack[tarjanTop++] = s;
+            while (top >= 0) {
+                int u = stack[top];
+                int k = cursor[top];
+                if (k < this.graph.getRowEnd(u)) {
+                    cursor[top] = k + 1;
+                    int v = this.graph.getTargetAt(k);
+                    if (index[v] == -1) {
+                        index[v] = low[v] = counter++;
+                        tarjanStack[tarjanTop++] = v;
+                        top++;
+                        stack[top] = v;
+                        cursor[top] = this.graph.getRowStart(v);
+                    } else if (components[v] == -1 && index[v] < low[u])
+                        low[u] = index[v];
+                } else {
+                    top--;
+                    if (top >= 0 && low[u] < low[stack[top]])
+                        low[stack[top]] = low[u];
+                    if (low[u] == index[u]) {
+                        // u è la radice di una componente: i suoi nodi sono
+                        // quelli sopra di lui sulla pila
+                        int v;
+                        do {
+                            v = tarjanStack[--tarjanTop];
+                            components[v] = count;
+                        } while (v != u);
+                        count++;
+                    }
+                }
+            }
+        }
+        // Tarjan trova le componenti in ordine topologico inverso
+        for (int i = 0; i < n; i++)
+            components[i] = count - 1 - components[i];
+        return components;
+    }
+
+    /**
+     * Calcola un ordinamento topologico di un grafo orientato aciclico: i nodi
+     * sono ordinati per tempo di fine visita decrescente in una visita in
+     * profondità, per cui ogni arco va da un nodo a un nodo che lo segue
+     * nell'ordinamento.
+     *
+     * @return gli indici dei nodi del grafo in ordine topologico
+     * @throws IllegalArgumentException
+     *                                      se il grafo non è orientato o
+     *                                      contiene un ciclo
+     */
+    public int[] topologicalOrder() {
+        if (!this.graph.isDirected())
+            throw new IllegalArgumentException("Il grafo non è orientato");
+        final int n = this.graph.nodeCount();
+        final int[] order = new int[n];
+        // I nodi diventano neri in ordine di tempo di fine visita crescente:
+        // l'ordine viene riempito dal fondo
+        IndexedDFSVisitor<L> visitor = new IndexedDFSVisitor<L>(this.graph) {
+            private int next = n;
+
+            @Override
+            public void visitNode(int i) {
+                order[--this.next] = i;
+            }
+        };
+        visitor.DFSVisit(new TraversalContext(n));
+        int[] position = new int[n];
+        for (int p = 0; p < n; p++)
+            position[order[p]] = p;
+        // In un grafo aciclico nessun arco torna indietro nell'ordine
+        for (int u = 0; u < n; u++)
+            for (int k = this.graph.getRowStart(u); k < this.graph
+                    .getRowEnd(u); k++)
+                if (position[this.graph.getTargetAt(k)] <= position[u])
+                    throw new IllegalArgumentException(
+                            "Il grafo contiene un ciclo");
+        return order;
+    }
+
+    /*
+     * Compito che unisce gli estremi degli archi uscenti dai nodi di un
+     * intervallo di indici.
+     */
+    private class UnionTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final ConcurrentDisjointSets sets;
+
+        private final int from;
+
+        private final int to;
+
+        UnionTask(ConcurrentDisjointSets sets, int from, int to) {
+            this.sets = sets;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.to - this.from > THRESHOLD) {
+                int middle = (this.from + this.to) >>> 1;
+                invokeAll(new UnionTask(this.sets, this.from, middle),
+                        new UnionTask(this.sets, middle, this.to));
+                return;
+            }
+            boolean directed = graph.isDirected();
+            for (int u = this.from; u < this.to; u++) {
+                int end = graph.getRowEnd(u);
+                for (int k = graph.getRowStart(u); k < end; k++) {
+                    int v = graph.getTargetAt(k);
+                    // Nel caso non orientato ogni arco compare in due righe:
+                    // basta unirne gli estremi una volta
+                    if (directed || u < v)
+                        this.sets.union(u, v);
+                }
+            }
+        }
+    }
+
+}
@@ -0,0 +1,266 @@
+package it.unicam.cs.asdl2324.mp2;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Classe di test per la classe GraphComponents.
+ *
+ * @author Template: Luca Tesei, Implementazione: collettiva
+ */
+class GraphComponentsTest {
+
+    /*
+     * Etichette 0, 1, ..., n - 1.
+     */
+    private List<Integer> labels(int n) {
+        List<Integer> labels = new ArrayList<Integer>();
+        for (int i = 0; i < n; i++)
+            labels.add(i);
+        return labels;
+    }
+
+    /*
+     * Grafo orientato con le componenti fortemente connesse {0, 1, 2}, {3, 4}
+     * e {5}: 0 -> 1 -> 2 -> 0, 2 -> 3, 3 -> 4 -> 3, 1 -> 5.
+     */
+    private CompressedSparseRowGraph<Integer> createDirected() {
+        return new CompressedSparseRowGraph<Integer>(this.labels(6),
+                new int[] { 0, 1, 2, 2, 3, 4, 1 },
+                new int[] { 1, 2, 0, 3, 4, 3, 5 }, null, true);
+    }
+
+    /*
+     * Grafo orientato casuale con n nodi e m archi distinti, aciclico se
+     * richiesto (archi solo da indici minori a indici maggiori di una
+     * permutazione casuale).
+     */
+    private CompressedSparseRowGraph<Integer> randomDirected(Random random,
+            int n, int m, boolean acyclic) {
+        int[] permutation = new int[n];
+        for (int i = 0; i < n; i++)
+            permutation[i] = i;
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int t = permutation[i];
+            permutation[i] = permutation[j];
+            permutation[j] = t;
+        }
+        boolean[] used = new boolean[n * n];
+        int[] sources = new int[m];
+        int[] targets = new int[m];
+        for (int e = 0; e < m;) {
+            int u = random.nextInt(n);
+            int v = random.nextInt(n);
+            if (acyclic) {
+                if (u == v)
+                    continue;
+                int low = Math.min(u, v);
+                int high = Math.max(u, v);
+                u = permutation[low];
+                v = permutation[high];
+            }
+            if (used[u * n + v])
+                continue;
+            used[u * n + v] = true;
+            sources[e] = u;
+            targets[e++] = v;
+        }
+        return new CompressedSparseRowGraph<Integer>(this.labels(n), sources,
+                targets, null, true);
+    }
+
+    /*
+     * Matrice di raggiungibilità calcolata con una visita per ogni nodo.
+     */
+    private boolean[][] reachability(CompressedSparseRowGraph<Integer> g) {
+        int n = g.nodeCount();
+        boolean[][] reach = new boolean[n][];
+        for (int s = 0; s < n; s++) {
+            IndexedBFSVisitor<Integer> visitor = new IndexedBFSVisitor<Integer>(
+                    g);
+            visitor.BFSVisit(s);
+            reach[s] = new boolean[n];
+            for (int t = 0; t < n; t++)
+                reach[s][t] = visitor.getDistance(t) != -1;
+        }
+        return reach;
+    }
+
+    @Test
+    final void testConnectedComponents() {
+        Graph<String> source = new AdjacencyMatrixUndirectedGraph<String>();
+        for (String label : new String[] { "a", "b", "c", "d", "e", "f" })
+            source.addNode(label);
+        source.addEdge("a", "c");
+        source.addEdge("b", "e");
+        source.addEdge("c", "d");
+        source.addEdge("f", "f");
+        CompressedSparseRowGraph<String> g = new CompressedSparseRowGraph<String>(
+                source);
+        int[] components = new GraphComponents<String>(g)
+                .connectedComponents();
+        int[] expected = new int[6];
+        expected[g.getNodeIndexOf("a")] = 0;
+        expected[g.getNodeIndexOf("c")] = 0;
+        expected[g.getNodeIndexOf("d")] = 0;
+        expected[g.getNodeIndexOf("b")] = 1;
+        expected[g.getNodeIndexOf("e")] = 1;
+        expected[g.getNodeIndexOf("f")] = 2;
+        assertArrayEquals(expected, components);
+        // Nel caso orientato si ottengono le componenti debolmente connesse
+        assertArrayEquals(new int[] { 0, 0, 0, 0, 0, 0 },
+                new GraphComponents<Integer>(this.createDirected())
+                        .connectedComponents());
+    }
+
+    @Test
+    final void testConnectedComponentsParallel() {
+        Random random = new Random(31);
+        int n = 20000;
+        // Catene 0 - 2 - 4 ... e 1 - 3 - 5 ... mescolate tra i thread
+        int[] sources = new int[n - 2];
+        int[] targets = new int[n - 2];
+        for (int i = 0; i < n - 2; i++) {
+            sources[i] = i;
+            targets[i] = i + 2;
+        }
+        for (int i = n - 3; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int t = sources[i];
+            sources[i] = sources[j];
+            sources[j] = t;
+            targets[j] = sources[j] + 2;
+            targets[i] = sources[i] + 2;
+        }
+        CompressedSparseRowGraph<Integer> g = new CompressedSparseRowGraph<Integer>(
+                this.labels(n), sources, targets, null, false);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            int[] components = new GraphComponents<Integer>(g, pool)
+                    .connectedComponents();
+            for (int i = 0; i < n; i++)
+                assertEquals(i % 2, components[i]);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    final void testStronglyConnectedComponents() {
+        int[] components = new GraphComponents<Integer>(this.createDirected())
+                .stronglyConnectedComponents();
+        assertEquals(components[0], components[1]);
+        assertEquals(components[0], components[2]);
+        assertEquals(components[3], components[4]);
+        assertNotEquals(components[0], components[3]);
+        assertNotEquals(components[0], components[5]);
+        assertNotEquals(components[3], components[5]);
+        // Numerazione topologica: {0, 1, 2} precede le altre due, che non
+        // sono collegate tra loro
+        assertEquals(0, components[0]);
+        assertEquals(3, components[3] + components[5]);
+    }
+
+    @Test
+    final void testStronglyConnectedComponentsRandom() {
+        Random random = new Random(37);
+        for (int round = 0; round < 5; round++) {
+            CompressedSparseRowGraph<Integer> g = this.randomDirected(random,
+                    150, 200, false);
+            int[] components = new GraphComponents<Integer>(g)
+                    .stronglyConnectedComponents();
+            boolean[][] reach = this.reachability(g);
+            for (int i = 0; i < g.nodeCount(); i++)
+                for (int j = 0; j < g.nodeCount(); j++)
+                    assertEquals(reach[i][j] && reach[j][i],
+                            components[i] == components[j]);
+            // Gli archi non tornano mai a una componente precedente
+            for (int u = 0; u < g.nodeCount(); u++)
+                for (int k = g.getRowStart(u); k < g.getRowEnd(u); k++)
+                    assertTrue(components[u] <= components[g.getTargetAt(k)]);
+        }
+    }
+
+    @Test
+    final void testLongPath() {
+        // Un cammino di 100000 nodi chiuso in un ciclo: una DFS ricorsiva
+        // esaurirebbe lo stack
+        int n = 100000;
+        int[] sources = new int[n];
+        int[] targets = new int[n];
+        for (int i = 0; i < n; i++) {
+            sources[i] = i;
+            targets[i] = (i + 1) % n;
+        }
+        CompressedSparseRowGraph<Integer> cycle = new CompressedSparseRowGraph<Integer>(
+                this.labels(n), sources, targets, null, true);
+        int[] components = new GraphComponents<Integer>(cycle)
+                .stronglyConnectedComponents();
+        for (int i = 0; i < n; i++)
+            assertEquals(0, components[i]);
+        CompressedSparseRowGraph<Integer> path = new CompressedSparseRowGraph<Integer>(
+                this.labels(n), Arrays.copyOf(sources, n - 1),
+                Arrays.copyOf(targets, n - 1), null, true);
+        GraphComponents<Integer> alg = new GraphComponents<Integer>(path);
+        components = alg.stronglyConnectedComponents();
+        int[] order = alg.topologicalOrder();
+        for (int i = 0; i < n; i++) {
+            assertEquals(i, components[i]);
+            assertEquals(i, order[i]);
+        }
+    }
+
+    @Test
+    final void testTopologicalOrder() {
+        Random random = new Random(41);
+        for (int round = 0; round < 5; round++) {
+            CompressedSparseRowGraph<Integer> g = this.randomDirected(random,
+                    150, 400, true);
+            int[] order = new GraphComponents<Integer>(g).topologicalOrder();
+            int[] position = new int[g.nodeCount()];
+            Arrays.fill(position, -1);
+            for (int p = 0; p < order.length; p++) {
+                // Ogni nodo compare una sola volta
+                assertEquals(-1, position[order[p]]);
+                position[order[p]] = p;
+            }
+            for (int u = 0; u < g.nodeCount(); u++)
+                for (int k = g.getRowStart(u); k < g.getRowEnd(u); k++)
+                    assertTrue(position[u] < position[g.getTargetAt(k)]);
+        }
+    }
+
+    @Test
+    final void testExceptions() {
+        assertThrows(NullPointerException.class,
+                () -> new GraphComponents<Integer>(null));
+        assertThrows(NullPointerException.class,
+                () -> new GraphComponents<Integer>(this.createDirected(),
+                        null));
+        // Grafo con cicli
+        assertThrows(IllegalArgumentException.class,
+                () -> new GraphComponents<Integer>(this.createDirected())
+                        .topologicalOrder());
+        // Cappio
+        CompressedSparseRowGraph<Integer> loop = new CompressedSparseRowGraph<Integer>(
+                this.labels(2), new int[] { 0, 1 }, new int[] { 1, 1 }, null,
+                true);
+        assertThrows(IllegalArgumentException.class,
+                () -> new GraphComponents<Integer>(loop).topologicalOrder());
+        // Grafo non orientato
+        CompressedSparseRowGraph<Integer> undirected = new CompressedSparseRowGraph<Integer>(
+                this.labels(2), new int[] { 0 }, new int[] { 1 }, null, false);
+        assertThrows(IllegalArgumentException.class,
+                () -> new GraphComponents<Integer>(undirected)
+                        .topologicalOrder());
+    }
+
+}
@@ -0,0 +1,202 @@
+package it.unicam.cs.asdl2324.mp2;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+//ATTENZIONE: è vietato includere import a pacchetti che non siano della Java SE
+
+/**
+ * Mantiene una foresta di copertura minima di un grafo non orientato e pesato
+ * a cui vengono aggiunti archi uno alla volta, senza ricalcolarla da capo ad
+ * ogni inserimento.
+ *
+ * L'aggiornamento si basa sulla proprietà del ciclo: quando arriva un nuovo
+ * arco (u, v), se u e v sono in alberi diversi della foresta l'arco viene
+ * aggiunto; altrimenti l'arco chiude un ciclo con il cammino da u a v nella
+ * foresta e, se è più leggero dell'arco più pesante di quel cammino, prende il
+ * suo posto, altrimenti viene scartato. Il cammino viene cercato con una
+ * visita del solo albero che contiene u, per cui ogni inserimento costa O(n),
+ * dove n è il numero di nodi, invece di O(m log m) come il ricalcolo con
+ * KruskalMST.
+ *
+ * La foresta contiene solo i nodi che sono estremi di qualche arco inserito.
+ *
+ * @author Template: Luca Tesei, Implementazione: collettiva
+ *
+ * @param <L>
+ *                tipo delle etichette dei nodi del grafo
+ *
+ */
+public class IncrementalMST<L> {
+
+    /*
+     * Per ogni nodo gli archi della foresta incidenti su di esso.
+     */
+    private final Map<GraphNode<L>, Set<GraphEdge<L>>> adjacency;
+
+    /*
+     * Gli archi della foresta.
+     */
+    private final Set<GraphEdge<L>> forest;
+
+    /*
+     * Somma dei pesi degli archi della foresta.
+     */
+    private double totalWeight;
+
+    /**
+     * Crea una foresta vuota.
+     */
+    public IncrementalMST() {
+        this.adjacency = new HashMap<GraphNode<L>, Set<GraphEdge<L>>>();
+        this.forest = new HashSet<GraphEdge<L>>();
+        this.totalWeight = 0;
+    }
+
+    /**
+     * Crea una foresta di copertura minima degli archi di un grafo esistente,
+     * calcolata con l'algoritmo di Kruskal, a cui si potranno aggiungere altri
+     * archi.
+     *
+     * @param g
+     *              un grafo non orientato, pesato, con pesi non negativi
+     * @throw NullPointerException se il grafo g è null
+     * @throw IllegalArgumentException se il grafo g è orientato, non pesato o
+     *        con pesi negativi
+     */
+    public IncrementalMST(Graph<L> g) {
+        this();
+        for (GraphEdge<L> edge : new KruskalMST<L>().computeMSP(g))
+            this.link(edge);
+    }
+
+    /**
+     * Inserisce un nuovo arco e aggiorna la foresta di copertura minima.
+     *
+     * @param edge
+     *                 l'arco da inserire, non orientato e con peso non
+     *                 negativo
+     * @return true se la foresta è cambiata, cioè se l'arco ne fa ora parte,
+     *         false se l'arco è stato scartato
+     * @throws NullPointerException
+     *                                      se l'arco è nullo
+     * @throws IllegalArgumentException
+     *                                      se l'arco è orientato, non pesato o
+     *                                      ha peso negativo
+     */
+    public boolean addEdge(GraphEdge<L> edge) {
+        if (edge == null)
+            throw new NullPointerException("Arco nullo!");
+        if (edge.isDirected())
+            throw new IllegalArgumentException("L'arco è orientato!");
+        if (!edge.hasWeight() || edge.getWeight() < 0)
+            throw new IllegalArgumentException(
+                    "L'arco non è pesato o ha peso negativo");
+        GraphNode<L> u = edge.getNode1();
+        GraphNode<L> v = edge.getNode2();
+        // Un cappio chiude sempre un ciclo con sé stesso
+        if (u.equals(v))
+            return false;
+        GraphEdge<L> heaviest = this.heaviestOnPath(u, v);
+        if (heaviest == null) {
+            // u e v sono in alberi diversi: l'arco li collega
+            this.link(edge);
+            return true;
+        }
+        if (edge.getWeight() >= heaviest.getWeight())
+            return false;
+        this.cut(heaviest);
+        this.link(edge);
+        return true;
+    }
+
+    /**
+     * Restituisce gli archi della foresta di copertura minima corrente.
+     *
+     * @return una vista non modificabile dell'insieme degli archi della
+     *         foresta
+     */
+    public Set<GraphEdge<L>> getForest() {
+        return Collections.unmodifiableSet(this.forest);
+    }
+
+    /**
+     * Restituisce il peso totale della foresta di copertura minima corrente.
+     *
+     * @return la somma dei pesi degli archi della foresta
+     */
+    public double getTotalWeight() {
+        return this.totalWeight;
+    }
+
+    /*
+     * Cerca il cammino da u a v nella foresta con una visita in ampiezza
+     * dell'albero di u e ne restituisce l'arco più pesante, null se u e v
+     * non sono nello stesso albero.
+     */
+    private GraphEdge<L> heaviestOnPath(GraphNode<L> u, GraphNode<L> v) {
+        if (!this.adjacency.containsKey(u) || !this.adjacency.containsKey(v))
+            return null;
+        // Per ogni nodo raggiunto l'arco da cui è stato raggiunto
+        Map<GraphNode<L>, GraphEdge<L>> reachedBy = new HashMap<GraphNode<L>, GraphEdge<L>>();
+        ArrayDeque<GraphNode<L>> queue = new ArrayDeque<GraphNode<L>>();
+        reachedBy.put(u, null);
+        queue.add(u);
+        while (!queue.isEmpty() && !reachedBy.containsKey(v)) {
+            GraphNode<L> x = queue.poll();
+            for (GraphEdge<L> e : this.adjacency.get(x)) {
+                GraphNode<L> y = x.equals(e.getNode1()) ? e.getNode2()
+                        : e.getNode1();
+                if (!reachedBy.containsKey(y)) {
+                    reachedBy.put(y, e);
+                    queue.add(y);
+                }
+            }
+        }
+        if (!reachedBy.containsKey(v))
+            return null;
+        GraphEdge<L> heaviest = null;
+        GraphNode<L> x = v;
+        while (!x.equals(u)) {
+            GraphEdge<L> e = reachedBy.get(x);
+            if (heaviest == null || e.getWeight() > heaviest.getWeight())
+                heaviest = e;
+            x = x.equals(e.getNode1()) ? e.getNode2() : e.getNode1();
+        }
+        return heaviest;
+    }
+
+    /*
+     * Aggiunge un arco alla foresta.
+     */
+    private void link(GraphEdge<L> edge) {
+        this.incidentOf(edge.getNode1()).add(edge);
+        this.incidentOf(edge.getNode2()).add(edge);
+        this.forest.add(edge);
+        this.totalWeight += edge.getWeight();
+    }
+
+    /*
+     * Toglie un arco dalla foresta.
+     */
+    private void cut(GraphEdge<L> edge) {
+        this.adjacency.get(edge.getNode1()).remove(edge);
+        this.adjacency.get(edge.getNode2()).remove(edge);
+        this.forest.remove(edge);
+        this.totalWeight -= edge.getWeight();
+    }
+
+    private Set<GraphEdge<L>> incidentOf(GraphNode<L> node) {
+        Set<GraphEdge<L>> incident = this.adjacency.get(node);
+        if (incident == null) {
+            incident = new HashSet<GraphEdge<L>>();
+            this.adjacency.put(node, incident);
+        }
+        return incident;
+    }
+
+}
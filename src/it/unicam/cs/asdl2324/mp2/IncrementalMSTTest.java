@@ -0,0 +1,109 @@
+package it.unicam.cs.asdl2324.mp2;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Classe di test per i metodi della classe IncrementalMST.
+ *
+ * @author Template: Luca Tesei, Implementazione: collettiva
+ *
+ */
+class IncrementalMSTTest {
+
+    @Test
+    final void testAddEdge() {
+        GraphNode<String> a = new GraphNode<String>("a");
+        GraphNode<String> b = new GraphNode<String>("b");
+        GraphNode<String> c = new GraphNode<String>("c");
+        GraphNode<String> d = new GraphNode<String>("d");
+        GraphNode<String> e = new GraphNode<String>("e");
+        IncrementalMST<String> mst = new IncrementalMST<String>();
+        assertTrue(mst.getForest().isEmpty());
+        assertEquals(0, mst.getTotalWeight());
+        assertTrue(mst.addEdge(new GraphEdge<String>(a, c, false, 7)));
+        assertTrue(mst.addEdge(new GraphEdge<String>(a, d, false, 10)));
+        assertTrue(mst.addEdge(new GraphEdge<String>(a, e, false, 5)));
+        assertEquals(22, mst.getTotalWeight());
+        // Chiude il ciclo a, d, e e sostituisce l'arco (a, d)
+        assertTrue(mst.addEdge(new GraphEdge<String>(d, e, false, 2)));
+        assertFalse(mst.getForest()
+                .contains(new GraphEdge<String>(a, d, false, 10)));
+        // Cappio e arco più pesante del ciclo che chiude
+        assertFalse(mst.addEdge(new GraphEdge<String>(a, a, false, 0)));
+        assertFalse(mst.addEdge(new GraphEdge<String>(c, d, false, 8)));
+        assertTrue(mst.addEdge(new GraphEdge<String>(c, d, false, 4)));
+        assertTrue(mst.addEdge(new GraphEdge<String>(b, c, false, 3)));
+        assertTrue(mst.addEdge(new GraphEdge<String>(a, b, false, 1)));
+        Set<GraphEdge<String>> result = new HashSet<GraphEdge<String>>();
+        result.add(new GraphEdge<String>(a, b, false, 1));
+        result.add(new GraphEdge<String>(d, e, false, 2));
+        result.add(new GraphEdge<String>(b, c, false, 3));
+        result.add(new GraphEdge<String>(c, d, false, 4));
+        assertEquals(result, mst.getForest());
+        assertEquals(10, mst.getTotalWeight());
+        // Un arco più leggero tra gli stessi nodi prende il posto del vecchio
+        assertTrue(mst.addEdge(new GraphEdge<String>(c, d, false, 0.5)));
+        assertEquals(6.5, mst.getTotalWeight());
+        assertEquals(4, mst.getForest().size());
+    }
+
+    @Test
+    final void testSameWeightAsKruskal() {
+        Random random = new Random(3);
+        int n = 40;
+        Graph<Integer> gr = new AdjacencyMatrixUndirectedGraph<Integer>();
+        for (int i = 0; i < n; i++)
+            gr.addNode(i);
+        // Si parte dagli archi già presenti nel grafo
+        for (int k = 0; k < n; k++)
+            gr.addWeightedEdge(random.nextInt(n), random.nextInt(n),
+                    random.nextInt(50));
+        IncrementalMST<Integer> mst = new IncrementalMST<Integer>(gr);
+        KruskalMST<Integer> kruskal = new KruskalMST<Integer>();
+        for (int k = 0; k < 300; k++) {
+            int i = random.nextInt(n);
+            int j = random.nextInt(n);
+            if (gr.getEdge(i, j) != null)
+                continue;
+            gr.addWeightedEdge(i, j, random.nextInt(50));
+            mst.addEdge(gr.getEdge(i, j));
+            Set<GraphEdge<Integer>> tree = kruskal.computeMSP(gr);
+            double weight = 0;
+            for (GraphEdge<Integer> edge : tree)
+                weight += edge.getWeight();
+            assertEquals(tree.size(), mst.getForest().size());
+            assertEquals(weight, mst.getTotalWeight());
+        }
+    }
+
+    @Test
+    final void exceptionsTest() {
+        IncrementalMST<String> mst = new IncrementalMST<String>();
+        GraphNode<String> a = new GraphNode<String>("a");
+        GraphNode<String> b = new GraphNode<String>("b");
+        assertThrows(NullPointerException.class, () -> {
+            mst.addEdge(null);
+        });
+        assertThrows(NullPointerException.class, () -> {
+            new IncrementalMST<String>(null);
+        });
+        assertThrows(IllegalArgumentException.class, () -> {
+            mst.addEdge(new GraphEdge<String>(a, b, true, 1));
+        });
+        assertThrows(IllegalArgumentException.class, () -> {
+            mst.addEdge(new GraphEdge<String>(a, b, false));
+        });
+        assertThrows(IllegalArgumentException.class, () -> {
+            mst.addEdge(new GraphEdge<String>(a, b, false, -1));
+        });
+        assertThrows(UnsupportedOperationException.class, () -> {
+            mst.getForest().clear();
+        });
+    }
+}
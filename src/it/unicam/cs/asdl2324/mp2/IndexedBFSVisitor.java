@@ -0,0 +1,173 @@
+package it.unicam.cs.asdl2324.mp2;
+
+//ATTENZIONE: è vietato includere import a pacchetti che non siano della Java SE
+
+/**
+ * Classe che fornisce lo schema generico di visita Breadth-First di un grafo
+ * in formato CSR, lavorando sugli indici dei nodi invece che sugli oggetti
+ * GraphNode.
+ *
+ * Lo stato della visita (colore, distanza e predecessore di ogni nodo) è
+ * memorizzato in un TraversalContext, che fornisce anche l'array di interi
+ * usato come coda: ogni nodo vi entra al più una volta. Durante una visita non
+ * viene creato nessun oggetto e gli oggetti GraphNode del grafo non vengono
+ * modificati. Il visitatore ha un proprio contesto, riusato da tutte le visite
+ * che non ne specificano uno; passando un contesto diverso per ogni visita lo
+ * stesso visitatore può eseguire più visite contemporaneamente da thread
+ * diversi.
+ *
+ * Ogni volta che un nodo viene visitato viene eseguito il metodo visitNode
+ * sull'indice del nodo. In questa classe il metodo non fa niente, basta creare
+ * una sottoclasse e ridefinire il metodo per eseguire azioni particolari.
+ *
+ * @author Template: Luca Tesei, Implementazione: collettiva
+ *
+ * @param <L>
+ *                le etichette dei nodi del grafo
+ */
+public class IndexedBFSVisitor<L> {
+
+    /*
+     * Il grafo da visitare.
+     */
+    private final CompressedSparseRowGraph<L> graph;
+
+    /*
+     * Contesto usato dalle visite che non ne specificano uno.
+     */
+    private final TraversalContext context;
+
+    /**
+     * Crea un visitatore per un grafo in formato CSR.
+     *
+     * @param graph
+     *                  il grafo da visitare
+     * @throws NullPointerException
+     *                                  se il grafo è nullo
+     */
+    public IndexedBFSVisitor(CompressedSparseRowGraph<L> graph) {
+        if (graph == null)
+            throw new NullPointerException("Grafo nullo!");
+        this.graph = graph;
+        this.context = new TraversalContext(graph);
+    }
+
+    /**
+     * Esegue la visita in ampiezza del grafo a partire da un nodo sorgente.
+     * Calcola per ogni nodo la distanza intera dalla sorgente e il predecessore
+     * in un albero di copertura dei nodi raggiungibili. Ogni volta che un nodo
+     * passa da grigio a nero viene eseguito il metodo visitNode sul suo
+     * indice.
+     *
+     * @param source
+     *                   l'indice del nodo sorgente
+     * @throws IndexOutOfBoundsException
+     *                                       se l'indice della sorgente non è
+     *                                       valido
+     */
+    public void BFSVisit(int source) {
+        this.BFSVisit(source, this.context);
+    }
+
+    /**
+     * Esegue la visita in ampiezza del grafo a partire da un nodo sorgente,
+     * scrivendo i risultati nel contesto passato invece che in quello del
+     * visitatore. Al termine i nodi raggiunti sono neri e hanno distanza e
+     * predecessore calcolati, gli altri sono nello stato iniziale del
+     * contesto.
+     *
+     * @param source
+     *                    l'indice del nodo sorgente
+     * @param context
+     *                    il contesto in cui memorizzare lo stato della visita
+     * @throws NullPointerException
+     *                                       se il contesto è nullo
+     * @throws IllegalArgumentException
+     *                                       se il contesto non ha lo stesso
+     *                                       numero di nodi del grafo
+     * @throws IndexOutOfBoundsException
+     *                                       se l'indice della sorgente non è
+     *                                       valido
+     */
+    public void BFSVisit(int source, TraversalContext context) {
+        if (context == null)
+            throw new NullPointerException("Contesto nullo!");
+        if (context.nodeCount() != this.graph.nodeCount())
+            throw new IllegalArgumentException(
+                    "Il contesto non ha lo stesso numero di nodi del grafo");
+        if (source < 0 || source >= context.nodeCount())
+            throw new IndexOutOfBoundsException("Indice non valido!");
+        context.reset();
+        int[] distance = context.integerDistance;
+        int[] previous = context.previous;
+        int[] color = context.color;
+        int[] queue = context.queue;
+        int head = 0;
+        int tail = 0;
+        distance[source] = 0;
+        color[source] = GraphNode.COLOR_GREY;
+        queue[tail++] = source;
+        while (head < tail) {
+            int u = queue[head++];
+            int d = distance[u] + 1;
+            int end = this.graph.getRowEnd(u);
+            for (int k = this.graph.getRowStart(u); k < end; k++) {
+                int v = this.graph.getTargetAt(k);
+                if (color[v] == GraphNode.COLOR_WHITE) {
+                    color[v] = GraphNode.COLOR_GREY;
+                    distance[v] = d;
+                    previous[v] = u;
+                    queue[tail++] = v;
+                }
+            }
+            color[u] = GraphNode.COLOR_BLACK;
+            this.visitNode(u);
+        }
+    }
+
+    /**
+     * Restituisce la distanza dalla sorgente calcolata dall'ultima visita che
+     * ha usato il contesto del visitatore.
+     *
+     * @param i
+     *              l'indice di un nodo
+     * @return il numero minimo di archi dalla sorgente al nodo, -1 se il nodo
+     *         non è stato raggiunto
+     * @throws IndexOutOfBoundsException
+     *                                       se l'indice non è valido
+     */
+    public int getDistance(int i) {
+        return this.context.getIntegerDistance(i);
+    }
+
+    /**
+     * Restituisce il predecessore calcolato dall'ultima visita che ha usato il
+     * contesto del visitatore.
+     *
+     * @param i
+     *              l'indice di un nodo
+     * @return l'indice del predecessore del nodo nell'albero della visita, -1
+     *         se il nodo è la sorgente o non è stato raggiunto
+     * @throws IndexOutOfBoundsException
+     *                                       se l'indice non è valido
+     */
+    public int getPrevious(int i) {
+        return this.context.getPrevious(i);
+    }
+
+    /**
+     * Questo metodo, che di default non fa niente, viene chiamato su tutti i
+     * nodi visitati durante la BFS quando i nodi passano da grigio a nero.
+     * Ridefinire il metodo in una sottoclasse per effettuare azioni specifiche.
+     *
+     * @param i
+     *              l'indice del nodo visitato
+     */
+    public void visitNode(int i) {
+        /*
+         * In questa classe questo metodo non fa niente. Esso può essere
+         * ridefinito in una sottoclasse per fare azioni particolari.
+         */
+    }
+
+}
@@ -0,0 +1,125 @@
+package it.unicam.cs.asdl2324.mp2;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Classe di test per la classe IndexedBFSVisitor.
+ *
+ * @author Template: Luca Tesei, Implementazione: collettiva
+ */
+class IndexedBFSVisitorTest {
+
+    /*
+     * Grafo non orientato con nodi 0..5: il nodo 5 è isolato.
+     */
+    private CompressedSparseRowGraph<Integer> createGraph() {
+        Graph<Integer> g = new AdjacencyMatrixUndirectedGraph<Integer>();
+        for (int i = 0; i < 6; i++)
+            g.addNode(i);
+        g.addEdge(0, 1);
+        g.addEdge(0, 2);
+        g.addEdge(1, 3);
+        g.addEdge(2, 3);
+        g.addEdge(3, 4);
+        return new CompressedSparseRowGraph<Integer>(g);
+    }
+
+    @Test
+    final void testBFSVisit() {
+        List<Integer> visited = new ArrayList<Integer>();
+        IndexedBFSVisitor<Integer> v = new IndexedBFSVisitor<Integer>(
+                this.createGraph()) {
+            @Override
+            public void visitNode(int i) {
+                visited.add(i);
+            }
+        };
+        v.BFSVisit(0);
+        assertEquals(0, v.getDistance(0));
+        assertEquals(1, v.getDistance(1));
+        assertEquals(1, v.getDistance(2));
+        assertEquals(2, v.getDistance(3));
+        assertEquals(3, v.getDistance(4));
+        assertEquals(-1, v.getDistance(5));
+        assertEquals(-1, v.getPrevious(0));
+        assertEquals(0, v.getPrevious(1));
+        assertEquals(3, v.getPrevious(4));
+        assertEquals(-1, v.getPrevious(5));
+        assertEquals(5, visited.size());
+        assertEquals(Integer.valueOf(0), visited.get(0));
+        assertEquals(Integer.valueOf(4), visited.get(4));
+        // Una seconda visita riparte da zero
+        visited.clear();
+        v.BFSVisit(4);
+        assertEquals(0, v.getDistance(4));
+        assertEquals(3, v.getDistance(0));
+        assertEquals(5, visited.size());
+        v.BFSVisit(5);
+        assertEquals(0, v.getDistance(5));
+        assertEquals(-1, v.getDistance(0));
+    }
+
+    @Test
+    final void testLongPath() {
+        int n = 10000;
+        Graph<Integer> g = new BitsetAdjacencyMatrixUndirectedGraph<Integer>();
+        for (int i = 0; i < n; i++)
+            g.addNode(i);
+        for (int i = 1; i < n; i++)
+            g.addEdge(i - 1, i);
+        IndexedBFSVisitor<Integer> v = new IndexedBFSVisitor<Integer>(
+                new CompressedSparseRowGraph<Integer>(g));
+        v.BFSVisit(0);
+        assertEquals(n - 1, v.getDistance(n - 1));
+        assertEquals(n - 2, v.getPrevious(n - 1));
+    }
+
+    @Test
+    final void testConcurrentVisits() throws Exception {
+        // Lo stesso visitatore esegue una visita per ogni sorgente da più
+        // thread, ognuna con il proprio contesto
+        CompressedSparseRowGraph<Integer> g = this.createGraph();
+        IndexedBFSVisitor<Integer> v = new IndexedBFSVisitor<Integer>(g);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<TraversalContext>> results = new ArrayList<Future<TraversalContext>>();
+        for (int k = 0; k < 60; k++) {
+            int s = k % 6;
+            results.add(executor.submit(() -> {
+                TraversalContext c = new TraversalContext(g);
+                v.BFSVisit(s, c);
+                return c;
+            }));
+        }
+        for (int k = 0; k < 60; k++) {
+            TraversalContext c = results.get(k).get();
+            v.BFSVisit(k % 6);
+            for (int i = 0; i < 6; i++)
+                assertEquals(v.getDistance(i), c.getIntegerDistance(i));
+        }
+        executor.shutdown();
+        // Le visite non toccano i nodi del grafo
+        assertEquals(GraphNode.COLOR_WHITE, g.getNode(0).getColor());
+        assertThrows(NullPointerException.class, () -> v.BFSVisit(0, null));
+        assertThrows(IllegalArgumentException.class,
+                () -> v.BFSVisit(0, new TraversalContext(2)));
+    }
+
+    @Test
+    final void testExceptions() {
+        assertThrows(NullPointerException.class,
+                () -> new IndexedBFSVisitor<Integer>(null));
+        IndexedBFSVisitor<Integer> v = new IndexedBFSVisitor<Integer>(
+                this.createGraph());
+        assertThrows(IndexOutOfBoundsException.class, () -> v.BFSVisit(6));
+        assertThrows(IndexOutOfBoundsException.class, () -> v.BFSVisit(-1));
+    }
+
+}
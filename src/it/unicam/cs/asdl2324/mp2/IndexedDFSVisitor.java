@@ -0,0 +1,207 @@
+package it.unicam.cs.asdl2324.mp2;
+
+//ATTENZIONE: è vietato includere import a pacchetti che non siano della Java SE
+
+/**
+ * Classe che fornisce lo schema generico di visita Depth-First di un grafo in
+ * formato CSR, lavorando sugli indici dei nodi invece che sugli oggetti
+ * GraphNode.
+ *
+ * La visita è iterativa: invece della ricorsione usa una pila esplicita che
+ * contiene, per ogni nodo grigio, l'indice del nodo e la posizione nella sua
+ * riga CSR del prossimo arco da esaminare. La profondità della visita è quindi
+ * limitata solo dalla dimensione degli array e non dallo stack della JVM. I
+ * colori, i tempi di scoperta e di fine visita e i predecessori sono
+ * memorizzati in un TraversalContext, che fornisce anche gli array di interi
+ * usati per la pila: durante una visita non viene creato nessun oggetto e gli
+ * oggetti GraphNode del grafo non vengono modificati. Il visitatore ha un
+ * proprio contesto, riusato da tutte le visite che non ne specificano uno;
+ * passando un contesto diverso per ogni visita lo stesso visitatore può
+ * eseguire più visite contemporaneamente da thread diversi.
+ *
+ * Ogni volta che un nodo passa da grigio a nero viene eseguito il metodo
+ * visitNode sull'indice del nodo. In questa classe il metodo non fa niente,
+ * basta creare una sottoclasse e ridefinire il metodo per eseguire azioni
+ * particolari.
+ *
+ * @author Template: Luca Tesei, Implementazione: collettiva
+ *
+ * @param <L>
+ *                le etichette dei nodi del grafo
+ */
+public class IndexedDFSVisitor<L> {
+
+    /*
+     * Il grafo da visitare.
+     */
+    private final CompressedSparseRowGraph<L> graph;
+
+    /*
+     * Contesto usato dalle visite che non ne specificano uno.
+     */
+    private final TraversalContext context;
+
+    // Tempo finale dell'ultima visita che ha usato il contesto del
+    // visitatore, protected per permettere il test JUnit
+    protected int time;
+
+    /**
+     * Crea un visitatore per un grafo in formato CSR.
+     *
+     * @param graph
+     *                  il grafo da visitare
+     * @throws NullPointerException
+     *                                  se il grafo è nullo
+     */
+    public IndexedDFSVisitor(CompressedSparseRowGraph<L> graph) {
+        if (graph == null)
+            throw new NullPointerException("Grafo nullo!");
+        this.graph = graph;
+        this.context = new TraversalContext(graph);
+    }
+
+    /**
+     * Esegue la visita in profondità dell'intero grafo, partendo dai nodi
+     * ancora bianchi in ordine di indice, e calcola la foresta DFS. Ogni
+     * scoperta e ogni fine visita fanno avanzare il tempo di uno.
+     */
+    public void DFSVisit() {
+        this.time = this.visit(this.context);
+    }
+
+    /**
+     * Esegue la visita in profondità dell'intero grafo come DFSVisit(),
+     * scrivendo i risultati nel contesto passato invece che in quello del
+     * visitatore.
+     *
+     * @param context
+     *                    il contesto in cui memorizzare lo stato della visita
+     * @throws NullPointerException
+     *                                      se il contesto è nullo
+     * @throws IllegalArgumentException
+     *                                      se il contesto non ha lo stesso
+     *                                      numero di nodi del grafo
+     */
+    public void DFSVisit(TraversalContext context) {
+        this.visit(context);
+    }
+
+    /*
+     * Esegue la visita nel contesto dato e restituisce il tempo finale.
+     */
+    private int visit(TraversalContext context) {
+        if (context == null)
+            throw new NullPointerException("Contesto nullo!");
+        if (context.nodeCount() != this.graph.nodeCount())
+            throw new IllegalArgumentException(
+                    "Il contesto non ha lo stesso numero di nodi del grafo");
+        context.reset();
+        int time = 0;
+        for (int s = 0; s < context.nodeCount(); s++)
+            if (context.color[s] == GraphNode.COLOR_WHITE)
+                time = this.visitFrom(s, context, time);
+        return time;
+    }
+
+    /*
+     * Visita l'albero DFS con radice nel nodo bianco s a partire dal tempo
+     * dato e restituisce il tempo alla fine della visita.
+     */
+    private int visitFrom(int s, TraversalContext context, int time) {
+        int[] color = context.color;
+        int[] enteringTime = context.enteringTime;
+        int[] exitingTime = context.exitingTime;
+        int[] previous = context.previous;
+        int[] stack = context.queue;
+        int[] cursor = context.cursor;
+        int top = 0;
+        color[s] = GraphNode.COLOR_GREY;
+        enteringTime[s] = ++time;
+        stack[top] = s;
+        cursor[top] = this.graph.getRowStart(s);
+        while (top >= 0) {
+            int u = stack[top];
+            int end = this.graph.getRowEnd(u);
+            int k = cursor[top];
+            // Cerca il prossimo vicino bianco di u
+            while (k < end && color[this.graph.getTargetAt(k)] != GraphNode.COLOR_WHITE)
+                k++;
+            if (k < end) {
+                int v = this.graph.getTargetAt(k);
+                cursor[top] = k + 1;
+                color[v] = GraphNode.COLOR_GREY;
+                enteringTime[v] = ++time;
+                previous[v] = u;
+                top++;
+                stack[top] = v;
+                cursor[top] = this.graph.getRowStart(v);
+            } else {
+                color[u] = GraphNode.COLOR_BLACK;
+                exitingTime[u] = ++time;
+                top--;
+                this.visitNode(u);
+            }
+        }
+        return time;
+    }
+
+    /**
+     * Restituisce il tempo di scoperta calcolato dall'ultima visita che ha
+     * usato il contesto del visitatore.
+     *
+     * @param i
+     *              l'indice di un nodo
+     * @return il tempo di scoperta del nodo
+     * @throws IndexOutOfBoundsException
+     *                                       se l'indice non è valido
+     */
+    public int getEnteringTime(int i) {
+        return this.context.getEnteringTime(i);
+    }
+
+    /**
+     * Restituisce il tempo di fine visita calcolato dall'ultima visita che ha
+     * usato il contesto del visitatore.
+     *
+     * @param i
+     *              l'indice di un nodo
+     * @return il tempo di fine visita del nodo
+     * @throws IndexOutOfBoundsException
+     *                                       se l'indice non è valido
+     */
+    public int getExitingTime(int i) {
+        return this.context.getExitingTime(i);
+    }
+
+    /**
+     * Restituisce il predecessore calcolato dall'ultima visita che ha usato il
+     * contesto del visitatore.
+     *
+     * @param i
+     *              l'indice di un nodo
+     * @return l'indice del predecessore del nodo nella foresta DFS, -1 se il
+     *         nodo è la radice di un albero
+     * @throws IndexOutOfBoundsException
+     *                                       se l'indice non è valido
+     */
+    public int getPrevious(int i) {
+        return this.context.getPrevious(i);
+    }
+
+    /**
+     * Questo metodo, che di default non fa niente, viene chiamato su tutti i
+     * nodi visitati durante la DFS nel momento in cui il colore passa da grigio
+     * a nero. Ridefinire il metodo in una sottoclasse per effettuare azioni
+     * specifiche.
+     *
+     * @param i
+     *              l'indice del nodo visitato
+     */
+    public void visitNode(int i) {
+        /*
+         * In questa classe questo metodo non fa niente. Esso può essere
+         * ridefinito in una sottoclasse per fare azioni particolari.
+         */
+    }
+
+}
@@ -0,0 +1,105 @@
+package it.unicam.cs.asdl2324.mp2;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Classe di test per la classe IndexedDFSVisitor.
+ *
+ * @author Template: Luca Tesei, Implementazione: collettiva
+ */
+class IndexedDFSVisitorTest {
+
+    /*
+     * Grafo non orientato con nodi 0..5: il nodo 5 è isolato.
+     */
+    private CompressedSparseRowGraph<Integer> createGraph() {
+        Graph<Integer> g = new AdjacencyMatrixUndirectedGraph<Integer>();
+        for (int i = 0; i < 6; i++)
+            g.addNode(i);
+        g.addEdge(0, 1);
+        g.addEdge(0, 2);
+        g.addEdge(1, 3);
+        g.addEdge(2, 3);
+        g.addEdge(3, 4);
+        return new CompressedSparseRowGraph<Integer>(g);
+    }
+
+    @Test
+    final void testDFSVisit() {
+        List<Integer> finished = new ArrayList<Integer>();
+        IndexedDFSVisitor<Integer> v = new IndexedDFSVisitor<Integer>(
+                this.createGraph()) {
+            @Override
+            public void visitNode(int i) {
+                finished.add(i);
+            }
+        };
+        v.DFSVisit();
+        assertEquals(12, v.time);
+        // Le righe CSR sono ordinate per indice: 0, 1, 3, 2, poi 4, poi 5
+        assertEquals(1, v.getEnteringTime(0));
+        assertEquals(2, v.getEnteringTime(1));
+        assertEquals(3, v.getEnteringTime(3));
+        assertEquals(4, v.getEnteringTime(2));
+        assertEquals(5, v.getExitingTime(2));
+        assertEquals(6, v.getEnteringTime(4));
+        assertEquals(7, v.getExitingTime(4));
+        assertEquals(8, v.getExitingTime(3));
+        assertEquals(9, v.getExitingTime(1));
+        assertEquals(10, v.getExitingTime(0));
+        assertEquals(11, v.getEnteringTime(5));
+        assertEquals(12, v.getExitingTime(5));
+        assertEquals(-1, v.getPrevious(0));
+        assertEquals(3, v.getPrevious(2));
+        assertEquals(-1, v.getPrevious(5));
+        assertEquals(6, finished.size());
+        assertEquals(Integer.valueOf(2), finished.get(0));
+        assertEquals(Integer.valueOf(5), finished.get(5));
+        // Una seconda visita dà gli stessi tempi, anche in un altro contesto
+        v.DFSVisit();
+        assertEquals(10, v.getExitingTime(0));
+        TraversalContext c = new TraversalContext(6);
+        v.DFSVisit(c);
+        for (int i = 0; i < 6; i++) {
+            assertEquals(v.getEnteringTime(i), c.getEnteringTime(i));
+            assertEquals(v.getExitingTime(i), c.getExitingTime(i));
+            assertEquals(GraphNode.COLOR_BLACK, c.getColor(i));
+        }
+    }
+
+    @Test
+    final void testLongPath() {
+        // Un cammino così lungo farebbe traboccare lo stack con una visita
+        // ricorsiva sugli stack di piccole dimensioni
+        int n = 10000;
+        Graph<Integer> g = new BitsetAdjacencyMatrixUndirectedGraph<Integer>();
+        for (int i = 0; i < n; i++)
+            g.addNode(i);
+        for (int i = 1; i < n; i++)
+            g.addEdge(i - 1, i);
+        IndexedDFSVisitor<Integer> v = new IndexedDFSVisitor<Integer>(
+                new CompressedSparseRowGraph<Integer>(g));
+        v.DFSVisit();
+        assertEquals(n, v.getEnteringTime(n - 1));
+        assertEquals(n + 1, v.getExitingTime(n - 1));
+        assertEquals(2 * n, v.getExitingTime(0));
+        assertEquals(n - 2, v.getPrevious(n - 1));
+    }
+
+    @Test
+    final void testExceptions() {
+        assertThrows(NullPointerException.class,
+                () -> new IndexedDFSVisitor<Integer>(null));
+        IndexedDFSVisitor<Integer> v = new IndexedDFSVisitor<Integer>(
+                this.createGraph());
+        assertThrows(NullPointerException.class, () -> v.DFSVisit(null));
+        assertThrows(IllegalArgumentException.class,
+                () -> v.DFSVisit(new TraversalContext(2)));
+    }
+
+}
@@ -1,29 +1,47 @@
 package it.unicam.cs.asdl2324.mp2;
 
-import java.util.ArrayList;
 import java.util.HashSet;
-import java.util.List;
 import java.util.Set;
 
 //ATTENZIONE: è vietato includere import a pacchetti che non siano della Java SE
 
 /**
- * 
+ *
  * Classe singoletto che implementa l'algoritmo di Kruskal per trovare un
  * Minimum Spanning Tree di un grafo non orientato, pesato e con pesi non
  * negativi. L'algoritmo implementato si avvale della classe
  * {@code ForestDisjointSets<GraphNode<L>>} per gestire una collezione di
  * insiemi disgiunti di nodi del grafo.
- * 
+ *
+ * Gli archi vengono ordinati per peso su un array di double, permutando
+ * insieme ad esso un array con gli indici degli archi: i confronti avvengono
+ * tra valori primitivi e non tra oggetti GraphEdge. Il quicksort usato
+ * sceglie il perno come mediano di tre elementi e separa gli archi con peso
+ * uguale al perno, per cui non degenera su liste già ordinate o con molti pesi
+ * uguali.
+ *
+ * È disponibile anche la variante Filter-Kruskal: invece di ordinare tutti gli
+ * archi, si separano gli archi più leggeri di un perno da quelli più pesanti,
+ * si risolve ricorsivamente il problema sugli archi leggeri e, prima di
+ * passare a quelli pesanti, si scartano quelli che collegano nodi già nella
+ * stessa componente. Sui grafi densi la maggior parte degli archi pesanti
+ * viene scartata senza essere mai ordinata.
+ *
  * @author Luca Tesei (template)
  * 		   Yacine Boussoufa yacine.boussoufa@studenti.unicam.it (implementazione)
- * 
+ *
  * @param <L>
  *                tipo delle etichette dei nodi del grafo
  *
  */
 public class KruskalMST<L> {
 
+    /*
+     * Numero di archi sotto il quale l'ordinamento usa l'insertion sort e
+     * Filter-Kruskal ordina gli archi invece di partizionarli.
+     */
+    private static final int THRESHOLD = 32;
+
     /*
      * Struttura dati per rappresentare gli insiemi disgiunti utilizzata
      * dall'algoritmo di Kruskal.
@@ -31,51 +49,62 @@ public class KruskalMST<L> {
     private ForestDisjointSets<GraphNode<L>> disjointSets;
 
     /*
-     * Metodo che effettua l'ordinamento attraverso il QuickSort
-     * in modo da ordinare gli archi
+     * Variante dell'algoritmo: true per Filter-Kruskal, false per l'algoritmo
+     * classico che ordina tutti gli archi.
      */
-    private void QuickSort(List<GraphEdge<L>> edges, int s, int p) {
-        if(s<p) {
-            int i=partition(edges,s,p);	//Effettuo la partizione
+    private final boolean filter;
 
-            //Chiamata ricorsiva
-            QuickSort(edges,s,i-1);
-            QuickSort(edges,i+1,p);
-        }
-    }
-    
-    /**
-     * Metodo per effettuare la Partition di lista di archi
-     * ordinandoli in base al loro peso
+    /*
+     * Archi del grafo durante il calcolo, nell'ordine di getEdges().
      */
-    private int partition(List<GraphEdge<L>> edges,int s,int p) {
-        GraphEdge<L> pivot=edges.get(p);
-        int i=s-1;
+    private GraphEdge<L>[] edges;
 
-        for(int j=s;j<p;j++) {
-            GraphEdge<L> jEdge=edges.get(j);
+    /*
+     * In posizione k il peso dell'arco edges[order[k]]: i due array vengono
+     * permutati insieme dall'ordinamento e dalle partizioni.
+     */
+    private double[] weights;
 
-            if(pivot.getWeight()>=jEdge.getWeight()) {
-                i++;
+    private int[] order;
 
-                GraphEdge<L> iEdge=edges.set(i,jEdge);
-                edges.set(j,iEdge);
-            }
-        }
+    /*
+     * Archi dell'albero trovati finora e numero di archi che completano
+     * l'albero.
+     */
+    private Set<GraphEdge<L>> tree;
+
+    private int treeSize;
 
-        GraphEdge<L> iEdge=edges.set(i+1,pivot);
-        edges.set(p,iEdge);
-        return i+1;
-    }
-    
     /**
      * Costruisce un calcolatore di un albero di copertura minimo che usa
      * l'algoritmo di Kruskal su un grafo non orientato e pesato.
      */
     public KruskalMST() {
-        this.disjointSets = new ForestDisjointSets<GraphNode<L>>();
-        
-        this.disjointSets=new ForestDisjointSets<GraphNode<L>>();	//Inizializzazione forest vuota
+        this(false);
+    }
+
+    /**
+     * Costruisce un calcolatore di un albero di copertura minimo che usa
+     * l'algoritmo di Kruskal o la sua variante Filter-Kruskal su un grafo non
+     * orientato e pesato.
+     *
+     * @param filter
+     *                   se true viene usata la variante Filter-Kruskal,
+     *                   altrimenti l'algoritmo classico
+     */
+    public KruskalMST(boolean filter) {
+        this.disjointSets = new ForestDisjointSets<GraphNode<L>>();	//Inizializzazione forest vuota
+        this.filter = filter;
+    }
+
+    /**
+     * Determina la variante dell'algoritmo usata da questo calcolatore.
+     *
+     * @return true se viene usata la variante Filter-Kruskal, false se viene
+     *         usato l'algoritmo classico
+     */
+    public boolean isFilter() {
+        return this.filter;
     }
 
     /**
@@ -83,7 +112,7 @@ public class KruskalMST<L> {
      * minimo in un grafo non orientato e pesato, con pesi degli archi non
      * negativi. L'albero restituito non è radicato, quindi è rappresentato
      * semplicemente con un sottoinsieme degli archi del grafo.
-     * 
+     *
      * @param g
      *              un grafo non orientato, pesato, con pesi non negativi
      * @return l'insieme degli archi del grafo g che costituiscono l'albero di
@@ -93,38 +122,176 @@ public class KruskalMST<L> {
      *        con pesi negativi
      */
     public Set<GraphEdge<L>> computeMSP(Graph<L> g) {
-        // TODO implementare
     	if(g==null)	//Se il grafo è nullo lancio un eccezione
     		throw new NullPointerException("Grafo nullo!");
     	else if(g.isDirected())	//Se il grafo non è orientato lancio un eccezione
     		throw new IllegalArgumentException("Il grafo è orientato!");
-        for(GraphEdge<L> edge:g.getEdges())	//Ciclo il grafo
+        Set<GraphEdge<L>> graphEdges=g.getEdges();
+        for(GraphEdge<L> edge:graphEdges)	//Ciclo il grafo
             if((!edge.hasWeight())||(edge.getWeight()<0))	//Se il grafo è pesato o con pesi negativi lancio un eccezione
                 throw new IllegalArgumentException("Il grafo non è pesato o con pesi negativi");
-        
+
         this.disjointSets=new ForestDisjointSets<GraphNode<L>>();	//Re-inizializzazione per evitare errore nel test MSP4
-        
+
         for(GraphNode<L> element:g.getNodes())	//Esamino gli archi
             this.disjointSets.makeSet(element);	//Creo element alberi, uno per ogni albero
-        
-        //SORT
-        ArrayList<GraphEdge<L>> edgesInAscendingOrder=new ArrayList<>(g.getEdges());	//Salvataggio degli edge
-        //sort(edgesInAscendingOrder,new SortCompare());	//Ordinamento degli Edge
-        QuickSort(edgesInAscendingOrder, 0, edgesInAscendingOrder.size() - 1);
-
-        
-        Set<GraphEdge<L>> tmp=new HashSet<>();	//Set di appoggio
-        
-        for(GraphEdge<L> element:edgesInAscendingOrder)	//Per ogni arco preso in ordine descrescente
-        	//Se le estremità appartengono allo stesso albero, l'arco viene scartato, altrimenti viene aggiunto
-        	//al set di appoggio
-            if(this.disjointSets.findSet(element.getNode1())==this.disjointSets.findSet(element.getNode2())) {}
-            else {
-            	tmp.add(element);
-                this.disjointSets.union(element.getNode1(),element.getNode2());
-            }
-        
+
+        //Copia degli archi e dei loro pesi negli array da ordinare
+        int m=graphEdges.size();
+        @SuppressWarnings("unchecked")
+        GraphEdge<L>[] edgeArray=(GraphEdge<L>[]) new GraphEdge<?>[m];
+        this.edges=edgeArray;
+        this.weights=new double[m];
+        this.order=new int[m];
+        int k=0;
+        for(GraphEdge<L> edge:graphEdges) {
+            this.edges[k]=edge;
+            this.weights[k]=edge.getWeight();
+            this.order[k]=k;
+            k++;
+        }
+
+        this.tree=new HashSet<>();	//Set di appoggio
+        this.treeSize=Math.max(g.nodeCount()-1,0);
+
+        if(this.filter)
+            filterKruskal(0,m);
+        else {
+            sort(0,m);
+            kruskal(0,m);
+        }
+
+        Set<GraphEdge<L>> tmp=this.tree;
+        //Libera la memoria usata durante il calcolo
+        this.edges=null;
+        this.weights=null;
+        this.order=null;
+        this.tree=null;
         return tmp;	//Ritorno il set di appoggio
     }
-    
+
+    /*
+     * Esamina in ordine gli archi nelle posizioni da lo a hi - 1, già ordinati
+     * per peso: se le estremità appartengono allo stesso albero l'arco viene
+     * scartato, altrimenti viene aggiunto all'albero. Si ferma quando l'albero
+     * è completo.
+     */
+    private void kruskal(int lo, int hi) {
+        for(int k=lo;k<hi&&this.tree.size()<this.treeSize;k++) {
+            GraphEdge<L> element=this.edges[this.order[k]];
+            GraphNode<L> r1=this.disjointSets.findSet(element.getNode1());
+            GraphNode<L> r2=this.disjointSets.findSet(element.getNode2());
+            if(r1!=r2) {
+                this.tree.add(element);
+                this.disjointSets.union(r1,r2);
+            }
+        }
+    }
+
+    /*
+     * Variante Filter-Kruskal sugli archi nelle posizioni da lo a hi - 1:
+     * tripartisce gli archi rispetto a un perno, risolve gli archi più
+     * leggeri, poi quelli con peso uguale al perno, poi quelli più pesanti
+     * dopo aver scartato quelli interni a una componente.
+     */
+    private void filterKruskal(int lo, int hi) {
+        if(this.tree.size()>=this.treeSize)
+            return;
+        if(hi-lo<=THRESHOLD) {
+            sort(lo,hi);
+            kruskal(lo,hi);
+            return;
+        }
+        int[] bounds=partition(lo,hi);
+        filterKruskal(lo,bounds[0]);
+        //Gli archi con peso uguale al perno non vanno ordinati
+        kruskal(bounds[0],bounds[1]);
+        filterKruskal(bounds[1],filter(bounds[1],hi));
+    }
+
+    /*
+     * Compatta all'inizio dell'intervallo da lo a hi - 1 gli archi le cui
+     * estremità stanno in componenti diverse e restituisce la fine della
+     * parte compattata.
+     */
+    private int filter(int lo, int hi) {
+        int j=lo;
+        for(int k=lo;k<hi;k++) {
+            GraphEdge<L> element=this.edges[this.order[k]];
+            if(this.disjointSets.findSet(element.getNode1())!=this.disjointSets.findSet(element.getNode2())) {
+                this.weights[j]=this.weights[k];
+                this.order[j]=this.order[k];
+                j++;
+            }
+        }
+        return j;
+    }
+
+    /*
+     * Ordina per peso crescente gli archi nelle posizioni da lo a hi - 1 con
+     * il quicksort a tre vie. La ricorsione avviene sulla parte più piccola,
+     * per cui la profondità è al più logaritmica.
+     */
+    private void sort(int lo, int hi) {
+        while(hi-lo>THRESHOLD) {
+            int[] bounds=partition(lo,hi);
+            if(bounds[0]-lo<hi-bounds[1]) {
+                sort(lo,bounds[0]);
+                lo=bounds[1];
+            } else {
+                sort(bounds[1],hi);
+                hi=bounds[0];
+            }
+        }
+        //Insertion sort sugli intervalli piccoli
+        for(int i=lo+1;i<hi;i++) {
+            double w=this.weights[i];
+            int e=this.order[i];
+            int j=i-1;
+            while(j>=lo&&this.weights[j]>w) {
+                this.weights[j+1]=this.weights[j];
+                this.order[j+1]=this.order[j];
+                j--;
+            }
+            this.weights[j+1]=w;
+            this.order[j+1]=e;
+        }
+    }
+
+    /*
+     * Partiziona gli archi nelle posizioni da lo a hi - 1 rispetto al mediano
+     * dei pesi del primo, del centrale e dell'ultimo arco. Restituisce gli
+     * indici {lt, gt}: gli archi in posizione minore di lt sono più leggeri
+     * del perno, quelli da lt a gt - 1 hanno lo stesso peso e quelli da gt in
+     * poi sono più pesanti.
+     */
+    private int[] partition(int lo, int hi) {
+        double a=this.weights[lo];
+        double b=this.weights[(lo+hi)>>>1];
+        double c=this.weights[hi-1];
+        double pivot=a<b?(b<c?b:(a<c?c:a)):(a<c?a:(b<c?c:b));
+        int lt=lo;
+        int i=lo;
+        int gt=hi;
+        while(i<gt) {
+            double w=this.weights[i];
+            if(w<pivot)
+                swap(lt++,i++);
+            else if(w>pivot)
+                swap(i,--gt);
+            else
+                i++;
+        }
+        return new int[] {lt,gt};
+    }
+
+    private void swap(int i, int j) {
+        double w=this.weights[i];
+        this.weights[i]=this.weights[j];
+        this.weights[j]=w;
+        int e=this.order[i];
+        this.order[i]=this.order[j];
+        this.order[j]=e;
+    }
+
 }
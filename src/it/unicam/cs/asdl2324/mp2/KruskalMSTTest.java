@@ -2,7 +2,9 @@ package it.unicam.cs.asdl2324.mp2;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.util.Arrays;
 import java.util.HashSet;
+import java.util.Random;
 import java.util.Set;
 
 import org.junit.jupiter.api.Test;
@@ -153,6 +155,101 @@ class KruskalMSTTest {
         assertTrue(alg.computeMSP(gr).equals(result));
     }
 
+    @Test
+    final void testComputeMSPFilter() {
+        Graph<String> gr = new AdjacencyMatrixUndirectedGraph<String>();
+        GraphNode<String> a = new GraphNode<String>("a");
+        gr.addNode(a);
+        GraphNode<String> b = new GraphNode<String>("b");
+        gr.addNode(b);
+        GraphNode<String> c = new GraphNode<String>("c");
+        gr.addNode(c);
+        GraphNode<String> d = new GraphNode<String>("d");
+        gr.addNode(d);
+        GraphNode<String> e = new GraphNode<String>("e");
+        gr.addNode(e);
+        gr.addEdge(new GraphEdge<String>(a, b, false, 1));
+        gr.addEdge(new GraphEdge<String>(a, c, false, 7));
+        gr.addEdge(new GraphEdge<String>(a, d, false, 10));
+        gr.addEdge(new GraphEdge<String>(a, e, false, 5));
+        gr.addEdge(new GraphEdge<String>(b, c, false, 3));
+        gr.addEdge(new GraphEdge<String>(c, d, false, 4));
+        gr.addEdge(new GraphEdge<String>(d, e, false, 2));
+        KruskalMST<String> alg = new KruskalMST<String>(true);
+        assertTrue(alg.isFilter());
+        assertFalse(new KruskalMST<String>().isFilter());
+        Set<GraphEdge<String>> result = new HashSet<GraphEdge<String>>();
+        result.add(new GraphEdge<String>(a, b, false, 1));
+        result.add(new GraphEdge<String>(d, e, false, 2));
+        result.add(new GraphEdge<String>(b, c, false, 3));
+        result.add(new GraphEdge<String>(c, d, false, 4));
+        assertTrue(alg.computeMSP(gr).equals(result));
+    }
+
+    @Test
+    final void testComputeMSPLargeGraphs() {
+        // Grafo denso con pesi interi ripetuti e grafo denso con tutti i pesi
+        // uguali: le due varianti devono trovare alberi del peso minimo,
+        // calcolato indipendentemente con l'algoritmo di Prim
+        Random random = new Random(5);
+        int n = 300;
+        Graph<Integer> repeated = new AdjacencyMatrixUndirectedGraph<Integer>();
+        Graph<Integer> equal = new AdjacencyMatrixUndirectedGraph<Integer>();
+        for (int i = 0; i < n; i++) {
+            repeated.addNode(i);
+            equal.addNode(i);
+        }
+        for (int i = 0; i < n; i++)
+            for (int j = i + 1; j < n; j++) {
+                repeated.addWeightedEdge(i, j, random.nextInt(10));
+                equal.addWeightedEdge(i, j, 1);
+            }
+        KruskalMST<Integer> classic = new KruskalMST<Integer>();
+        KruskalMST<Integer> filter = new KruskalMST<Integer>(true);
+        Set<GraphEdge<Integer>> t1 = classic.computeMSP(repeated);
+        Set<GraphEdge<Integer>> t2 = filter.computeMSP(repeated);
+        assertEquals(n - 1, t1.size());
+        assertEquals(n - 1, t2.size());
+        double w1 = 0;
+        for (GraphEdge<Integer> edge : t1)
+            w1 += edge.getWeight();
+        double w2 = 0;
+        for (GraphEdge<Integer> edge : t2)
+            w2 += edge.getWeight();
+        assertEquals(this.primWeight(repeated), w1);
+        assertEquals(this.primWeight(repeated), w2);
+        assertEquals(n - 1, classic.computeMSP(equal).size());
+        assertEquals(n - 1, filter.computeMSP(equal).size());
+    }
+
+    /*
+     * Peso di un albero di copertura minimo di un grafo connesso calcolato
+     * con l'algoritmo di Prim nella versione quadratica, senza code di
+     * priorità né ordinamenti.
+     */
+    private double primWeight(Graph<Integer> g) {
+        int n = g.nodeCount();
+        boolean[] inTree = new boolean[n];
+        double[] cost = new double[n];
+        Arrays.fill(cost, Double.POSITIVE_INFINITY);
+        cost[0] = 0;
+        double total = 0;
+        for (int step = 0; step < n; step++) {
+            int u = -1;
+            for (int v = 0; v < n; v++)
+                if (!inTree[v] && (u == -1 || cost[v] < cost[u]))
+                    u = v;
+            inTree[u] = true;
+            total += cost[u];
+            for (int v = 0; v < n; v++) {
+                GraphEdge<Integer> edge = g.getEdge(u, v);
+                if (!inTree[v] && edge != null && edge.getWeight() < cost[v])
+                    cost[v] = edge.getWeight();
+            }
+        }
+        return total;
+    }
+
     @Test
     final void exceptionsTest() {
         Graph<String> gr = new AdjacencyMatrixUndirectedGraph<String>();
@@ -0,0 +1,386 @@
+package it.unicam.cs.asdl2324.mp2;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+//ATTENZIONE: è vietato includere import a pacchetti che non siano della Java SE
+
+/**
+ * Classe che fornisce una visita Breadth-First parallela di un grafo in
+ * formato CSR, con lo stesso risultato della visita in ampiezza sequenziale:
+ * distanza intera dalla sorgente e predecessore di ogni nodo.
+ *
+ * La visita procede per livelli. La frontiera, cioè l'insieme dei nodi a
+ * distanza d dalla sorgente, è un insieme di bit con un bit per nodo, e ad
+ * ogni passo viene calcolata la frontiera successiva in uno di due modi:
+ * <ul>
+ * <li>dall'alto verso il basso: ogni nodo della frontiera esamina i suoi
+ * archi uscenti e reclama, con un'operazione di compare-and-set sul
+ * predecessore, i vicini non ancora raggiunti;</li>
+ * <li>dal basso verso l'alto: ogni nodo non ancora raggiunto esamina i suoi
+ * archi entranti e si ferma al primo vicino che sta nella frontiera.</li>
+ * </ul>
+ * Il primo modo conviene quando la frontiera è piccola, il secondo quando la
+ * frontiera contiene una parte consistente degli archi ancora da esaminare,
+ * perché la maggior parte dei nodi non raggiunti trova subito un vicino nella
+ * frontiera. La scelta viene fatta ad ogni livello confrontando il numero di
+ * archi uscenti dalla frontiera con quello degli archi dei nodi non ancora
+ * raggiunti e il numero di nodi della frontiera con il numero totale di nodi.
+ * Entrambi i modi vengono eseguiti in parallelo con il framework fork/join,
+ * suddividendo i bit della frontiera in intervalli di parole.
+ *
+ * Lo stato di ogni visita è tenuto fuori dal visitatore: distanze, colori e
+ * predecessori in un TraversalContext, frontiere e insieme dei nodi raggiunti
+ * in insiemi di bit creati per la visita. Con un contesto diverso per ogni
+ * visita lo stesso visitatore può quindi eseguire più visite
+ * contemporaneamente. La visita a partire da un GraphNode usa invece il
+ * contesto del visitatore e ne copia i risultati nei campi integerDistance,
+ * previous e color dei nodi del grafo CSR, come fa la visita in ampiezza
+ * sequenziale.
+ *
+ * @author Template: Luca Tesei, Implementazione: collettiva
+ *
+ * @param <L>
+ *                le etichette dei nodi del grafo
+ */
+public class ParallelBFSVisitor<L> {
+
+    /*
+     * Un passo dall'alto passa al basso quando gli archi uscenti dalla
+     * frontiera superano la frazione 1 / ALPHA degli archi dei nodi non
+     * raggiunti; torna all'alto quando i nodi della frontiera sono meno della
+     * frazione 1 / BETA dei nodi.
+     */
+    private static final int ALPHA = 14;
+
+    private static final int BETA = 24;
+
+    /*
+     * Numero di parole della frontiera sotto il quale un intervallo viene
+     * elaborato da un solo thread.
+     */
+    private static final int THRESHOLD = 64;
+
+    /*
+     * Il grafo da visitare.
+     */
+    private final CompressedSparseRowGraph<L> graph;
+
+    /*
+     * Pool di thread che esegue i passi della visita.
+     */
+    private final ForkJoinPool pool;
+
+    /*
+     * Contesto usato dalle visite che non ne specificano uno.
+     */
+    private final TraversalContext context;
+
+    // Numero di passi dal basso verso l'alto eseguiti nell'ultima visita,
+    // protected per permettere il test JUnit
+    protected int bottomUpSteps;
+
+    /**
+     * Crea un visitatore per un grafo in formato CSR che usa il pool fork/join
+     * comune della JVM.
+     *
+     * @param graph
+     *                  il grafo da visitare
+     * @throws NullPointerException
+     *                                  se il grafo è nullo
+     */
+    public ParallelBFSVisitor(CompressedSparseRowGraph<L> graph) {
+        this(graph, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Crea un visitatore per un grafo in formato CSR che usa il pool fork/join
+     * passato.
+     *
+     * @param graph
+     *                  il grafo da visitare
+     * @param pool
+     *                  il pool di thread in cui eseguire la visita
+     * @throws NullPointerException
+     *                                  se il grafo o il pool sono nulli
+     */
+    public ParallelBFSVisitor(CompressedSparseRowGraph<L> graph,
+            ForkJoinPool pool) {
+        if (graph == null || pool == null)
+            throw new NullPointerException("Grafo o pool di thread nulli");
+        this.graph = graph;
+        this.pool = pool;
+        this.context = new TraversalContext(graph);
+    }
+
+    /**
+     * Esegue la visita in ampiezza del grafo a partire da un nodo sorgente.
+     * Al termine i nodi raggiunti sono neri e hanno come distanza intera il
+     * numero minimo di archi dalla sorgente e come predecessore il padre in un
+     * albero di copertura dei nodi raggiungibili; gli altri nodi sono bianchi,
+     * con distanza -1 e predecessore null.
+     *
+     * @param source
+     *                   il nodo sorgente
+     * @throws NullPointerException
+     *                                      se il nodo sorgente è nullo
+     * @throws IllegalArgumentException
+     *                                      se il nodo sorgente non appartiene
+     *                                      al grafo
+     */
+    public void BFSVisit(GraphNode<L> source) {
+        if (source == null)
+            throw new NullPointerException("Nodo sorgente nullo");
+        this.BFSVisit(this.graph.getNodeIndexOf(source), this.context);
+        this.context.copyTo(this.graph);
+    }
+
+    /**
+     * Esegue la visita in ampiezza del grafo a partire da un nodo sorgente,
+     * scrivendo i risultati nel contesto passato. Al termine i nodi raggiunti
+     * sono neri e hanno distanza e predecessore calcolati, gli altri sono
+     * nello stato iniziale del contesto. I nodi del grafo non vengono
+     * modificati.
+     *
+     * @param source
+     *                    l'indice del nodo sorgente
+     * @param context
+     *                    il contesto in cui memorizzare lo stato della visita
+     * @throws NullPointerException
+     *                                       se il contesto è nullo
+     * @throws IllegalArgumentException
+     *                                       se il contesto non ha lo stesso
+     *                                       numero di nodi del grafo
+     * @throws IndexOutOfBoundsException
+     *                                       se l'indice della sorgente non è
+     *                                       valido
+     */
+    public void BFSVisit(int source, TraversalContext context) {
+        if (context == null)
+            throw new NullPointerException("Contesto nullo!");
+        int n = this.graph.nodeCount();
+        if (context.nodeCount() != n)
+            throw new IllegalArgumentException(
+                    "Il contesto non ha lo stesso numero di nodi del grafo");
+        if (source < 0 || source >= n)
+            throw new IndexOutOfBoundsException("Indice non valido!");
+        context.reset();
+        Level state = new Level(context, (n + 63) >>> 6);
+        int words = state.frontier.length;
+        int steps = 0;
+
+        context.integerDistance[source] = 0;
+        context.color[source] = GraphNode.COLOR_BLACK;
+        state.visited.set(source >>> 6, 1L << source);
+        state.frontier[source >>> 6] = 1L << source;
+        long frontierNodes = 1;
+        long frontierEdges = this.outDegree(source);
+        // La fine dell'ultima riga è il numero totale di posizioni CSR
+        long unexploredEdges = this.graph.getRowEnd(n - 1) - frontierEdges;
+        boolean bottomUp = false;
+        while (frontierNodes > 0) {
+            if (!bottomUp && frontierEdges > unexploredEdges / ALPHA)
+                bottomUp = true;
+            else if (bottomUp && frontierNodes < n / BETA)
+                bottomUp = false;
+            if (bottomUp)
+                steps++;
+            for (int w = 0; w < words; w++)
+                state.next.set(w, 0);
+            state.level++;
+            this.pool.invoke(new StepTask(state, 0, words, bottomUp));
+            // La frontiera successiva diventa quella corrente
+            frontierNodes = 0;
+            frontierEdges = 0;
+            for (int w = 0; w < words; w++) {
+                long bits = state.next.get(w);
+                state.frontier[w] = bits;
+                while (bits != 0) {
+                    int u = (w << 6) + Long.numberOfTrailingZeros(bits);
+                    bits &= bits - 1;
+                    frontierNodes++;
+                    frontierEdges += this.outDegree(u);
+                }
+            }
+            unexploredEdges -= frontierEdges;
+        }
+        this.bottomUpSteps = steps;
+    }
+
+    /**
+     * Restituisce la distanza dalla sorgente calcolata dall'ultima visita che
+     * ha usato il contesto del visitatore.
+     *
+     * @param i
+     *              l'indice di un nodo
+     * @return il numero minimo di archi dalla sorgente al nodo, -1 se il nodo
+     *         non è stato raggiunto
+     * @throws IndexOutOfBoundsException
+     *                                       se l'indice non è valido
+     */
+    public int getDistance(int i) {
+        return this.context.getIntegerDistance(i);
+    }
+
+    /**
+     * Restituisce il predecessore calcolato dall'ultima visita che ha usato il
+     * contesto del visitatore.
+     *
+     * @param i
+     *              l'indice di un nodo
+     * @return l'indice del predecessore del nodo nell'albero della visita, -1
+     *         se il nodo è la sorgente o non è stato raggiunto
+     * @throws IndexOutOfBoundsException
+     *                                       se l'indice non è valido
+     */
+    public int getPrevious(int i) {
+        return this.context.getPrevious(i);
+    }
+
+    private int outDegree(int u) {
+        return this.graph.getRowEnd(u) - this.graph.getRowStart(u);
+    }
+
+    /*
+     * Stato di una visita in corso: il contesto, l'insieme dei nodi raggiunti,
+     * la frontiera corrente e quella successiva e il livello della frontiera
+     * successiva.
+     */
+    private static class Level {
+
+        private final TraversalContext context;
+
+        private final AtomicLongArray visited;
+
+        private final long[] frontier;
+
+        private final AtomicLongArray next;
+
+        private int level;
+
+        Level(TraversalContext context, int words) {
+            this.context = context;
+            this.visited = new AtomicLongArray(words);
+            this.frontier = new long[words];
+            this.next = new AtomicLongArray(words);
+            this.level = 0;
+        }
+    }
+
+    /*
+     * Compito che calcola la parte della frontiera successiva relativa a un
+     * intervallo di parole della frontiera corrente.
+     */
+    private class StepTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Level state;
+
+        private final int from;
+
+        private final int to;
+
+        private final boolean bottomUp;
+
+        StepTask(Level state, int from, int to, boolean bottomUp) {
+            this.state = state;
+            this.from = from;
+            this.to = to;
+            this.bottomUp = bottomUp;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.to - this.from > THRESHOLD) {
+                int middle = (this.from + this.to) >>> 1;
+                invokeAll(
+                        new StepTask(this.state, this.from, middle,
+                                this.bottomUp),
+                        new StepTask(this.state, middle, this.to,
+                                this.bottomUp));
+                return;
+            }
+            if (this.bottomUp)
+                this.bottomUpStep();
+            else
+                this.topDownStep();
+        }
+
+        /*
+         * I nodi della frontiera nelle parole dell'intervallo reclamano i loro
+         * vicini non raggiunti. Più nodi possono tentare di reclamare lo
+         * stesso vicino: vince il primo compare-and-set sull'insieme dei nodi
+         * raggiunti, che è l'unico a scrivere i dati del vicino.
+         */
+        private void topDownStep() {
+            long[] frontier = this.state.frontier;
+            AtomicLongArray visited = this.state.visited;
+            AtomicLongArray next = this.state.next;
+            TraversalContext context = this.state.context;
+            int level = this.state.level;
+            for (int w = this.from; w < this.to; w++) {
+                long bits = frontier[w];
+                while (bits != 0) {
+                    int u = (w << 6) + Long.numberOfTrailingZeros(bits);
+                    bits &= bits - 1;
+                    int end = graph.getRowEnd(u);
+                    for (int k = graph.getRowStart(u); k < end; k++) {
+                        int v = graph.getTargetAt(k);
+                        int vw = v >>> 6;
+                        long bit = 1L << v;
+                        long old = visited.get(vw);
+                        while ((old & bit) == 0
+                                && !visited.compareAndSet(vw, old, old | bit))
+                            old = visited.get(vw);
+                        if ((old & bit) != 0)
+                            continue;
+                        context.integerDistance[v] = level;
+                        context.previous[v] = u;
+                        context.color[v] = GraphNode.COLOR_BLACK;
+                        old = next.get(vw);
+                        while (!next.compareAndSet(vw, old, old | bit))
+                            old = next.get(vw);
+                    }
+                }
+            }
+        }
+
+        /*
+         * I nodi non raggiunti delle parole dell'intervallo cercano un
+         * predecessore nella frontiera. Ogni parola è elaborata da un solo
+         * compito, per cui non servono compare-and-set.
+         */
+        private void bottomUpStep() {
+            long[] frontier = this.state.frontier;
+            AtomicLongArray visited = this.state.visited;
+            TraversalContext context = this.state.context;
+            int level = this.state.level;
+            int n = context.nodeCount();
+            for (int w = this.from; w < this.to; w++) {
+                long reached = visited.get(w);
+                long bits = 0;
+                int last = Math.min(n, (w + 1) << 6);
+                for (int v = w << 6; v < last; v++) {
+                    if ((reached & (1L << v)) != 0)
+                        continue;
+                    int end = graph.getInRowEnd(v);
+                    for (int k = graph.getInRowStart(v); k < end; k++) {
+                        int u = graph.getSourceAt(k);
+                        if ((frontier[u >>> 6] & (1L << u)) != 0) {
+                            context.integerDistance[v] = level;
+                            context.previous[v] = u;
+                            context.color[v] = GraphNode.COLOR_BLACK;
+                            bits |= 1L << v;
+                            break;
+                        }
+                    }
+                }
+                visited.set(w, reached | bits);
+                this.state.next.set(w, bits);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,109 @@
+package it.unicam.cs.asdl2324.mp2;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Classe di test per la classe ParallelBFSVisitor.
+ *
+ * @author Template: Luca Tesei, Implementazione: collettiva
+ */
+class ParallelBFSVisitorTest {
+
+    @Test
+    final void testBFSVisit() {
+        Graph<String> source = new AdjacencyMatrixUndirectedGraph<String>();
+        source.addNode("s");
+        source.addNode("u");
+        source.addNode("x");
+        source.addNode("y");
+        source.addNode("z");
+        source.addEdge("s", "u");
+        source.addEdge("s", "x");
+        source.addEdge("u", "y");
+        source.addEdge("x", "y");
+        CompressedSparseRowGraph<String> g = new CompressedSparseRowGraph<String>(
+                source);
+        ParallelBFSVisitor<String> v = new ParallelBFSVisitor<String>(g);
+        v.BFSVisit(new GraphNode<String>("s"));
+        GraphNode<String> s = g.getNode("s");
+        GraphNode<String> y = g.getNode("y");
+        GraphNode<String> z = g.getNode("z");
+        assertEquals(0, s.getIntegerDistance());
+        assertNull(s.getPrevious());
+        assertEquals(GraphNode.COLOR_BLACK, s.getColor());
+        assertEquals(2, y.getIntegerDistance());
+        assertTrue(y.getPrevious().getLabel().equals("u")
+                || y.getPrevious().getLabel().equals("x"));
+        assertEquals(-1, z.getIntegerDistance());
+        assertNull(z.getPrevious());
+        assertEquals(GraphNode.COLOR_WHITE, z.getColor());
+        assertEquals(2, v.getDistance(g.getNodeIndexOf("y")));
+        assertEquals(-1, v.getPrevious(g.getNodeIndexOf("s")));
+    }
+
+    @Test
+    final void testSameDistancesAsSequentialBFS() {
+        // Grafo casuale abbastanza denso da passare alla visita dal basso
+        // verso l'alto e abbastanza grande da dividere il lavoro tra i thread
+        Random random = new Random(17);
+        int n = 10000;
+        Graph<Integer> source = new BitsetAdjacencyMatrixUndirectedGraph<Integer>();
+        for (int i = 0; i < n; i++)
+            source.addNode(i);
+        for (int k = 0; k < 8 * n; k++)
+            source.addEdge(random.nextInt(n), random.nextInt(n));
+        CompressedSparseRowGraph<Integer> g = new CompressedSparseRowGraph<Integer>(
+                source);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        ParallelBFSVisitor<Integer> parallel = new ParallelBFSVisitor<Integer>(
+                g, pool);
+        IndexedBFSVisitor<Integer> sequential = new IndexedBFSVisitor<Integer>(
+                g);
+        for (int s = 0; s < 3; s++) {
+            parallel.BFSVisit(g.getNode(s));
+            sequential.BFSVisit(s);
+            assertTrue(parallel.bottomUpSteps > 0);
+            TraversalContext c = new TraversalContext(g);
+            parallel.BFSVisit(s, c);
+            for (int i = 0; i < n; i++) {
+                assertEquals(sequential.getDistance(i), parallel.getDistance(i));
+                assertEquals(sequential.getDistance(i),
+                        c.getIntegerDistance(i));
+                assertEquals(sequential.getDistance(i),
+                        g.getNode(i).getIntegerDistance());
+                int p = parallel.getPrevious(i);
+                // Il predecessore può essere diverso, ma deve essere un vicino
+                // al livello precedente
+                if (p != -1) {
+                    assertEquals(parallel.getDistance(i) - 1,
+                            parallel.getDistance(p));
+                    assertNotNull(g.getEdge(p, i));
+                    assertEquals(g.getNode(p), g.getNode(i).getPrevious());
+                }
+            }
+        }
+        pool.shutdown();
+    }
+
+    @Test
+    final void testExceptions() {
+        Graph<String> source = new AdjacencyMatrixUndirectedGraph<String>();
+        source.addNode("s");
+        CompressedSparseRowGraph<String> g = new CompressedSparseRowGraph<String>(
+                source);
+        assertThrows(NullPointerException.class,
+                () -> new ParallelBFSVisitor<String>(null));
+        assertThrows(NullPointerException.class,
+                () -> new ParallelBFSVisitor<String>(g, null));
+        ParallelBFSVisitor<String> v = new ParallelBFSVisitor<String>(g);
+        assertThrows(NullPointerException.class, () -> v.BFSVisit(null));
+        assertThrows(IllegalArgumentException.class,
+                () -> v.BFSVisit(new GraphNode<String>("t")));
+    }
+
+}
@@ -0,0 +1,279 @@
+package it.unicam.cs.asdl2324.mp2;
+
+import java.util.Arrays;
+
+//ATTENZIONE: è vietato includere import a pacchetti che non siano della Java SE
+
+/**
+ * Stato di una singola visita o di un singolo calcolo su un grafo, tenuto
+ * fuori dagli oggetti GraphNode. Per ogni nodo, identificato dal suo indice
+ * nel grafo, il contesto memorizza in array di tipo primitivo gli stessi dati
+ * che altrimenti verrebbero scritti nei campi dei nodi: colore, distanza
+ * intera, distanza in virgola mobile, tempi di scoperta e di fine visita e
+ * indice del predecessore (-1 se il nodo non ha predecessore). Il contesto
+ * contiene anche due array di lavoro di un intero per nodo, usati dagli
+ * algoritmi come coda o pila.
+ *
+ * Gli algoritmi che accettano un contesto non modificano i nodi del grafo:
+ * usando un contesto diverso per ogni interrogazione, lo stesso grafo può
+ * essere visitato da più thread contemporaneamente, purché nessuno lo
+ * modifichi. Un contesto non può invece essere usato da due interrogazioni
+ * contemporanee. Il metodo copyTo riporta i dati del contesto nei nodi del
+ * grafo per il codice che li legge da lì.
+ *
+ * @author Template: Luca Tesei, Implementazione: collettiva
+ *
+ */
+public class TraversalContext {
+
+    /*
+     * Dati dei nodi, in posizione i quelli del nodo di indice i.
+     */
+    final int[] color;
+
+    final int[] integerDistance;
+
+    final double[] floatingPointDistance;
+
+    final int[] enteringTime;
+
+    final int[] exitingTime;
+
+    final int[] previous;
+
+    /*
+     * Array di lavoro degli algoritmi.
+     */
+    final int[] queue;
+
+    final int[] cursor;
+
+    /**
+     * Crea un contesto per un grafo con un certo numero di nodi, con tutti i
+     * nodi nello stato iniziale descritto in reset.
+     *
+     * @param nodeCount
+     *                      il numero di nodi del grafo
+     * @throws IllegalArgumentException
+     *                                      se il numero di nodi è negativo
+     */
+    public TraversalContext(int nodeCount) {
+        if (nodeCount < 0)
+            throw new IllegalArgumentException("Numero di nodi negativo");
+        this.color = new int[nodeCount];
+        this.integerDistance = new int[nodeCount];
+        this.floatingPointDistance = new double[nodeCount];
+        this.enteringTime = new int[nodeCount];
+        this.exitingTime = new int[nodeCount];
+        this.previous = new int[nodeCount];
+        this.queue = new int[nodeCount];
+        this.cursor = new int[nodeCount];
+        this.reset();
+    }
+
+    /**
+     * Crea un contesto per un grafo, con tutti i nodi nello stato iniziale
+     * descritto in reset. Il contesto resta valido finché il grafo non cambia
+     * numero di nodi o indici.
+     *
+     * @param g
+     *              il grafo
+     * @throws NullPointerException
+     *                                  se il grafo è nullo
+     */
+    public TraversalContext(Graph<?> g) {
+        this(g.nodeCount());
+    }
+
+    /**
+     * Riporta tutti i nodi allo stato iniziale: colore bianco, distanza intera
+     * -1, distanza in virgola mobile infinita, tempi 0 e nessun predecessore.
+     */
+    public void reset() {
+        Arrays.fill(this.color, GraphNode.COLOR_WHITE);
+        Arrays.fill(this.integerDistance, -1);
+        Arrays.fill(this.floatingPointDistance, Double.POSITIVE_INFINITY);
+        Arrays.fill(this.enteringTime, 0);
+        Arrays.fill(this.exitingTime, 0);
+        Arrays.fill(this.previous, -1);
+    }
+
+    /**
+     * Restituisce il numero di nodi del grafo a cui si riferisce il contesto.
+     *
+     * @return il numero di nodi
+     */
+    public int nodeCount() {
+        return this.color.length;
+    }
+
+    /**
+     * @param i
+     *              l'indice di un nodo
+     * @return il colore del nodo
+     * @throws IndexOutOfBoundsException
+     *                                       se l'indice non è valido
+     */
+    public int getColor(int i) {
+        return this.color[i];
+    }
+
+    /**
+     * @param i
+     *                  l'indice di un nodo
+     * @param color
+     *                  il nuovo colore del nodo
+     * @throws IndexOutOfBoundsException
+     *                                       se l'indice non è valido
+     */
+    public void setColor(int i, int color) {
+        this.color[i] = color;
+    }
+
+    /**
+     * @param i
+     *              l'indice di un nodo
+     * @return la distanza intera del nodo, -1 se non calcolata
+     * @throws IndexOutOfBoundsException
+     *                                       se l'indice non è valido
+     */
+    public int getIntegerDistance(int i) {
+        return this.integerDistance[i];
+    }
+
+    /**
+     * @param i
+     *                     l'indice di un nodo
+     * @param distance
+     *                     la nuova distanza intera del nodo
+     * @throws IndexOutOfBoundsException
+     *                                       se l'indice non è valido
+     */
+    public void setIntegerDistance(int i, int distance) {
+        this.integerDistance[i] = distance;
+    }
+
+    /**
+     * @param i
+     *              l'indice di un nodo
+     * @return la distanza in virgola mobile del nodo
+     * @throws IndexOutOfBoundsException
+     *                                       se l'indice non è valido
+     */
+    public double getFloatingPointDistance(int i) {
+        return this.floatingPointDistance[i];
+    }
+
+    /**
+     * @param i
+     *                     l'indice di un nodo
+     * @param distance
+     *                     la nuova distanza in virgola mobile del nodo
+     * @throws IndexOutOfBoundsException
+     *                                       se l'indice non è valido
+     */
+    public void setFloatingPointDistance(int i, double distance) {
+        this.floatingPointDistance[i] = distance;
+    }
+
+    /**
+     * @param i
+     *              l'indice di un nodo
+     * @return il tempo di scoperta del nodo
+     * @throws IndexOutOfBoundsException
+     *                                       se l'indice non è valido
+     */
+    public int getEnteringTime(int i) {
+        return this.enteringTime[i];
+    }
+
+    /**
+     * @param i
+     *                 l'indice di un nodo
+     * @param time
+     *                 il nuovo tempo di scoperta del nodo
+     * @throws IndexOutOfBoundsException
+     *                                       se l'indice non è valido
+     */
+    public void setEnteringTime(int i, int time) {
+        this.enteringTime[i] = time;
+    }
+
+    /**
+     * @param i
+     *              l'indice di un nodo
+     * @return il tempo di fine visita del nodo
+     * @throws IndexOutOfBoundsException
+     *                                       se l'indice non è valido
+     */
+    public int getExitingTime(int i) {
+        return this.exitingTime[i];
+    }
+
+    /**
+     * @param i
+     *                 l'indice di un nodo
+     * @param time
+     *                 il nuovo tempo di fine visita del nodo
+     * @throws IndexOutOfBoundsException
+     *                                       se l'indice non è valido
+     */
+    public void setExitingTime(int i, int time) {
+        this.exitingTime[i] = time;
+    }
+
+    /**
+     * @param i
+     *              l'indice di un nodo
+     * @return l'indice del predecessore del nodo, -1 se non ha predecessore
+     * @throws IndexOutOfBoundsException
+     *                                       se l'indice non è valido
+     */
+    public int getPrevious(int i) {
+        return this.previous[i];
+    }
+
+    /**
+     * @param i
+     *                     l'indice di un nodo
+     * @param previous
+     *                     l'indice del nuovo predecessore del nodo, -1 per
+     *                     nessun predecessore
+     * @throws IndexOutOfBoundsException
+     *                                       se l'indice non è valido
+     */
+    public void setPrevious(int i, int previous) {
+        this.previous[i] = previous;
+    }
+
+    /**
+     * Copia i dati del contesto nei campi dei nodi del grafo. Il grafo deve
+     * essere quello per cui il contesto è stato usato.
+     *
+     * @param g
+     *              il grafo
+     * @throws NullPointerException
+     *                                      se il grafo è nullo
+     * @throws IllegalArgumentException
+     *                                      se il grafo non ha lo stesso numero
+     *                                      di nodi del contesto
+     */
+    public <L> void copyTo(Graph<L> g) {
+        if (g == null)
+            throw new NullPointerException("Grafo nullo!");
+        if (g.nodeCount() != this.color.length)
+            throw new IllegalArgumentException(
+                    "Il grafo non ha lo stesso numero di nodi del contesto");
+        for (int i = 0; i < this.color.length; i++) {
+            GraphNode<L> node = g.getNode(i);
+            node.setColor(this.color[i]);
+            node.setIntegerDistance(this.integerDistance[i]);
+            node.setFloatingPointDistance(this.floatingPointDistance[i]);
+            node.setEnteringTime(this.enteringTime[i]);
+            node.setExitingTime(this.exitingTime[i]);
+            node.setPrevious(
+                    this.previous[i] == -1 ? null : g.getNode(this.previous[i]));
+        }
+    }
+
+}
@@ -0,0 +1,76 @@
+package it.unicam.cs.asdl2324.mp2;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Classe di test per la classe TraversalContext.
+ *
+ * @author Template: Luca Tesei, Implementazione: collettiva
+ */
+class TraversalContextTest {
+
+    @Test
+    final void testTraversalContext() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new TraversalContext(-1));
+        assertThrows(NullPointerException.class,
+                () -> new TraversalContext((Graph<String>) null));
+        TraversalContext c = new TraversalContext(3);
+        assertEquals(3, c.nodeCount());
+        for (int i = 0; i < 3; i++) {
+            assertEquals(GraphNode.COLOR_WHITE, c.getColor(i));
+            assertEquals(-1, c.getIntegerDistance(i));
+            assertEquals(Double.POSITIVE_INFINITY,
+                    c.getFloatingPointDistance(i));
+            assertEquals(0, c.getEnteringTime(i));
+            assertEquals(0, c.getExitingTime(i));
+            assertEquals(-1, c.getPrevious(i));
+        }
+        assertThrows(IndexOutOfBoundsException.class, () -> c.getColor(3));
+    }
+
+    @Test
+    final void testReset() {
+        TraversalContext c = new TraversalContext(2);
+        c.setColor(1, GraphNode.COLOR_BLACK);
+        c.setIntegerDistance(1, 4);
+        c.setFloatingPointDistance(1, 2.5);
+        c.setEnteringTime(1, 3);
+        c.setExitingTime(1, 6);
+        c.setPrevious(1, 0);
+        assertEquals(GraphNode.COLOR_BLACK, c.getColor(1));
+        assertEquals(4, c.getIntegerDistance(1));
+        assertEquals(2.5, c.getFloatingPointDistance(1));
+        assertEquals(3, c.getEnteringTime(1));
+        assertEquals(6, c.getExitingTime(1));
+        assertEquals(0, c.getPrevious(1));
+        c.reset();
+        assertEquals(GraphNode.COLOR_WHITE, c.getColor(1));
+        assertEquals(-1, c.getIntegerDistance(1));
+        assertEquals(-1, c.getPrevious(1));
+    }
+
+    @Test
+    final void testCopyTo() {
+        Graph<String> g = new AdjacencyMatrixUndirectedGraph<String>();
+        g.addNode("a");
+        g.addNode("b");
+        TraversalContext c = new TraversalContext(g);
+        int a = g.getNodeIndexOf("a");
+        int b = g.getNodeIndexOf("b");
+        c.setIntegerDistance(b, 1);
+        c.setPrevious(b, a);
+        c.setColor(b, GraphNode.COLOR_BLACK);
+        c.copyTo(g);
+        assertEquals(1, g.getNode("b").getIntegerDistance());
+        assertEquals(g.getNode("a"), g.getNode("b").getPrevious());
+        assertEquals(GraphNode.COLOR_BLACK, g.getNode("b").getColor());
+        assertNull(g.getNode("a").getPrevious());
+        assertThrows(NullPointerException.class, () -> c.copyTo(null));
+        assertThrows(IllegalArgumentException.class,
+                () -> new TraversalContext(3).copyTo(g));
+    }
+
+}